@@ -38,6 +38,7 @@ public class Main {
         // Handler para shutdown gracioso
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             Logger.info(id, "🛑 Encerrando nó...");
+            api.parar();
             monitor.parar();
             no.parar();
             Logger.info(id, "✓ Nó encerrado corretamente");
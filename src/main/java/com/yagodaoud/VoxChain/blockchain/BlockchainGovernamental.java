@@ -1,15 +1,25 @@
 package com.yagodaoud.VoxChain.blockchain;
 
 import com.yagodaoud.VoxChain.blockchain.core.*;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BinaryReader;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BinaryWriter;
 import com.yagodaoud.VoxChain.blockchain.indices.EntityIndexManager;
+import com.yagodaoud.VoxChain.blockchain.indices.TransactionIdIndex;
 import com.yagodaoud.VoxChain.blockchain.indices.VoteRegistry;
 import com.yagodaoud.VoxChain.blockchain.sync.ChainSynchronizer;
 import com.yagodaoud.VoxChain.blockchain.sync.ConflictResolver;
+import com.yagodaoud.VoxChain.config.ConfigManager;
 import com.yagodaoud.VoxChain.modelo.*;
 import com.yagodaoud.VoxChain.utils.Logger;
 
 import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Classe principal da Blockchain Governamental.
@@ -19,61 +29,147 @@ import java.util.List;
  * - Coordenar operações entre componentes
  * - Expor API simplificada para o restante do sistema
  * - Manter configurações globais (dificuldade, limites)
+ *
+ * Concorrência: consultas leem o snapshot imutável da {@link Chain} e os índices
+ * concorrentes, sem lock. Só quem altera a cadeia (anexar bloco, reorganizar, fechar)
+ * passa pelo lock de escrita, então a API não espera mineração nem sincronização.
+ *
+ * Reorganização: para os {@link #MAX_PROFUNDIDADE_REORG} blocos mais recentes é mantido
+ * o registro do que cada um alterou nos índices. Um fork dentro dessa profundidade é
+ * aplicado desfazendo só os blocos órfãos e aplicando só o novo ramo.
+ *
+ * Persistência: com um {@link BlockStore}, o estado derivado (IDs confirmados, índices
+ * e votos) é gravado num snapshot a cada {@link #BLOCOS_POR_SNAPSHOT} blocos e no
+ * fechamento. No reinício o snapshot é restaurado e só os blocos posteriores a ele são
+ * aplicados; sem snapshot válido, o estado é reconstruído da cadeia inteira.
  */
 public class BlockchainGovernamental implements Serializable {
     private static final long serialVersionUID = 1L;
 
+    public static final int MAX_PROFUNDIDADE_REORG = Chain.JANELA_BLOCOS_RECENTES;
+    static final int BLOCOS_POR_SNAPSHOT = 1000;
+    private static final int VERSAO_SNAPSHOT = 2;
+
     private final Chain chain;
+    private final BlockStore store;
     private final TransactionPool pool;
+    private final TransactionIdIndex idsConfirmados;
     private final BlockValidator validator;
     private final EntityIndexManager indices;
     private final VoteRegistry votos;
+    private final CheckpointCache checkpoints;
     private final ChainSynchronizer synchronizer;
     private final ConflictResolver conflictResolver;
-    private boolean modoTeste = false;
+    private final ReentrantLock escritor = new ReentrantLock();
+    private final Deque<RegistroDesfazer> desfazer = new ArrayDeque<>();
+    private volatile boolean modoTeste = false;
 
     public BlockchainGovernamental() {
         this(2, 5);
     }
 
     public BlockchainGovernamental(int dificuldade, int transacoesMaximasPorBloco) {
-        this.chain = new Chain(dificuldade);
-        this.pool = new TransactionPool(transacoesMaximasPorBloco);
-        this.validator = new BlockValidator(dificuldade);
+        this(dificuldade, transacoesMaximasPorBloco, null);
+    }
+
+    /**
+     * @param store armazenamento persistente dos blocos, ou null para manter a cadeia só em memória
+     */
+    public BlockchainGovernamental(int dificuldade, int transacoesMaximasPorBloco, BlockStore store) {
+        this.chain = new Chain(dificuldade, store);
+        this.store = store;
+        this.idsConfirmados = new TransactionIdIndex(this::transacaoEstaNoBloco);
         this.indices = new EntityIndexManager();
-        this.synchronizer = new ChainSynchronizer(chain, validator);
+        // Votos e candidaturas esperam a eleição estar confirmada na cadeia, não só fora do pool
+        this.pool = new TransactionPool(transacoesMaximasPorBloco, idsConfirmados,
+                new DefaultSelectionPolicy(eleicaoId -> indices.buscarEleicao(eleicaoId) != null),
+                ConfigManager.getLimitesPool());
+        this.validator = new BlockValidator(dificuldade);
+        this.checkpoints = new CheckpointCache(chain);
+        this.synchronizer = new ChainSynchronizer(chain, validator, checkpoints);
         this.votos = new VoteRegistry();
-        this.conflictResolver = new ConflictResolver(validator);
+        this.conflictResolver = new ConflictResolver(validator, checkpoints);
+
+        // Cadeia recarregada do disco: restaura o estado derivado do snapshot ou dos blocos
+        if (chain.getTamanho() > 1 && !restaurarEstado()) {
+            reconstruirEstado();
+        }
     }
 
     // ========== OPERAÇÕES DE TRANSAÇÕES ==========
 
-    public synchronized boolean adicionarAoPool(Transacao transacao) {
-        if (!pool.adicionar(transacao)) {
-            return false;
+    /**
+     * Adiciona uma transação ao pool. Não usa o lock da blockchain: o pool é
+     * concorrente, então submissões de várias threads da API não se bloqueiam.
+     *
+     * @return ACEITA, ou o motivo da recusa (duplicada, inválida ou contrapressão do pool)
+     */
+    public ResultadoAdmissao adicionarAoPool(Transacao transacao) {
+        ResultadoAdmissao resultado = pool.adicionar(transacao);
+        if (!resultado.isAceita()) {
+            return resultado;
         }
 
         if (modoTeste && pool.temTransacoes()) {
             minerarImediato();
         }
 
-        return true;
+        return resultado;
     }
 
-    public synchronized boolean transacaoExiste(Transacao transacao) {
-        if (transacao == null || transacao.getId() == null) {
-            return false;
+    /**
+     * Admite todas as transações no pool ou nenhuma; ver {@link TransactionPool#adicionarLote}.
+     */
+    public ResultadoAdmissao adicionarLoteAoPool(List<Transacao> transacoes) {
+        ResultadoAdmissao resultado = pool.adicionarLote(transacoes);
+        if (resultado.isAceita() && modoTeste) {
+            minerarImediato();
         }
+        return resultado;
+    }
 
-        // Verifica no pool
-        if (pool.existe(transacao.getId())) {
-            return true;
+    /**
+     * Como {@link #adicionarAoPool}, mas lança {@link AdmissaoRecusadaException} quando o
+     * pool recusa a transação por contrapressão. Usado pelos serviços da API.
+     */
+    public void submeterAoPool(Transacao transacao) {
+        ResultadoAdmissao resultado = adicionarAoPool(transacao);
+        if (resultado.isContrapressao()) {
+            throw new AdmissaoRecusadaException(resultado);
         }
+    }
 
-        // Verifica na blockchain
-        return chain.obterTodosBlocos().stream()
-                .flatMap(b -> b.getTransacoes().stream())
-                .anyMatch(t -> t != null && transacao.getId().equals(t.getId()));
+    /**
+     * Verifica se a transação está no pool ou já foi confirmada em algum bloco.
+     * Não usa o lock da blockchain: a consulta aos confirmados é feita no índice de IDs.
+     */
+    public boolean transacaoExiste(Transacao transacao) {
+        return transacao != null && transacaoExistePorId(transacao.getId());
+    }
+
+    public boolean transacaoExistePorId(String idTransacao) {
+        // Verifica no pool e no índice de transações confirmadas
+        return pool.existe(idTransacao);
+    }
+
+    public Transacao buscarTransacaoPendente(String idTransacao) {
+        return pool.buscar(idTransacao);
+    }
+
+    public List<Transacao> getTransacoesPendentes() {
+        return pool.obterTodas();
+    }
+
+    /**
+     * Confirmação exata usada pelo índice de IDs quando o digest coincide.
+     */
+    private boolean transacaoEstaNoBloco(String idTransacao, int altura) {
+        try {
+            return chain.obterBloco(altura).getTransacoes().stream()
+                    .anyMatch(t -> t != null && idTransacao.equals(t.getId()));
+        } catch (IndexOutOfBoundsException e) {
+            return false; // Cadeia encolheu numa reorganização concorrente
+        }
     }
 
     public int getPoolSize() {
@@ -86,7 +182,7 @@ public class BlockchainGovernamental implements Serializable {
 
     // ========== OPERAÇÕES DE BLOCOS ==========
 
-    public synchronized Bloco criarBlocoCandidato(String mineradoPor, Long timestampFixo) {
+    public Bloco criarBlocoCandidato(String mineradoPor, Long timestampFixo) {
         List<Transacao> transacoes = pool.obterParaBloco();
 
         if (transacoes.isEmpty()) {
@@ -96,30 +192,85 @@ public class BlockchainGovernamental implements Serializable {
         return chain.criarBlocoCandidato(transacoes, mineradoPor, timestampFixo);
     }
 
-    public synchronized void adicionarBloco(Bloco bloco) {
-        chain.adicionarBloco(bloco);
-        indices.atualizarComBloco(bloco);
+    public void adicionarBloco(Bloco bloco) {
+        escritor.lock();
+        try {
+            chain.adicionarBloco(bloco);
+            aplicarEfeitos(bloco);
+            if (store != null && chain.getTamanho() % BLOCOS_POR_SNAPSHOT == 0) {
+                salvarEstado();
+            }
+        } finally {
+            escritor.unlock();
+        }
+    }
+
+    /**
+     * Atualiza índices, registro de votos e pool com um bloco que entrou na cadeia e
+     * guarda o registro para desfazê-lo numa reorganização.
+     */
+    private void aplicarEfeitos(Bloco bloco) {
+        idsConfirmados.adicionarBloco(bloco);
+        pool.registrarConfirmadas(bloco);
+        desfazer.addLast(new RegistroDesfazer(bloco.getHash(),
+                indices.atualizarComBloco(bloco), votos.atualizarComBloco(bloco)));
+        if (desfazer.size() > MAX_PROFUNDIDADE_REORG) {
+            desfazer.pollFirst();
+        }
     }
 
-    public synchronized void limparTransacoesProcessadas(Bloco bloco) {
+    /**
+     * Valida o bloco contra a ponta atual, o anexa e remove do pool as transações
+     * incluídas, tudo sob o lock de escrita: um candidato montado sob o mesmo lock
+     * nunca vê a ponta nova com as transações dela ainda no pool.
+     *
+     * @return false se o bloco não estender a ponta atual ou for inválido
+     */
+    public boolean adicionarBlocoValidado(Bloco bloco) {
+        escritor.lock();
+        try {
+            if (!validarBloco(bloco)) {
+                return false;
+            }
+            adicionarBloco(bloco);
+            checkpoints.avancar(bloco);
+            limparTransacoesProcessadas(bloco);
+        } finally {
+            escritor.unlock();
+        }
+        return true;
+    }
+
+    public void limparTransacoesProcessadas(Bloco bloco) {
         pool.marcarComoProcessadas(bloco.getTransacoes());
     }
 
-    public synchronized void minerarImediato() {
-        Bloco bloco = criarBlocoCandidato("TEST-NODE", null);
-        if (bloco != null) {
+    public void minerarImediato() {
+        // Minera até esvaziar o pool. O candidato é montado sob o lock de escrita, mas a
+        // prova de trabalho roda fora dele. Se outra submissão anexar um bloco nesse meio
+        // tempo, a ponta muda, a inclusão falha e um novo candidato é montado sobre ela
+        while (true) {
+            Bloco bloco;
+            escritor.lock();
+            try {
+                bloco = criarBlocoCandidato("TEST-NODE", null);
+            } finally {
+                escritor.unlock();
+            }
+            if (bloco == null) {
+                return;
+            }
             bloco.minerarBloco(getDificuldade());
-
-            if (validarBloco(bloco)) {
-                adicionarBloco(bloco);
-                limparTransacoesProcessadas(bloco);
+            if (!adicionarBlocoValidado(bloco)
+                    && bloco.getHashAnterior().equals(chain.obterUltimoBloco().getHash())) {
+                return; // Inválido por outro motivo que não a ponta
             }
         }
     }
 
     // ========== VALIDAÇÃO ==========
 
-    public synchronized boolean validarBloco(Bloco bloco) {
+    public boolean validarBloco(Bloco bloco) {
         Bloco ultimoBloco = chain.obterUltimoBloco();
         BlockValidator.ValidationResult resultado = validator.validarBloco(bloco, ultimoBloco);
 
@@ -130,14 +281,23 @@ public class BlockchainGovernamental implements Serializable {
         return resultado.isValido();
     }
 
-    public synchronized boolean validarCadeia() {
-        BlockValidator.ValidationResult resultado = validator.validarCadeia(chain.obterTodosBlocos());
+    /**
+     * Valida a cadeia local de forma incremental: só os blocos posteriores ao último
+     * checkpoint validado são conferidos, e o checkpoint avança para a ponta.
+     */
+    public boolean validarCadeia() {
+        List<Bloco> blocos = chain.obterTodosBlocos();
+        BlockValidator.ValidationResult resultado =
+                validator.validarCadeia(blocos, checkpoints.prefixoConfiavel(blocos));
 
         if (!resultado.isValido()) {
             Logger.error(null, "[VALIDAÇÃO] " + resultado.getMensagem());
+            return false;
         }
 
-        return resultado.isValido();
+        Bloco ponta = blocos.get(blocos.size() - 1);
+        checkpoints.registrar(ponta.getIndice(), ponta.getHash());
+        return true;
     }
 
     /**
@@ -145,7 +305,7 @@ public class BlockchainGovernamental implements Serializable {
      * Verifica se o bloco é válido em relação ao seu pai, independente da ponta da
      * cadeia.
      */
-    public synchronized boolean validarBlocoContextual(Bloco bloco) {
+    public boolean validarBlocoContextual(Bloco bloco) {
         // 1. Se for bloco gênesis
         if (bloco.getIndice() == 0 && "0".equals(bloco.getHashAnterior())) {
             return true;
@@ -169,27 +329,219 @@ public class BlockchainGovernamental implements Serializable {
         return resultado.isValido();
     }
 
-    private Bloco buscarBlocoPorHash(String hash) {
-        return chain.obterTodosBlocos().stream()
-                .filter(b -> b.getHash().equals(hash))
-                .findFirst()
-                .orElse(null);
+    /**
+     * Busca um bloco da cadeia pelo hash usando o índice da {@link Chain}.
+     */
+    public Bloco buscarBlocoPorHash(String hash) {
+        return chain.obterBlocoPorHash(hash);
+    }
+
+    /**
+     * @return a altura do bloco com o hash informado na cadeia ativa, ou -1
+     */
+    public int buscarAlturaPorHash(String hash) {
+        return chain.obterAlturaPorHash(hash);
     }
 
     // ========== SINCRONIZAÇÃO ==========
 
-    public synchronized void substituir(List<Bloco> cadeiaRemota) {
-        ChainSynchronizer.SyncResult resultado = synchronizer.sincronizar(cadeiaRemota);
+    public void substituir(List<Bloco> cadeiaRemota) {
+        escritor.lock();
+        try {
+            // Blocos que deixarão a cadeia, lidos antes da troca
+            int divergencia = cadeiaRemota == null ? chain.getTamanho() : chain.encontrarDivergencia(cadeiaRemota);
+            List<Bloco> orfaos = new ArrayList<>(chain.obterTodosBlocos().subList(divergencia, chain.getTamanho()));
 
-        Logger.info(null, "[SYNC] " + resultado);
+            ChainSynchronizer.SyncResult resultado = synchronizer.sincronizar(cadeiaRemota);
 
-        if (resultado.isSucesso()) {
-            pool.limpar();
-            pool.reconstruirHistorico(chain.obterTodosBlocos());
-            indices.reconstruirIndices(chain.obterTodosBlocos());
+            Logger.info(null, "[SYNC] " + resultado);
+
+            if (resultado.isSucesso() && !reorganizar(divergencia, orfaos, cadeiaRemota)) {
+                Logger.info(null, "[REORG] Fork mais fundo que o histórico de desfazer, reconstruindo estado");
+                pool.limpar();
+                reconstruirEstado();
+            }
+        } finally {
+            escritor.unlock();
         }
     }
 
+    /**
+     * Desempate entre blocos concorrentes na mesma altura (mesmo bloco anterior): fica o de
+     * menor hash. Sem isso, nós que mineram ao mesmo tempo mantêm pontas diferentes até
+     * o próximo bloco.
+     *
+     * @return true se o bloco recebido passou a ser a ponta
+     */
+    public boolean desempatarPonta(Bloco concorrente) {
+        escritor.lock();
+        try {
+            Bloco ponta = chain.obterUltimoBloco();
+            int altura = ponta.getIndice();
+            if (altura == 0 || concorrente.getIndice() != altura
+                    || !ponta.getHashAnterior().equals(concorrente.getHashAnterior())
+                    || concorrente.getHash().compareTo(ponta.getHash()) >= 0) {
+                return false;
+            }
+            BlockValidator.ValidationResult resultado = validator.validarBloco(concorrente, chain.obterBloco(altura - 1));
+            if (!resultado.isValido()) {
+                Logger.error(null, "[VALIDAÇÃO] " + resultado.getMensagem());
+                return false;
+            }
+
+            List<Bloco> atual = chain.obterTodosBlocos();
+            List<Bloco> novaCadeia = new AbstractList<Bloco>() {
+                @Override
+                public Bloco get(int indice) {
+                    return indice == altura ? concorrente : atual.get(indice);
+                }
+
+                @Override
+                public int size() {
+                    return altura + 1;
+                }
+            };
+            chain.substituirCadeia(novaCadeia);
+            checkpoints.registrarPonta();
+
+            if (!reorganizar(altura, List.of(ponta), novaCadeia)) {
+                pool.limpar();
+                reconstruirEstado();
+            }
+            Logger.info(null, "[FORK] Ponta " + ponta.getHashTruncado(12) + " trocada por " +
+                    concorrente.getHashTruncado(12) + " (menor hash)");
+            return true;
+        } finally {
+            escritor.unlock();
+        }
+    }
+
+    /**
+     * Desfaz os efeitos dos blocos órfãos (do mais alto para o mais baixo), aplica os do
+     * novo ramo e devolve ao pool as transações órfãs que não entraram no novo ramo.
+     *
+     * @return false se não houver registro de desfazer para todos os órfãos; nesse caso
+     * o estado derivado precisa ser reconstruído
+     */
+    private boolean reorganizar(int divergencia, List<Bloco> orfaos, List<Bloco> novaCadeia) {
+        if (orfaos.size() > desfazer.size()) {
+            return false;
+        }
+
+        for (int i = orfaos.size() - 1; i >= 0; i--) {
+            Bloco orfao = orfaos.get(i);
+            RegistroDesfazer registro = desfazer.pollLast();
+            if (!registro.hash.equals(orfao.getHash())) {
+                return false;
+            }
+            votos.desfazer(registro.votos);
+            indices.desfazer(registro.entidades);
+            idsConfirmados.removerBloco(orfao);
+            pool.desfazerConfirmadas(orfao);
+        }
+
+        for (int i = divergencia; i < novaCadeia.size(); i++) {
+            Bloco bloco = novaCadeia.get(i);
+            aplicarEfeitos(bloco);
+            pool.marcarComoProcessadas(bloco.getTransacoes());
+        }
+
+        int devolvidas = 0;
+        for (Bloco orfao : orfaos) {
+            for (Transacao t : orfao.getTransacoes()) {
+                if (!conflitaComCadeia(t) && pool.adicionar(t).isAceita()) {
+                    devolvidas++;
+                }
+            }
+        }
+
+        Logger.info(null, String.format("[REORG] %d blocos desfeitos, %d aplicados, %d transações devolvidas ao pool",
+                orfaos.size(), novaCadeia.size() - divergencia, devolvidas));
+        return true;
+    }
+
+    /**
+     * Transações já confirmadas são recusadas pelo pool; votos também conflitam se o
+     * token já foi usado por outro voto confirmado.
+     */
+    private boolean conflitaComCadeia(Transacao t) {
+        if (t == null || t.getTipo() != com.yagodaoud.VoxChain.modelo.enums.TipoTransacao.VOTO) {
+            return false;
+        }
+        Voto voto = t.getPayloadAs(Voto.class);
+        return voto == null || votos.tokenUtilizado(voto.getTokenVotacao());
+    }
+
+    /**
+     * Reconstrói do zero todo o estado derivado da cadeia: IDs confirmados, índices e votos.
+     */
+    private void reconstruirEstado() {
+        List<Bloco> blocos = chain.obterTodosBlocos();
+        pool.reconstruirHistorico(blocos);
+        indices.reconstruirIndices(blocos);
+        votos.reconstruirRegistro(blocos);
+        desfazer.clear();
+    }
+
+    // ========== SNAPSHOT DO ESTADO ==========
+
+    /**
+     * Grava o estado derivado da ponta atual. Deve rodar sob o lock de escrita, para
+     * que índices e votos correspondam à ponta gravada no armazenamento.
+     */
+    private void salvarEstado() {
+        try {
+            BinaryWriter writer = new BinaryWriter();
+            writer.escreverByte(VERSAO_SNAPSHOT);
+            idsConfirmados.escreverEstado(writer);
+            indices.escreverEstado(writer);
+            votos.escreverEstado(writer);
+            store.salvarEstado(writer.toByteArray());
+        } catch (RuntimeException e) {
+            Logger.error(null, "[STORE] Erro ao salvar snapshot do estado: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Restaura o estado do último snapshot e aplica só os blocos gravados depois dele.
+     *
+     * @return false se não houver snapshot válido para a cadeia carregada
+     */
+    private boolean restaurarEstado() {
+        BlockStore.EstadoSalvo estado = store != null ? store.carregarEstado() : null;
+        if (estado == null || estado.getAltura() > chain.getTamanho()) {
+            return false;
+        }
+
+        long inicio = System.currentTimeMillis();
+        try {
+            BinaryReader reader = new BinaryReader(estado.getDados());
+            if (reader.lerByte() != VERSAO_SNAPSHOT) {
+                return false;
+            }
+            idsConfirmados.carregarEstado(reader);
+            indices.carregarEstado(reader);
+            votos.carregarEstado(reader);
+        } catch (RuntimeException e) {
+            Logger.error(null, "[STORE] Snapshot do estado ilegível, reconstruindo da cadeia: " + e.getMessage());
+            return false;
+        }
+
+        List<Bloco> blocos = chain.obterTodosBlocos();
+        for (int h = estado.getAltura(); h < blocos.size(); h++) {
+            Bloco bloco = blocos.get(h);
+            idsConfirmados.adicionarBloco(bloco);
+            indices.atualizarComBloco(bloco);
+            votos.atualizarComBloco(bloco);
+        }
+        pool.restaurarConfirmadasRecentes(blocos);
+        desfazer.clear();
+
+        Logger.info(null, String.format("[STORE] Estado restaurado do snapshot da altura %d em %d ms (%d blocos reaplicados)",
+                estado.getAltura(), System.currentTimeMillis() - inicio, blocos.size() - estado.getAltura()));
+        return true;
+    }
+
     // ========== CONSULTAS ==========
 
     public List<Bloco> getBlocos() {
@@ -266,18 +618,58 @@ public class BlockchainGovernamental implements Serializable {
         return indices.listarEleicoes();
     }
 
+    /**
+     * Voto confirmado pelo token, do registro de votos em O(1).
+     */
     public Voto buscarVotoPorHash(String hash) {
-        return chain.obterTodosBlocos().stream()
-                .flatMap(b -> b.getTransacoes().stream())
-                .filter(t -> t.getTipo() == com.yagodaoud.VoxChain.modelo.enums.TipoTransacao.VOTO)
-                .map(t -> t.getPayloadAs(Voto.class))
-                .filter(v -> v != null && v.getTokenVotacao().equals(hash))
-                .findFirst()
-                .orElse(null);
+        return votos.buscarVoto(hash);
+    }
+
+    /**
+     * @return a altura do bloco que contém a transação confirmada, ou -1
+     */
+    public int buscarAlturaTransacao(String idTransacao) {
+        return idTransacao != null ? idsConfirmados.buscarAltura(idTransacao) : -1;
+    }
+
+    /**
+     * ID da transação que confirmou o voto com o token informado, ou null.
+     */
+    public String buscarIdTransacaoDoVoto(String tokenVotacao) {
+        return votos.buscarIdTransacao(tokenVotacao);
+    }
+
+    /**
+     * Votos por candidato numa eleição, do registro mantido a cada bloco aplicado ou desfeito.
+     */
+    public Map<String, Integer> apurarVotos(String eleicaoId) {
+        return votos.obterResultadoEleicao(eleicaoId);
+    }
+
+    /**
+     * Muda sempre que a apuração da eleição muda; ver {@link VoteRegistry#getVersao}.
+     */
+    public long getVersaoApuracao(String eleicaoId) {
+        return votos.getVersao(eleicaoId);
     }
 
     // ========== CONFIGURAÇÕES ==========
 
+    /**
+     * Grava os blocos pendentes e fecha o armazenamento persistente, se houver.
+     */
+    public void fechar() {
+        escritor.lock();
+        try {
+            if (store != null) {
+                salvarEstado();
+            }
+            chain.fechar();
+        } finally {
+            escritor.unlock();
+        }
+    }
+
     public void setModoTeste(boolean modoTeste) {
         this.modoTeste = modoTeste;
     }
@@ -304,4 +696,19 @@ public class BlockchainGovernamental implements Serializable {
                 getPoolSize(),
                 getDificuldade());
     }
-}
\ No newline at end of file
+
+    /**
+     * O que um bloco alterou nos índices e no registro de votos.
+     */
+    private static final class RegistroDesfazer {
+        private final String hash;
+        private final EntityIndexManager.Desfazer entidades;
+        private final VoteRegistry.Desfazer votos;
+
+        private RegistroDesfazer(String hash, EntityIndexManager.Desfazer entidades, VoteRegistry.Desfazer votos) {
+            this.hash = hash;
+            this.entidades = entidades;
+            this.votos = votos;
+        }
+    }
+}
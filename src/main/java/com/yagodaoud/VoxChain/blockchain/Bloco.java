@@ -1,12 +1,13 @@
 package com.yagodaoud.VoxChain.blockchain;
 
+import com.yagodaoud.VoxChain.blockchain.core.BlockHasher;
+import com.yagodaoud.VoxChain.blockchain.core.MerkleTree;
+import com.yagodaoud.VoxChain.blockchain.core.ProofOfWorkEngine;
 import com.yagodaoud.VoxChain.modelo.Transacao;
 import com.yagodaoud.VoxChain.utils.Logger;
 
 import java.io.Serializable;
 import java.nio.charset.StandardCharsets;
-import java.security.MessageDigest;
-import java.security.Timestamp;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
@@ -23,6 +24,10 @@ public class Bloco implements Serializable {
     private final String mineradoPor;
     private String assinaturaMinerador; // opcional — simulando chave pública do nó minerador
 
+    // Caches derivados dos campos imutáveis (não trafegam na rede)
+    private transient byte[] raizMerkle;
+    private transient byte[] prefixoCabecalho;
+
     public Bloco(int indice, List<Transacao> transacoes, String hashAnterior, String mineradoPor, Long timestampFixo) {
         this.indice = indice;
         this.timestamp = timestampFixo != null ? timestampFixo : Instant.now().toEpochMilli();
@@ -33,67 +38,133 @@ public class Bloco implements Serializable {
         this.hash = calcularHash();
     }
 
+    private Bloco(int indice, long timestamp, List<Transacao> transacoes, String hashAnterior,
+                  String hash, int nonce, String mineradoPor, String assinaturaMinerador) {
+        this.indice = indice;
+        this.timestamp = timestamp;
+        this.transacoes = transacoes;
+        this.hashAnterior = hashAnterior;
+        this.hash = hash;
+        this.nonce = nonce;
+        this.mineradoPor = mineradoPor;
+        this.assinaturaMinerador = assinaturaMinerador;
+    }
+
+    /**
+     * Recria um bloco já minerado (ex: lido do disco) sem recalcular o hash.
+     * A validação continua a cargo do {@link com.yagodaoud.VoxChain.blockchain.core.BlockValidator}.
+     */
+    public static Bloco reconstruir(int indice, long timestamp, List<Transacao> transacoes,
+                                    String hashAnterior, String hash, int nonce,
+                                    String mineradoPor, String assinaturaMinerador) {
+        return new Bloco(indice, timestamp, new ArrayList<>(transacoes), hashAnterior,
+                hash, nonce, mineradoPor, assinaturaMinerador);
+    }
+
     // ==================== CÁLCULO DE HASH ====================
 
     public String calcularHash() {
-        try {
-            String dados = indice + hashAnterior + timestamp + transacoesParaString() + nonce + mineradoPor;
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] hashBytes = digest.digest(dados.getBytes(StandardCharsets.UTF_8));
-
-            StringBuilder hexString = new StringBuilder();
-            for (byte b : hashBytes) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1)
-                    hexString.append('0');
-                hexString.append(hex);
-            }
-            return hexString.toString();
-        } catch (Exception e) {
-            throw new RuntimeException("Erro ao calcular hash do bloco", e);
+        return new BlockHasher(prefixoCabecalho()).hashHex(nonce);
+    }
+
+    /**
+     * Prefixo binário do cabeçalho (tudo exceto o nonce), calculado uma única vez.
+     */
+    private byte[] prefixoCabecalho() {
+        byte[] prefixo = prefixoCabecalho;
+        if (prefixo == null) {
+            prefixo = BlockHasher.montarPrefixo(indice, timestamp, hashAnterior, raizMerkle(), mineradoPor);
+            prefixoCabecalho = prefixo;
+        }
+        return prefixo;
+    }
+
+    /**
+     * Raiz de Merkle das transações; só ela entra no cabeçalho, então o custo
+     * de cada nonce não depende do tamanho do bloco.
+     */
+    private byte[] raizMerkle() {
+        byte[] raiz = raizMerkle;
+        if (raiz == null) {
+            raiz = MerkleTree.calcularRaiz(transacoes);
+            raizMerkle = raiz;
         }
+        return raiz;
+    }
+
+    public String getRaizMerkle() {
+        return BlockHasher.paraHex(raizMerkle());
     }
 
-    private String transacoesParaString() {
-        StringBuilder sb = new StringBuilder();
-        for (Transacao t : transacoes) {
-            sb.append(t.toString());
+    /**
+     * Gera a prova de inclusão de uma transação deste bloco.
+     *
+     * @return a prova, ou null se a transação não estiver no bloco
+     */
+    public MerkleTree.ProvaInclusao gerarProvaInclusao(String idTransacao) {
+        for (int i = 0; i < transacoes.size(); i++) {
+            if (transacoes.get(i).getId().equals(idTransacao)) {
+                return MerkleTree.gerarProva(transacoes, i);
+            }
         }
-        return sb.toString();
+        return null;
     }
 
     // ==================== PROVA DE TRABALHO ====================
 
     public void minerarBloco(int dificuldade) {
-        String alvo = "0".repeat(Math.max(0, dificuldade));
-        while (!hash.startsWith(alvo)) {
+        BlockHasher hasher = new BlockHasher(prefixoCabecalho());
+        while (!hasher.atendeDificuldade(nonce, dificuldade)) {
             nonce++;
-            hash = calcularHash();
         }
+        hash = hasher.hashHex(nonce);
+        concluirMineracao();
+    }
+
+    /**
+     * Minera o bloco distribuindo o espaço de nonces entre as threads do motor.
+     * Se a mineração for cancelada, o bloco permanece sem prova de trabalho.
+     */
+    public void minerarBloco(int dificuldade, ProofOfWorkEngine motor) {
+        minerarBloco(dificuldade, motor, motor.getGeracao());
+    }
+
+    /**
+     * Como {@link #minerarBloco(int, ProofOfWorkEngine)}, sem minerar se o motor foi
+     * cancelado depois de {@code geracao} ser lida.
+     */
+    public void minerarBloco(int dificuldade, ProofOfWorkEngine motor, long geracao) {
+        byte[] prefixo = prefixoCabecalho();
+
+        int encontrado = motor.minerar(() -> {
+            BlockHasher hasher = new BlockHasher(prefixo);
+            return n -> hasher.atendeDificuldade(n, dificuldade);
+        }, geracao);
+
+        if (encontrado < 0) {
+            return;
+        }
+
+        this.nonce = encontrado;
+        this.hash = new BlockHasher(prefixo).hashHex(nonce);
+        concluirMineracao();
+    }
+
+    private void concluirMineracao() {
         this.assinaturaMinerador = gerarAssinaturaMinerador();
         Logger.info(null, "⛏️  Bloco " + indice + " minerado por " + mineradoPor +
                 " | Hash: " + getHashTruncado(12));
     }
 
     private String gerarAssinaturaMinerador() {
-        try {
-            MessageDigest digest = MessageDigest.getInstance("SHA-256");
-            byte[] assinatura = digest.digest((mineradoPor + hash).getBytes(StandardCharsets.UTF_8));
-            StringBuilder sb = new StringBuilder();
-            for (byte b : assinatura) {
-                String hex = Integer.toHexString(0xff & b);
-                if (hex.length() == 1)
-                    sb.append('0');
-                sb.append(hex);
-            }
-            return sb.toString();
-        } catch (Exception e) {
-            return "";
-        }
+        byte[] assinatura = BlockHasher.novoDigest()
+                .digest((mineradoPor + hash).getBytes(StandardCharsets.UTF_8));
+        return BlockHasher.paraHex(assinatura);
     }
 
     public void setIndice(int indice) {
         this.indice = indice;
+        this.prefixoCabecalho = null;
     }
 
     public void setHash(String hash) {
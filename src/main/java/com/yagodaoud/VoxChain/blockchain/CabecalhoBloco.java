@@ -0,0 +1,96 @@
+package com.yagodaoud.VoxChain.blockchain;
+
+import com.yagodaoud.VoxChain.blockchain.core.BlockHasher;
+
+import java.io.Serializable;
+
+/**
+ * Cabeçalho de um bloco: tudo que entra no hash, com as transações resumidas pela
+ * raiz de Merkle. Permite conferir encadeamento e prova de trabalho de uma cadeia
+ * remota antes de baixar os corpos dos blocos.
+ */
+public class CabecalhoBloco implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private final int indice;
+    private final long timestamp;
+    private final String hashAnterior;
+    private final String raizMerkle;
+    private final String mineradoPor;
+    private final int nonce;
+    private final String hash;
+
+    public CabecalhoBloco(int indice, long timestamp, String hashAnterior, String raizMerkle,
+                          String mineradoPor, int nonce, String hash) {
+        this.indice = indice;
+        this.timestamp = timestamp;
+        this.hashAnterior = hashAnterior;
+        this.raizMerkle = raizMerkle;
+        this.mineradoPor = mineradoPor;
+        this.nonce = nonce;
+        this.hash = hash;
+    }
+
+    public static CabecalhoBloco de(Bloco bloco) {
+        return new CabecalhoBloco(bloco.getIndice(), bloco.getTimestamp(), bloco.getHashAnterior(),
+                bloco.getRaizMerkle(), bloco.getMineradoPor(), bloco.getNonce(), bloco.getHash());
+    }
+
+    /**
+     * Recalcula o hash a partir dos campos do cabeçalho, como {@link Bloco#calcularHash()}.
+     */
+    public String calcularHash() {
+        byte[] prefixo = BlockHasher.montarPrefixo(indice, timestamp, hashAnterior,
+                BlockHasher.hashParaBytes(raizMerkle), mineradoPor);
+        return new BlockHasher(prefixo).hashHex(nonce);
+    }
+
+    /**
+     * Hash coerente com os campos e com prova de trabalho na dificuldade informada.
+     */
+    public boolean isValido(int dificuldade) {
+        return hash != null && hash.equals(calcularHash()) && BlockHasher.atendeDificuldade(hash, dificuldade);
+    }
+
+    /**
+     * O bloco recebido é o que este cabeçalho descreve. O hash é recalculado a partir do
+     * corpo: o campo hash do bloco sozinho não prova nada sobre as transações.
+     */
+    public boolean corresponde(Bloco bloco) {
+        return bloco != null && bloco.getIndice() == indice && hash.equals(bloco.getHash())
+                && raizMerkle.equals(bloco.getRaizMerkle()) && hash.equals(bloco.calcularHash());
+    }
+
+    public int getIndice() {
+        return indice;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public String getHashAnterior() {
+        return hashAnterior;
+    }
+
+    public String getRaizMerkle() {
+        return raizMerkle;
+    }
+
+    public String getMineradoPor() {
+        return mineradoPor;
+    }
+
+    public int getNonce() {
+        return nonce;
+    }
+
+    public String getHash() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "CabecalhoBloco{indice=" + indice + ", hash=" + hash.substring(0, Math.min(12, hash.length())) + "}";
+    }
+}
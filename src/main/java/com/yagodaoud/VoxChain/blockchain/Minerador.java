@@ -1,16 +1,26 @@
 package com.yagodaoud.VoxChain.blockchain;
 
+import com.yagodaoud.VoxChain.blockchain.core.ProofOfWorkEngine;
+import com.yagodaoud.VoxChain.config.ConfigManager;
 import com.yagodaoud.VoxChain.utils.Logger;
 
 public class Minerador implements Runnable {
     private No no;
+    private final ProofOfWorkEngine motor;
     private volatile boolean minerando = false;
     private volatile boolean parar = false;
     private long ultimaMineracao = 0;
     private final long INTERVALO_MINIMO = 5000; // 5 segundos entre minerações
+    private final long ESPERA_AGRUPAMENTO = 3000; // 3 segundos com transações pendentes antes de minerar
+    private long pendentesDesde = 0;
 
     public Minerador(No no) {
+        this(no, new ProofOfWorkEngine(ConfigManager.getThreadsMineracao()));
+    }
+
+    public Minerador(No no, ProofOfWorkEngine motor) {
         this.no = no;
+        this.motor = motor;
     }
 
     @Override
@@ -21,14 +31,13 @@ public class Minerador implements Runnable {
                 no.verificarFechamentoEleicoes();
 
                 // Verifica se pode minerar
-                if (!minerando &&
-                        no.getBlockchain().temTransacoesPendentes() &&
-                        podeMinerar()) {
+                if (!minerando && podeMinerar()) {
 
                     minerando = true;
                     minerarBloco();
                     minerando = false;
                     ultimaMineracao = System.currentTimeMillis();
+                    pendentesDesde = 0;
                 }
 
                 Thread.sleep(1000);
@@ -42,20 +51,28 @@ public class Minerador implements Runnable {
     private boolean podeMinerar() {
         long agora = System.currentTimeMillis();
 
-        // Evita minerar muito rápido (deixa outros nós receberem o bloco anterior)
-        if (agora - ultimaMineracao < INTERVALO_MINIMO) {
+        // Só minera se tem transações
+        if (!no.getBlockchain().temTransacoesPendentes()) {
+            pendentesDesde = 0;
             return false;
         }
 
-        // Só minera se tem transações
-        if (!no.getBlockchain().temTransacoesPendentes()) {
+        // Dá tempo de as transações chegarem aos outros nós: mais delas entram no mesmo
+        // bloco e os peers montam o bloco compacto com o próprio pool
+        if (pendentesDesde == 0) {
+            pendentesDesde = agora;
+        }
+        if (agora - pendentesDesde < ESPERA_AGRUPAMENTO) {
             return false;
         }
 
-        return true;
+        // Evita minerar muito rápido (deixa outros nós receberem o bloco anterior)
+        return agora - ultimaMineracao >= INTERVALO_MINIMO;
     }
 
     private synchronized void minerarBloco() {
+        // Lida antes de montar o candidato: um bloco aceito a partir daqui cancela a mineração
+        long geracao = motor.getGeracao();
         int tamanhoBlockchain = no.getBlockchain().getTamanho();
         int poolSize = no.getBlockchain().getPoolSize();
 
@@ -70,9 +87,14 @@ public class Minerador implements Runnable {
         }
 
         long inicio = System.currentTimeMillis();
-        bloco.minerarBloco(4); // dificuldade 4
+        bloco.minerarBloco(4, motor, geracao); // dificuldade 4
         long duracao = System.currentTimeMillis() - inicio;
 
+        if (motor.foiCancelado()) {
+            Logger.info(no.getId(), "[" + no.getId() + "] ✗ Mineração cancelada (bloco concorrente aceito)");
+            return;
+        }
+
         // VERIFICAÇÃO CRÍTICA: O bloco ainda é válido?
         // (outro nó pode ter minerado antes)
         if (bloco.getIndice() != no.getBlockchain().getTamanho()) {
@@ -81,8 +103,9 @@ public class Minerador implements Runnable {
             return;
         }
 
-        // Valida o próprio bloco antes de adicionar
-        if (!no.getBlockchain().validarBloco(bloco)) {
+        // Valida o próprio bloco e adiciona de forma atômica: um bloco recebido
+        // entre a verificação acima e este ponto faz a validação falhar
+        if (!no.getBlockchain().adicionarBlocoValidado(bloco)) {
             Logger.info(no.getId(), "[" + no.getId() + "] ✗ Bloco inválido (validação falhou)");
             return;
         }
@@ -92,10 +115,6 @@ public class Minerador implements Runnable {
                 ", Hash: " + bloco.getHashTruncado(16) +
                 ", Transações: " + bloco.getTransacoes().size());
 
-        no.getBlockchain().adicionarBloco(bloco);
-
-        no.getBlockchain().limparTransacoesProcessadas(bloco);
-
         no.broadcastBloco(bloco);
     }
 
@@ -108,7 +127,19 @@ public class Minerador implements Runnable {
         }
     }
 
+    /**
+     * Interrompe a mineração em andamento (ex: bloco concorrente aceito).
+     */
     public void parar() {
         minerando = false;
+        motor.cancelar();
+    }
+
+    /**
+     * Encerra o loop do minerador e libera as threads do motor de PoW.
+     */
+    public void encerrar() {
+        parar = true;
+        motor.encerrar();
     }
 }
\ No newline at end of file
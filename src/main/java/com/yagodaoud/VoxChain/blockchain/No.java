@@ -1,21 +1,27 @@
 package com.yagodaoud.VoxChain.blockchain;
 
+import com.yagodaoud.VoxChain.blockchain.core.BlockStore;
+import com.yagodaoud.VoxChain.blockchain.core.ResultadoAdmissao;
 import com.yagodaoud.VoxChain.blockchain.servicos.ServicoAdministracao;
+import com.yagodaoud.VoxChain.blockchain.sync.CompactBlockRelay;
+import com.yagodaoud.VoxChain.blockchain.sync.HeadersFirstSync;
+import com.yagodaoud.VoxChain.blockchain.sync.InventoryRelay;
 import com.yagodaoud.VoxChain.blockchain.servicos.eleicao.ServicoFechamentoEleicao;
 import com.yagodaoud.VoxChain.config.ConfigManager;
 import com.yagodaoud.VoxChain.modelo.Eleicao;
 import com.yagodaoud.VoxChain.modelo.Transacao;
-import com.yagodaoud.VoxChain.rede.MensagemP2P;
+import com.yagodaoud.VoxChain.rede.NetworkReactor;
 import com.yagodaoud.VoxChain.rede.Peer;
 import com.yagodaoud.VoxChain.rede.PeerDiscovery;
-import com.yagodaoud.VoxChain.rede.TipoMensagem;
 import com.yagodaoud.VoxChain.utils.Logger;
 
 import java.io.IOException;
-import java.net.ServerSocket;
-import java.net.Socket;
+import java.nio.file.Paths;
 import java.util.List;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
 
 public class No {
     private final String id;
@@ -23,22 +29,37 @@ public class No {
     private final int porta;
     private final BlockchainGovernamental blockchain;
     private final List<Peer> peers;
-    private ServerSocket servidor;
+    private final NetworkReactor rede;
     private volatile boolean rodando = false;
-    private Thread threadServidorAceitar;
     private Minerador minerador;
     private PeerDiscovery peerDiscovery;
     private ServicoAdministracao servicoAdministracao;
     private ServicoFechamentoEleicao servicoFechamentoEleicao;
+    private final HeadersFirstSync sincronizacao;
+    private final InventoryRelay inventario;
+    private final CompactBlockRelay blocosCompactos;
+    private ScheduledExecutorService agendadorSincronizacao;
 
     public No(String id, String ip, int porta) {
         this.id = id;
         this.enderecoIP = ip;
         this.porta = porta;
-        this.blockchain = new BlockchainGovernamental(2, 5);
+        this.blockchain = new BlockchainGovernamental(2, 5, abrirArmazenamento(id));
         this.peers = new CopyOnWriteArrayList<>();
         this.servicoAdministracao = new ServicoAdministracao(blockchain);
         this.servicoFechamentoEleicao = new ServicoFechamentoEleicao(blockchain);
+        this.sincronizacao = new HeadersFirstSync(this);
+        this.inventario = new InventoryRelay(this);
+        this.blocosCompactos = new CompactBlockRelay(this);
+        this.rede = new NetworkReactor(this);
+    }
+
+    private static BlockStore abrirArmazenamento(String idNo) {
+        String diretorio = ConfigManager.getDiretorioArmazenamento();
+        if (diretorio.isEmpty()) {
+            return null;
+        }
+        return BlockStore.abrir(Paths.get(diretorio, idNo));
     }
 
     // ============ INICIALIZAÇÃO ============
@@ -47,18 +68,13 @@ public class No {
         rodando = true;
 
         try {
-            servidor = new ServerSocket(porta);
+            rede.escutar(porta);
             Logger.info(id, "Servidor iniciado em " + enderecoIP + ":" + porta);
         } catch (IOException e) {
             Logger.error(id, "Erro ao criar servidor: " + e.getMessage());
             return;
         }
 
-        // Thread que aceita conexões remotas
-        threadServidorAceitar = new Thread(this::aceitarConexoes);
-        threadServidorAceitar.setName("Servidor-" + id);
-        threadServidorAceitar.start();
-
         // ★ NOVO: Inicializar PeerDiscovery
         peerDiscovery = new PeerDiscovery(this);
         List<PeerDiscovery.PeerInfo> bootstrapNodes = ConfigManager.obterBootstrapNodes();
@@ -69,6 +85,12 @@ public class No {
         peerDiscovery.iniciar(bootstrapNodes);
         Logger.info(id, "PeerDiscovery ativado");
 
+        // Redistribui faixas de blocos sem resposta durante a sincronização
+        agendadorSincronizacao = Executors.newSingleThreadScheduledExecutor();
+        agendadorSincronizacao.scheduleAtFixedRate(sincronizacao::verificarTimeouts, 2, 2, TimeUnit.SECONDS);
+        agendadorSincronizacao.scheduleAtFixedRate(
+                () -> inventario.expirar(System.currentTimeMillis()), 5, 5, TimeUnit.SECONDS);
+
         // Inicia minerador
         minerador = new Minerador(this);
         Thread threadMinerador = new Thread(minerador);
@@ -79,56 +101,38 @@ public class No {
     public void parar() {
         rodando = false;
         if (minerador != null)
-            minerador.parar();
+            minerador.encerrar();
         if (peerDiscovery != null)
             peerDiscovery.parar();
+        if (agendadorSincronizacao != null)
+            agendadorSincronizacao.shutdownNow();
         for (Peer p : peers)
             p.desconectar();
+        rede.parar();
 
-        try {
-            if (servidor != null)
-                servidor.close();
-        } catch (IOException ignored) {
-        }
+        blockchain.fechar();
     }
 
     // ============ CONEXÃO COM PEERS ============
 
     public void conectarPeer(String ipRemoto, int portaRemota, String idRemoto) {
-        new Thread(() -> {
-            try {
-                Logger.info(id,
-                        "Tentando conectar em " + idRemoto + " (" + ipRemoto + ":" + portaRemota + ")");
-                Socket socket = new Socket(ipRemoto, portaRemota);
-                Peer peer = new Peer(idRemoto, socket, this);
-                peers.add(peer);
-
-                new Thread(peer).start();
-                Logger.info(id, "✓ Conectado a " + idRemoto);
-
-                // Solicita blockchain atualizada
-                peer.enviar(new MensagemP2P(TipoMensagem.REQUISITAR_BLOCKCHAIN, null, this.id));
-
-            } catch (IOException e) {
-                Logger.error(id, "✗ Erro ao conectar em " + idRemoto + ": " + e.getMessage());
-            }
-        }).start();
+        Logger.info(id,
+                "Tentando conectar em " + idRemoto + " (" + ipRemoto + ":" + portaRemota + ")");
+        rede.conectar(ipRemoto, portaRemota, idRemoto);
     }
 
-    private void aceitarConexoes() {
-        while (rodando) {
-            try {
-                Socket socketCliente = servidor.accept();
-                Logger.info(id, "Nova conexão recebida");
-
-                Peer peer = new Peer("Remoto-" + System.nanoTime(), socketCliente, this);
-                peers.add(peer);
-                new Thread(peer).start();
+    /**
+     * Chamado pela rede quando uma conexão (de saída ou recebida) fica pronta.
+     */
+    public void peerConectado(Peer peer, boolean conexaoDeSaida) {
+        peers.add(peer);
+        if (conexaoDeSaida) {
+            Logger.info(id, "✓ Conectado a " + peer.getId());
 
-            } catch (IOException e) {
-                if (rodando)
-                    Logger.error(id, "Erro ao aceitar conexão: " + e.getMessage());
-            }
+            // Compara as pontas; só baixa o que faltar
+            sincronizacao.requisitarPonta(peer);
+        } else {
+            Logger.info(id, "Nova conexão recebida");
         }
     }
 
@@ -138,48 +142,34 @@ public class No {
         if (t == null)
             return;
 
-        MensagemP2P msg = new MensagemP2P(TipoMensagem.NOVA_TRANSACAO, t, id);
-        int enviadas = 0;
-
-        for (Peer peer : peers) {
-            if (peer.isConectado() && !peer.getId().equals(id)) {
-                peer.enviar(msg);
-                enviadas++;
-            }
-        }
+        // Só o ID: o corpo vai para quem pedir
+        int enviadas = inventario.anunciarTransacao(t, id);
 
         Logger.info(id, "Broadcast de transação " + t.getId() +
-                " enviado para " + enviadas + " peers");
+                " anunciado para " + enviadas + " peers");
     }
 
     public void rebroadcastTransacao(Transacao t, String peerOrigem) {
-        MensagemP2P msg = new MensagemP2P(TipoMensagem.NOVA_TRANSACAO, t, id);
-        for (Peer peer : peers)
-            if (peer.isConectado() && !peer.getId().equals(peerOrigem))
-                peer.enviar(msg);
+        inventario.anunciarTransacao(t, peerOrigem);
     }
 
     public void broadcastBloco(Bloco b) {
         if (b == null)
             return;
 
-        MensagemP2P msg = new MensagemP2P(TipoMensagem.NOVO_BLOCO, b, id);
-        int enviados = 0;
-
-        for (Peer peer : peers) {
-            if (peer.isConectado() && !peer.getId().equals(id)) {
-                peer.enviar(msg);
-                enviados++;
-            }
-        }
+        int enviados = inventario.anunciarBloco(b, id);
 
         Logger.info(id, "Broadcast de bloco " + b.getIndice() +
-                " enviado para " + enviados + " peers");
+                " anunciado para " + enviados + " peers");
     }
 
     // ============ PROCESSAMENTO DE BLOCOS ============
 
-    public synchronized void processarNovoBloco(Bloco blocoRecebido, String peerOrigem) {
+    /**
+     * Sem lock próprio: a validação contra a ponta e a inclusão do bloco acontecem
+     * juntas sob o lock de escrita da blockchain.
+     */
+    public void processarNovoBloco(Bloco blocoRecebido, String peerOrigem) {
         if (blocoRecebido == null) {
             Logger.error(id, "✗ Bloco nulo recebido");
             return;
@@ -194,9 +184,7 @@ public class No {
 
         if (blocoIndice == meuTamanho) {
             // BLOCO CORRETO SEQUENCIAL
-            if (blockchain.validarBloco(blocoRecebido)) {
-                blockchain.adicionarBloco(blocoRecebido);
-                blockchain.limparTransacoesProcessadas(blocoRecebido);
+            if (blockchain.adicionarBlocoValidado(blocoRecebido)) {
                 minerador.parar();
 
                 // Rebroadcast
@@ -207,15 +195,21 @@ public class No {
             }
 
         } else if (blocoIndice > meuTamanho) {
-            // DESATUALIZADO
+            // DESATUALIZADO: cabeçalhos vêm de quem anunciou; os blocos, de todos os peers
             Logger.info(id, "⚠ Blockchain desatualizada, solicitando sincronização...");
             for (Peer peer : peers) {
                 if (peer.getId().equals(peerOrigem) && peer.isConectado()) {
-                    peer.enviar(new MensagemP2P(TipoMensagem.REQUISITAR_BLOCKCHAIN, null, id));
+                    sincronizacao.sincronizarCom(peer);
                     break;
                 }
             }
 
+        } else if (blocoIndice == meuTamanho - 1 && blockchain.desempatarPonta(blocoRecebido)) {
+            // Bloco concorrente na mesma altura com hash menor: todos os nós ficam com ele
+            minerador.parar();
+            rebroadcastBloco(blocoRecebido, peerOrigem);
+            Logger.info(id, "✓ Bloco " + blocoIndice + " concorrente assumido como ponta");
+
         } else {
             // BLOCO ANTIGO (fork)
             Logger.info(id, "⚠ Bloco antigo recebido (fork detectado). Mantendo minha cadeia.");
@@ -223,13 +217,10 @@ public class No {
     }
 
     private void rebroadcastBloco(Bloco b, String peerOrigem) {
-        MensagemP2P msg = new MensagemP2P(TipoMensagem.NOVO_BLOCO, b, id);
-        for (Peer peer : peers)
-            if (peer.isConectado() && !peer.getId().equals(peerOrigem))
-                peer.enviar(msg);
+        inventario.anunciarBloco(b, peerOrigem);
     }
 
-    public synchronized void sincronizarBlockchain(List<Bloco> blocoRemoto) {
+    public void sincronizarBlockchain(List<Bloco> blocoRemoto) {
         if (blocoRemoto == null)
             return;
         if (blocoRemoto.size() > blockchain.getTamanho()) {
@@ -247,14 +238,15 @@ public class No {
             return;
 
         // Tenta adicionar ao pool
-        if (blockchain.adicionarAoPool(t)) {
+        ResultadoAdmissao resultado = blockchain.adicionarAoPool(t);
+        if (resultado.isAceita()) {
             Logger.info(id, "✓ Transação adicionada ao pool: " + t.getId());
 
             // Não precisa de rebroadcast porque é a primeira transmissão
             broadcastTransacao(t);
 
         } else {
-            Logger.info(id, "⚠ Transação rejeitada (já existe): " + t.getId());
+            Logger.info(id, "⚠ Transação rejeitada (" + resultado + "): " + t.getId());
         }
     }
 
@@ -282,6 +274,18 @@ public class No {
         return blockchain;
     }
 
+    public HeadersFirstSync getSincronizacao() {
+        return sincronizacao;
+    }
+
+    public InventoryRelay getInventario() {
+        return inventario;
+    }
+
+    public CompactBlockRelay getBlocosCompactos() {
+        return blocosCompactos;
+    }
+
     public int getNumPeers() {
         return peers.size();
     }
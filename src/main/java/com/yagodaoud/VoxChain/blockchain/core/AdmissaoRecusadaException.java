@@ -0,0 +1,20 @@
+package com.yagodaoud.VoxChain.blockchain.core;
+
+/**
+ * Lançada pelos serviços quando o pool recusa uma transação por contrapressão,
+ * para que a API possa responder 429/503 em vez de um erro de validação.
+ */
+public class AdmissaoRecusadaException extends IllegalStateException {
+    private final ResultadoAdmissao resultado;
+
+    public AdmissaoRecusadaException(ResultadoAdmissao resultado) {
+        super(resultado == ResultadoAdmissao.COTA_ORIGEM_EXCEDIDA
+                ? "Limite de transações pendentes da origem excedido, tente novamente mais tarde"
+                : "Pool de transações cheio, tente novamente mais tarde");
+        this.resultado = resultado;
+    }
+
+    public ResultadoAdmissao getResultado() {
+        return resultado;
+    }
+}
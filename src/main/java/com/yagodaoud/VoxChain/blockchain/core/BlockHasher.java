@@ -0,0 +1,160 @@
+package com.yagodaoud.VoxChain.blockchain.core;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Calcula o hash do cabeçalho binário de um bloco.
+ *
+ * O cabeçalho tem campos de tamanho fixo e termina no nonce:
+ * [versão][índice][timestamp][hash anterior (32)][digest das transações (32)][minerador][nonce].
+ * Tudo antes do nonce é constante durante a mineração, então o estado do SHA-256
+ * após esse prefixo (midstate) é calculado uma única vez e clonado a cada nonce.
+ *
+ * Instâncias não são thread-safe: cada thread de mineração usa a sua.
+ */
+public class BlockHasher {
+    public static final byte VERSAO_CABECALHO = 1;
+    public static final int TAMANHO_HASH = 32;
+
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+    private final MessageDigest midstate;
+    private final byte[] bufferNonce = new byte[Integer.BYTES];
+    private final byte[] saida = new byte[TAMANHO_HASH];
+
+    public BlockHasher(byte[] prefixoCabecalho) {
+        this.midstate = novoDigest();
+        this.midstate.update(prefixoCabecalho);
+    }
+
+    // ==================== CABEÇALHO ====================
+
+    /**
+     * Monta o prefixo do cabeçalho (tudo exceto o nonce).
+     */
+    public static byte[] montarPrefixo(int indice, long timestamp, String hashAnterior,
+                                       byte[] digestTransacoes, String mineradoPor) {
+        byte[] minerador = mineradoPor != null
+                ? mineradoPor.getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+
+        ByteBuffer buffer = ByteBuffer.allocate(1 + Integer.BYTES + Long.BYTES
+                + TAMANHO_HASH + TAMANHO_HASH + Short.BYTES + minerador.length);
+        buffer.put(VERSAO_CABECALHO);
+        buffer.putInt(indice);
+        buffer.putLong(timestamp);
+        buffer.put(hashParaBytes(hashAnterior));
+        buffer.put(digestTransacoes);
+        buffer.putShort((short) minerador.length);
+        buffer.put(minerador);
+        return buffer.array();
+    }
+
+    /**
+     * Converte um hash hexadecimal de 64 caracteres para 32 bytes.
+     * Valores fora desse formato (ex: "0" do gênesis) são resumidos com SHA-256
+     * para manter o campo com tamanho fixo.
+     */
+    public static byte[] hashParaBytes(String hash) {
+        if (hash != null && hash.length() == TAMANHO_HASH * 2) {
+            byte[] bytes = new byte[TAMANHO_HASH];
+            boolean valido = true;
+            for (int i = 0; i < TAMANHO_HASH && valido; i++) {
+                int alto = Character.digit(hash.charAt(2 * i), 16);
+                int baixo = Character.digit(hash.charAt(2 * i + 1), 16);
+                valido = alto >= 0 && baixo >= 0;
+                bytes[i] = (byte) ((alto << 4) | baixo);
+            }
+            if (valido) {
+                return bytes;
+            }
+        }
+        String valor = hash != null ? hash : "";
+        return novoDigest().digest(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // ==================== HASH POR NONCE ====================
+
+    /**
+     * Calcula o hash do cabeçalho com o nonce informado.
+     * O array retornado é reutilizado na próxima chamada.
+     */
+    public byte[] hash(int nonce) {
+        bufferNonce[0] = (byte) (nonce >>> 24);
+        bufferNonce[1] = (byte) (nonce >>> 16);
+        bufferNonce[2] = (byte) (nonce >>> 8);
+        bufferNonce[3] = (byte) nonce;
+
+        try {
+            MessageDigest digest = (MessageDigest) midstate.clone();
+            digest.update(bufferNonce);
+            digest.digest(saida, 0, TAMANHO_HASH);
+            return saida;
+        } catch (CloneNotSupportedException | DigestException e) {
+            throw new RuntimeException("Erro ao calcular hash do bloco", e);
+        }
+    }
+
+    public String hashHex(int nonce) {
+        return paraHex(hash(nonce));
+    }
+
+    public boolean atendeDificuldade(int nonce, int dificuldade) {
+        return atendeDificuldade(hash(nonce), dificuldade);
+    }
+
+    // ==================== DIFICULDADE ====================
+
+    /**
+     * Verifica se o digest começa com {@code dificuldade} zeros hexadecimais,
+     * olhando direto nos bytes (cada byte são dois dígitos hex).
+     */
+    public static boolean atendeDificuldade(byte[] digest, int dificuldade) {
+        int bytesZerados = dificuldade / 2;
+        if (bytesZerados > digest.length) {
+            return false;
+        }
+        for (int i = 0; i < bytesZerados; i++) {
+            if (digest[i] != 0) {
+                return false;
+            }
+        }
+        return dificuldade % 2 == 0
+                || (bytesZerados < digest.length && (digest[bytesZerados] & 0xF0) == 0);
+    }
+
+    public static boolean atendeDificuldade(String hashHex, int dificuldade) {
+        if (hashHex == null || hashHex.length() < dificuldade) {
+            return false;
+        }
+        for (int i = 0; i < dificuldade; i++) {
+            if (hashHex.charAt(i) != '0') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ==================== UTILITÁRIOS ====================
+
+    public static String paraHex(byte[] bytes) {
+        char[] chars = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            chars[2 * i] = HEX[(bytes[i] >>> 4) & 0x0F];
+            chars[2 * i + 1] = HEX[bytes[i] & 0x0F];
+        }
+        return new String(chars);
+    }
+
+    public static MessageDigest novoDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("SHA-256 indisponível", e);
+        }
+    }
+}
@@ -0,0 +1,788 @@
+package com.yagodaoud.VoxChain.blockchain.core;
+
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BinaryReader;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BinaryWriter;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BlockCodec;
+import com.yagodaoud.VoxChain.utils.Logger;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.zip.CRC32;
+
+/**
+ * Armazenamento persistente dos blocos aceitos, em arquivos de segmento append-only.
+ *
+ * Cada registro é [tamanho][crc32][bloco codificado com {@link BlockCodec}].
+ * O índice altura → posição e hash → altura fica em memória e também num arquivo de
+ * entradas de tamanho fixo, [posição][hash][transações][crc32], acrescentado a cada
+ * bloco junto com o registro. Na abertura o índice é lido sem decodificar bloco algum
+ * e só os registros escritos depois da última entrada íntegra são relidos. Um registro
+ * incompleto no fim do último segmento (queda durante a escrita) é descartado.
+ *
+ * O armazenamento também guarda um snapshot do estado derivado da cadeia (índices,
+ * votos, IDs confirmados), marcado com a altura e o hash da ponta em que foi tirado;
+ * o conteúdo é opaco aqui e montado por quem mantém esse estado.
+ *
+ * Leituras de segmentos já fechados (todos menos o último) usam o arquivo mapeado
+ * em memória, sem trazer o segmento inteiro para o heap.
+ *
+ * As leituras não tomam o monitor do armazenamento: escritas e truncamentos publicam
+ * uma {@link Visao} imutável (índice e canais) ao terminar, e a leitura usa a visão
+ * vigente com leitura posicional ou um {@code duplicate()} do mapeamento. Um registro
+ * que some num truncamento concorrente é relido na visão mais nova.
+ *
+ * O fsync é feito em lotes: um bloco aceito pode ser perdido numa queda de energia
+ * antes do próximo lote, e será recuperado dos peers na sincronização.
+ */
+public class BlockStore {
+    private static final String PREFIXO_SEGMENTO = "segmento-";
+    private static final String EXTENSAO_SEGMENTO = ".dat";
+    private static final String ARQUIVO_INDICE = "indice.idx";
+    private static final String ARQUIVO_ESTADO = "estado.snp";
+
+    private static final int MAGICO_ESTADO = 0x56584553; // "VXES"
+    private static final int VERSAO_ESTADO = 1;
+    private static final int TAMANHO_CABECALHO_REGISTRO = 2 * Integer.BYTES;
+    private static final int TAMANHO_ENTRADA_INDICE = Long.BYTES + BlockHasher.TAMANHO_HASH + 2 * Integer.BYTES;
+    private static final int ENTRADAS_POR_LEITURA = 4096;
+    private static final int TAMANHO_MAXIMO_REGISTRO = 64 * 1024 * 1024;
+    private static final int BITS_OFFSET = 40;
+    private static final long MASCARA_OFFSET = (1L << BITS_OFFSET) - 1;
+
+    private static final long TAMANHO_MAXIMO_SEGMENTO = 64L * 1024 * 1024;
+    private static final int BLOCOS_POR_FSYNC = 32;
+    private static final long INTERVALO_FSYNC_MS = 1000;
+
+    private final Path diretorio;
+    private final List<FileChannel> segmentos = new ArrayList<>();
+    private final List<MappedByteBuffer> mapeamentos = new ArrayList<>();
+    private final Map<String, Integer> alturaPorHash = new ConcurrentHashMap<>();
+    private FileChannel indice;
+    // Estado lido sem o monitor; as escritas abaixo só o alteram sob o monitor
+    private volatile Visao visao = Visao.VAZIA;
+
+    private long[] posicoes = new long[1024];
+    private String[] hashes = new String[1024];
+    private int[] transacoes = new int[1024];
+    private int altura = 0;
+    private long totalTransacoes = 0;
+    private long fimSegmentoAtual = 0;
+
+    private int pendentesFsync = 0;
+    private long ultimoFsync = System.currentTimeMillis();
+    private volatile boolean fechado = false;
+
+    private BlockStore(Path diretorio) {
+        this.diretorio = diretorio;
+    }
+
+    /**
+     * Abre (ou cria) o armazenamento no diretório informado e reconstrói o índice.
+     */
+    public static BlockStore abrir(Path diretorio) {
+        BlockStore store = new BlockStore(diretorio);
+        try {
+            Files.createDirectories(diretorio);
+            store.abrirSegmentos();
+            store.carregarIndice();
+            int recuperados = store.recuperarCauda();
+            if (recuperados > 0) {
+                store.sincronizarDisco();
+            }
+            store.mapearSegmentosFechados();
+            store.publicar();
+            Logger.info(null, String.format("[STORE] %s aberto: %d blocos (%d relidos após o índice)",
+                    diretorio, store.altura, recuperados));
+        } catch (IOException e) {
+            store.fecharCanais();
+            throw new RuntimeException("Erro ao abrir armazenamento de blocos em " + diretorio, e);
+        }
+        return store;
+    }
+
+    // ==================== ESCRITA ====================
+
+    /**
+     * Acrescenta um bloco ao fim do armazenamento. O índice do bloco deve ser a altura atual.
+     */
+    public synchronized void gravar(Bloco bloco) {
+        verificarAberto();
+        if (bloco.getIndice() != altura) {
+            throw new IllegalArgumentException(String.format(
+                    "Bloco %d fora de ordem (altura atual: %d)", bloco.getIndice(), altura));
+        }
+        // O índice guarda o hash em 32 bytes: só hashes hexadecimais de SHA-256 cabem nele
+        if (!BlockHasher.paraHex(BlockHasher.hashParaBytes(bloco.getHash())).equals(bloco.getHash())) {
+            throw new IllegalArgumentException("Hash de bloco inválido: " + bloco.getHash());
+        }
+
+        byte[] corpo = BlockCodec.codificar(bloco);
+        ByteBuffer registro = ByteBuffer.allocate(TAMANHO_CABECALHO_REGISTRO + corpo.length);
+        registro.putInt(corpo.length);
+        registro.putInt(crc(corpo));
+        registro.put(corpo);
+        registro.flip();
+
+        try {
+            if (segmentos.isEmpty()
+                    || (fimSegmentoAtual > 0 && fimSegmentoAtual + registro.remaining() > TAMANHO_MAXIMO_SEGMENTO)) {
+                abrirNovoSegmento();
+            }
+
+            int segmento = segmentos.size() - 1;
+            long offset = fimSegmentoAtual;
+            escreverCompleto(segmentos.get(segmento), registro, offset);
+            fimSegmentoAtual = offset + TAMANHO_CABECALHO_REGISTRO + corpo.length;
+
+            indexar(bloco.getHash(), bloco.getTransacoes().size(), segmento, offset);
+            escreverEntradaIndice(altura - 1);
+            pendentesFsync++;
+
+            publicar();
+
+            if (pendentesFsync >= BLOCOS_POR_FSYNC
+                    || System.currentTimeMillis() - ultimoFsync >= INTERVALO_FSYNC_MS) {
+                sincronizarDisco();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao gravar bloco " + bloco.getIndice(), e);
+        }
+    }
+
+    /**
+     * Descarta os blocos a partir da altura informada (usado quando a cadeia é reorganizada).
+     */
+    public synchronized void truncar(int novaAltura) {
+        verificarAberto();
+        if (novaAltura < 0) {
+            throw new IllegalArgumentException("Altura inválida: " + novaAltura);
+        }
+        if (novaAltura >= altura) {
+            return;
+        }
+
+        try {
+            int segmento = segmentoDe(posicoes[novaAltura]);
+            long offset = offsetDe(posicoes[novaAltura]);
+            descartarAPartirDe(segmento, offset);
+            descartarIndiceAPartirDe(novaAltura);
+            publicar();
+            indice.force(false);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao truncar armazenamento na altura " + novaAltura, e);
+        }
+    }
+
+    /**
+     * Força a gravação em disco dos blocos pendentes.
+     */
+    public synchronized void sincronizar() {
+        if (fechado) {
+            return;
+        }
+        try {
+            sincronizarDisco();
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao sincronizar armazenamento", e);
+        }
+    }
+
+    public synchronized void fechar() {
+        if (fechado) {
+            return;
+        }
+        try {
+            sincronizarDisco();
+        } catch (IOException e) {
+            Logger.error(null, "[STORE] Erro ao sincronizar armazenamento: " + e.getMessage());
+        } finally {
+            fechado = true;
+            fecharCanais();
+            visao = Visao.VAZIA;
+        }
+    }
+
+    // ==================== LEITURA ====================
+
+    public Bloco ler(int alturaBloco) {
+        verificarAberto();
+        Visao v = visao;
+        while (true) {
+            try {
+                return ler(v, alturaBloco);
+            } catch (ConcurrentModificationException e) {
+                // Visão antiga: o registro foi truncado ou reescrito por outro ramo
+                verificarAberto();
+                v = visao;
+            }
+        }
+    }
+
+    /**
+     * Visão atual do armazenamento, para quem precisa ler os blocos como estavam agora
+     * mesmo depois de um truncamento (ex: os snapshots da {@link Chain}).
+     */
+    Visao getVisao() {
+        return visao;
+    }
+
+    /**
+     * Lê o bloco que a visão informada tem na altura. O bloco lido do disco é conferido
+     * com o hash da visão.
+     *
+     * @throws ConcurrentModificationException se a visão deixou de ser a atual e o
+     *         registro foi truncado ou reescrito desde então
+     */
+    Bloco ler(Visao v, int alturaBloco) {
+        if (alturaBloco < 0 || alturaBloco >= v.altura) {
+            throw new IndexOutOfBoundsException("Altura inválida: " + alturaBloco);
+        }
+
+        IOException falha;
+        try {
+            byte[] corpo = lerCorpo(v, alturaBloco);
+            Bloco bloco = corpo != null ? BlockCodec.decodificar(corpo) : null;
+            if (bloco != null && bloco.getHash().equals(v.hashes[alturaBloco])) {
+                return bloco;
+            }
+            falha = new IOException("Registro corrompido na altura " + alturaBloco);
+        } catch (IOException e) {
+            falha = e;
+        }
+
+        if (visao != v) {
+            throw new ConcurrentModificationException("Bloco " + alturaBloco + " descartado numa reorganização");
+        }
+        throw new RuntimeException("Erro ao ler bloco " + alturaBloco, falha);
+    }
+
+    /**
+     * Percorre os blocos em ordem a partir da altura informada.
+     */
+    public void iterar(int inicio, Consumer<Bloco> consumidor) {
+        for (int h = inicio; h < getAltura(); h++) {
+            consumidor.accept(ler(h));
+        }
+    }
+
+    public int getAltura() {
+        return visao.altura;
+    }
+
+    /**
+     * Hash do bloco na altura informada, lido do índice sem decodificar o bloco.
+     */
+    public String getHash(int alturaBloco) {
+        Visao v = visao;
+        if (alturaBloco < 0 || alturaBloco >= v.altura) {
+            throw new IndexOutOfBoundsException("Altura inválida: " + alturaBloco);
+        }
+        return v.hashes[alturaBloco];
+    }
+
+    /**
+     * Total de transações dos blocos armazenados, somado a partir do índice.
+     */
+    public long getTotalTransacoes() {
+        return visao.totalTransacoes;
+    }
+
+    /**
+     * @return a altura do bloco com o hash informado, ou -1 se não estiver armazenado
+     */
+    public int buscarAltura(String hash) {
+        Visao v = visao;
+        Integer h = hash != null ? alturaPorHash.get(hash) : null;
+        // O mapa pode estar à frente ou atrás da visão durante uma escrita
+        return h != null && h < v.altura && hash.equals(v.hashes[h]) ? h : -1;
+    }
+
+    public Path getDiretorio() {
+        return diretorio;
+    }
+
+    // ==================== ABERTURA E RECUPERAÇÃO ====================
+
+    private void abrirSegmentos() throws IOException {
+        for (int numero = 0; ; numero++) {
+            Path arquivo = caminhoSegmento(numero);
+            if (!Files.exists(arquivo)) {
+                break;
+            }
+            segmentos.add(abrirCanal(arquivo));
+        }
+        fimSegmentoAtual = segmentos.isEmpty() ? 0 : segmentos.get(segmentos.size() - 1).size();
+    }
+
+    /**
+     * Lê o arquivo de índice e para na primeira entrada corrompida ou que aponte para
+     * além dos dados (índice gravado em disco antes do segmento numa queda). O arquivo
+     * é cortado logo após a última entrada aceita.
+     */
+    private void carregarIndice() throws IOException {
+        indice = abrirCanal(diretorio.resolve(ARQUIVO_INDICE));
+        long total = indice.size() / TAMANHO_ENTRADA_INDICE;
+
+        ByteBuffer buffer = ByteBuffer.allocate(TAMANHO_ENTRADA_INDICE * ENTRADAS_POR_LEITURA);
+        byte[] hash = new byte[BlockHasher.TAMANHO_HASH];
+        CRC32 crc = new CRC32();
+        boolean integro = true;
+        while (integro && altura < total) {
+            int lote = (int) Math.min(ENTRADAS_POR_LEITURA, total - altura);
+            buffer.clear().limit(lote * TAMANHO_ENTRADA_INDICE);
+            lerCompleto(indice, buffer, (long) altura * TAMANHO_ENTRADA_INDICE);
+            buffer.flip();
+
+            for (int e = 0; e < lote && integro; e++) {
+                int inicio = buffer.position();
+                crc.reset();
+                crc.update(buffer.array(), inicio, TAMANHO_ENTRADA_INDICE - Integer.BYTES);
+                long posicao = buffer.getLong();
+                buffer.get(hash);
+                int quantidade = buffer.getInt();
+
+                int segmento = segmentoDe(posicao);
+                integro = buffer.getInt() == (int) crc.getValue()
+                        && segmento < segmentos.size()
+                        && offsetDe(posicao) + TAMANHO_CABECALHO_REGISTRO <= segmentos.get(segmento).size();
+                if (integro) {
+                    indexar(BlockHasher.paraHex(hash), quantidade, segmento, offsetDe(posicao));
+                }
+            }
+        }
+
+        if (indice.size() != (long) altura * TAMANHO_ENTRADA_INDICE) {
+            indice.truncate((long) altura * TAMANHO_ENTRADA_INDICE);
+        }
+    }
+
+    /**
+     * Relê os registros gravados após a última entrada do índice e descarta uma cauda
+     * corrompida. Os blocos recuperados ganham entrada no índice.
+     *
+     * @return quantidade de blocos recuperados
+     */
+    private int recuperarCauda() throws IOException {
+        int segmento = 0;
+        long offset = 0;
+
+        // Entradas cujo registro não chegou inteiro ao disco são descartadas
+        while (altura > 0) {
+            long ultima = posicoes[altura - 1];
+            byte[] corpo = lerRegistro(segmentos.get(segmentoDe(ultima)), offsetDe(ultima));
+            if (corpo != null) {
+                segmento = segmentoDe(ultima);
+                offset = offsetDe(ultima) + TAMANHO_CABECALHO_REGISTRO + corpo.length;
+                break;
+            }
+            descartarIndiceAPartirDe(altura - 1);
+        }
+
+        int recuperados = 0;
+        while (segmento < segmentos.size()) {
+            FileChannel canal = segmentos.get(segmento);
+            if (offset >= canal.size()) {
+                if (segmento == segmentos.size() - 1) {
+                    break;
+                }
+                segmento++;
+                offset = 0;
+                continue;
+            }
+
+            byte[] corpo = lerRegistro(canal, offset);
+            Bloco bloco = corpo != null ? decodificarOuNulo(corpo) : null;
+            if (bloco == null || bloco.getIndice() != altura) {
+                Logger.error(null, String.format(
+                        "[STORE] Registro inválido no segmento %d (offset %d), descartando o restante",
+                        segmento, offset));
+                descartarAPartirDe(segmento, offset);
+                break;
+            }
+
+            indexar(bloco.getHash(), bloco.getTransacoes().size(), segmento, offset);
+            escreverEntradaIndice(altura - 1);
+            offset += TAMANHO_CABECALHO_REGISTRO + corpo.length;
+            recuperados++;
+            pendentesFsync++;
+        }
+
+        fimSegmentoAtual = segmentos.isEmpty() ? 0 : segmentos.get(segmentos.size() - 1).size();
+        return recuperados;
+    }
+
+    private Bloco decodificarOuNulo(byte[] corpo) {
+        try {
+            return BlockCodec.decodificar(corpo);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    // ==================== SNAPSHOT DO ESTADO ====================
+
+    /**
+     * Estado derivado da cadeia até a altura em que foi salvo (exclusive).
+     */
+    public static final class EstadoSalvo {
+        private final int altura;
+        private final byte[] dados;
+
+        private EstadoSalvo(int altura, byte[] dados) {
+            this.altura = altura;
+            this.dados = dados;
+        }
+
+        public int getAltura() {
+            return altura;
+        }
+
+        public byte[] getDados() {
+            return dados;
+        }
+    }
+
+    /**
+     * Grava o snapshot do estado correspondente à ponta atual do armazenamento. Os
+     * blocos são sincronizados antes, para o snapshot nunca apontar além dos dados.
+     */
+    public synchronized void salvarEstado(byte[] dados) {
+        if (fechado || altura == 0) {
+            return;
+        }
+
+        BinaryWriter writer = new BinaryWriter(dados.length + 64);
+        writer.escreverInt(MAGICO_ESTADO);
+        writer.escreverByte(VERSAO_ESTADO);
+        writer.escreverVarInt(altura);
+        BlockCodec.escreverHash(writer, hashes[altura - 1]);
+        writer.escreverVarInt(dados.length);
+        writer.escreverBytes(dados);
+        writer.escreverInt(crc(writer.toByteArray()));
+
+        try {
+            sincronizarDisco();
+            Path temporario = diretorio.resolve(ARQUIVO_ESTADO + ".tmp");
+            try (FileChannel canal = FileChannel.open(temporario, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                escreverCompleto(canal, ByteBuffer.wrap(writer.toByteArray()), 0);
+                canal.force(true);
+            }
+            Files.move(temporario, diretorio.resolve(ARQUIVO_ESTADO),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao salvar snapshot do estado", e);
+        }
+    }
+
+    /**
+     * @return o último snapshot salvo, ou null se não houver um íntegro que corresponda
+     *         a um bloco ainda armazenado (ex: cadeia reorganizada abaixo dele)
+     */
+    public synchronized EstadoSalvo carregarEstado() {
+        verificarAberto();
+        Path arquivo = diretorio.resolve(ARQUIVO_ESTADO);
+        try {
+            if (!Files.exists(arquivo)) {
+                return null;
+            }
+            byte[] conteudo = Files.readAllBytes(arquivo);
+            if (conteudo.length < Integer.BYTES
+                    || lerIntFinal(conteudo) != crc(Arrays.copyOf(conteudo, conteudo.length - Integer.BYTES))) {
+                Logger.error(null, "[STORE] Snapshot do estado corrompido, ignorando");
+                return null;
+            }
+
+            BinaryReader reader = new BinaryReader(conteudo, 0, conteudo.length - Integer.BYTES);
+            if (reader.lerInt() != MAGICO_ESTADO || reader.lerByte() != VERSAO_ESTADO) {
+                Logger.error(null, "[STORE] Snapshot do estado em formato desconhecido, ignorando");
+                return null;
+            }
+            int alturaEstado = reader.lerVarInt();
+            String hash = BlockCodec.lerHash(reader);
+            byte[] dados = reader.lerBytes(reader.lerVarInt());
+
+            if (alturaEstado < 1 || alturaEstado > altura || !hashes[alturaEstado - 1].equals(hash)) {
+                return null;
+            }
+            return new EstadoSalvo(alturaEstado, dados);
+        } catch (IOException | IllegalArgumentException e) {
+            Logger.error(null, "[STORE] Erro ao ler snapshot do estado: " + e.getMessage());
+            return null;
+        }
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private void indexar(String hash, int quantidadeTransacoes, int segmento, long offset) {
+        if (altura == posicoes.length) {
+            posicoes = Arrays.copyOf(posicoes, altura * 2);
+            hashes = Arrays.copyOf(hashes, altura * 2);
+            transacoes = Arrays.copyOf(transacoes, altura * 2);
+        }
+        posicoes[altura] = ((long) segmento << BITS_OFFSET) | offset;
+        hashes[altura] = hash;
+        transacoes[altura] = quantidadeTransacoes;
+        alturaPorHash.put(hash, altura);
+        totalTransacoes += quantidadeTransacoes;
+        altura++;
+    }
+
+    /**
+     * Grava a entrada de índice da altura informada na sua posição fixa do arquivo.
+     */
+    private void escreverEntradaIndice(int alturaBloco) throws IOException {
+        ByteBuffer entrada = ByteBuffer.allocate(TAMANHO_ENTRADA_INDICE);
+        entrada.putLong(posicoes[alturaBloco]);
+        entrada.put(BlockHasher.hashParaBytes(hashes[alturaBloco]));
+        entrada.putInt(transacoes[alturaBloco]);
+        CRC32 crc = new CRC32();
+        crc.update(entrada.array(), 0, entrada.position());
+        entrada.putInt((int) crc.getValue());
+        entrada.flip();
+        escreverCompleto(indice, entrada, (long) alturaBloco * TAMANHO_ENTRADA_INDICE);
+    }
+
+    private void descartarIndiceAPartirDe(int novaAltura) throws IOException {
+        // Visões já publicadas continuam com os arrays antigos, que não são mais alterados
+        posicoes = posicoes.clone();
+        hashes = hashes.clone();
+        transacoes = transacoes.clone();
+        for (int h = novaAltura; h < altura; h++) {
+            alturaPorHash.remove(hashes[h]);
+            totalTransacoes -= transacoes[h];
+            hashes[h] = null;
+        }
+        altura = novaAltura;
+        indice.truncate((long) novaAltura * TAMANHO_ENTRADA_INDICE);
+    }
+
+    /**
+     * Lê um registro e confere o CRC.
+     *
+     * @return o corpo do registro, ou null se estiver incompleto ou corrompido
+     */
+    private static byte[] lerRegistro(FileChannel canal, long offset) throws IOException {
+        if (offset + TAMANHO_CABECALHO_REGISTRO > canal.size()) {
+            return null;
+        }
+
+        ByteBuffer cabecalho = ByteBuffer.allocate(TAMANHO_CABECALHO_REGISTRO);
+        lerCompleto(canal, cabecalho, offset);
+        cabecalho.flip();
+        int tamanho = cabecalho.getInt();
+        int crcEsperado = cabecalho.getInt();
+
+        if (tamanho <= 0 || tamanho > TAMANHO_MAXIMO_REGISTRO
+                || offset + TAMANHO_CABECALHO_REGISTRO + tamanho > canal.size()) {
+            return null;
+        }
+
+        ByteBuffer corpo = ByteBuffer.allocate(tamanho);
+        lerCompleto(canal, corpo, offset + TAMANHO_CABECALHO_REGISTRO);
+        byte[] bytes = corpo.array();
+        return crc(bytes) == crcEsperado ? bytes : null;
+    }
+
+    /**
+     * Lê o registro da altura pela visão: segmentos fechados pelo mapeamento em memória,
+     * o último por leitura posicional.
+     */
+    private static byte[] lerCorpo(Visao v, int alturaBloco) throws IOException {
+        long posicao = v.posicoes[alturaBloco];
+        int segmento = segmentoDe(posicao);
+        MappedByteBuffer mapa = v.mapas[segmento];
+        return mapa != null
+                ? lerRegistroMapeado(mapa, offsetDe(posicao))
+                : lerRegistro(v.canais[segmento], offsetDe(posicao));
+    }
+
+    /**
+     * Lê um registro de um segmento fechado através do mapeamento em memória.
+     */
+    private static byte[] lerRegistroMapeado(MappedByteBuffer mapeamento, long offset) throws IOException {
+        ByteBuffer mapa = mapeamento.duplicate();
+        if (offset + TAMANHO_CABECALHO_REGISTRO > mapa.limit()) {
+            return null;
+        }
+
+        try {
+            int inicio = (int) offset;
+            int tamanho = mapa.getInt(inicio);
+            int crcEsperado = mapa.getInt(inicio + Integer.BYTES);
+            if (tamanho <= 0 || inicio + TAMANHO_CABECALHO_REGISTRO + tamanho > mapa.limit()) {
+                return null;
+            }
+
+            byte[] bytes = new byte[tamanho];
+            mapa.position(inicio + TAMANHO_CABECALHO_REGISTRO);
+            mapa.get(bytes);
+            return crc(bytes) == crcEsperado ? bytes : null;
+        } catch (InternalError e) {
+            // Acesso a páginas de um segmento truncado depois de mapeado
+            throw new IOException("Segmento truncado durante a leitura", e);
+        }
+    }
+
+    /**
+     * Mapeia todos os segmentos menos o último, que ainda recebe escritas.
+     */
+    private void mapearSegmentosFechados() throws IOException {
+        for (int s = mapeamentos.size(); s < segmentos.size() - 1; s++) {
+            FileChannel canal = segmentos.get(s);
+            mapeamentos.add(canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size()));
+        }
+    }
+
+    /**
+     * Publica o estado atual para as leituras. Chamado sob o monitor ao fim de cada alteração.
+     */
+    private void publicar() {
+        MappedByteBuffer[] mapas = new MappedByteBuffer[segmentos.size()];
+        for (int s = 0; s < mapeamentos.size() && s < mapas.length; s++) {
+            mapas[s] = mapeamentos.get(s);
+        }
+        visao = new Visao(altura, posicoes, hashes, totalTransacoes,
+                segmentos.toArray(new FileChannel[0]), mapas);
+    }
+
+    private void descartarAPartirDe(int segmento, long offset) throws IOException {
+        // Mapeamentos a partir deste segmento deixam de refletir o arquivo
+        while (mapeamentos.size() > segmento) {
+            mapeamentos.remove(mapeamentos.size() - 1);
+        }
+        segmentos.get(segmento).truncate(offset);
+        for (int s = segmentos.size() - 1; s > segmento; s--) {
+            segmentos.remove(s).close();
+            Files.deleteIfExists(caminhoSegmento(s));
+        }
+        fimSegmentoAtual = segmentos.get(segmentos.size() - 1).size();
+        segmentos.get(segmento).force(true);
+    }
+
+    private void abrirNovoSegmento() throws IOException {
+        if (!segmentos.isEmpty()) {
+            segmentos.get(segmentos.size() - 1).force(false);
+        }
+        segmentos.add(abrirCanal(caminhoSegmento(segmentos.size())));
+        mapearSegmentosFechados();
+        fimSegmentoAtual = 0;
+    }
+
+    private void sincronizarDisco() throws IOException {
+        if (pendentesFsync > 0 && !segmentos.isEmpty()) {
+            segmentos.get(segmentos.size() - 1).force(false);
+            indice.force(false);
+        }
+        pendentesFsync = 0;
+        ultimoFsync = System.currentTimeMillis();
+    }
+
+    private void fecharCanais() {
+        mapeamentos.clear();
+        for (FileChannel canal : segmentos) {
+            try {
+                canal.force(false);
+                canal.close();
+            } catch (IOException ignored) {
+            }
+        }
+        segmentos.clear();
+        if (indice != null) {
+            try {
+                indice.force(false);
+                indice.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void verificarAberto() {
+        if (fechado) {
+            throw new IllegalStateException("Armazenamento de blocos fechado");
+        }
+    }
+
+    private Path caminhoSegmento(int numero) {
+        return diretorio.resolve(String.format("%s%05d%s", PREFIXO_SEGMENTO, numero, EXTENSAO_SEGMENTO));
+    }
+
+    private static FileChannel abrirCanal(Path arquivo) throws IOException {
+        return FileChannel.open(arquivo, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static void escreverCompleto(FileChannel canal, ByteBuffer buffer, long posicao) throws IOException {
+        while (buffer.hasRemaining()) {
+            posicao += canal.write(buffer, posicao);
+        }
+    }
+
+    private static void lerCompleto(FileChannel canal, ByteBuffer buffer, long posicao) throws IOException {
+        while (buffer.hasRemaining()) {
+            int lidos = canal.read(buffer, posicao);
+            if (lidos < 0) {
+                throw new IOException("Fim de arquivo inesperado");
+            }
+            posicao += lidos;
+        }
+    }
+
+    private static int segmentoDe(long posicao) {
+        return (int) (posicao >>> BITS_OFFSET);
+    }
+
+    private static long offsetDe(long posicao) {
+        return posicao & MASCARA_OFFSET;
+    }
+
+    private static int crc(byte[] dados) {
+        CRC32 crc = new CRC32();
+        crc.update(dados, 0, dados.length);
+        return (int) crc.getValue();
+    }
+
+    private static int lerIntFinal(byte[] dados) {
+        return new BinaryReader(dados, dados.length - Integer.BYTES, Integer.BYTES).lerInt();
+    }
+
+    /**
+     * Estado imutável visto pelas leituras. Os arrays são compartilhados com o escritor,
+     * que só escreve além da altura da visão e copia-os antes de truncar.
+     */
+    static final class Visao {
+        private static final Visao VAZIA = new Visao(0, new long[0], new String[0], 0,
+                new FileChannel[0], new MappedByteBuffer[0]);
+
+        private final int altura;
+        private final long[] posicoes;
+        private final String[] hashes;
+        private final long totalTransacoes;
+        private final FileChannel[] canais;
+        private final MappedByteBuffer[] mapas;
+
+        private Visao(int altura, long[] posicoes, String[] hashes, long totalTransacoes,
+                      FileChannel[] canais, MappedByteBuffer[] mapas) {
+            this.altura = altura;
+            this.posicoes = posicoes;
+            this.hashes = hashes;
+            this.totalTransacoes = totalTransacoes;
+            this.canais = canais;
+            this.mapas = mapas;
+        }
+    }
+}
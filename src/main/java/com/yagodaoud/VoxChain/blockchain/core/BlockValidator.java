@@ -3,16 +3,30 @@ package com.yagodaoud.VoxChain.blockchain.core;
 import com.yagodaoud.VoxChain.blockchain.Bloco;
 
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Responsável pela validação de blocos e cadeias.
  * Centraliza toda a lógica de validação em um único lugar.
  */
 public class BlockValidator {
+    // Cadeias menores que isso são validadas sequencialmente
+    static final int LIMIAR_PARALELO = 512;
+    // Blocos por tarefa na validação paralela
+    private static final int BLOCOS_POR_TAREFA = 256;
+
     private final int dificuldade;
+    private final ForkJoinPool executor;
 
     public BlockValidator(int dificuldade) {
+        this(dificuldade, ForkJoinPool.commonPool());
+    }
+
+    public BlockValidator(int dificuldade, ForkJoinPool executor) {
         this.dificuldade = dificuldade;
+        this.executor = executor;
     }
 
     public ValidationResult validarBloco(Bloco bloco, Bloco blocoAnterior) {
@@ -42,16 +56,40 @@ public class BlockValidator {
         return ValidationResult.sucesso();
     }
 
+    /**
+     * Valida a cadeia inteira. A partir de {@link #LIMIAR_PARALELO} blocos usa
+     * {@link #validarCadeiaParalela}; o resultado é o mesmo nos dois modos.
+     */
     public ValidationResult validarCadeia(List<Bloco> cadeia) {
+        return validarCadeia(cadeia, 0);
+    }
+
+    /**
+     * Valida só os blocos a partir de {@code inicio}, confiando nos anteriores (ex: prefixo
+     * já validado, ver {@link CheckpointCache}). O primeiro bloco validado ainda é
+     * conferido contra o encadeamento com o bloco {@code inicio - 1}.
+     */
+    public ValidationResult validarCadeia(List<Bloco> cadeia, int inicio) {
+        if (cadeia != null && cadeia.size() - inicio >= LIMIAR_PARALELO) {
+            return validarCadeiaParalela(cadeia, inicio);
+        }
+        return validarCadeiaSequencial(cadeia, inicio);
+    }
+
+    public ValidationResult validarCadeiaSequencial(List<Bloco> cadeia) {
+        return validarCadeiaSequencial(cadeia, 0);
+    }
+
+    public ValidationResult validarCadeiaSequencial(List<Bloco> cadeia, int inicio) {
         if (cadeia == null || cadeia.isEmpty()) {
             return ValidationResult.erro("Cadeia vazia ou nula");
         }
 
-        if (!validarBlocoGenesis(cadeia.get(0))) {
+        if (inicio <= 0 && !validarBlocoGenesis(cadeia.get(0))) {
             return ValidationResult.erro("Bloco gênesis inválido");
         }
 
-        for (int i = 1; i < cadeia.size(); i++) {
+        for (int i = Math.max(1, inicio); i < cadeia.size(); i++) {
             Bloco blocoAtual = cadeia.get(i);
             Bloco blocoAnterior = cadeia.get(i - 1);
 
@@ -66,6 +104,62 @@ public class BlockValidator {
         return ValidationResult.sucesso();
     }
 
+    /**
+     * Recalcular o hash e conferir o PoW de um bloco não depende dos vizinhos, então
+     * essas verificações rodam em faixas de blocos no {@link ForkJoinPool}. O encadeamento
+     * (hash anterior e índice) é conferido numa passada linear barata. Faixas que começam
+     * depois do primeiro bloco inválido já encontrado nem são processadas, e a mensagem
+     * de erro é a mesma da validação sequencial (o bloco inválido de menor altura).
+     */
+    public ValidationResult validarCadeiaParalela(List<Bloco> cadeia) {
+        return validarCadeiaParalela(cadeia, 0);
+    }
+
+    public ValidationResult validarCadeiaParalela(List<Bloco> cadeia, int inicio) {
+        if (cadeia == null || cadeia.isEmpty()) {
+            return ValidationResult.erro("Cadeia vazia ou nula");
+        }
+
+        if (inicio <= 0 && !validarBlocoGenesis(cadeia.get(0))) {
+            return ValidationResult.erro("Bloco gênesis inválido");
+        }
+
+        int primeiro = Math.max(1, inicio);
+        if (primeiro >= cadeia.size()) {
+            return ValidationResult.sucesso();
+        }
+
+        // Encadeamento: primeiro bloco cujo hash anterior ou índice não confere
+        int primeiroEncadeamentoInvalido = cadeia.size();
+        String hashAnterior = cadeia.get(primeiro - 1).getHash();
+        int indiceAnterior = cadeia.get(primeiro - 1).getIndice();
+        for (int i = primeiro; i < cadeia.size(); i++) {
+            Bloco bloco = cadeia.get(i);
+            if (!bloco.getHashAnterior().equals(hashAnterior) || bloco.getIndice() != indiceAnterior + 1) {
+                primeiroEncadeamentoInvalido = i;
+                break;
+            }
+            hashAnterior = bloco.getHash();
+            indiceAnterior = bloco.getIndice();
+        }
+
+        // Hash e PoW em paralelo, só até onde o encadeamento é válido
+        AtomicInteger primeiroHashInvalido = new AtomicInteger(cadeia.size());
+        int fim = Math.min(cadeia.size(), primeiroEncadeamentoInvalido + 1);
+        executor.invoke(new ValidacaoFaixa(cadeia, primeiro, fim, primeiroHashInvalido));
+
+        int invalido = Math.min(primeiroEncadeamentoInvalido, primeiroHashInvalido.get());
+        if (invalido >= cadeia.size()) {
+            return ValidationResult.sucesso();
+        }
+
+        // Reaproveita a validação sequencial do bloco para produzir a mesma mensagem
+        ValidationResult resultado = validarBloco(cadeia.get(invalido), cadeia.get(invalido - 1));
+        return ValidationResult.erro(
+                String.format("Bloco %d inválido: %s", invalido, resultado.getMensagem())
+        );
+    }
+
     private boolean validarHash(Bloco bloco) {
         return bloco.getHash().equals(bloco.calcularHash());
     }
@@ -79,8 +173,7 @@ public class BlockValidator {
     }
 
     private boolean validarProofOfWork(Bloco bloco) {
-        String alvo = "0".repeat(dificuldade);
-        return bloco.getHash().startsWith(alvo);
+        return BlockHasher.atendeDificuldade(bloco.getHash(), dificuldade);
     }
 
     private boolean validarBlocoGenesis(Bloco genesis) {
@@ -88,6 +181,46 @@ public class BlockValidator {
                 genesis.getHashAnterior().equals("0");
     }
 
+    /**
+     * Confere hash e PoW dos blocos em [inicio, fim), dividindo a faixa até
+     * {@link #BLOCOS_POR_TAREFA} blocos por tarefa.
+     */
+    private class ValidacaoFaixa extends RecursiveAction {
+        private final List<Bloco> cadeia;
+        private final int inicio;
+        private final int fim;
+        private final AtomicInteger primeiroInvalido;
+
+        private ValidacaoFaixa(List<Bloco> cadeia, int inicio, int fim, AtomicInteger primeiroInvalido) {
+            this.cadeia = cadeia;
+            this.inicio = inicio;
+            this.fim = fim;
+            this.primeiroInvalido = primeiroInvalido;
+        }
+
+        @Override
+        protected void compute() {
+            if (inicio >= primeiroInvalido.get()) {
+                return; // Já há um bloco inválido antes desta faixa
+            }
+
+            if (fim - inicio > BLOCOS_POR_TAREFA) {
+                int meio = (inicio + fim) >>> 1;
+                invokeAll(new ValidacaoFaixa(cadeia, inicio, meio, primeiroInvalido),
+                        new ValidacaoFaixa(cadeia, meio, fim, primeiroInvalido));
+                return;
+            }
+
+            for (int i = inicio; i < fim && i < primeiroInvalido.get(); i++) {
+                Bloco bloco = cadeia.get(i);
+                if (!validarHash(bloco) || !validarProofOfWork(bloco)) {
+                    primeiroInvalido.accumulateAndGet(i, Math::min);
+                    return;
+                }
+            }
+        }
+    }
+
     /**
      * Classe de resultado de validação.
      * Permite retornar tanto status quanto mensagem de erro.
@@ -2,25 +2,58 @@ package com.yagodaoud.VoxChain.blockchain.core;
 
 import com.yagodaoud.VoxChain.blockchain.Bloco;
 import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.utils.Logger;
 
+import java.util.AbstractList;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
 import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Responsável apenas pelo gerenciamento da cadeia de blocos.
  * Mantém a lista de blocos e operações básicas.
+ * Com um {@link BlockStore}, os blocos aceitos são persistidos e recarregados no reinício;
+ * apenas os blocos mais recentes ficam em memória e os antigos são lidos do disco sob demanda.
+ *
+ * Leitores não usam lock: cada consulta lê uma única vez o {@link Snapshot} atual, que é
+ * imutável do ponto de vista de quem o recebeu. Os blocos fora da janela são lidos pela
+ * visão do armazenamento guardada no snapshot e conferidos com os hashes dela: se uma
+ * reorganização reescreveu o disco, a leitura falha em vez de devolver o outro ramo.
+ * As escritas (adicionar, substituir) não são thread-safe entre si e devem ser
+ * serializadas pelo chamador.
  */
 public class Chain {
-    private final List<Bloco> blocos;
+    public static final int JANELA_BLOCOS_RECENTES = 256;
+
     private final int dificuldade;
+    private final BlockStore store;
+
+    private volatile Snapshot atual;
+
+    // Índice hash → altura de todos os blocos da cadeia (inclusive os que estão só em disco)
+    private final Map<String, Integer> alturaPorHash = new ConcurrentHashMap<>();
 
     public Chain(int dificuldade) {
-        this.blocos = new ArrayList<>();
+        this(dificuldade, null);
+    }
+
+    public Chain(int dificuldade, BlockStore store) {
         this.dificuldade = dificuldade;
-        criarBlocoGenesis();
+        this.store = store;
+
+        Bloco genesis = criarBlocoGenesis();
+        if (store == null || !carregarDoArmazenamento(genesis)) {
+            alturaPorHash.put(genesis.getHash(), 0);
+            persistir(genesis);
+            atual = new Snapshot(new Bloco[]{genesis}, 0, 1, 0, visaoDoDisco());
+        }
     }
 
-    private void criarBlocoGenesis() {
+    private Bloco criarBlocoGenesis() {
         Bloco genesis = new Bloco(
                 0,
                 new ArrayList<>(),
@@ -29,48 +62,238 @@ public class Chain {
                 1700000000000L
         );
         genesis.minerarBloco(dificuldade);
-        blocos.add(genesis);
+        return genesis;
+    }
+
+    /**
+     * Recarrega os blocos persistidos. Hashes e contagem de transações vêm do índice do
+     * armazenamento, sem decodificar os blocos: eles já foram validados quando aceitos e
+     * o CRC de cada registro protege contra corrupção. Só os blocos da janela recente são
+     * lidos, e o encadeamento deles é conferido com os hashes do índice.
+     *
+     * @return false se o armazenamento estiver vazio ou for de outra rede (gênesis diferente)
+     */
+    private boolean carregarDoArmazenamento(Bloco genesis) {
+        if (store.getAltura() == 0) {
+            return false;
+        }
+
+        if (!store.getHash(0).equals(genesis.getHash())) {
+            Logger.error(null, "[STORE] Gênesis armazenado não confere, descartando blocos persistidos");
+            store.truncar(0);
+            return false;
+        }
+
+        long inicio = System.currentTimeMillis();
+        int altura = store.getAltura();
+        int base = Math.max(0, altura - JANELA_BLOCOS_RECENTES);
+        Bloco[] janela = new Bloco[2 * JANELA_BLOCOS_RECENTES];
+        for (int h = base; h < altura; h++) {
+            Bloco bloco = store.ler(h);
+            if (h > 0 && !bloco.getHashAnterior().equals(store.getHash(h - 1))) {
+                Logger.error(null, "[STORE] Encadeamento quebrado na altura " + h + ", truncando");
+                store.truncar(h);
+                altura = h;
+                break;
+            }
+            janela[h - base] = bloco;
+        }
+
+        for (int h = 0; h < altura; h++) {
+            alturaPorHash.put(store.getHash(h), h);
+        }
+        atual = new Snapshot(janela, base, altura, (int) store.getTotalTransacoes(), store.getVisao());
+
+        Logger.info(null, String.format("[STORE] %d blocos carregados em %d ms (%d em memória)",
+                altura, System.currentTimeMillis() - inicio, altura - base));
+        return true;
     }
 
+    /**
+     * Anexa o bloco no fim. O bloco é gravado numa posição do array que nenhum snapshot
+     * publicado enxerga e só depois o novo snapshot é publicado.
+     */
     public void adicionarBloco(Bloco bloco) {
         if (bloco == null) {
             throw new IllegalArgumentException("Bloco não pode ser nulo");
         }
-        blocos.add(bloco);
+        Snapshot s = atual;
+        persistir(bloco);
+        alturaPorHash.put(bloco.getHash(), s.tamanho);
+
+        Bloco[] janela = s.janela;
+        int base = s.base;
+        int posicao = s.tamanho - base;
+        if (posicao == janela.length) {
+            if (store != null && posicao >= 2 * JANELA_BLOCOS_RECENTES) {
+                // Recria a janela só com os blocos mais recentes; os antigos ficam no disco
+                int descartados = posicao - JANELA_BLOCOS_RECENTES;
+                Bloco[] nova = new Bloco[janela.length];
+                System.arraycopy(janela, descartados, nova, 0, JANELA_BLOCOS_RECENTES);
+                janela = nova;
+                base += descartados;
+                posicao -= descartados;
+            } else {
+                // Cresce a janela; sem armazenamento todos os blocos ficam em memória
+                janela = Arrays.copyOf(janela, Math.max(16, janela.length * 2));
+            }
+        }
+        janela[posicao] = bloco;
+
+        int transacoes = bloco.getIndice() > 0 ? bloco.getTransacoes().size() : 0;
+        atual = new Snapshot(janela, base, s.tamanho + 1, s.totalTransacoes + transacoes, visaoDoDisco());
+    }
+
+    private BlockStore.Visao visaoDoDisco() {
+        return store != null ? store.getVisao() : null;
+    }
+
+    private void persistir(Bloco bloco) {
+        if (store != null) {
+            store.gravar(bloco);
+        }
+    }
+
+    public void fechar() {
+        if (store != null) {
+            store.fechar();
+        }
     }
 
     public Bloco obterUltimoBloco() {
-        return blocos.get(blocos.size() - 1);
+        Snapshot s = atual;
+        return s.janela[s.tamanho - 1 - s.base];
     }
 
     public Bloco obterBloco(int indice) {
-        if (indice < 0 || indice >= blocos.size()) {
-            throw new IndexOutOfBoundsException("Índice de bloco inválido: " + indice);
+        while (true) {
+            try {
+                return atual.obter(indice, store);
+            } catch (ConcurrentModificationException e) {
+                // Reorganizada durante a leitura: tenta de novo no snapshot seguinte
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Busca um bloco da cadeia ativa pelo hash, em O(1).
+     *
+     * @return o bloco, ou null se o hash não pertencer à cadeia
+     */
+    public Bloco obterBlocoPorHash(String hash) {
+        int altura = obterAlturaPorHash(hash);
+        if (altura < 0) {
+            return null;
+        }
+        try {
+            Bloco bloco = obterBloco(altura);
+            // A cadeia pode ter sido substituída entre a consulta ao índice e a leitura
+            return bloco.getHash().equals(hash) ? bloco : null;
+        } catch (IndexOutOfBoundsException e) {
+            return null;
         }
-        return blocos.get(indice);
     }
 
+    /**
+     * @return a altura do bloco com o hash informado, ou -1 se não pertencer à cadeia
+     */
+    public int obterAlturaPorHash(String hash) {
+        if (hash == null) {
+            return -1;
+        }
+        Integer altura = alturaPorHash.get(hash);
+        return altura != null ? altura : -1;
+    }
+
+    /**
+     * Visão somente leitura da cadeia no momento da chamada, sem copiar os blocos.
+     * Blocos fora da janela recente são decodificados do disco a cada acesso; se a
+     * cadeia for reorganizada abaixo da janela depois da chamada, esses acessos lançam
+     * {@link ConcurrentModificationException}.
+     */
     public List<Bloco> obterTodosBlocos() {
-        return new ArrayList<>(blocos);
+        return new VisaoBlocos(atual, store);
     }
 
+    /**
+     * Troca o sufixo divergente pela nova cadeia. O snapshot novo usa um array novo,
+     * então leitores com o snapshot anterior continuam vendo a cadeia antiga em memória.
+     * Do prefixo comum só as referências em memória são copiadas; os blocos lidos da
+     * nova cadeia são apenas os do ramo e os da janela recente.
+     */
     public void substituirCadeia(List<Bloco> novaCadeia) {
         if (novaCadeia == null || novaCadeia.isEmpty()) {
             throw new IllegalArgumentException("Cadeia inválida");
         }
-        blocos.clear();
-        blocos.addAll(novaCadeia);
+
+        Snapshot s = atual;
+        int divergencia = encontrarDivergencia(novaCadeia);
+
+        int totalTransacoes = s.totalTransacoes;
+        for (int i = divergencia; i < s.tamanho; i++) {
+            Bloco orfao = s.obter(i, store);
+            alturaPorHash.remove(orfao.getHash());
+            totalTransacoes -= i > 0 ? orfao.getTransacoes().size() : 0;
+        }
+        for (int i = divergencia; i < novaCadeia.size(); i++) {
+            Bloco novo = novaCadeia.get(i);
+            alturaPorHash.put(novo.getHash(), i);
+            totalTransacoes += i > 0 ? novo.getTransacoes().size() : 0;
+        }
+
+        // Só reescreve no disco a partir do ponto em que as cadeias divergem
+        if (store != null) {
+            store.truncar(divergencia);
+            for (int i = divergencia; i < novaCadeia.size(); i++) {
+                store.gravar(novaCadeia.get(i));
+            }
+        }
+
+        int novaBase = store != null ? Math.max(0, novaCadeia.size() - JANELA_BLOCOS_RECENTES) : 0;
+        int emMemoria = novaCadeia.size() - novaBase;
+        Bloco[] janela = new Bloco[Math.max(2 * JANELA_BLOCOS_RECENTES, 2 * emMemoria)];
+
+        // Alturas [inicioComum, fimComum) são comuns e já estão na janela atual
+        int inicioComum = Math.min(Math.max(novaBase, s.base), novaCadeia.size());
+        int fimComum = Math.max(inicioComum, divergencia);
+        if (fimComum > inicioComum) {
+            System.arraycopy(s.janela, inicioComum - s.base, janela, inicioComum - novaBase, fimComum - inicioComum);
+        }
+        for (int h = novaBase; h < inicioComum; h++) {
+            janela[h - novaBase] = novaCadeia.get(h);
+        }
+        for (int h = fimComum; h < novaCadeia.size(); h++) {
+            janela[h - novaBase] = novaCadeia.get(h);
+        }
+        atual = new Snapshot(janela, novaBase, novaCadeia.size(), totalTransacoes, visaoDoDisco());
+    }
+
+    /**
+     * Primeira altura em que a outra cadeia difere da local. Como cada bloco aponta para
+     * o hash do anterior, se o bloco i é comum então todos antes dele também são, e a
+     * busca binária sobre o índice de hashes dispensa ler os blocos antigos do disco.
+     */
+    public int encontrarDivergencia(List<Bloco> novaCadeia) {
+        int inicio = 0;
+        int fim = Math.min(getTamanho(), novaCadeia.size());
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (obterAlturaPorHash(novaCadeia.get(meio).getHash()) == meio) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
     }
 
     public int getTamanho() {
-        return blocos.size();
+        return atual.tamanho;
     }
 
     public int getTotalTransacoes() {
-        return blocos.stream()
-                .skip(1) // Pula gênesis
-                .mapToInt(b -> b.getTransacoes().size())
-                .sum();
+        return atual.totalTransacoes;
     }
 
     public int getDificuldade() {
@@ -82,12 +305,65 @@ public class Chain {
             String mineradoPor,
             Long timestampFixo
     ) {
+        Snapshot s = atual;
         return new Bloco(
-                blocos.size(),
+                s.tamanho,
                 transacoes,
-                obterUltimoBloco().getHash(),
+                s.janela[s.tamanho - 1 - s.base].getHash(),
                 mineradoPor,
                 timestampFixo
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Estado da cadeia num instante: janela[i] é o bloco de altura base + i, para
+     * alturas em [base, tamanho). Posições além de tamanho podem ser preenchidas por
+     * anexos posteriores, mas nunca as que este snapshot enxerga.
+     */
+    private static final class Snapshot {
+        private final Bloco[] janela;
+        private final int base;
+        private final int tamanho;
+        private final int totalTransacoes;
+        // Visão do armazenamento no mesmo instante; null sem armazenamento
+        private final BlockStore.Visao disco;
+
+        private Snapshot(Bloco[] janela, int base, int tamanho, int totalTransacoes, BlockStore.Visao disco) {
+            this.janela = janela;
+            this.base = base;
+            this.tamanho = tamanho;
+            this.totalTransacoes = totalTransacoes;
+            this.disco = disco;
+        }
+
+        private Bloco obter(int indice, BlockStore store) {
+            if (indice < 0 || indice >= tamanho) {
+                throw new IndexOutOfBoundsException("Índice de bloco inválido: " + indice);
+            }
+            return indice >= base ? janela[indice - base] : store.ler(disco, indice);
+        }
+    }
+
+    /**
+     * Lista somente leitura sobre um snapshot: a janela recente e o armazenamento em disco.
+     */
+    private static class VisaoBlocos extends AbstractList<Bloco> implements RandomAccess {
+        private final Snapshot snapshot;
+        private final BlockStore store;
+
+        private VisaoBlocos(Snapshot snapshot, BlockStore store) {
+            this.snapshot = snapshot;
+            this.store = store;
+        }
+
+        @Override
+        public Bloco get(int indice) {
+            return snapshot.obter(indice, store);
+        }
+
+        @Override
+        public int size() {
+            return snapshot.tamanho;
+        }
+    }
+}
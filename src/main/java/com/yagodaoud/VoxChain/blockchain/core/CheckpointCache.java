@@ -0,0 +1,80 @@
+package com.yagodaoud.VoxChain.blockchain.core;
+
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+
+import java.util.List;
+
+/**
+ * Ponto de verificação da cadeia local: o (altura, hash) do bloco mais alto até o qual
+ * a cadeia já foi validada por completo.
+ *
+ * Como cada bloco fixa o hash do anterior, basta guardar o checkpoint mais alto: qualquer
+ * bloco de outra cadeia que tenha o mesmo hash do bloco local na mesma altura, até o
+ * checkpoint, pertence ao prefixo já validado e não precisa ser validado de novo.
+ */
+public class CheckpointCache {
+    private final Chain chain;
+    private volatile Checkpoint ultimo;
+
+    public CheckpointCache(Chain chain) {
+        this.chain = chain;
+        // Só o gênesis é confiável de início; cadeias recarregadas do disco são validadas uma vez
+        this.ultimo = new Checkpoint(0, chain.obterBloco(0).getHash());
+    }
+
+    /**
+     * Quantos blocos iniciais da cadeia informada pertencem ao prefixo já validado.
+     * A divergência é encontrada por busca binária no índice de hashes da {@link Chain}.
+     */
+    public int prefixoConfiavel(List<Bloco> cadeia) {
+        if (cadeia == null || cadeia.isEmpty()) {
+            return 0;
+        }
+        int alturaValidada = getAlturaValidada();
+        return Math.min(chain.encontrarDivergencia(cadeia), alturaValidada + 1);
+    }
+
+    /**
+     * Registra que a cadeia local está validada até a altura informada.
+     */
+    public void registrar(int altura, String hash) {
+        ultimo = new Checkpoint(altura, hash);
+    }
+
+    /**
+     * Registra a ponta atual da cadeia local como validada.
+     */
+    public void registrarPonta() {
+        Bloco ponta = chain.obterUltimoBloco();
+        registrar(ponta.getIndice(), ponta.getHash());
+    }
+
+    /**
+     * Avança o checkpoint para o bloco recém-anexado, se ele estende o checkpoint atual.
+     */
+    public void avancar(Bloco bloco) {
+        Checkpoint atual = ultimo;
+        if (bloco.getIndice() == atual.altura + 1 && bloco.getHashAnterior().equals(atual.hash)) {
+            registrar(bloco.getIndice(), bloco.getHash());
+        }
+    }
+
+    /**
+     * Altura até a qual a cadeia local está validada. Se o checkpoint saiu da cadeia
+     * (reorganização), só o gênesis continua confiável.
+     */
+    public int getAlturaValidada() {
+        Checkpoint atual = ultimo;
+        return chain.obterAlturaPorHash(atual.hash) == atual.altura ? atual.altura : 0;
+    }
+
+    private static final class Checkpoint {
+        private final int altura;
+        private final String hash;
+
+        private Checkpoint(int altura, String hash) {
+            this.altura = altura;
+            this.hash = hash;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.yagodaoud.VoxChain.blockchain.core;
+
+import com.yagodaoud.VoxChain.modelo.Candidato;
+import com.yagodaoud.VoxChain.modelo.Eleicao;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.modelo.Voto;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Política padrão: transações administrativas das eleições têm prioridade sobre votos,
+ * e auditoria fica com a menor fatia. Votos, candidaturas e mudanças de estado de uma
+ * eleição esperam a criação dessa eleição ser confirmada.
+ */
+public class DefaultSelectionPolicy implements SelectionPolicy {
+    private static final String PREFIXO_ELEICAO = "eleicao:";
+
+    private final Map<TipoTransacao, Double> pesos = new EnumMap<>(TipoTransacao.class);
+    private final Predicate<String> eleicaoConfirmada;
+
+    /**
+     * Sem acesso à cadeia: a dependência vale só enquanto a criação da eleição está no pool.
+     */
+    public DefaultSelectionPolicy() {
+        this(eleicaoId -> true);
+    }
+
+    /**
+     * @param eleicaoConfirmada se a eleição com o ID informado já está confirmada na cadeia
+     */
+    public DefaultSelectionPolicy(Predicate<String> eleicaoConfirmada) {
+        this.eleicaoConfirmada = eleicaoConfirmada;
+        pesos.put(TipoTransacao.CRIACAO_ELEICAO, 8.0);
+        pesos.put(TipoTransacao.INICIO_ELEICAO, 8.0);
+        pesos.put(TipoTransacao.FIM_ELEICAO, 8.0);
+        pesos.put(TipoTransacao.CADASTRO_CANDIDATO, 6.0);
+        pesos.put(TipoTransacao.CADASTRO_ADMIN, 6.0);
+        pesos.put(TipoTransacao.CADASTRO_ELEITOR, 4.0);
+        pesos.put(TipoTransacao.VOTO, 4.0);
+        pesos.put(TipoTransacao.AUDITORIA, 1.0);
+    }
+
+    @Override
+    public double peso(TipoTransacao tipo) {
+        return pesos.getOrDefault(tipo, 1.0);
+    }
+
+    @Override
+    public String chaveDependencia(Transacao transacao) {
+        switch (transacao.getTipo()) {
+            case VOTO:
+                Voto voto = transacao.getPayloadAs(Voto.class);
+                return voto != null ? chaveEleicao(voto.getIdEleicao()) : null;
+
+            case CADASTRO_CANDIDATO:
+                Candidato candidato = transacao.getPayloadAs(Candidato.class);
+                return candidato != null ? chaveEleicao(candidato.getEleicaoId()) : null;
+
+            case INICIO_ELEICAO:
+            case FIM_ELEICAO:
+                Eleicao eleicao = transacao.getPayloadAs(Eleicao.class);
+                return eleicao != null ? chaveEleicao(eleicao.getId()) : null;
+
+            default:
+                return null;
+        }
+    }
+
+    @Override
+    public String chaveProvida(Transacao transacao) {
+        if (transacao.getTipo() != TipoTransacao.CRIACAO_ELEICAO) {
+            return null;
+        }
+        Eleicao eleicao = transacao.getPayloadAs(Eleicao.class);
+        return eleicao != null ? chaveEleicao(eleicao.getId()) : null;
+    }
+
+    @Override
+    public boolean dependenciaConfirmada(String chave) {
+        return !chave.startsWith(PREFIXO_ELEICAO)
+                || eleicaoConfirmada.test(chave.substring(PREFIXO_ELEICAO.length()));
+    }
+
+    private static String chaveEleicao(String eleicaoId) {
+        return eleicaoId != null ? PREFIXO_ELEICAO + eleicaoId : null;
+    }
+}
@@ -0,0 +1,184 @@
+package com.yagodaoud.VoxChain.blockchain.core;
+
+import com.yagodaoud.VoxChain.modelo.Transacao;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Árvore de Merkle sobre as transações de um bloco.
+ *
+ * Cada folha resume o ID da transação e o hash do seu payload, então o payload
+ * passa a ser coberto pelo hash do bloco. Folhas e nós internos usam prefixos
+ * distintos (0x00 / 0x01) e um nó sem par sobe inalterado para o nível seguinte,
+ * evitando que listas diferentes de transações produzam a mesma raiz.
+ */
+public class MerkleTree {
+    private static final byte PREFIXO_FOLHA = 0x00;
+    private static final byte PREFIXO_NO = 0x01;
+
+    private MerkleTree() {
+    }
+
+    // ==================== RAIZ ====================
+
+    public static byte[] calcularRaiz(List<Transacao> transacoes) {
+        if (transacoes.isEmpty()) {
+            return BlockHasher.novoDigest().digest();
+        }
+
+        List<byte[]> nivel = calcularFolhas(transacoes);
+        MessageDigest digest = BlockHasher.novoDigest();
+        while (nivel.size() > 1) {
+            nivel = proximoNivel(nivel, digest);
+        }
+        return nivel.get(0);
+    }
+
+    public static byte[] hashFolha(Transacao transacao) {
+        MessageDigest digest = BlockHasher.novoDigest();
+
+        String payload = transacao.getPayloadJson();
+        byte[] hashPayload = digest.digest(payload != null
+                ? payload.getBytes(StandardCharsets.UTF_8)
+                : new byte[0]);
+
+        byte[] id = transacao.getId() != null
+                ? transacao.getId().getBytes(StandardCharsets.UTF_8)
+                : new byte[0];
+
+        digest.update(PREFIXO_FOLHA);
+        digest.update(new byte[]{
+                (byte) (id.length >>> 24), (byte) (id.length >>> 16),
+                (byte) (id.length >>> 8), (byte) id.length});
+        digest.update(id);
+        digest.update(hashPayload);
+        return digest.digest();
+    }
+
+    // ==================== PROVAS DE INCLUSÃO ====================
+
+    /**
+     * Gera a prova de inclusão da transação na posição informada.
+     */
+    public static ProvaInclusao gerarProva(List<Transacao> transacoes, int posicao) {
+        if (posicao < 0 || posicao >= transacoes.size()) {
+            throw new IndexOutOfBoundsException("Posição de transação inválida: " + posicao);
+        }
+
+        List<byte[]> nivel = calcularFolhas(transacoes);
+        byte[] folha = nivel.get(posicao);
+        List<String> irmaos = new ArrayList<>();
+        List<Boolean> irmaoADireita = new ArrayList<>();
+
+        MessageDigest digest = BlockHasher.novoDigest();
+        int indice = posicao;
+        while (nivel.size() > 1) {
+            int par = indice ^ 1;
+            if (par < nivel.size()) {
+                irmaos.add(BlockHasher.paraHex(nivel.get(par)));
+                irmaoADireita.add(par > indice);
+            }
+            nivel = proximoNivel(nivel, digest);
+            indice /= 2;
+        }
+
+        return new ProvaInclusao(posicao, BlockHasher.paraHex(folha),
+                BlockHasher.paraHex(nivel.get(0)), irmaos, irmaoADireita);
+    }
+
+    /**
+     * Recalcula a raiz a partir da folha e do caminho e compara com a raiz esperada.
+     */
+    public static boolean verificarProva(ProvaInclusao prova, String raizEsperada) {
+        MessageDigest digest = BlockHasher.novoDigest();
+        byte[] atual = BlockHasher.hashParaBytes(prova.getFolha());
+
+        for (int i = 0; i < prova.getIrmaos().size(); i++) {
+            byte[] irmao = BlockHasher.hashParaBytes(prova.getIrmaos().get(i));
+            atual = prova.getIrmaoADireita().get(i)
+                    ? hashNo(digest, atual, irmao)
+                    : hashNo(digest, irmao, atual);
+        }
+
+        return BlockHasher.paraHex(atual).equals(raizEsperada);
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static List<byte[]> calcularFolhas(List<Transacao> transacoes) {
+        List<byte[]> folhas = new ArrayList<>(transacoes.size());
+        for (Transacao t : transacoes) {
+            folhas.add(hashFolha(t));
+        }
+        return folhas;
+    }
+
+    private static List<byte[]> proximoNivel(List<byte[]> nivel, MessageDigest digest) {
+        List<byte[]> proximo = new ArrayList<>((nivel.size() + 1) / 2);
+        for (int i = 0; i < nivel.size(); i += 2) {
+            if (i + 1 < nivel.size()) {
+                proximo.add(hashNo(digest, nivel.get(i), nivel.get(i + 1)));
+            } else {
+                proximo.add(nivel.get(i)); // Nó sem par sobe inalterado
+            }
+        }
+        return proximo;
+    }
+
+    private static byte[] hashNo(MessageDigest digest, byte[] esquerda, byte[] direita) {
+        digest.reset();
+        digest.update(PREFIXO_NO);
+        digest.update(esquerda);
+        digest.update(direita);
+        return digest.digest();
+    }
+
+    /**
+     * Caminho de hashes que liga uma transação à raiz de Merkle do bloco.
+     */
+    public static class ProvaInclusao {
+        private final int posicao;
+        private final String folha;
+        private final String raiz;
+        private final List<String> irmaos;
+        private final List<Boolean> irmaoADireita;
+
+        public ProvaInclusao(int posicao, String folha, String raiz,
+                             List<String> irmaos, List<Boolean> irmaoADireita) {
+            this.posicao = posicao;
+            this.folha = folha;
+            this.raiz = raiz;
+            this.irmaos = irmaos;
+            this.irmaoADireita = irmaoADireita;
+        }
+
+        public int getPosicao() {
+            return posicao;
+        }
+
+        public String getFolha() {
+            return folha;
+        }
+
+        public String getRaiz() {
+            return raiz;
+        }
+
+        public List<String> getIrmaos() {
+            return irmaos;
+        }
+
+        public List<Boolean> getIrmaoADireita() {
+            return irmaoADireita;
+        }
+
+        @Override
+        public String toString() {
+            return "ProvaInclusao{posicao=" + posicao + ", passos=" + irmaos.size() +
+                    ", raiz=" + raiz.substring(0, Math.min(12, raiz.length())) + "}";
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.yagodaoud.VoxChain.blockchain.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Motor de prova de trabalho paralelo.
+ * Divide o espaço de nonces entre várias threads trabalhadoras (cada uma testa
+ * nonces intercalados) e interrompe todas assim que uma delas encontra um hash
+ * válido ou quando a mineração é cancelada externamente.
+ *
+ * Cada {@link #cancelar} avança uma geração. Quem lê a geração antes de montar o
+ * bloco e a passa para {@link #minerar(Supplier, long)} não perde um cancelamento
+ * que chegue antes de o trabalho começar: o trabalho já nasce cancelado.
+ */
+public class ProofOfWorkEngine {
+    private static final int INTERVALO_VERIFICACAO = 256;
+
+    private final int numThreads;
+    private ExecutorService executor;
+    private volatile Trabalho trabalhoAtual;
+    private final AtomicLong geracao = new AtomicLong();
+    private volatile boolean ultimoCancelado = false;
+
+    public ProofOfWorkEngine(int numThreads) {
+        this.numThreads = Math.max(1, numThreads);
+    }
+
+    /**
+     * Busca um nonce válido usando todas as threads configuradas.
+     *
+     * @param fabrica cria um testador por thread (cada thread mantém seu próprio estado de hash)
+     * @return o nonce encontrado, ou -1 se a mineração foi cancelada ou o espaço esgotou
+     */
+    public int minerar(Supplier<TestadorNonce> fabrica) {
+        return minerar(fabrica, geracao.get());
+    }
+
+    /**
+     * Como {@link #minerar(Supplier)}, mas cancelado de saída se houve um
+     * {@link #cancelar} depois de {@code geracaoInicial} ser lida com {@link #getGeracao}.
+     */
+    public int minerar(Supplier<TestadorNonce> fabrica, long geracaoInicial) {
+        Trabalho trabalho = new Trabalho();
+        trabalhoAtual = trabalho;
+        ultimoCancelado = false;
+        // Publica o trabalho antes de conferir a geração: um cancelamento concorrente
+        // ou vê o trabalho, ou já avançou a geração
+        if (geracao.get() != geracaoInicial) {
+            trabalhoAtual = null;
+            ultimoCancelado = true;
+            return -1;
+        }
+
+        try {
+            if (numThreads == 1) {
+                buscar(fabrica.get(), 0, 1, trabalho);
+            } else {
+                List<Future<?>> tarefas = new ArrayList<>(numThreads);
+                for (int i = 0; i < numThreads; i++) {
+                    final int inicio = i;
+                    tarefas.add(obterExecutor().submit(() -> buscar(fabrica.get(), inicio, numThreads, trabalho)));
+                }
+                for (Future<?> tarefa : tarefas) {
+                    aguardar(tarefa, trabalho);
+                }
+            }
+        } finally {
+            trabalhoAtual = null;
+        }
+
+        ultimoCancelado = trabalho.cancelado.get();
+        return ultimoCancelado ? -1 : trabalho.nonceEncontrado.get();
+    }
+
+    /**
+     * Cancela a mineração em andamento (ex: outro nó publicou um bloco antes).
+     */
+    public void cancelar() {
+        geracao.incrementAndGet();
+        Trabalho trabalho = trabalhoAtual;
+        if (trabalho != null) {
+            trabalho.cancelado.set(true);
+        }
+    }
+
+    /**
+     * Indica se a última chamada a {@link #minerar} terminou por cancelamento.
+     */
+    public boolean foiCancelado() {
+        return ultimoCancelado;
+    }
+
+    /**
+     * Geração de cancelamento atual, para passar a {@link #minerar(Supplier, long)}.
+     */
+    public long getGeracao() {
+        return geracao.get();
+    }
+
+    public int getNumThreads() {
+        return numThreads;
+    }
+
+    public synchronized void encerrar() {
+        cancelar();
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    // ==================== BUSCA ====================
+
+    private void buscar(TestadorNonce testador, int inicio, int passo, Trabalho trabalho) {
+        int verificacoes = 0;
+        for (long nonce = inicio; nonce <= Integer.MAX_VALUE; nonce += passo) {
+            if (++verificacoes == INTERVALO_VERIFICACAO) {
+                verificacoes = 0;
+                if (trabalho.terminado()) {
+                    return;
+                }
+            }
+
+            if (testador.testar((int) nonce)) {
+                // Mantém o menor nonce caso duas threads encontrem ao mesmo tempo
+                trabalho.nonceEncontrado.accumulateAndGet((int) nonce,
+                        (atual, novo) -> atual < 0 ? novo : Math.min(atual, novo));
+                return;
+            }
+        }
+    }
+
+    private void aguardar(Future<?> tarefa, Trabalho trabalho) {
+        try {
+            tarefa.get();
+        } catch (InterruptedException e) {
+            trabalho.cancelado.set(true);
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            trabalho.cancelado.set(true);
+            throw new RuntimeException("Erro na thread de mineração", e.getCause());
+        }
+    }
+
+    private synchronized ExecutorService obterExecutor() {
+        if (executor == null) {
+            AtomicInteger contador = new AtomicInteger();
+            executor = Executors.newFixedThreadPool(numThreads, r -> {
+                Thread t = new Thread(r, "PoW-" + contador.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return executor;
+    }
+
+    // ==================== CLASSES AUXILIARES ====================
+
+    /**
+     * Testa se um nonce produz um hash que satisfaz a dificuldade.
+     * Cada thread recebe sua própria instância, então implementações podem reutilizar buffers.
+     */
+    @FunctionalInterface
+    public interface TestadorNonce {
+        boolean testar(int nonce);
+    }
+
+    private static class Trabalho {
+        private final AtomicInteger nonceEncontrado = new AtomicInteger(-1);
+        private final AtomicBoolean cancelado = new AtomicBoolean(false);
+
+        private boolean terminado() {
+            return cancelado.get() || nonceEncontrado.get() >= 0;
+        }
+    }
+}
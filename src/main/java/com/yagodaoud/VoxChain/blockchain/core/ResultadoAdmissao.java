@@ -0,0 +1,22 @@
+package com.yagodaoud.VoxChain.blockchain.core;
+
+/**
+ * Resultado da tentativa de adicionar uma transação ao pool.
+ * POOL_CHEIO e COTA_ORIGEM_EXCEDIDA indicam contrapressão: a transação é válida e
+ * pode ser reenviada mais tarde.
+ */
+public enum ResultadoAdmissao {
+    ACEITA,
+    DUPLICADA,
+    INVALIDA,
+    POOL_CHEIO,
+    COTA_ORIGEM_EXCEDIDA;
+
+    public boolean isAceita() {
+        return this == ACEITA;
+    }
+
+    public boolean isContrapressao() {
+        return this == POOL_CHEIO || this == COTA_ORIGEM_EXCEDIDA;
+    }
+}
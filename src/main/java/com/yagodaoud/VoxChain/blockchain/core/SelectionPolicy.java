@@ -0,0 +1,39 @@
+package com.yagodaoud.VoxChain.blockchain.core;
+
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
+
+/**
+ * Política de seleção de transações do pool para o próximo bloco.
+ *
+ * O pool separa as transações em filas por tipo e chave de dependência. Entre os tipos,
+ * a escolha é feita por enfileiramento justo ponderado pelo {@link #peso}; dentro de um
+ * tipo, vale a ordem de chegada. Uma transação com chave de dependência só é elegível
+ * quando nenhuma transação pendente provê essa chave e, se uma proveu, depois que ela foi
+ * confirmada na cadeia (ex: um voto espera a criação da sua eleição ser confirmada em bloco).
+ */
+public interface SelectionPolicy {
+
+    /**
+     * Peso relativo do tipo na composição do bloco (maior = mais vagas). Deve ser positivo.
+     */
+    double peso(TipoTransacao tipo);
+
+    /**
+     * Chave da qual a transação depende, ou null se ela não tiver dependências.
+     */
+    String chaveDependencia(Transacao transacao);
+
+    /**
+     * Chave que a transação provê para as dependentes, ou null.
+     */
+    String chaveProvida(Transacao transacao);
+
+    /**
+     * Se a chave já foi confirmada na cadeia. Consultada quando a transação que provê a
+     * chave sai do pool: a dependência vale até a confirmação, não só até a saída.
+     */
+    default boolean dependenciaConfirmada(String chave) {
+        return true;
+    }
+}
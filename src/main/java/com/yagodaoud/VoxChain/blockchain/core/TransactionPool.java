@@ -1,89 +1,377 @@
 package com.yagodaoud.VoxChain.blockchain.core;
 
 import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.indices.TransactionIdIndex;
 import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 /**
  * Gerencia o pool de transações pendentes.
- * Thread-safe para operações concorrentes.
+ * Thread-safe sem locks: as transações ficam num mapa concorrente por ID e em filas
+ * concorrentes por (tipo, chave de dependência), em ordem de chegada. Remover do pool só
+ * tira a transação do mapa; a entrada correspondente na fila é descartada depois, e a
+ * fila que fica vazia sai do mapa de filas.
+ * A composição do bloco segue a {@link SelectionPolicy} configurada.
+ *
+ * O pool é limitado em quantidade e em bytes de payload, e cada origem tem uma cota de
+ * transações pendentes. Cheio, ele descarta as transações mais antigas de peso menor
+ * ou igual ao da nova; se não houver o que descartar, recusa a nova (contrapressão).
+ * Votos nunca são descartados: o eleitor já recebeu a confirmação e gastou o token.
+ * Sob concorrência os limites são aproximados: podem ser ultrapassados por poucas entradas.
+ *
+ * Os IDs confirmados nos blocos mais recentes (até a profundidade de finalidade) ficam
+ * num mapa exato; os mais antigos são consultados no índice de IDs confirmados da cadeia,
+ * compartilhado com a {@link com.yagodaoud.VoxChain.blockchain.BlockchainGovernamental}.
  */
 public class TransactionPool {
-    private final List<Transacao> transacoesPendentes;
-    private final Set<String> idsProcessados;
+    // Entradas obsoletas toleradas nas filas antes de uma limpeza completa
+    private static final int LIMITE_OBSOLETAS = 1024;
+
+    // Votos chegam sem origem identificável, então não entram na cota por origem
+    private static final String ORIGEM_ANONIMA = "ANONIMO";
+
+    private final Map<String, Entrada> transacoesPendentes;
+    private final Map<ChaveFila, Queue<Entrada>> filas;
+    // Descartáveis de cada tipo em ordem de chegada; votos nunca entram
+    private final Map<TipoTransacao, Queue<Entrada>> descartaveis;
+    private final Map<String, AtomicInteger> provedoresPendentes;
+    private final Set<String> aguardandoConfirmacao;
+    private final Map<String, AtomicInteger> pendentesPorOrigem;
+    private final AtomicLong bytesPendentes;
+    private final AtomicLong sequencia;
+    private final AtomicInteger obsoletasNasFilas;
+    private final AtomicLong descartadas;
+    private final Map<String, Integer> confirmadasRecentes;
+    private final Deque<BlocoConfirmado> blocosRecentes;
+    private final TransactionIdIndex idsProcessados;
+    private final SelectionPolicy politica;
+    private final Limites limites;
     private final int limiteTransacoesPorBloco;
 
-    public TransactionPool(int limiteTransacoesPorBloco) {
-        this.transacoesPendentes = new ArrayList<>();
-        this.idsProcessados = ConcurrentHashMap.newKeySet();
+    public TransactionPool(int limiteTransacoesPorBloco, TransactionIdIndex idsProcessados) {
+        this(limiteTransacoesPorBloco, idsProcessados, new DefaultSelectionPolicy());
+    }
+
+    public TransactionPool(int limiteTransacoesPorBloco, TransactionIdIndex idsProcessados,
+                           SelectionPolicy politica) {
+        this(limiteTransacoesPorBloco, idsProcessados, politica, Limites.PADRAO);
+    }
+
+    public TransactionPool(int limiteTransacoesPorBloco, TransactionIdIndex idsProcessados,
+                           SelectionPolicy politica, Limites limites) {
+        this.transacoesPendentes = new ConcurrentHashMap<>();
+        this.filas = new ConcurrentHashMap<>();
+        this.descartaveis = new EnumMap<>(TipoTransacao.class);
+        for (TipoTransacao tipo : TipoTransacao.values()) {
+            if (tipo != TipoTransacao.VOTO) {
+                descartaveis.put(tipo, new ConcurrentLinkedQueue<>());
+            }
+        }
+        this.provedoresPendentes = new ConcurrentHashMap<>();
+        this.aguardandoConfirmacao = ConcurrentHashMap.newKeySet();
+        this.pendentesPorOrigem = new ConcurrentHashMap<>();
+        this.bytesPendentes = new AtomicLong();
+        this.sequencia = new AtomicLong();
+        this.obsoletasNasFilas = new AtomicInteger();
+        this.descartadas = new AtomicLong();
+        this.confirmadasRecentes = new ConcurrentHashMap<>();
+        this.blocosRecentes = new ArrayDeque<>();
+        this.idsProcessados = idsProcessados;
+        this.politica = politica;
+        this.limites = limites;
         this.limiteTransacoesPorBloco = limiteTransacoesPorBloco;
     }
 
-    public synchronized boolean adicionar(Transacao transacao) {
-        if (transacao == null || transacao.getId() == null) {
-            return false;
+    public ResultadoAdmissao adicionar(Transacao transacao) {
+        List<Entrada> admitida = new ArrayList<>(1);
+        ResultadoAdmissao resultado = admitir(transacao, admitida);
+        publicar(admitida);
+        return resultado;
+    }
+
+    /**
+     * Admite todas as transações do lote ou nenhuma. Se uma for recusada, as já admitidas
+     * são retiradas e o resultado da recusada é devolvido. As do lote só ficam visíveis
+     * para a seleção do bloco depois que todas foram admitidas.
+     */
+    public ResultadoAdmissao adicionarLote(List<Transacao> lote) {
+        List<Entrada> admitidas = new ArrayList<>(lote.size());
+        for (Transacao transacao : lote) {
+            ResultadoAdmissao resultado = admitir(transacao, admitidas);
+            if (!resultado.isAceita()) {
+                for (Entrada entrada : admitidas) {
+                    remover(entrada);
+                }
+                return resultado;
+            }
+        }
+        publicar(admitidas);
+        return ResultadoAdmissao.ACEITA;
+    }
+
+    /**
+     * Ocupa a vaga da transação no pool. Aceita, a entrada vai para {@code admitidas} e
+     * ainda precisa de {@link #publicar} para entrar nas filas de seleção.
+     */
+    private ResultadoAdmissao admitir(Transacao transacao, List<Entrada> admitidas) {
+        if (transacao == null || transacao.getId() == null || transacao.getTipo() == null) {
+            return ResultadoAdmissao.INVALIDA;
         }
 
         if (existe(transacao.getId())) {
-            return false;
+            return ResultadoAdmissao.DUPLICADA;
         }
 
-        transacoesPendentes.add(transacao);
-        return true;
+        // Reserva a vaga na cota da origem antes de ocupar espaço no pool
+        AtomicInteger cota = contadorDaOrigem(transacao.getIdOrigem());
+        if (cota != null && cota.incrementAndGet() > limites.cotaPorOrigem) {
+            cota.decrementAndGet();
+            return ResultadoAdmissao.COTA_ORIGEM_EXCEDIDA;
+        }
+
+        Entrada entrada = new Entrada(transacao, sequencia.incrementAndGet(),
+                politica.chaveDependencia(transacao), politica.chaveProvida(transacao), cota);
+
+        if (!abrirEspaco(entrada)) {
+            if (cota != null) {
+                cota.decrementAndGet();
+            }
+            return ResultadoAdmissao.POOL_CHEIO;
+        }
+
+        if (transacoesPendentes.putIfAbsent(transacao.getId(), entrada) != null) {
+            if (cota != null) {
+                cota.decrementAndGet();
+            }
+            return ResultadoAdmissao.DUPLICADA;
+        }
+
+        bytesPendentes.addAndGet(entrada.tamanho);
+        if (entrada.chaveProvida != null) {
+            provedoresPendentes.compute(entrada.chaveProvida, (chave, provedores) -> {
+                AtomicInteger contador = provedores != null ? provedores : new AtomicInteger();
+                contador.incrementAndGet();
+                return contador;
+            });
+        }
+        Queue<Entrada> descartavel = descartaveis.get(transacao.getTipo());
+        if (descartavel != null) {
+            descartavel.add(entrada);
+        }
+        admitidas.add(entrada);
+        return ResultadoAdmissao.ACEITA;
+    }
+
+    /**
+     * A inserção acontece dentro do {@code compute}, então não se perde numa fila que
+     * {@link #descartarFilaVazia} tira do mapa ao mesmo tempo.
+     */
+    private void publicar(List<Entrada> entradas) {
+        for (Entrada entrada : entradas) {
+            filas.compute(new ChaveFila(entrada.transacao.getTipo(), entrada.chaveDependencia), (chave, fila) -> {
+                Queue<Entrada> destino = fila != null ? fila : new ConcurrentLinkedQueue<>();
+                destino.add(entrada);
+                return destino;
+            });
+        }
     }
 
-    public synchronized boolean existe(String idTransacao) {
+    public boolean existe(String idTransacao) {
         if (idTransacao == null) {
             return false;
         }
 
         // Verifica no pool
-        for (Transacao t : transacoesPendentes) {
-            if (t != null && idTransacao.equals(t.getId())) {
-                return true;
-            }
+        if (transacoesPendentes.containsKey(idTransacao)) {
+            return true;
         }
 
-        // Verifica no histórico de processadas
-        return idsProcessados.contains(idTransacao);
+        // Verifica nos blocos recentes e, abaixo da finalidade, no índice de confirmadas
+        return confirmadasRecentes.containsKey(idTransacao) || idsProcessados.contem(idTransacao);
+    }
+
+    /**
+     * Transação pendente com o ID informado, ou null se não estiver no pool.
+     */
+    public Transacao buscar(String idTransacao) {
+        Entrada entrada = idTransacao == null ? null : transacoesPendentes.get(idTransacao);
+        return entrada == null ? null : entrada.transacao;
     }
 
-    public synchronized List<Transacao> obterParaBloco() {
-        if (transacoesPendentes.isEmpty()) {
-            return new ArrayList<>();
+    /**
+     * Seleciona as transações do próximo bloco, sem bloquear quem está adicionando ou
+     * removendo ao mesmo tempo.
+     *
+     * Enfileiramento justo ponderado: cada tipo tem um "tempo de término" virtual que
+     * avança 1/peso a cada transação escolhida, e sempre sai o tipo com o menor tempo.
+     * Dentro do tipo, sai a fila elegível com a transação mais antiga. Custo
+     * O(F + k log F) para k transações e F filas.
+     */
+    public List<Transacao> obterParaBloco() {
+        Map<TipoTransacao, Classe> classes = new EnumMap<>(TipoTransacao.class);
+        for (Map.Entry<ChaveFila, Queue<Entrada>> fila : filas.entrySet()) {
+            if (!elegivel(fila.getKey().dependencia)) {
+                continue;
+            }
+            Cursor cursor = new Cursor(fila.getValue().iterator());
+            if (cursor.avancar()) {
+                classes.computeIfAbsent(fila.getKey().tipo, Classe::new).cursores.add(cursor);
+            } else {
+                descartarFilaVazia(fila.getKey());
+            }
         }
 
-        int quantidade = Math.min(limiteTransacoesPorBloco, transacoesPendentes.size());
-        return new ArrayList<>(transacoesPendentes.subList(0, quantidade));
+        PriorityQueue<Classe> heap = new PriorityQueue<>(Comparator
+                .comparingDouble((Classe c) -> c.termino)
+                .thenComparing(c -> c.tipo));
+        heap.addAll(classes.values());
+
+        List<Transacao> resultado = new ArrayList<>(Math.min(limiteTransacoesPorBloco, 64));
+        Set<String> vistas = new HashSet<>();
+        while (resultado.size() < limiteTransacoesPorBloco && !heap.isEmpty()) {
+            Classe classe = heap.poll();
+            Cursor cursor = classe.cursores.poll();
+
+            Transacao t = cursor.atual.transacao;
+            if (vistas.add(t.getId())) {
+                resultado.add(t);
+                classe.termino += 1.0 / politica.peso(classe.tipo);
+            }
+
+            if (cursor.avancar()) {
+                classe.cursores.add(cursor);
+            }
+            if (!classe.cursores.isEmpty()) {
+                heap.add(classe);
+            }
+        }
+        return resultado;
     }
 
-    public synchronized void marcarComoProcessadas(List<Transacao> transacoes) {
+    /**
+     * Remove do pool as transações incluídas em um bloco. O registro como processadas
+     * acontece quando o bloco entra no índice de IDs confirmados.
+     */
+    public void marcarComoProcessadas(List<Transacao> transacoes) {
         for (Transacao t : transacoes) {
+            if (t == null || t.getId() == null) {
+                continue;
+            }
+            Entrada entrada = transacoesPendentes.get(t.getId());
+            if (entrada != null) {
+                remover(entrada);
+            }
+        }
+    }
+
+    /**
+     * Registra os IDs de um bloco recém-adicionado à cadeia e esquece os IDs dos blocos
+     * que ficaram mais fundos que a profundidade de finalidade; esses continuam
+     * respondidos pelo índice de IDs confirmados.
+     */
+    public synchronized void registrarConfirmadas(Bloco bloco) {
+        List<String> ids = new ArrayList<>(bloco.getTransacoes().size());
+        for (Transacao t : bloco.getTransacoes()) {
             if (t != null && t.getId() != null) {
-                transacoesPendentes.remove(t);
-                idsProcessados.add(t.getId());
+                ids.add(t.getId());
+                confirmadasRecentes.put(t.getId(), bloco.getIndice());
             }
         }
+        blocosRecentes.addLast(new BlocoConfirmado(bloco.getIndice(), ids));
+
+        int limiteFinalidade = bloco.getIndice() - limites.profundidadeFinalidade;
+        while (!blocosRecentes.isEmpty() && blocosRecentes.peekFirst().altura <= limiteFinalidade) {
+            BlocoConfirmado antigo = blocosRecentes.pollFirst();
+            for (String id : antigo.ids) {
+                confirmadasRecentes.remove(id, antigo.altura);
+            }
+        }
+    }
+
+    /**
+     * Desfaz {@link #registrarConfirmadas} de um bloco que saiu da cadeia numa
+     * reorganização. Os blocos devem ser desfeitos do mais alto para o mais baixo.
+     */
+    public synchronized void desfazerConfirmadas(Bloco bloco) {
+        BlocoConfirmado ultimo = blocosRecentes.peekLast();
+        if (ultimo == null || ultimo.altura != bloco.getIndice()) {
+            return; // Já estava abaixo da finalidade
+        }
+        blocosRecentes.pollLast();
+        for (String id : ultimo.ids) {
+            confirmadasRecentes.remove(id, ultimo.altura);
+        }
     }
 
-    public synchronized void limpar() {
+    public void limpar() {
         transacoesPendentes.clear();
+        filas.clear();
+        descartaveis.values().forEach(Queue::clear);
+        provedoresPendentes.clear();
+        aguardandoConfirmacao.clear();
+        pendentesPorOrigem.clear();
+        bytesPendentes.set(0);
+        obsoletasNasFilas.set(0);
     }
 
-    public synchronized int getTamanho() {
+    public int getTamanho() {
         return transacoesPendentes.size();
     }
 
-    public synchronized boolean temTransacoes() {
+    public boolean temTransacoes() {
         return !transacoesPendentes.isEmpty();
     }
 
-    public synchronized List<Transacao> obterTodas() {
-        return new ArrayList<>(transacoesPendentes);
+    public long getBytesPendentes() {
+        return bytesPendentes.get();
+    }
+
+    /**
+     * Total de transações descartadas para abrir espaço desde a criação do pool.
+     */
+    public long getDescartadas() {
+        return descartadas.get();
+    }
+
+    public int getConfirmadasRecentes() {
+        return confirmadasRecentes.size();
+    }
+
+    int getTotalFilas() {
+        return filas.size();
+    }
+
+    int getTotalChavesProvidas() {
+        return provedoresPendentes.size() + aguardandoConfirmacao.size();
+    }
+
+    /**
+     * Todas as transações pendentes, em ordem de chegada.
+     */
+    public List<Transacao> obterTodas() {
+        return transacoesPendentes.values().stream()
+                .sorted(Comparator.comparingLong(e -> e.sequencia))
+                .map(e -> e.transacao)
+                .collect(Collectors.toList());
     }
 
     /**
@@ -91,14 +379,310 @@ public class TransactionPool {
      * Útil após sincronização.
      */
     public synchronized void reconstruirHistorico(List<Bloco> blocos) {
-        idsProcessados.clear();
+        idsProcessados.reconstruir(blocos);
+        restaurarConfirmadasRecentes(blocos);
+    }
+
+    /**
+     * Refaz só as confirmações recentes, lidas dos últimos blocos, quando os IDs
+     * processados já foram restaurados de um snapshot.
+     */
+    public synchronized void restaurarConfirmadasRecentes(List<Bloco> blocos) {
+        confirmadasRecentes.clear();
+        blocosRecentes.clear();
+        for (int i = Math.max(0, blocos.size() - limites.profundidadeFinalidade); i < blocos.size(); i++) {
+            registrarConfirmadas(blocos.get(i));
+        }
+    }
+
+    // ==================== LIMITES ====================
+
+    /**
+     * Descarta as transações mais antigas até caber a nova. Só são descartadas
+     * transações de peso menor ou igual ao da nova, então uma rajada de votos não
+     * expulsa as transações administrativas de que eles dependem. Votos admitidos não
+     * são descartados; se só houver votos, a nova é recusada.
+     *
+     * A vítima é a mais antiga entre as cabeças das filas de descartáveis dos tipos
+     * de peso permitido, então cada tentativa olha uma entrada por tipo, e a recusa
+     * com o pool cheio de votos não percorre o pool.
+     */
+    private boolean abrirEspaco(Entrada nova) {
+        if (nova.tamanho > limites.maxBytes) {
+            return false;
+        }
+
+        double pesoNova = politica.peso(nova.transacao.getTipo());
+        while (transacoesPendentes.size() >= limites.maxTransacoes
+                || bytesPendentes.get() + nova.tamanho > limites.maxBytes) {
+            Entrada vitima = null;
+            for (Map.Entry<TipoTransacao, Queue<Entrada>> fila : descartaveis.entrySet()) {
+                if (politica.peso(fila.getKey()) > pesoNova) {
+                    continue;
+                }
+                Entrada cabeca = primeiraValida(fila.getValue());
+                if (cabeca != null && (vitima == null || cabeca.sequencia < vitima.sequencia)) {
+                    vitima = cabeca;
+                }
+            }
+            if (vitima == null) {
+                return false;
+            }
+            if (remover(vitima)) {
+                descartadas.incrementAndGet();
+            }
+        }
+        return true;
+    }
+
+    private AtomicInteger contadorDaOrigem(String origem) {
+        if (origem == null || ORIGEM_ANONIMA.equals(origem) || limites.cotaPorOrigem <= 0) {
+            return null;
+        }
+        return pendentesPorOrigem.computeIfAbsent(origem, k -> new AtomicInteger());
+    }
+
+    /**
+     * Único caminho de saída do pool. Só quem consegue tirar a entrada do mapa
+     * devolve bytes, cota e provedor, então remoções concorrentes não contam duas vezes.
+     */
+    private boolean remover(Entrada entrada) {
+        if (!transacoesPendentes.remove(entrada.transacao.getId(), entrada)) {
+            return false;
+        }
+        bytesPendentes.addAndGet(-entrada.tamanho);
+        if (entrada.cota != null) {
+            entrada.cota.decrementAndGet();
+        }
+        liberarProvedor(entrada);
+
+        if (obsoletasNasFilas.incrementAndGet() > LIMITE_OBSOLETAS) {
+            obsoletasNasFilas.set(0);
+            for (ChaveFila chave : filas.keySet()) {
+                descartarFilaVazia(chave);
+            }
+            for (Queue<Entrada> fila : descartaveis.values()) {
+                fila.removeIf(this::obsoleta);
+            }
+        }
+        return true;
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private boolean elegivel(String dependencia) {
+        if (dependencia == null) {
+            return true;
+        }
+        if (provedoresPendentes.containsKey(dependencia)) {
+            return false;
+        }
+        if (!aguardandoConfirmacao.contains(dependencia)) {
+            return true;
+        }
+        if (!politica.dependenciaConfirmada(dependencia)) {
+            return false;
+        }
+        aguardandoConfirmacao.remove(dependencia);
+        return true;
+    }
+
+    /**
+     * Quando o último provedor sai do pool antes de a chave ser confirmada (ex: foi
+     * minerado num bloco que ainda não entrou na cadeia), as dependentes continuam
+     * esperando até a política confirmar a chave.
+     */
+    private void liberarProvedor(Entrada entrada) {
+        if (entrada.chaveProvida != null) {
+            provedoresPendentes.computeIfPresent(entrada.chaveProvida, (chave, provedores) -> {
+                if (provedores.decrementAndGet() > 0) {
+                    return provedores;
+                }
+                if (!politica.dependenciaConfirmada(chave)) {
+                    aguardandoConfirmacao.add(chave);
+                }
+                return null;
+            });
+        }
+    }
+
+    /**
+     * Tira as entradas obsoletas da fila e a fila do mapa, se ficar vazia.
+     */
+    private void descartarFilaVazia(ChaveFila chave) {
+        filas.computeIfPresent(chave, (k, fila) -> {
+            fila.removeIf(this::obsoleta);
+            return fila.isEmpty() ? null : fila;
+        });
+    }
+
+    /**
+     * Cabeça da fila depois de tirar as entradas obsoletas que estiverem na frente.
+     */
+    private Entrada primeiraValida(Queue<Entrada> fila) {
+        Entrada cabeca;
+        while ((cabeca = fila.peek()) != null && obsoleta(cabeca)) {
+            fila.remove(cabeca);
+        }
+        return cabeca;
+    }
+
+    private boolean obsoleta(Entrada entrada) {
+        return transacoesPendentes.get(entrada.transacao.getId()) != entrada;
+    }
 
-        for (Bloco bloco : blocos) {
-            for (Transacao t : bloco.getTransacoes()) {
-                if (t != null && t.getId() != null) {
-                    idsProcessados.add(t.getId());
+    // ==================== CLASSES AUXILIARES ====================
+
+    /**
+     * Limites do pool. Cota por origem ou profundidade de finalidade zero desativam o recurso.
+     */
+    public static class Limites {
+        public static final Limites PADRAO = new Limites(10_000, 16L * 1024 * 1024, 500, 6);
+
+        private final int maxTransacoes;
+        private final long maxBytes;
+        private final int cotaPorOrigem;
+        private final int profundidadeFinalidade;
+
+        public Limites(int maxTransacoes, long maxBytes, int cotaPorOrigem, int profundidadeFinalidade) {
+            if (maxTransacoes <= 0 || maxBytes <= 0 || cotaPorOrigem < 0 || profundidadeFinalidade < 0) {
+                throw new IllegalArgumentException("Limites do pool inválidos");
+            }
+            this.maxTransacoes = maxTransacoes;
+            this.maxBytes = maxBytes;
+            this.cotaPorOrigem = cotaPorOrigem;
+            this.profundidadeFinalidade = profundidadeFinalidade;
+        }
+
+        public int getMaxTransacoes() {
+            return maxTransacoes;
+        }
+
+        public long getMaxBytes() {
+            return maxBytes;
+        }
+
+        public int getCotaPorOrigem() {
+            return cotaPorOrigem;
+        }
+
+        public int getProfundidadeFinalidade() {
+            return profundidadeFinalidade;
+        }
+    }
+
+    private static class Entrada {
+        private final Transacao transacao;
+        private final long sequencia;
+        private final String chaveDependencia;
+        private final String chaveProvida;
+        private final AtomicInteger cota;
+        private final int tamanho;
+
+        private Entrada(Transacao transacao, long sequencia, String chaveDependencia, String chaveProvida,
+                        AtomicInteger cota) {
+            this.transacao = transacao;
+            this.sequencia = sequencia;
+            this.chaveDependencia = chaveDependencia;
+            this.chaveProvida = chaveProvida;
+            this.cota = cota;
+            this.tamanho = bytesUtf8(transacao.getId()) + bytesUtf8(transacao.getPayloadJson());
+        }
+
+        /**
+         * Tamanho do texto codificado em UTF-8, sem gerar os bytes.
+         */
+        private static int bytesUtf8(String texto) {
+            if (texto == null) {
+                return 0;
+            }
+            int bytes = 0;
+            for (int i = 0; i < texto.length(); i++) {
+                char c = texto.charAt(i);
+                if (c < 0x80) {
+                    bytes += 1;
+                } else if (c < 0x800) {
+                    bytes += 2;
+                } else if (Character.isHighSurrogate(c) && i + 1 < texto.length()
+                        && Character.isLowSurrogate(texto.charAt(i + 1))) {
+                    bytes += 4;
+                    i++;
+                } else {
+                    bytes += 3;
+                }
+            }
+            return bytes;
+        }
+    }
+
+    private static class BlocoConfirmado {
+        private final int altura;
+        private final List<String> ids;
+
+        private BlocoConfirmado(int altura, List<String> ids) {
+            this.altura = altura;
+            this.ids = ids;
+        }
+    }
+
+    private static class ChaveFila {
+        private final TipoTransacao tipo;
+        private final String dependencia;
+
+        private ChaveFila(TipoTransacao tipo, String dependencia) {
+            this.tipo = tipo;
+            this.dependencia = dependencia;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof ChaveFila)) return false;
+            ChaveFila outra = (ChaveFila) o;
+            return tipo == outra.tipo && Objects.equals(dependencia, outra.dependencia);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(tipo, dependencia);
+        }
+    }
+
+    /**
+     * Posição de leitura numa fila, pulando entradas obsoletas.
+     */
+    private class Cursor {
+        private final Iterator<Entrada> iterador;
+        private Entrada atual;
+
+        private Cursor(Iterator<Entrada> iterador) {
+            this.iterador = iterador;
+        }
+
+        private boolean avancar() {
+            while (iterador.hasNext()) {
+                Entrada proxima = iterador.next();
+                if (!obsoleta(proxima)) {
+                    atual = proxima;
+                    return true;
                 }
             }
+            atual = null;
+            return false;
+        }
+    }
+
+    /**
+     * Filas elegíveis de um mesmo tipo, ordenadas pela transação mais antiga de cada uma.
+     */
+    private static class Classe {
+        private final TipoTransacao tipo;
+        private final PriorityQueue<Cursor> cursores =
+                new PriorityQueue<>(Comparator.comparingLong(c -> c.atual.sequencia));
+        private double termino = 0;
+
+        private Classe(TipoTransacao tipo) {
+            this.tipo = tipo;
         }
     }
-}
\ No newline at end of file
+}
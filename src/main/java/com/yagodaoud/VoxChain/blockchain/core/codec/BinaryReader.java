@@ -0,0 +1,111 @@
+package com.yagodaoud.VoxChain.blockchain.core.codec;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Leitura do formato produzido por {@link BinaryWriter}.
+ * Dados truncados ou malformados geram {@link IllegalArgumentException}.
+ */
+public class BinaryReader {
+    private final byte[] dados;
+    private final int fim;
+    private int posicao;
+
+    public BinaryReader(byte[] dados) {
+        this(dados, 0, dados.length);
+    }
+
+    public BinaryReader(byte[] dados, int inicio, int tamanho) {
+        this.dados = dados;
+        this.posicao = inicio;
+        this.fim = inicio + tamanho;
+    }
+
+    // ==================== TIPOS FIXOS ====================
+
+    public int lerByte() {
+        exigir(1);
+        return dados[posicao++] & 0xFF;
+    }
+
+    public boolean lerBoolean() {
+        return lerByte() != 0;
+    }
+
+    public int lerInt() {
+        exigir(Integer.BYTES);
+        int valor = ((dados[posicao] & 0xFF) << 24)
+                | ((dados[posicao + 1] & 0xFF) << 16)
+                | ((dados[posicao + 2] & 0xFF) << 8)
+                | (dados[posicao + 3] & 0xFF);
+        posicao += Integer.BYTES;
+        return valor;
+    }
+
+    public long lerLong() {
+        exigir(Long.BYTES);
+        long valor = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            valor = (valor << 8) | (dados[posicao++] & 0xFF);
+        }
+        return valor;
+    }
+
+    public byte[] lerBytes(int tamanho) {
+        exigir(tamanho);
+        byte[] bytes = new byte[tamanho];
+        System.arraycopy(dados, posicao, bytes, 0, tamanho);
+        posicao += tamanho;
+        return bytes;
+    }
+
+    // ==================== TIPOS VARIÁVEIS ====================
+
+    public int lerVarInt() {
+        long valor = lerVarLong();
+        if (valor > 0xFFFFFFFFL) {
+            throw new IllegalArgumentException("VarInt fora do intervalo: " + valor);
+        }
+        return (int) valor;
+    }
+
+    public long lerVarLong() {
+        long valor = 0;
+        for (int deslocamento = 0; deslocamento < 64; deslocamento += 7) {
+            int b = lerByte();
+            valor |= (long) (b & 0x7F) << deslocamento;
+            if ((b & 0x80) == 0) {
+                return valor;
+            }
+        }
+        throw new IllegalArgumentException("VarLong malformado");
+    }
+
+    public String lerString() {
+        int tamanho = lerVarInt();
+        if (tamanho == 0) {
+            return null;
+        }
+        tamanho--;
+        exigir(tamanho);
+        String valor = new String(dados, posicao, tamanho, StandardCharsets.UTF_8);
+        posicao += tamanho;
+        return valor;
+    }
+
+    // ==================== ESTADO ====================
+
+    public int restante() {
+        return fim - posicao;
+    }
+
+    public boolean temMais() {
+        return posicao < fim;
+    }
+
+    private void exigir(int tamanho) {
+        if (tamanho < 0 || posicao + tamanho > fim) {
+            throw new IllegalArgumentException("Dados binários truncados");
+        }
+    }
+}
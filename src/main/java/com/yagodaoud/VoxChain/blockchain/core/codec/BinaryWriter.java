@@ -0,0 +1,108 @@
+package com.yagodaoud.VoxChain.blockchain.core.codec;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Buffer de escrita binária com inteiros de tamanho variável (varint).
+ * Base da codificação compacta usada no armazenamento de blocos.
+ */
+public class BinaryWriter {
+    private byte[] buffer;
+    private int posicao;
+
+    public BinaryWriter() {
+        this(256);
+    }
+
+    public BinaryWriter(int capacidadeInicial) {
+        this.buffer = new byte[Math.max(16, capacidadeInicial)];
+    }
+
+    // ==================== TIPOS FIXOS ====================
+
+    public BinaryWriter escreverByte(int valor) {
+        garantirCapacidade(1);
+        buffer[posicao++] = (byte) valor;
+        return this;
+    }
+
+    public BinaryWriter escreverBoolean(boolean valor) {
+        return escreverByte(valor ? 1 : 0);
+    }
+
+    public BinaryWriter escreverInt(int valor) {
+        garantirCapacidade(Integer.BYTES);
+        buffer[posicao++] = (byte) (valor >>> 24);
+        buffer[posicao++] = (byte) (valor >>> 16);
+        buffer[posicao++] = (byte) (valor >>> 8);
+        buffer[posicao++] = (byte) valor;
+        return this;
+    }
+
+    public BinaryWriter escreverLong(long valor) {
+        garantirCapacidade(Long.BYTES);
+        for (int deslocamento = 56; deslocamento >= 0; deslocamento -= 8) {
+            buffer[posicao++] = (byte) (valor >>> deslocamento);
+        }
+        return this;
+    }
+
+    public BinaryWriter escreverBytes(byte[] bytes) {
+        garantirCapacidade(bytes.length);
+        System.arraycopy(bytes, 0, buffer, posicao, bytes.length);
+        posicao += bytes.length;
+        return this;
+    }
+
+    // ==================== TIPOS VARIÁVEIS ====================
+
+    /**
+     * Escreve um inteiro sem sinal em 7 bits por byte (1 byte para valores < 128).
+     */
+    public BinaryWriter escreverVarInt(int valor) {
+        return escreverVarLong(valor & 0xFFFFFFFFL);
+    }
+
+    public BinaryWriter escreverVarLong(long valor) {
+        garantirCapacidade(10);
+        while ((valor & ~0x7FL) != 0) {
+            buffer[posicao++] = (byte) ((valor & 0x7F) | 0x80);
+            valor >>>= 7;
+        }
+        buffer[posicao++] = (byte) valor;
+        return this;
+    }
+
+    /**
+     * Escreve uma string UTF-8 precedida do tamanho + 1 (o valor 0 representa null).
+     */
+    public BinaryWriter escreverString(String valor) {
+        if (valor == null) {
+            return escreverVarInt(0);
+        }
+        byte[] bytes = valor.getBytes(StandardCharsets.UTF_8);
+        escreverVarInt(bytes.length + 1);
+        return escreverBytes(bytes);
+    }
+
+    // ==================== RESULTADO ====================
+
+    public int getTamanho() {
+        return posicao;
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, posicao);
+    }
+
+    public void reiniciar() {
+        posicao = 0;
+    }
+
+    private void garantirCapacidade(int adicional) {
+        if (posicao + adicional > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, posicao + adicional));
+        }
+    }
+}
@@ -0,0 +1,147 @@
+package com.yagodaoud.VoxChain.blockchain.core.codec;
+
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.core.BlockHasher;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificação binária compacta de blocos e transações.
+ *
+ * Formato do bloco: [versão][índice][timestamp][hash anterior][hash][nonce]
+ * [minerador][assinatura][nº de transações][transações...].
+ * Hashes hexadecimais de 64 caracteres são gravados como 32 bytes.
+ *
+ * Versão 2: o payload das transações segue o esquema binário do {@link PayloadCodec}.
+ * Blocos na versão 1 (payload em JSON) continuam legíveis.
+ */
+public class BlockCodec {
+    public static final int VERSAO_FORMATO = 2;
+    private static final int VERSAO_PAYLOAD_JSON = 1;
+
+    private static final int HASH_TEXTO = 0;
+    private static final int HASH_BINARIO = 1;
+
+    private static final TipoTransacao[] TIPOS = TipoTransacao.values();
+
+    private BlockCodec() {
+    }
+
+    // ==================== BLOCOS ====================
+
+    public static byte[] codificar(Bloco bloco) {
+        BinaryWriter writer = new BinaryWriter(512);
+        escreverBloco(writer, bloco);
+        return writer.toByteArray();
+    }
+
+    public static Bloco decodificar(byte[] dados) {
+        return lerBloco(new BinaryReader(dados));
+    }
+
+    public static void escreverBloco(BinaryWriter writer, Bloco bloco) {
+        writer.escreverByte(VERSAO_FORMATO);
+        writer.escreverVarInt(bloco.getIndice());
+        writer.escreverLong(bloco.getTimestamp());
+        escreverHash(writer, bloco.getHashAnterior());
+        escreverHash(writer, bloco.getHash());
+        writer.escreverInt(bloco.getNonce());
+        writer.escreverString(bloco.getMineradoPor());
+        writer.escreverString(bloco.getAssinaturaMinerador());
+
+        List<Transacao> transacoes = bloco.getTransacoes();
+        writer.escreverVarInt(transacoes.size());
+        for (Transacao t : transacoes) {
+            escreverTransacao(writer, t);
+        }
+    }
+
+    public static Bloco lerBloco(BinaryReader reader) {
+        int versao = reader.lerByte();
+        if (versao < VERSAO_PAYLOAD_JSON || versao > VERSAO_FORMATO) {
+            throw new IllegalArgumentException("Versão de bloco não suportada: " + versao);
+        }
+
+        int indice = reader.lerVarInt();
+        long timestamp = reader.lerLong();
+        String hashAnterior = lerHash(reader);
+        String hash = lerHash(reader);
+        int nonce = reader.lerInt();
+        String mineradoPor = reader.lerString();
+        String assinatura = reader.lerString();
+
+        int quantidade = reader.lerVarInt();
+        List<Transacao> transacoes = new ArrayList<>(Math.min(quantidade, 1024));
+        for (int i = 0; i < quantidade; i++) {
+            transacoes.add(lerTransacao(reader, versao));
+        }
+
+        return Bloco.reconstruir(indice, timestamp, transacoes, hashAnterior,
+                hash, nonce, mineradoPor, assinatura);
+    }
+
+    // ==================== TRANSAÇÕES ====================
+
+    public static void escreverTransacao(BinaryWriter writer, Transacao transacao) {
+        writer.escreverString(transacao.getId());
+        writer.escreverVarInt(transacao.getTipo().ordinal());
+        writer.escreverString(transacao.getIdOrigem());
+        writer.escreverLong(transacao.getTimestamp());
+
+        writer.escreverBytes(PayloadCodec.codificar(transacao.getTipo(), transacao.getPayloadJson()));
+    }
+
+    public static Transacao lerTransacao(BinaryReader reader) {
+        return lerTransacao(reader, VERSAO_FORMATO);
+    }
+
+    private static Transacao lerTransacao(BinaryReader reader, int versao) {
+        String id = reader.lerString();
+        int ordinal = reader.lerVarInt();
+        if (ordinal >= TIPOS.length) {
+            throw new IllegalArgumentException("Tipo de transação desconhecido: " + ordinal);
+        }
+        String idOrigem = reader.lerString();
+        long timestamp = reader.lerLong();
+        if (versao == VERSAO_PAYLOAD_JSON) {
+            return Transacao.reconstruir(id, TIPOS[ordinal], reader.lerString(), idOrigem, timestamp);
+        }
+
+        PayloadCodec.Lido payload = PayloadCodec.lerDecodificado(reader, TIPOS[ordinal]);
+        return Transacao.reconstruir(id, TIPOS[ordinal], payload.getJson(),
+                idOrigem, timestamp, payload.getObjeto());
+    }
+
+    // ==================== HASHES ====================
+
+    public static void escreverHash(BinaryWriter writer, String hash) {
+        if (hash != null && hash.length() == BlockHasher.TAMANHO_HASH * 2 && ehHexMinusculo(hash)) {
+            writer.escreverByte(HASH_BINARIO);
+            writer.escreverBytes(BlockHasher.hashParaBytes(hash));
+        } else {
+            writer.escreverByte(HASH_TEXTO);
+            writer.escreverString(hash);
+        }
+    }
+
+    public static String lerHash(BinaryReader reader) {
+        int formato = reader.lerByte();
+        if (formato == HASH_BINARIO) {
+            return BlockHasher.paraHex(reader.lerBytes(BlockHasher.TAMANHO_HASH));
+        }
+        return reader.lerString();
+    }
+
+    private static boolean ehHexMinusculo(String valor) {
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (!((c >= '0' && c <= '9') || (c >= 'a' && c <= 'f'))) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,505 @@
+package com.yagodaoud.VoxChain.blockchain.core.codec;
+
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.yagodaoud.VoxChain.modelo.Administrador;
+import com.yagodaoud.VoxChain.modelo.Candidato;
+import com.yagodaoud.VoxChain.modelo.Eleicao;
+import com.yagodaoud.VoxChain.modelo.Eleitor;
+import com.yagodaoud.VoxChain.modelo.Voto;
+import com.yagodaoud.VoxChain.modelo.enums.CargoCandidato;
+import com.yagodaoud.VoxChain.modelo.enums.CategoriaEleicao;
+import com.yagodaoud.VoxChain.modelo.enums.JurisdicaoAdmin;
+import com.yagodaoud.VoxChain.modelo.enums.NivelAcesso;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Codificação binária dos payloads de transação, com um esquema por {@link TipoTransacao}.
+ *
+ * O payload continua sendo o JSON guardado na transação, que é o que entra na raiz de
+ * Merkle; o esquema só define como gravá-lo em bytes. Cada campo, na ordem em que o Gson
+ * o escreve, vira um valor binário sem o nome, e a leitura refaz o mesmo JSON byte a byte.
+ * Payloads que o esquema não reproduz exatamente (campo desconhecido ou fora de ordem,
+ * número com casas decimais, null explícito...) são gravados como JSON.
+ *
+ * Formato: [esquema][...]. Esquema 0 = JSON em texto; n > 0 = versão n do esquema do tipo,
+ * seguida de [bits dos campos presentes][valores dos campos presentes].
+ *
+ * Custo: codificar lê o JSON e confere que ele se refaz, então é mais caro que gravar o
+ * texto; por isso o resultado de {@link #codificar} é guardado na transação e reusado a
+ * cada envio e gravação. Decodificar refaz o JSON e monta o objeto do modelo direto dos
+ * valores, sem a reflexão do Gson, para já preencher o cache da transação.
+ */
+public final class PayloadCodec {
+    public static final int FORMATO_JSON = 0;
+
+    // Tipo -> esquemas, da versão 1 em diante. Novas versões só são acrescentadas.
+    private static final Map<TipoTransacao, List<Esquema>> ESQUEMAS = new EnumMap<>(TipoTransacao.class);
+
+    static {
+        registrar(TipoTransacao.CADASTRO_ADMIN, new Esquema(
+                v -> Administrador.restaurar(texto(v[0]), texto(v[1]), texto(v[2]),
+                        constante(v[3], NivelAcesso.values()), constante(v[4], JurisdicaoAdmin.values()),
+                        logico(v[5])),
+                Campo.texto("id"),
+                Campo.hash("hashCpf"),
+                Campo.hash("senhaHash"),
+                Campo.enumeracao("nivel", NivelAcesso.class),
+                Campo.enumeracao("jurisdicao", JurisdicaoAdmin.class),
+                Campo.logico("ativo")));
+
+        registrar(TipoTransacao.CADASTRO_ELEITOR, new Esquema(
+                v -> Eleitor.restaurar(texto(v[0]), texto(v[1]), inteiro(v[2]), inteiro(v[3])),
+                Campo.hash("cpfHash"),
+                Campo.hash("senhaHash"),
+                Campo.numero("zona"),
+                Campo.numero("secao")));
+
+        registrar(TipoTransacao.CADASTRO_CANDIDATO, new Esquema(
+                v -> Candidato.restaurar(texto(v[0]), texto(v[1]), texto(v[2]), texto(v[3]), texto(v[4]),
+                        constante(v[5], CargoCandidato.values()), texto(v[6]), texto(v[7])),
+                Campo.texto("id"),
+                Campo.texto("eleicaoId"),
+                Campo.texto("numero"),
+                Campo.texto("nome"),
+                Campo.texto("partido"),
+                Campo.enumeracao("cargo", CargoCandidato.class),
+                Campo.texto("uf"),
+                Campo.texto("fotoUrl")));
+
+        Esquema eleicao = new Esquema(
+                v -> Eleicao.restaurar(texto(v[0]), texto(v[1]), texto(v[2]),
+                        constantes(v[3], CategoriaEleicao.values()), numero(v[4]), numero(v[5]), logico(v[6])),
+                Campo.texto("id"),
+                Campo.texto("nome"),
+                Campo.texto("descricao"),
+                Campo.listaEnumeracao("categorias", CategoriaEleicao.class),
+                Campo.numero("dataInicio"),
+                Campo.numero("dataFim"),
+                Campo.logico("ativa"));
+        registrar(TipoTransacao.CRIACAO_ELEICAO, eleicao);
+        registrar(TipoTransacao.INICIO_ELEICAO, eleicao);
+        registrar(TipoTransacao.FIM_ELEICAO, eleicao);
+
+        registrar(TipoTransacao.VOTO, new Esquema(
+                v -> Voto.restaurar(texto(v[0]), texto(v[1]), texto(v[2]), texto(v[3]), numero(v[4])),
+                Campo.hash("tokenVotacao"),
+                Campo.texto("idCandidato"),
+                Campo.texto("tipoCandidato"),
+                Campo.texto("idEleicao"),
+                Campo.numero("timestamp")));
+    }
+
+    private PayloadCodec() {
+    }
+
+    private static void registrar(TipoTransacao tipo, Esquema esquema) {
+        ESQUEMAS.computeIfAbsent(tipo, t -> new ArrayList<>()).add(esquema);
+    }
+
+    // ==================== CODIFICAÇÃO ====================
+
+    public static void escrever(BinaryWriter writer, TipoTransacao tipo, String json) {
+        List<Esquema> versoes = tipo == null || json == null ? null : ESQUEMAS.get(tipo);
+        Esquema esquema = versoes == null ? null : versoes.get(versoes.size() - 1);
+        Object[] valores = esquema == null ? null : esquema.extrair(json);
+
+        if (valores == null) {
+            writer.escreverByte(FORMATO_JSON);
+            writer.escreverString(json);
+            return;
+        }
+        writer.escreverByte(versoes.size());
+        esquema.escrever(writer, valores);
+    }
+
+    /**
+     * Codifica o payload num array próprio, para ser guardado e reusado pela transação.
+     */
+    public static byte[] codificar(TipoTransacao tipo, String json) {
+        BinaryWriter writer = new BinaryWriter(json == null ? 16 : json.length());
+        escrever(writer, tipo, json);
+        return writer.toByteArray();
+    }
+
+    // ==================== DECODIFICAÇÃO ====================
+
+    /**
+     * Payload decodificado: o JSON da transação e, quando o esquema o conhece, o objeto
+     * do modelo montado direto dos valores.
+     */
+    public static final class Lido {
+        private final String json;
+        private final Object objeto;
+
+        private Lido(String json, Object objeto) {
+            this.json = json;
+            this.objeto = objeto;
+        }
+
+        public String getJson() {
+            return json;
+        }
+
+        /**
+         * @return o objeto do modelo, ou null se o payload veio como JSON
+         */
+        public Object getObjeto() {
+            return objeto;
+        }
+    }
+
+    public static String ler(BinaryReader reader, TipoTransacao tipo) {
+        return lerDecodificado(reader, tipo).getJson();
+    }
+
+    public static Lido lerDecodificado(BinaryReader reader, TipoTransacao tipo) {
+        int formato = reader.lerByte();
+        if (formato == FORMATO_JSON) {
+            return new Lido(reader.lerString(), null);
+        }
+        List<Esquema> versoes = ESQUEMAS.get(tipo);
+        if (versoes == null || formato > versoes.size()) {
+            throw new IllegalArgumentException("Esquema de payload não suportado: " + tipo + " v" + formato);
+        }
+        return versoes.get(formato - 1).ler(reader);
+    }
+
+    // ==================== VALORES PARA O MODELO ====================
+    // Campo ausente fica com o valor padrão, como na desserialização do Gson
+
+    private static String texto(Object valor) {
+        return (String) valor;
+    }
+
+    private static long numero(Object valor) {
+        return valor == null ? 0L : (Long) valor;
+    }
+
+    private static int inteiro(Object valor) {
+        return valor == null ? 0 : Math.toIntExact((Long) valor);
+    }
+
+    private static boolean logico(Object valor) {
+        return valor != null && (Boolean) valor;
+    }
+
+    private static <E> E constante(Object valor, E[] constantes) {
+        return valor == null ? null : constantes[(Integer) valor];
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <E> List<E> constantes(Object valor, E[] constantes) {
+        if (valor == null) {
+            return null;
+        }
+        List<Integer> ordinais = (List<Integer>) valor;
+        List<E> lista = new ArrayList<>(ordinais.size());
+        for (int ordinal : ordinais) {
+            lista.add(constantes[ordinal]);
+        }
+        return lista;
+    }
+
+    // ==================== ESQUEMAS ====================
+
+    private static final class Esquema {
+        private final Function<Object[], Object> fabrica;
+        private final Campo[] campos;
+        private final Map<String, Integer> posicoes = new HashMap<>();
+
+        private Esquema(Function<Object[], Object> fabrica, Campo... campos) {
+            if (campos.length >= Long.SIZE) {
+                throw new IllegalArgumentException("Esquema com campos demais: " + campos.length);
+            }
+            this.fabrica = fabrica;
+            this.campos = campos;
+            for (int i = 0; i < campos.length; i++) {
+                posicoes.put(campos[i].nome, i);
+            }
+        }
+
+        /**
+         * Valores dos campos na ordem do esquema (null = ausente), ou null se o JSON
+         * não puder ser refeito exatamente a partir deles.
+         */
+        Object[] extrair(String json) {
+            Object[] valores = new Object[campos.length];
+            try (JsonReader leitor = new JsonReader(new StringReader(json))) {
+                leitor.beginObject();
+                int anterior = -1;
+                while (leitor.hasNext()) {
+                    Integer posicao = posicoes.get(leitor.nextName());
+                    if (posicao == null || posicao <= anterior) {
+                        return null;
+                    }
+                    Object valor = campos[posicao].lerJson(leitor);
+                    if (valor == null) {
+                        return null;
+                    }
+                    valores[posicao] = valor;
+                    anterior = posicao;
+                }
+                leitor.endObject();
+                if (leitor.peek() != JsonToken.END_DOCUMENT) {
+                    return null;
+                }
+            } catch (IOException | RuntimeException e) {
+                return null;
+            }
+            return json.equals(paraJson(valores)) ? valores : null;
+        }
+
+        void escrever(BinaryWriter writer, Object[] valores) {
+            long presentes = 0;
+            for (int i = 0; i < valores.length; i++) {
+                if (valores[i] != null) {
+                    presentes |= 1L << i;
+                }
+            }
+            writer.escreverVarLong(presentes);
+            for (int i = 0; i < valores.length; i++) {
+                if (valores[i] != null) {
+                    campos[i].escreverBinario(writer, valores[i]);
+                }
+            }
+        }
+
+        Lido ler(BinaryReader reader) {
+            long presentes = reader.lerVarLong();
+            if ((presentes >>> campos.length) != 0) {
+                throw new IllegalArgumentException("Campos de payload desconhecidos: " + Long.toBinaryString(presentes));
+            }
+            Object[] valores = new Object[campos.length];
+            for (int i = 0; i < campos.length; i++) {
+                if ((presentes & (1L << i)) != 0) {
+                    valores[i] = campos[i].lerBinario(reader);
+                }
+            }
+            return new Lido(paraJson(valores), criarObjeto(valores));
+        }
+
+        /**
+         * @return o objeto do modelo, ou null se algum valor não couber no campo (quem
+         *         precisar do objeto cai na desserialização do Gson)
+         */
+        private Object criarObjeto(Object[] valores) {
+            try {
+                return fabrica.apply(valores);
+            } catch (ArithmeticException e) {
+                return null;
+            }
+        }
+
+        /**
+         * Mesmo texto que o Gson padrão gera: campos na ordem, sem nulls, HTML escapado.
+         */
+        private String paraJson(Object[] valores) {
+            StringWriter texto = new StringWriter();
+            try (JsonWriter escritor = new JsonWriter(texto)) {
+                escritor.setHtmlSafe(true);
+                escritor.beginObject();
+                for (int i = 0; i < campos.length; i++) {
+                    if (valores[i] != null) {
+                        escritor.name(campos[i].nome);
+                        campos[i].escreverJson(escritor, valores[i]);
+                    }
+                }
+                escritor.endObject();
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+            return texto.toString();
+        }
+    }
+
+    private static final class Campo {
+        private enum Tipo {
+            TEXTO,
+            HASH,           // Texto; hex de 64 caracteres vira 32 bytes
+            NUMERO,         // int ou long, em varint zigzag
+            LOGICO,
+            ENUMERACAO,     // Ordinal da constante
+            LISTA_ENUMERACAO
+        }
+
+        private final String nome;
+        private final Tipo tipo;
+        private final List<String> constantes;
+
+        private Campo(String nome, Tipo tipo, Class<? extends Enum<?>> enumeracao) {
+            this.nome = nome;
+            this.tipo = tipo;
+            if (enumeracao == null) {
+                this.constantes = Collections.emptyList();
+            } else {
+                List<String> nomes = new ArrayList<>();
+                for (Enum<?> constante : enumeracao.getEnumConstants()) {
+                    nomes.add(constante.name());
+                }
+                this.constantes = nomes;
+            }
+        }
+
+        static Campo texto(String nome) {
+            return new Campo(nome, Tipo.TEXTO, null);
+        }
+
+        static Campo hash(String nome) {
+            return new Campo(nome, Tipo.HASH, null);
+        }
+
+        static Campo numero(String nome) {
+            return new Campo(nome, Tipo.NUMERO, null);
+        }
+
+        static Campo logico(String nome) {
+            return new Campo(nome, Tipo.LOGICO, null);
+        }
+
+        static Campo enumeracao(String nome, Class<? extends Enum<?>> enumeracao) {
+            return new Campo(nome, Tipo.ENUMERACAO, enumeracao);
+        }
+
+        static Campo listaEnumeracao(String nome, Class<? extends Enum<?>> enumeracao) {
+            return new Campo(nome, Tipo.LISTA_ENUMERACAO, enumeracao);
+        }
+
+        /**
+         * @return o valor, ou null se o JSON tiver algo que o campo não representa
+         */
+        Object lerJson(JsonReader leitor) throws IOException {
+            JsonToken token = leitor.peek();
+            switch (tipo) {
+                case TEXTO:
+                case HASH:
+                    return token == JsonToken.STRING ? leitor.nextString() : null;
+                case NUMERO:
+                    return token == JsonToken.NUMBER ? leitor.nextLong() : null;
+                case LOGICO:
+                    return token == JsonToken.BOOLEAN ? leitor.nextBoolean() : null;
+                case ENUMERACAO:
+                    return token == JsonToken.STRING ? ordinal(leitor.nextString()) : null;
+                default:
+                    if (token != JsonToken.BEGIN_ARRAY) {
+                        return null;
+                    }
+                    List<Integer> ordinais = new ArrayList<>();
+                    leitor.beginArray();
+                    while (leitor.hasNext()) {
+                        Integer ordinal = leitor.peek() == JsonToken.STRING ? ordinal(leitor.nextString()) : null;
+                        if (ordinal == null) {
+                            return null;
+                        }
+                        ordinais.add(ordinal);
+                    }
+                    leitor.endArray();
+                    return ordinais;
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void escreverJson(JsonWriter escritor, Object valor) throws IOException {
+            switch (tipo) {
+                case TEXTO:
+                case HASH:
+                    escritor.value((String) valor);
+                    break;
+                case NUMERO:
+                    escritor.value((long) (Long) valor);
+                    break;
+                case LOGICO:
+                    escritor.value((boolean) (Boolean) valor);
+                    break;
+                case ENUMERACAO:
+                    escritor.value(constantes.get((Integer) valor));
+                    break;
+                default:
+                    escritor.beginArray();
+                    for (int ordinal : (List<Integer>) valor) {
+                        escritor.value(constantes.get(ordinal));
+                    }
+                    escritor.endArray();
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        void escreverBinario(BinaryWriter writer, Object valor) {
+            switch (tipo) {
+                case TEXTO:
+                    writer.escreverString((String) valor);
+                    break;
+                case HASH:
+                    BlockCodec.escreverHash(writer, (String) valor);
+                    break;
+                case NUMERO:
+                    long numero = (Long) valor;
+                    writer.escreverVarLong((numero << 1) ^ (numero >> 63));
+                    break;
+                case LOGICO:
+                    writer.escreverBoolean((Boolean) valor);
+                    break;
+                case ENUMERACAO:
+                    writer.escreverVarInt((Integer) valor);
+                    break;
+                default:
+                    List<Integer> ordinais = (List<Integer>) valor;
+                    writer.escreverVarInt(ordinais.size());
+                    for (int ordinal : ordinais) {
+                        writer.escreverVarInt(ordinal);
+                    }
+            }
+        }
+
+        Object lerBinario(BinaryReader reader) {
+            switch (tipo) {
+                case TEXTO:
+                    return reader.lerString();
+                case HASH:
+                    return BlockCodec.lerHash(reader);
+                case NUMERO:
+                    long numero = reader.lerVarLong();
+                    return (numero >>> 1) ^ -(numero & 1);
+                case LOGICO:
+                    return reader.lerBoolean();
+                case ENUMERACAO:
+                    return validarOrdinal(reader.lerVarInt());
+                default:
+                    int quantidade = reader.lerVarInt();
+                    if (quantidade > reader.restante()) {
+                        throw new IllegalArgumentException("Lista de payload maior que os dados: " + quantidade);
+                    }
+                    Integer[] ordinais = new Integer[quantidade];
+                    for (int i = 0; i < quantidade; i++) {
+                        ordinais[i] = validarOrdinal(reader.lerVarInt());
+                    }
+                    return Arrays.asList(ordinais);
+            }
+        }
+
+        private Integer ordinal(String constante) {
+            int ordinal = constantes.indexOf(constante);
+            return ordinal < 0 ? null : ordinal;
+        }
+
+        private int validarOrdinal(int ordinal) {
+            if (ordinal >= constantes.size()) {
+                throw new IllegalArgumentException("Constante desconhecida em " + nome + ": " + ordinal);
+            }
+            return ordinal;
+        }
+    }
+}
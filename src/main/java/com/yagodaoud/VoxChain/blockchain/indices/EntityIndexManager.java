@@ -1,7 +1,13 @@
 package com.yagodaoud.VoxChain.blockchain.indices;
 
+import com.google.gson.Gson;
 import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BinaryReader;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BinaryWriter;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BlockCodec;
+import com.yagodaoud.VoxChain.blockchain.core.codec.PayloadCodec;
 import com.yagodaoud.VoxChain.modelo.*;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
 import com.yagodaoud.VoxChain.utils.Logger;
 import com.yagodaoud.VoxChain.utils.SecurityUtils;
 
@@ -12,26 +18,59 @@ import java.util.stream.Collectors;
 /**
  * Gerencia todos os índices para consulta rápida de entidades.
  * Reconstrói índices a partir da blockchain quando necessário.
+ * Cada bloco aplicado devolve um {@link Desfazer} com os valores que ele sobrescreveu,
+ * para que uma reorganização reverta só os blocos órfãos.
+ *
+ * O estado pode ser gravado num snapshot e restaurado sem reler a cadeia. Admins e
+ * eleições são alterados localmente depois de indexados, então deles o snapshot guarda
+ * a transação de origem, e não o objeto alterado.
  */
 public class EntityIndexManager {
+    private static final Gson gson = new Gson();
+
     private final Map<String, Administrador> admins;
     private final Map<String, Eleitor> eleitores;
     private final Map<String, Candidato> candidatos;
     private final Map<String, Eleicao> eleicoes;
 
+    // Transação que registrou cada admin e eleição, como está na cadeia
+    private final Map<String, Transacao> origemAdmins;
+    private final Map<String, Transacao> origemEleicoes;
+
     public EntityIndexManager() {
         this.admins = new ConcurrentHashMap<>();
         this.eleitores = new ConcurrentHashMap<>();
         this.candidatos = new ConcurrentHashMap<>();
         this.eleicoes = new ConcurrentHashMap<>();
+        this.origemAdmins = new ConcurrentHashMap<>();
+        this.origemEleicoes = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @return o registro para desfazer as alterações deste bloco
+     */
+    public Desfazer atualizarComBloco(Bloco bloco) {
+        Desfazer desfazer = new Desfazer();
+        aplicar(bloco, desfazer);
+        return desfazer;
     }
 
-    public void atualizarComBloco(Bloco bloco) {
+    /**
+     * Reverte as alterações de um bloco. Os blocos devem ser desfeitos do mais alto para o mais baixo.
+     */
+    public void desfazer(Desfazer desfazer) {
+        List<Alteracao<?>> alteracoes = desfazer.alteracoes;
+        for (int i = alteracoes.size() - 1; i >= 0; i--) {
+            alteracoes.get(i).reverter();
+        }
+    }
+
+    private void aplicar(Bloco bloco, Desfazer desfazer) {
         if (bloco == null)
             return;
 
         for (Transacao t : bloco.getTransacoes()) {
-            processarTransacao(t);
+            processarTransacao(t, desfazer);
         }
     }
 
@@ -42,14 +81,14 @@ public class EntityIndexManager {
 
         blocos.stream()
                 .skip(1) // Pula gênesis
-                .forEach(this::atualizarComBloco);
+                .forEach(bloco -> aplicar(bloco, null));
 
         Logger.info(null, String.format(
                 "Reconstruídos: %d admins, %d eleitores, %d candidatos, %d eleições",
                 admins.size(), eleitores.size(), candidatos.size(), eleicoes.size()));
     }
 
-    private void processarTransacao(Transacao t) {
+    private void processarTransacao(Transacao t, Desfazer desfazer) {
         if (t == null)
             return;
 
@@ -57,21 +96,22 @@ public class EntityIndexManager {
             case CADASTRO_ADMIN:
                 Administrador admin = t.getPayloadAs(Administrador.class);
                 if (admin != null) {
-                    admins.put(admin.getId(), admin);
+                    registrar(origemAdmins, admin.getId(), t, desfazer);
+                    registrar(admins, admin.getId(), admin, desfazer);
                 }
                 break;
 
             case CADASTRO_ELEITOR:
                 Eleitor eleitor = t.getPayloadAs(Eleitor.class);
                 if (eleitor != null) {
-                    eleitores.put(eleitor.getTituloDeEleitorHash(), eleitor);
+                    registrar(eleitores, eleitor.getTituloDeEleitorHash(), eleitor, desfazer);
                 }
                 break;
 
             case CADASTRO_CANDIDATO:
                 Candidato candidato = t.getPayloadAs(Candidato.class);
                 if (candidato != null) {
-                    candidatos.put(candidato.getNumero(), candidato);
+                    registrar(candidatos, candidato.getNumero(), candidato, desfazer);
                 }
                 break;
 
@@ -80,7 +120,8 @@ public class EntityIndexManager {
             case FIM_ELEICAO:
                 Eleicao eleicao = t.getPayloadAs(Eleicao.class);
                 if (eleicao != null) {
-                    eleicoes.put(eleicao.getId(), eleicao);
+                    registrar(origemEleicoes, eleicao.getId(), t, desfazer);
+                    registrar(eleicoes, eleicao.getId(), eleicao, desfazer);
                 }
                 break;
 
@@ -89,11 +130,83 @@ public class EntityIndexManager {
         }
     }
 
+    private static <T> void registrar(Map<String, T> mapa, String chave, T valor, Desfazer desfazer) {
+        T anterior = mapa.put(chave, valor);
+        if (desfazer != null) {
+            desfazer.alteracoes.add(new Alteracao<>(mapa, chave, anterior));
+        }
+    }
+
     public void limpar() {
         admins.clear();
         eleitores.clear();
         candidatos.clear();
         eleicoes.clear();
+        origemAdmins.clear();
+        origemEleicoes.clear();
+    }
+
+    // ========== SNAPSHOT ==========
+
+    public void escreverEstado(BinaryWriter writer) {
+        escreverOrigens(writer, origemAdmins);
+        escreverOrigens(writer, origemEleicoes);
+
+        List<Eleitor> listaEleitores = new ArrayList<>(eleitores.values());
+        writer.escreverVarInt(listaEleitores.size());
+        for (Eleitor eleitor : listaEleitores) {
+            PayloadCodec.escrever(writer, TipoTransacao.CADASTRO_ELEITOR, gson.toJson(eleitor));
+        }
+
+        List<Candidato> listaCandidatos = new ArrayList<>(candidatos.values());
+        writer.escreverVarInt(listaCandidatos.size());
+        for (Candidato candidato : listaCandidatos) {
+            PayloadCodec.escrever(writer, TipoTransacao.CADASTRO_CANDIDATO, gson.toJson(candidato));
+        }
+    }
+
+    public void carregarEstado(BinaryReader reader) {
+        limpar();
+
+        for (int i = reader.lerVarInt(); i > 0; i--) {
+            Transacao t = BlockCodec.lerTransacao(reader);
+            Administrador admin = t.getPayloadAs(Administrador.class);
+            if (admin != null) {
+                origemAdmins.put(admin.getId(), t);
+                admins.put(admin.getId(), admin);
+            }
+        }
+        for (int i = reader.lerVarInt(); i > 0; i--) {
+            Transacao t = BlockCodec.lerTransacao(reader);
+            Eleicao eleicao = t.getPayloadAs(Eleicao.class);
+            if (eleicao != null) {
+                origemEleicoes.put(eleicao.getId(), t);
+                eleicoes.put(eleicao.getId(), eleicao);
+            }
+        }
+        for (int i = reader.lerVarInt(); i > 0; i--) {
+            Eleitor eleitor = lerEntidade(reader, TipoTransacao.CADASTRO_ELEITOR, Eleitor.class);
+            eleitores.put(eleitor.getTituloDeEleitorHash(), eleitor);
+        }
+        for (int i = reader.lerVarInt(); i > 0; i--) {
+            Candidato candidato = lerEntidade(reader, TipoTransacao.CADASTRO_CANDIDATO, Candidato.class);
+            candidatos.put(candidato.getNumero(), candidato);
+        }
+    }
+
+    private static <T> T lerEntidade(BinaryReader reader, TipoTransacao tipo, Class<T> classe) {
+        PayloadCodec.Lido lido = PayloadCodec.lerDecodificado(reader, tipo);
+        return classe.isInstance(lido.getObjeto())
+                ? classe.cast(lido.getObjeto())
+                : gson.fromJson(lido.getJson(), classe);
+    }
+
+    private static void escreverOrigens(BinaryWriter writer, Map<String, Transacao> origens) {
+        List<Transacao> lista = new ArrayList<>(origens.values());
+        writer.escreverVarInt(lista.size());
+        for (Transacao t : lista) {
+            BlockCodec.escreverTransacao(writer, t);
+        }
     }
 
     // ========== CONSULTAS ==========
@@ -174,4 +287,37 @@ public class EntityIndexManager {
     public int getTotalEleicoes() {
         return eleicoes.size();
     }
-}
\ No newline at end of file
+
+    // ========== DESFAZER ==========
+
+    /**
+     * Valores sobrescritos por um bloco, em ordem de aplicação.
+     */
+    public static class Desfazer {
+        private final List<Alteracao<?>> alteracoes = new ArrayList<>();
+
+        public int getTotalAlteracoes() {
+            return alteracoes.size();
+        }
+    }
+
+    private static class Alteracao<T> {
+        private final Map<String, T> mapa;
+        private final String chave;
+        private final T anterior;
+
+        private Alteracao(Map<String, T> mapa, String chave, T anterior) {
+            this.mapa = mapa;
+            this.chave = chave;
+            this.anterior = anterior;
+        }
+
+        private void reverter() {
+            if (anterior == null) {
+                mapa.remove(chave);
+            } else {
+                mapa.put(chave, anterior);
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.yagodaoud.VoxChain.blockchain.indices;
+
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BinaryReader;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BinaryWriter;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Conjunto compacto dos IDs de transações confirmadas na cadeia.
+ *
+ * Guarda apenas um digest de 64 bits do ID e a altura do bloco em arrays primitivos
+ * (endereçamento aberto), sem objetos por entrada. Como digests diferentes de IDs
+ * diferentes podem coincidir, cada acerto é confirmado pelo {@link Verificador},
+ * que confere se a transação realmente está no bloco daquela altura.
+ *
+ * Leituras não bloqueiam: usam leitura otimista do {@link StampedLock} e só
+ * recorrem ao lock de leitura se uma escrita acontecer no meio da consulta.
+ */
+public class TransactionIdIndex {
+    private static final long VAZIO = 0L;
+    private static final int CAPACIDADE_INICIAL = 1024;
+    private static final double FATOR_CARGA = 0.7;
+
+    private final StampedLock lock = new StampedLock();
+    private final Verificador verificador;
+
+    private long[] digests;
+    private int[] alturas;
+    private int tamanho;
+
+    /**
+     * Confirma se a transação com o ID informado está no bloco da altura informada.
+     */
+    @FunctionalInterface
+    public interface Verificador {
+        boolean confirmar(String idTransacao, int altura);
+    }
+
+    public TransactionIdIndex(Verificador verificador) {
+        this.verificador = verificador;
+        this.digests = new long[CAPACIDADE_INICIAL];
+        this.alturas = new int[CAPACIDADE_INICIAL];
+    }
+
+    // ==================== ESCRITA ====================
+
+    public void adicionarBloco(Bloco bloco) {
+        List<Transacao> transacoes = bloco.getTransacoes();
+        long stamp = lock.writeLock();
+        try {
+            for (Transacao t : transacoes) {
+                if (t != null && t.getId() != null) {
+                    inserir(digest(t.getId()), bloco.getIndice());
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    /**
+     * Remove as transações de um bloco que saiu da cadeia, sem reconstruir a tabela.
+     */
+    public void removerBloco(Bloco bloco) {
+        List<Transacao> transacoes = bloco.getTransacoes();
+        long stamp = lock.writeLock();
+        try {
+            for (Transacao t : transacoes) {
+                if (t != null && t.getId() != null) {
+                    remover(digest(t.getId()), bloco.getIndice());
+                }
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    public void reconstruir(List<Bloco> blocos) {
+        limpar();
+        for (Bloco bloco : blocos) {
+            adicionarBloco(bloco);
+        }
+    }
+
+    public void limpar() {
+        long stamp = lock.writeLock();
+        try {
+            digests = new long[CAPACIDADE_INICIAL];
+            alturas = new int[CAPACIDADE_INICIAL];
+            tamanho = 0;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ==================== SNAPSHOT ====================
+
+    /**
+     * Grava os pares digest/altura, para restaurar o conjunto sem reler os blocos.
+     */
+    public void escreverEstado(BinaryWriter writer) {
+        long stamp = lock.readLock();
+        try {
+            writer.escreverVarInt(tamanho);
+            for (int i = 0; i < digests.length; i++) {
+                if (digests[i] != VAZIO) {
+                    writer.escreverLong(digests[i]);
+                    writer.escreverVarInt(alturas[i]);
+                }
+            }
+        } finally {
+            lock.unlockRead(stamp);
+        }
+    }
+
+    public void carregarEstado(BinaryReader reader) {
+        limpar();
+        int quantidade = reader.lerVarInt();
+        long stamp = lock.writeLock();
+        try {
+            for (int i = 0; i < quantidade; i++) {
+                inserir(reader.lerLong(), reader.lerVarInt());
+            }
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    // ==================== CONSULTA ====================
+
+    public boolean contem(String idTransacao) {
+        return buscarAltura(idTransacao) >= 0;
+    }
+
+    /**
+     * @return a altura do bloco que contém a transação, ou -1 se ela não estiver confirmada
+     */
+    public int buscarAltura(String idTransacao) {
+        if (idTransacao == null) {
+            return -1;
+        }
+
+        long digest = digest(idTransacao);
+        int[] candidatas = candidatasOtimista(digest);
+        if (candidatas == null) {
+            long stamp = lock.readLock();
+            try {
+                candidatas = candidatas(digest);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+
+        // A verificação exata roda fora do lock
+        for (int altura : candidatas) {
+            if (verificador.confirmar(idTransacao, altura)) {
+                return altura;
+            }
+        }
+        return -1;
+    }
+
+    public int getTamanho() {
+        return tamanho;
+    }
+
+    // ==================== TABELA ====================
+
+    private int[] candidatasOtimista(long digest) {
+        long stamp = lock.tryOptimisticRead();
+        if (stamp == 0) {
+            return null;
+        }
+        try {
+            int[] candidatas = candidatas(digest);
+            return lock.validate(stamp) ? candidatas : null;
+        } catch (RuntimeException e) {
+            // Arrays trocados por uma escrita concorrente: repete com lock de leitura
+            return null;
+        }
+    }
+
+    private int[] candidatas(long digest) {
+        long[] tabela = digests;
+        int[] alturasTabela = alturas;
+        int mascara = tabela.length - 1;
+
+        int[] encontradas = new int[0];
+        for (int i = indice(digest, mascara); tabela[i] != VAZIO; i = (i + 1) & mascara) {
+            if (tabela[i] == digest) {
+                encontradas = Arrays.copyOf(encontradas, encontradas.length + 1);
+                encontradas[encontradas.length - 1] = alturasTabela[i];
+            }
+        }
+        return encontradas;
+    }
+
+    private void inserir(long digest, int altura) {
+        if (tamanho + 1 > digests.length * FATOR_CARGA) {
+            redimensionar();
+        }
+
+        int mascara = digests.length - 1;
+        int i = indice(digest, mascara);
+        while (digests[i] != VAZIO) {
+            if (digests[i] == digest && alturas[i] == altura) {
+                return; // Já indexada nesta altura
+            }
+            i = (i + 1) & mascara;
+        }
+        digests[i] = digest;
+        alturas[i] = altura;
+        tamanho++;
+    }
+
+    /**
+     * Remoção sem marcadores: as entradas seguintes do mesmo agrupamento que podem
+     * ocupar a posição liberada são deslocadas para trás.
+     */
+    private void remover(long digest, int altura) {
+        int mascara = digests.length - 1;
+        int i = indice(digest, mascara);
+        while (digests[i] != VAZIO && !(digests[i] == digest && alturas[i] == altura)) {
+            i = (i + 1) & mascara;
+        }
+        if (digests[i] == VAZIO) {
+            return;
+        }
+
+        int vaga = i;
+        for (int j = (vaga + 1) & mascara; digests[j] != VAZIO; j = (j + 1) & mascara) {
+            int ideal = indice(digests[j], mascara);
+            // A entrada em j só pode ir para a vaga se sua posição ideal não estiver em (vaga, j]
+            boolean idealEntre = vaga <= j
+                    ? vaga < ideal && ideal <= j
+                    : vaga < ideal || ideal <= j;
+            if (!idealEntre) {
+                digests[vaga] = digests[j];
+                alturas[vaga] = alturas[j];
+                vaga = j;
+            }
+        }
+        digests[vaga] = VAZIO;
+        alturas[vaga] = 0;
+        tamanho--;
+    }
+
+    private void redimensionar() {
+        long[] antigosDigests = digests;
+        int[] antigasAlturas = alturas;
+        digests = new long[antigosDigests.length * 2];
+        alturas = new int[antigasAlturas.length * 2];
+        tamanho = 0;
+
+        for (int i = 0; i < antigosDigests.length; i++) {
+            if (antigosDigests[i] != VAZIO) {
+                inserir(antigosDigests[i], antigasAlturas[i]);
+            }
+        }
+    }
+
+    private static int indice(long digest, int mascara) {
+        return (int) (digest ^ (digest >>> 32)) & mascara;
+    }
+
+    /**
+     * Digest de 64 bits do ID (FNV-1a seguido de mistura de bits). Nunca retorna 0,
+     * que marca posição vazia na tabela.
+     */
+    static long digest(String id) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            h ^= id.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == VAZIO ? 1L : h;
+    }
+}
@@ -1,6 +1,9 @@
 package com.yagodaoud.VoxChain.blockchain.indices;
 
 import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BinaryReader;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BinaryWriter;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BlockCodec;
 import com.yagodaoud.VoxChain.modelo.Transacao;
 import com.yagodaoud.VoxChain.modelo.Voto;
 import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
@@ -8,7 +11,11 @@ import com.yagodaoud.VoxChain.utils.Logger;
 
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Registro especializado para controle de votos.
@@ -16,94 +23,299 @@ import java.util.stream.Collectors;
  * - Contabilização de votos por candidato
  * - Total de votos por eleição
  * - Resultados agregados (sem identificar votos individuais)
+ *
+ * É mantido incrementalmente pela blockchain a cada bloco aplicado ou desfeito, então
+ * a apuração custa O(candidatos) e não percorre a cadeia.
  */
 public class VoteRegistry {
+    // A partir deste número de itens, extração e contagem usam stream paralelo
+    static final int LIMITE_PARALELO = 512;
+    // Tentativas de leitura otimista antes de esperar o escritor
+    private static final int TENTATIVAS_LEITURA = 100;
+
     // Chave: tokenVotacao -> Voto (para evitar duplicatas)
     private final Map<String, Voto> votosRegistrados;
+    // Chave: tokenVotacao -> ID da transação que confirmou o voto (para as provas de inclusão)
+    private final Map<String, String> transacaoPorToken;
 
-    // Chave: eleicaoId -> contador de votos
-    private final Map<String, Integer> totalVotosPorEleicao;
+    // Chave: eleicaoId -> contadores da eleição
+    private final Map<String, ContagemEleicao> contagens;
 
-    // Chave: eleicaoId+candidatoNumero -> contador
-    private final Map<String, Integer> contagemVotos;
+    // Sequência de escrita: ímpar enquanto um lote (bloco, desfazer, reconstrução) é aplicado.
+    // Também serve de versão das contagens, crescente mesmo entre eleições recriadas.
+    private final AtomicLong sequencia = new AtomicLong();
+    private final Object escrita = new Object();
 
     public VoteRegistry() {
         this.votosRegistrados = new ConcurrentHashMap<>();
-        this.totalVotosPorEleicao = new ConcurrentHashMap<>();
-        this.contagemVotos = new ConcurrentHashMap<>();
+        this.transacaoPorToken = new ConcurrentHashMap<>();
+        this.contagens = new ConcurrentHashMap<>();
     }
 
     /**
      * Atualiza o registro com votos de um novo bloco
+     *
+     * @return o registro para desfazer os votos deste bloco numa reorganização
      */
-    public void atualizarComBloco(Bloco bloco) {
-        if (bloco == null)
-            return;
+    public Desfazer atualizarComBloco(Bloco bloco) {
+        Desfazer desfazer = new Desfazer();
+        if (bloco == null) {
+            return desfazer;
+        }
+        List<Transacao> transacoes = bloco.getTransacoes();
+        List<VotoConfirmado> votos = extrairVotos(transacoes.size() >= LIMITE_PARALELO
+                ? transacoes.parallelStream()
+                : transacoes.stream());
+        escrever(() -> registrarVotos(votos, desfazer));
+        return desfazer;
+    }
 
-        bloco.getTransacoes().stream()
-                .filter(t -> t.getTipo() == TipoTransacao.VOTO)
-                .map(t -> t.getPayloadAs(Voto.class))
-                .filter(Objects::nonNull)
-                .forEach(this::registrarVoto);
+    /**
+     * Retira os votos de um bloco órfão. Os blocos devem ser desfeitos do mais alto para o mais baixo.
+     */
+    public void desfazer(Desfazer desfazer) {
+        List<VotoAplicado> aplicados = desfazer.votos;
+        List<Voto> retirados = new ArrayList<>(aplicados.size());
+        escrever(() -> {
+            for (int i = aplicados.size() - 1; i >= 0; i--) {
+                VotoAplicado aplicado = aplicados.get(i);
+                Voto voto = aplicado.voto;
+                if (aplicado.anterior == null) {
+                    votosRegistrados.remove(voto.getTokenVotacao());
+                    transacaoPorToken.remove(voto.getTokenVotacao());
+                } else {
+                    votosRegistrados.put(voto.getTokenVotacao(), aplicado.anterior);
+                    transacaoPorToken.put(voto.getTokenVotacao(), aplicado.transacaoAnterior);
+                }
+                retirados.add(voto);
+            }
+            ajustarContagens(retirados, -1);
+        });
     }
 
     /**
-     * Reconstrói o registro a partir da blockchain
+     * Reconstrói o registro a partir da blockchain. Os payloads são lidos e contados em
+     * paralelo; leitores veem o registro anterior ou o reconstruído, nunca um meio-termo.
      */
     public void reconstruirRegistro(List<Bloco> blocos) {
-        limpar();
-
         Logger.info(null, "Reconstruindo registro de votos...");
 
-        blocos.stream()
-                .skip(1) // Pula gênesis
-                .forEach(this::atualizarComBloco);
+        List<VotoConfirmado> votos = extrairVotos(blocos.subList(Math.min(1, blocos.size()), blocos.size()) // Pula gênesis
+                .parallelStream()
+                .flatMap(bloco -> bloco.getTransacoes().stream()));
+        escrever(() -> {
+            votosRegistrados.clear();
+            transacaoPorToken.clear();
+            contagens.clear();
+            registrarVotos(votos, null);
+        });
 
         Logger.info(null, String.format(
                 "Reconstruídos: %d votos em %d eleições",
                 votosRegistrados.size(),
-                totalVotosPorEleicao.size()));
+                contagens.size()));
+    }
+
+    /**
+     * Grava os votos registrados e as contagens, para restaurar o registro sem reler
+     * os payloads da cadeia.
+     */
+    public void escreverEstado(BinaryWriter writer) {
+        synchronized (escrita) {
+            writer.escreverVarInt(votosRegistrados.size());
+            for (Voto voto : votosRegistrados.values()) {
+                BlockCodec.escreverHash(writer, voto.getTokenVotacao());
+                writer.escreverString(voto.getIdCandidato());
+                writer.escreverString(voto.getTipoCandidato());
+                writer.escreverString(voto.getIdEleicao());
+                writer.escreverLong(voto.getTimestamp());
+                writer.escreverString(transacaoPorToken.get(voto.getTokenVotacao()));
+            }
+
+            writer.escreverVarInt(contagens.size());
+            for (Map.Entry<String, ContagemEleicao> eleicao : contagens.entrySet()) {
+                Map<String, Integer> resultado = eleicao.getValue().resultado();
+                writer.escreverString(eleicao.getKey());
+                writer.escreverVarInt(resultado.size());
+                for (Map.Entry<String, Integer> candidato : resultado.entrySet()) {
+                    writer.escreverString(candidato.getKey());
+                    writer.escreverVarInt(candidato.getValue());
+                }
+            }
+        }
+    }
+
+    public void carregarEstado(BinaryReader reader) {
+        escrever(() -> {
+            votosRegistrados.clear();
+            transacaoPorToken.clear();
+            contagens.clear();
+
+            for (int i = reader.lerVarInt(); i > 0; i--) {
+                Voto voto = Voto.restaurar(BlockCodec.lerHash(reader), reader.lerString(),
+                        reader.lerString(), reader.lerString(), reader.lerLong());
+                votosRegistrados.put(voto.getTokenVotacao(), voto);
+                transacaoPorToken.put(voto.getTokenVotacao(), reader.lerString());
+            }
+
+            for (int i = reader.lerVarInt(); i > 0; i--) {
+                ContagemEleicao contagem = contagens.computeIfAbsent(reader.lerString(), id -> new ContagemEleicao());
+                for (int c = reader.lerVarInt(); c > 0; c--) {
+                    contagem.somar(reader.lerString(), reader.lerVarInt());
+                }
+            }
+        });
+    }
+
+    private static List<VotoConfirmado> extrairVotos(Stream<Transacao> transacoes) {
+        return transacoes
+                .filter(t -> t.getTipo() == TipoTransacao.VOTO)
+                .map(t -> {
+                    Voto voto = t.getPayloadAs(Voto.class);
+                    return voto != null ? new VotoConfirmado(voto, t.getId()) : null;
+                })
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
     /**
-     * Registra um voto no sistema
+     * Registra os votos no sistema. Deve rodar dentro de {@link #escrever}.
      */
-    private void registrarVoto(Voto voto) {
-        // Usa tokenVotacao como chave para evitar duplicatas
-        votosRegistrados.put(voto.getTokenVotacao(), voto);
+    private void registrarVotos(List<VotoConfirmado> confirmados, Desfazer desfazer) {
+        List<Voto> votos = new ArrayList<>(confirmados.size());
+        // Tokens em ordem: o voto anterior no mesmo token é o que o desfazer restaura
+        for (VotoConfirmado confirmado : confirmados) {
+            Voto voto = confirmado.voto;
+            Voto anterior = votosRegistrados.put(voto.getTokenVotacao(), voto);
+            String transacaoAnterior = transacaoPorToken.put(voto.getTokenVotacao(), confirmado.idTransacao);
+            if (desfazer != null) {
+                desfazer.votos.add(new VotoAplicado(voto, anterior, transacaoAnterior));
+            }
+            votos.add(voto);
+        }
+        // Contagens não dependem da ordem
+        ajustarContagens(votos, 1);
+    }
 
-        // Incrementa total de votos na eleição
-        totalVotosPorEleicao.merge(voto.getIdEleicao(), 1, Integer::sum);
+    private void ajustarContagens(List<Voto> votos, int delta) {
+        Stream<Voto> fluxo = votos.size() >= LIMITE_PARALELO ? votos.parallelStream() : votos.stream();
+        fluxo.filter(v -> v.getIdEleicao() != null && v.getIdCandidato() != null)
+                .forEach(v -> contagens.computeIfAbsent(v.getIdEleicao(), id -> new ContagemEleicao())
+                        .somar(v.getIdCandidato(), delta));
+    }
 
-        // Incrementa contagem do candidato
-        String chaveContagem = criarChaveContagem(voto.getIdEleicao(), voto.getIdCandidato());
-        contagemVotos.merge(chaveContagem, 1, Integer::sum);
+    /**
+     * Aplica um lote de alterações. A sequência fica ímpar durante o lote; ao final, as
+     * eleições alteradas recebem a sequência par como versão.
+     */
+    private void escrever(Runnable alteracao) {
+        synchronized (escrita) {
+            sequencia.incrementAndGet();
+            try {
+                alteracao.run();
+            } finally {
+                long versao = sequencia.incrementAndGet();
+                for (ContagemEleicao contagem : contagens.values()) {
+                    contagem.publicar(versao);
+                }
+            }
+        }
+    }
+
+    /**
+     * Leitura otimista: repete se um lote foi aplicado no meio. Se o escritor demorar
+     * (reconstrução), espera o lote terminar. A busca da eleição em {@code contagens}
+     * também deve ficar dentro da leitura: na reconstrução o mapa é esvaziado e refeito.
+     */
+    private <T> T ler(Supplier<T> leitura) {
+        for (int tentativa = 0; tentativa < TENTATIVAS_LEITURA; tentativa++) {
+            long antes = sequencia.get();
+            if ((antes & 1) == 0) {
+                T valor = leitura.get();
+                if (sequencia.get() == antes) {
+                    return valor;
+                }
+            }
+            Thread.onSpinWait();
+        }
+        synchronized (escrita) {
+            return leitura.get();
+        }
+    }
+
+    /**
+     * Verifica se já há voto confirmado com o token informado
+     */
+    public boolean tokenUtilizado(String tokenVotacao) {
+        return tokenVotacao != null && votosRegistrados.containsKey(tokenVotacao);
+    }
+
+    /**
+     * Voto confirmado com o token informado, ou null
+     */
+    public Voto buscarVoto(String tokenVotacao) {
+        return tokenVotacao != null ? votosRegistrados.get(tokenVotacao) : null;
+    }
+
+    /**
+     * ID da transação que confirmou o voto com o token informado, ou null
+     */
+    public String buscarIdTransacao(String tokenVotacao) {
+        return tokenVotacao != null ? transacaoPorToken.get(tokenVotacao) : null;
     }
 
     /**
      * Conta quantos votos um candidato recebeu em uma eleição
      */
     public int contarVotosCandidato(String eleicaoId, String numeroCandidato) {
-        String chave = criarChaveContagem(eleicaoId, numeroCandidato);
-        return contagemVotos.getOrDefault(chave, 0);
+        if (eleicaoId == null) {
+            return 0;
+        }
+        return ler(() -> {
+            ContagemEleicao contagem = contagens.get(eleicaoId);
+            return contagem == null ? 0 : contagem.contar(numeroCandidato);
+        });
     }
 
     /**
      * Obtém o total de votos em uma eleição
      */
     public int getTotalVotosEleicao(String eleicaoId) {
-        return totalVotosPorEleicao.getOrDefault(eleicaoId, 0);
+        if (eleicaoId == null) {
+            return 0;
+        }
+        return ler(() -> {
+            ContagemEleicao contagem = contagens.get(eleicaoId);
+            return contagem == null ? 0 : contagem.getTotal();
+        });
+    }
+
+    /**
+     * Versão da contagem da eleição: muda a cada bloco que aplica ou desfaz votos nela.
+     * Lida antes de {@link #obterResultadoEleicao}, permite detectar alterações sem comparar contagens.
+     */
+    public long getVersao(String eleicaoId) {
+        if (eleicaoId == null) {
+            return 0;
+        }
+        return ler(() -> {
+            ContagemEleicao contagem = contagens.get(eleicaoId);
+            return contagem == null ? 0L : contagem.getVersao();
+        });
     }
 
     /**
-     * Obtém resultado completo de uma eleição
+     * Obtém resultado completo de uma eleição (número do candidato -> votos), lido de
+     * uma vez: a soma dos valores é o total da eleição no mesmo instante.
      */
     public Map<String, Integer> obterResultadoEleicao(String eleicaoId) {
-        return contagemVotos.entrySet().stream()
-                .filter(e -> e.getKey().startsWith(eleicaoId + ":"))
-                .collect(Collectors.toMap(
-                        e -> e.getKey().split(":")[1], // Número do candidato
-                        Map.Entry::getValue));
+        if (eleicaoId == null) {
+            return new HashMap<>();
+        }
+        return ler(() -> {
+            ContagemEleicao contagem = contagens.get(eleicaoId);
+            return contagem == null ? new HashMap<>() : contagem.resultado();
+        });
     }
 
     /**
@@ -129,8 +341,9 @@ public class VoteRegistry {
                         Collectors.counting()));
 
         contagemReal.forEach((chave, contagemEsperada) -> {
-            Integer contagemRegistrada = contagemVotos.get(chave);
-            if (contagemRegistrada == null || contagemRegistrada != contagemEsperada.intValue()) {
+            String[] partes = chave.split(":", 2);
+            int contagemRegistrada = contarVotosCandidato(partes[0], partes[1]);
+            if (contagemRegistrada != contagemEsperada.intValue()) {
                 report.adicionarErro(String.format(
                         "Inconsistência na contagem: %s (esperado: %d, registrado: %d)",
                         chave, contagemEsperada, contagemRegistrada));
@@ -144,20 +357,22 @@ public class VoteRegistry {
      * Limpa todos os registros
      */
     public void limpar() {
-        votosRegistrados.clear();
-        totalVotosPorEleicao.clear();
-        contagemVotos.clear();
+        escrever(() -> {
+            votosRegistrados.clear();
+            transacaoPorToken.clear();
+            contagens.clear();
+        });
     }
 
     /**
      * Estatísticas gerais
      */
     public VoteStatistics getStatistics() {
-        return new VoteStatistics(
+        return ler(() -> new VoteStatistics(
                 votosRegistrados.size(),
-                totalVotosPorEleicao.size(),
+                (int) contagens.values().stream().filter(c -> c.getTotal() > 0).count(),
                 votosRegistrados.size() // Total de votos (tokens únicos)
-        );
+        ));
     }
 
     // ========== MÉTODOS AUXILIARES ==========
@@ -168,6 +383,118 @@ public class VoteRegistry {
 
     // ========== CLASSES AUXILIARES ==========
 
+    /**
+     * Contadores de uma eleição: um {@link LongAdder} por candidato, num array indexado
+     * pela posição do candidato. Threads da contagem paralela somam sem disputar lock; só
+     * a primeira aparição de um candidato sincroniza. A consistência entre contadores
+     * vem da sequência de escrita do registro.
+     */
+    private static final class ContagemEleicao {
+        private final Map<String, Integer> posicoes = new ConcurrentHashMap<>();
+        private volatile String[] candidatos = new String[8];
+        private volatile LongAdder[] votos = new LongAdder[8];
+        private volatile int quantidade;
+        private final LongAdder total = new LongAdder();
+        private volatile boolean alterada;
+        private volatile long versao;
+
+        void somar(String candidato, int delta) {
+            int posicao = posicao(candidato);
+            votos[posicao].add(delta);
+            total.add(delta);
+            alterada = true;
+        }
+
+        private int posicao(String candidato) {
+            Integer posicao = posicoes.get(candidato);
+            return posicao != null ? posicao : adicionarCandidato(candidato);
+        }
+
+        private synchronized int adicionarCandidato(String candidato) {
+            Integer existente = posicoes.get(candidato);
+            if (existente != null) {
+                return existente;
+            }
+            int posicao = quantidade;
+            if (posicao == votos.length) {
+                candidatos = Arrays.copyOf(candidatos, posicao * 2);
+                votos = Arrays.copyOf(votos, posicao * 2);
+            }
+            candidatos[posicao] = candidato;
+            votos[posicao] = new LongAdder();
+            quantidade = posicao + 1;
+            posicoes.put(candidato, posicao);
+            return posicao;
+        }
+
+        void publicar(long novaVersao) {
+            if (alterada) {
+                alterada = false;
+                versao = novaVersao;
+            }
+        }
+
+        int contar(String candidato) {
+            Integer posicao = candidato == null ? null : posicoes.get(candidato);
+            return posicao == null ? 0 : (int) votos[posicao].sum();
+        }
+
+        int getTotal() {
+            return (int) total.sum();
+        }
+
+        long getVersao() {
+            return versao;
+        }
+
+        Map<String, Integer> resultado() {
+            int n = quantidade;
+            String[] nomes = candidatos;
+            LongAdder[] contadores = votos;
+            Map<String, Integer> resultado = new HashMap<>(n * 2);
+            for (int i = 0; i < n; i++) {
+                long quantidadeVotos = contadores[i].sum();
+                if (quantidadeVotos > 0) {
+                    resultado.put(nomes[i], (int) quantidadeVotos);
+                }
+            }
+            return resultado;
+        }
+    }
+
+    /**
+     * Votos aplicados por um bloco, em ordem de aplicação.
+     */
+    public static class Desfazer {
+        private final List<VotoAplicado> votos = new ArrayList<>();
+
+        public int getTotalVotos() {
+            return votos.size();
+        }
+    }
+
+    private static class VotoAplicado {
+        private final Voto voto;
+        private final Voto anterior; // Voto que estava registrado no mesmo token, se houver
+        private final String transacaoAnterior;
+
+        private VotoAplicado(Voto voto, Voto anterior, String transacaoAnterior) {
+            this.voto = voto;
+            this.anterior = anterior;
+            this.transacaoAnterior = transacaoAnterior;
+        }
+    }
+
+    private static class VotoConfirmado {
+        private final Voto voto;
+        private final String idTransacao;
+
+        private VotoConfirmado(Voto voto, String idTransacao) {
+            this.voto = voto;
+            this.idTransacao = idTransacao;
+        }
+    }
+
     /**
      * Relatório de validação
      */
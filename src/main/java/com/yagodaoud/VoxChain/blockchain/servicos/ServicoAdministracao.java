@@ -11,6 +11,8 @@ import java.util.List;
 public class ServicoAdministracao {
     private BlockchainGovernamental blockchain;
     private static final String SUPER_ADMIN_ID = "TSE-SUPER-001";
+    // BCrypt de "superadmin", fixo para que o bloco do super admin seja o mesmo em todos os nós
+    private static final String SUPER_ADMIN_SENHA_HASH = "$2a$12$Rcn7xGzw3JMAVX1o0XjMYOGOteyfp1POsTJ/1lZzx3A24.NQ2tf.2";
     public static ServicoAdministracao instance;
 
     public ServicoAdministracao(BlockchainGovernamental blockchain) {
@@ -30,10 +32,10 @@ public class ServicoAdministracao {
         if (blockchain.buscarAdmin(SUPER_ADMIN_ID) == null) {
             long TIMESTAMP_SUPER_ADMIN = 1700000000000L;
 
-            Administrador superAdmin = new Administrador(
+            Administrador superAdmin = Administrador.comSenhaHash(
                     SUPER_ADMIN_ID,
                     "11111111111",
-                    "superadmin",
+                    SUPER_ADMIN_SENHA_HASH,
                     NivelAcesso.SUPER_ADMIN,
                     JurisdicaoAdmin.NACIONAL
             );
@@ -114,7 +116,7 @@ public class ServicoAdministracao {
                 solicitanteId
         );
 
-        blockchain.adicionarAoPool(t);
+        blockchain.submeterAoPool(t);
 
         Logger.info("ADMIN", "Novo admin cadastrado com ID: " + novoAdmin.getId());
 
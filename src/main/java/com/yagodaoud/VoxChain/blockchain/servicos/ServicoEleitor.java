@@ -33,7 +33,7 @@ public class ServicoEleitor {
                 eleitor,
                 admin.getId());
 
-        blockchain.adicionarAoPool(t);
+        blockchain.submeterAoPool(t);
 
         return eleitor;
     }
@@ -43,7 +43,7 @@ public class ServicoEleicao {
 
         Eleicao novaEleicao = new Eleicao(nome, descricao, categorias, dataInicio, dataFim);
         Transacao transacao = new Transacao(TipoTransacao.CRIACAO_ELEICAO, novaEleicao, cpfHash);
-        blockchain.adicionarAoPool(transacao);
+        blockchain.submeterAoPool(transacao);
 
         return novaEleicao;
     }
@@ -55,7 +55,7 @@ public class ServicoEleicao {
         }
         // Lógica para finalizar eleição (ex: mudar status)
         Transacao transacao = new Transacao(TipoTransacao.FIM_ELEICAO, eleicao, solicitanteId);
-        blockchain.adicionarAoPool(transacao);
+        blockchain.submeterAoPool(transacao);
     }
 
     public List<Candidato> listarCandidatos() {
@@ -75,7 +75,7 @@ public class ServicoEleicao {
 
         Candidato novoCandidato = new Candidato(eleicaoId, numero, nome, partido, cargo, uf, fotoUrl);
         Transacao transacao = new Transacao(TipoTransacao.CADASTRO_CANDIDATO, novoCandidato, solicitanteId);
-        blockchain.adicionarAoPool(transacao);
+        blockchain.submeterAoPool(transacao);
 
         return novoCandidato;
     }
@@ -109,12 +109,13 @@ public class ServicoEleicao {
         // 4. Criar Voto usando tokenVotacao (não eleitorHash)
         Voto voto = new Voto(tokenVotacao, numeroCandidato, candidato.getCargo().toString(), eleicaoId);
 
-        // 5. Marcar token como usado
-        gerenciadorToken.marcarTokenComoUsado(tokenVotacao);
-
-        // 6. Adicionar transação ao pool (idOrigem será 'ANONIMO' automaticamente)
+        // 5. Adicionar transação ao pool (idOrigem será 'ANONIMO' automaticamente).
+        // Se o pool recusar por contrapressão, o token continua válido para nova tentativa
         Transacao transacao = new Transacao(TipoTransacao.VOTO, voto, "ANONIMO");
-        blockchain.adicionarAoPool(transacao);
+        blockchain.submeterAoPool(transacao);
+
+        // 6. Marcar token como usado
+        gerenciadorToken.marcarTokenComoUsado(tokenVotacao);
 
         // 7. Retornar voto
         return voto;
@@ -1,11 +1,9 @@
 package com.yagodaoud.VoxChain.blockchain.servicos.eleicao;
 
-import com.yagodaoud.VoxChain.blockchain.Bloco;
 import com.yagodaoud.VoxChain.blockchain.BlockchainGovernamental;
 import com.yagodaoud.VoxChain.modelo.Candidato;
 import com.yagodaoud.VoxChain.modelo.Eleicao;
 import com.yagodaoud.VoxChain.modelo.Transacao;
-import com.yagodaoud.VoxChain.modelo.Voto;
 import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
 
 import java.util.*;
@@ -65,7 +63,7 @@ public class ServicoFechamentoEleicao {
                 eleicao,
                 solicitanteId);
 
-        blockchain.adicionarAoPool(transacao);
+        blockchain.submeterAoPool(transacao);
 
         System.out.println("[ELEIÇÃO] Eleição " + eleicaoId + " fechada por " + solicitanteId);
     }
@@ -80,22 +78,11 @@ public class ServicoFechamentoEleicao {
             throw new IllegalArgumentException("Eleição não encontrada");
         }
 
-        // Coleta todos os votos da eleição
-        Map<String, Integer> votosPorCandidato = new HashMap<>();
+        // Contagem mantida pela blockchain a cada bloco: O(candidatos), sem percorrer a cadeia
+        Map<String, Integer> votosPorCandidato = blockchain.apurarVotos(eleicaoId);
         int totalVotos = 0;
-
-        for (Bloco bloco : blockchain.getBlocos()) {
-            for (Transacao transacao : bloco.getTransacoes()) {
-                if (transacao.getTipo() == TipoTransacao.VOTO) {
-                    Voto voto = transacao.getPayloadAs(Voto.class);
-
-                    if (voto != null && voto.getIdEleicao().equals(eleicaoId)) {
-                        String candidatoId = voto.getIdCandidato();
-                        votosPorCandidato.merge(candidatoId, 1, Integer::sum);
-                        totalVotos++;
-                    }
-                }
-            }
+        for (int votos : votosPorCandidato.values()) {
+            totalVotos += votos;
         }
 
         // Calcula percentuais
@@ -0,0 +1,204 @@
+package com.yagodaoud.VoxChain.blockchain.sync;
+
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.rede.MensagemP2P;
+import com.yagodaoud.VoxChain.rede.Peer;
+import com.yagodaoud.VoxChain.rede.TipoMensagem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Distribui o download dos corpos de blocos entre todos os peers conectados.
+ *
+ * A faixa de alturas a baixar é dividida em pedaços de {@link #BLOCOS_POR_FAIXA};
+ * cada peer tem no máximo {@link #MAX_EM_VOO_POR_PEER} pedaços pendentes, e os
+ * pedaços mais baixos saem primeiro para que a fila de aplicação avance em ordem.
+ * Pedaços sem resposta em {@link #TIMEOUT_FAIXA_MS} ou rejeitados voltam para a fila e
+ * vão para outro peer, se houver; peers que falham seguidamente deixam de receber
+ * pedidos até acertarem.
+ *
+ * Não é thread-safe: quem usa (HeadersFirstSync) serializa as chamadas.
+ */
+public class BlockDownloadScheduler {
+    public static final int BLOCOS_POR_FAIXA = 32;
+    public static final int MAX_EM_VOO_POR_PEER = 4;
+    // Limite de quanto o download pode se adiantar da altura já aplicada
+    public static final int JANELA_ALTURAS = 1024;
+    static final long TIMEOUT_FAIXA_MS = 10_000;
+    private static final int MAX_FALHAS = 3;
+
+    private final String idNo;
+    private final PriorityQueue<HeadersFirstSync.Faixa> pendentes =
+            new PriorityQueue<>(Comparator.comparingInt(HeadersFirstSync.Faixa::getInicio));
+    private final Map<Peer, ArrayDeque<Requisicao>> emVoo = new HashMap<>();
+    private final Map<Peer, Integer> falhas = new HashMap<>();
+    // Início da faixa -> peer que falhou nela por último, evitado no próximo pedido
+    private final Map<Integer, Peer> evitar = new HashMap<>();
+
+    public BlockDownloadScheduler(String idNo) {
+        this.idNo = idNo;
+    }
+
+    /**
+     * Agenda o download das alturas [inicio, fim), descartando qualquer estado anterior.
+     */
+    public void iniciar(int inicio, int fim) {
+        limpar();
+        for (int i = inicio; i < fim; i += BLOCOS_POR_FAIXA) {
+            pendentes.add(new HeadersFirstSync.Faixa(i, Math.min(fim, i + BLOCOS_POR_FAIXA)));
+        }
+    }
+
+    /**
+     * Envia pedidos aos peers com folga na janela, sempre ao menos ocupado primeiro.
+     *
+     * @param alturaAplicada última altura já aplicada; pedaços muito à frente dela esperam
+     */
+    public void distribuir(List<Peer> peers, int alturaAplicada) {
+        List<Peer> saudaveis = new ArrayList<>();
+        for (Peer peer : peers) {
+            if (peer.isConectado() && falhas.getOrDefault(peer, 0) < MAX_FALHAS) {
+                saudaveis.add(peer);
+            }
+        }
+
+        boolean enviou = true;
+        while (enviou) {
+            enviou = false;
+            saudaveis.sort(Comparator.comparingInt(this::emVooDe));
+            for (Peer peer : saudaveis) {
+                HeadersFirstSync.Faixa faixa = pendentes.peek();
+                if (faixa == null || faixa.getInicio() > alturaAplicada + JANELA_ALTURAS) {
+                    return;
+                }
+                if (emVooDe(peer) >= MAX_EM_VOO_POR_PEER
+                        || (saudaveis.size() > 1 && peer == evitar.get(faixa.getInicio()))) {
+                    continue;
+                }
+                pendentes.poll();
+                emVoo.computeIfAbsent(peer, p -> new ArrayDeque<>())
+                        .add(new Requisicao(faixa, System.currentTimeMillis()));
+                // A resposta pode chegar (e ser processada) antes de enviar() retornar
+                peer.enviar(new MensagemP2P(TipoMensagem.REQUISITAR_BLOCOS, faixa, idNo));
+                enviou = true;
+                break;
+            }
+        }
+    }
+
+    /**
+     * Associa a resposta ao pedido pendente do peer que começa na mesma altura.
+     * Resposta incompleta devolve o pedaço à fila e conta como falha do peer.
+     *
+     * @return a faixa atendida, ou null se a resposta não for esperada ou estiver incompleta
+     */
+    public HeadersFirstSync.Faixa receber(Peer peer, List<Bloco> blocos) {
+        ArrayDeque<Requisicao> fila = emVoo.get(peer);
+        if (fila == null || fila.isEmpty()) {
+            return null;
+        }
+
+        Requisicao atendida = null;
+        if (blocos.isEmpty()) {
+            atendida = fila.peekFirst(); // Respostas chegam na ordem dos pedidos
+        } else {
+            for (Requisicao r : fila) {
+                if (r.faixa.getInicio() == blocos.get(0).getIndice()) {
+                    atendida = r;
+                    break;
+                }
+            }
+        }
+        if (atendida == null) {
+            return null; // Resposta atrasada de um pedaço já redistribuído
+        }
+        fila.remove(atendida);
+
+        HeadersFirstSync.Faixa faixa = atendida.faixa;
+        boolean completa = blocos.size() == faixa.getFim() - faixa.getInicio();
+        for (int i = 0; completa && i < blocos.size(); i++) {
+            completa = blocos.get(i).getIndice() == faixa.getInicio() + i;
+        }
+        if (!completa) {
+            rejeitar(peer, faixa);
+            return null;
+        }
+        falhas.remove(peer);
+        evitar.remove(faixa.getInicio());
+        return faixa;
+    }
+
+    /**
+     * Devolve a faixa à fila para ser pedida a outro peer e penaliza este (blocos que não
+     * conferem com os cabeçalhos ou que falharam na validação).
+     */
+    public void rejeitar(Peer peer, HeadersFirstSync.Faixa faixa) {
+        pendentes.add(faixa);
+        falhas.merge(peer, 1, Integer::sum);
+        evitar.put(faixa.getInicio(), peer);
+    }
+
+    /**
+     * Devolve à fila os pedaços sem resposta há mais de {@link #TIMEOUT_FAIXA_MS}
+     * e os dos peers desconectados.
+     *
+     * @return quantos pedaços foram devolvidos
+     */
+    public int expirar(long agora) {
+        int devolvidas = 0;
+        for (Map.Entry<Peer, ArrayDeque<Requisicao>> entrada : emVoo.entrySet()) {
+            Peer peer = entrada.getKey();
+            Iterator<Requisicao> it = entrada.getValue().iterator();
+            while (it.hasNext()) {
+                Requisicao r = it.next();
+                if (!peer.isConectado() || agora - r.enviadaEm > TIMEOUT_FAIXA_MS) {
+                    it.remove();
+                    rejeitar(peer, r.faixa);
+                    devolvidas++;
+                }
+            }
+        }
+        return devolvidas;
+    }
+
+    public boolean isConcluido() {
+        return pendentes.isEmpty() && emVooTotal() == 0;
+    }
+
+    public int emVooTotal() {
+        int total = 0;
+        for (ArrayDeque<Requisicao> fila : emVoo.values()) {
+            total += fila.size();
+        }
+        return total;
+    }
+
+    public void limpar() {
+        pendentes.clear();
+        emVoo.clear();
+        falhas.clear();
+        evitar.clear();
+    }
+
+    private int emVooDe(Peer peer) {
+        ArrayDeque<Requisicao> fila = emVoo.get(peer);
+        return fila == null ? 0 : fila.size();
+    }
+
+    private static final class Requisicao {
+        private final HeadersFirstSync.Faixa faixa;
+        private final long enviadaEm;
+
+        private Requisicao(HeadersFirstSync.Faixa faixa, long enviadaEm) {
+            this.faixa = faixa;
+            this.enviadaEm = enviadaEm;
+        }
+    }
+}
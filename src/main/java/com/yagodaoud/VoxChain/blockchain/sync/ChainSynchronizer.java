@@ -3,20 +3,28 @@ package com.yagodaoud.VoxChain.blockchain.sync;
 import com.yagodaoud.VoxChain.blockchain.Bloco;
 import com.yagodaoud.VoxChain.blockchain.core.BlockValidator;
 import com.yagodaoud.VoxChain.blockchain.core.Chain;
+import com.yagodaoud.VoxChain.blockchain.core.CheckpointCache;
 
 import java.util.List;
 
 /**
  * Responsável pela sincronização de blockchains entre nós.
  * Implementa a regra da cadeia mais longa.
+ * Só o sufixo da cadeia remota posterior ao prefixo já validado localmente é validado.
  */
 public class ChainSynchronizer {
     private final Chain cadeiaLocal;
     private final BlockValidator validator;
+    private final CheckpointCache checkpoints;
 
     public ChainSynchronizer(Chain cadeiaLocal, BlockValidator validator) {
+        this(cadeiaLocal, validator, new CheckpointCache(cadeiaLocal));
+    }
+
+    public ChainSynchronizer(Chain cadeiaLocal, BlockValidator validator, CheckpointCache checkpoints) {
         this.cadeiaLocal = cadeiaLocal;
         this.validator = validator;
+        this.checkpoints = checkpoints;
     }
 
     public SyncResult sincronizar(List<Bloco> cadeiaRemota) {
@@ -24,27 +32,30 @@ public class ChainSynchronizer {
             return SyncResult.falha("Cadeia remota inválida (nula ou vazia)");
         }
 
-        // Valida a cadeia remota
-        BlockValidator.ValidationResult validacao = validator.validarCadeia(cadeiaRemota);
-        if (!validacao.isValido()) {
-            return SyncResult.falha("Cadeia remota inválida: " + validacao.getMensagem());
-        }
-
         int tamanhoLocal = cadeiaLocal.getTamanho();
         int tamanhoRemoto = cadeiaRemota.size();
 
-        // Regra da cadeia mais longa
+        // Regra da cadeia mais longa (antes de validar, que é a parte cara)
         if (tamanhoRemoto <= tamanhoLocal) {
             return SyncResult.naoNecessario(
                     String.format("Cadeia local (%d) >= remota (%d)", tamanhoLocal, tamanhoRemoto)
             );
         }
 
-        // Substitui a cadeia
+        // Valida a cadeia remota a partir do fim do prefixo já validado
+        int prefixo = checkpoints.prefixoConfiavel(cadeiaRemota);
+        BlockValidator.ValidationResult validacao = validator.validarCadeia(cadeiaRemota, prefixo);
+        if (!validacao.isValido()) {
+            return SyncResult.falha("Cadeia remota inválida: " + validacao.getMensagem());
+        }
+
+        // Substitui a cadeia (só o sufixo divergente é trocado)
         cadeiaLocal.substituirCadeia(cadeiaRemota);
+        checkpoints.registrarPonta();
 
         return SyncResult.sucesso(
-                String.format("Cadeia substituída: %d -> %d blocos", tamanhoLocal, tamanhoRemoto)
+                String.format("Cadeia substituída: %d -> %d blocos (%d revalidados)",
+                        tamanhoLocal, tamanhoRemoto, tamanhoRemoto - prefixo)
         );
     }
 
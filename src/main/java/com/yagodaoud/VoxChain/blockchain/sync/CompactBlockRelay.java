@@ -0,0 +1,315 @@
+package com.yagodaoud.VoxChain.blockchain.sync;
+
+import com.yagodaoud.VoxChain.blockchain.BlockchainGovernamental;
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.CabecalhoBloco;
+import com.yagodaoud.VoxChain.blockchain.No;
+import com.yagodaoud.VoxChain.blockchain.core.BlockHasher;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.rede.MensagemP2P;
+import com.yagodaoud.VoxChain.rede.Peer;
+import com.yagodaoud.VoxChain.rede.TipoMensagem;
+import com.yagodaoud.VoxChain.utils.Logger;
+
+import java.io.Serializable;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Retransmissão de blocos compactos.
+ *
+ * O bloco novo vai como cabeçalho + IDs curtos das transações ({@link #BYTES_ID_CURTO}
+ * bytes cada). O receptor remonta o bloco com as transações do próprio pool e pede
+ * só as que faltam. O bloco remontado só é aceito se a raiz de Merkle coincidir com a
+ * do cabeçalho; caso contrário (colisão de ID curto), o bloco inteiro é pedido via GETDATA.
+ *
+ * Os IDs curtos são derivados do hash do bloco, então uma colisão num bloco não se
+ * repete nos outros.
+ */
+public class CompactBlockRelay {
+    public static final int BYTES_ID_CURTO = 6;
+    // Blocos aguardando transações faltantes; o mais antigo é abandonado
+    private static final int MAX_RECONSTRUCOES = 16;
+
+    private final No no;
+    private final Map<String, Reconstrucao> reconstrucoes = new LinkedHashMap<String, Reconstrucao>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Reconstrucao> maisAntigo) {
+            return size() > MAX_RECONSTRUCOES;
+        }
+    };
+
+    public CompactBlockRelay(No no) {
+        this.no = no;
+    }
+
+    // ==================== LADO QUE ENVIA ====================
+
+    public static BlocoCompacto compactar(Bloco bloco) {
+        List<Transacao> transacoes = bloco.getTransacoes();
+        long[] idsCurtos = new long[transacoes.size()];
+        MessageDigest digest = BlockHasher.novoDigest();
+        for (int i = 0; i < idsCurtos.length; i++) {
+            idsCurtos[i] = idCurto(digest, bloco.getHash(), transacoes.get(i).getId());
+        }
+        return new BlocoCompacto(CabecalhoBloco.de(bloco), bloco.getAssinaturaMinerador(), idsCurtos);
+    }
+
+    /**
+     * Transações do bloco nas posições pedidas. Posições inválidas são ignoradas.
+     */
+    public TransacoesBloco responderTransacoes(PedidoTransacoes pedido) {
+        Bloco bloco = no.getBlockchain().buscarBlocoPorHash(pedido.hashBloco);
+        List<Transacao> resposta = new ArrayList<>();
+        if (bloco != null) {
+            List<Transacao> transacoes = bloco.getTransacoes();
+            for (int posicao : pedido.posicoes) {
+                if (posicao >= 0 && posicao < transacoes.size()) {
+                    resposta.add(transacoes.get(posicao));
+                }
+            }
+        }
+        return new TransacoesBloco(pedido.hashBloco, resposta);
+    }
+
+    // ==================== LADO QUE RECEBE ====================
+
+    public void processarCompacto(Peer peer, BlocoCompacto compacto) {
+        CabecalhoBloco cabecalho = compacto.cabecalho;
+        BlockchainGovernamental blockchain = no.getBlockchain();
+        no.getInventario().recebido(peer, cabecalho.getHash());
+
+        if (blockchain.buscarAlturaPorHash(cabecalho.getHash()) >= 0) {
+            return;
+        }
+        if (cabecalho.getIndice() > blockchain.getTamanho()) {
+            // Faltam blocos anteriores: remontar este não ajuda
+            no.getSincronizacao().sincronizarCom(peer);
+            return;
+        }
+        if (cabecalho.getIndice() < blockchain.getTamanho() && !candidatoADesempate(blockchain, cabecalho)) {
+            Logger.info(no.getId(), "⚠ Bloco compacto antigo recebido (fork detectado). Mantendo minha cadeia.");
+            return;
+        }
+        if (!cabecalho.isValido(blockchain.getDificuldade())) {
+            Logger.error(no.getId(), "✗ Bloco compacto com cabeçalho inválido de " + peer.getId());
+            return;
+        }
+
+        Reconstrucao reconstrucao = new Reconstrucao(peer, compacto);
+        List<Integer> faltando = reconstrucao.preencher(indexarPool(cabecalho.getHash()));
+        if (faltando.isEmpty()) {
+            concluir(reconstrucao);
+            return;
+        }
+
+        synchronized (reconstrucoes) {
+            reconstrucoes.put(cabecalho.getHash(), reconstrucao);
+        }
+        Logger.network(no.getId(), "Bloco compacto " + cabecalho.getIndice() + ": pedindo " +
+                faltando.size() + " de " + compacto.idsCurtos.length + " transações a " + peer.getId());
+        peer.enviar(new MensagemP2P(TipoMensagem.REQUISITAR_TRANSACOES_BLOCO,
+                new PedidoTransacoes(cabecalho.getHash(), faltando), no.getId()));
+    }
+
+    public void processarTransacoes(Peer peer, TransacoesBloco resposta) {
+        Reconstrucao reconstrucao;
+        synchronized (reconstrucoes) {
+            reconstrucao = reconstrucoes.get(resposta.hashBloco);
+            if (reconstrucao == null || reconstrucao.peer != peer) {
+                return;
+            }
+            reconstrucoes.remove(resposta.hashBloco);
+        }
+
+        if (!reconstrucao.completar(resposta.transacoes)) {
+            Logger.error(no.getId(), "✗ Resposta incompleta para o bloco compacto " +
+                    reconstrucao.compacto.cabecalho.getIndice() + ", pedindo bloco inteiro");
+            pedirBlocoInteiro(reconstrucao);
+            return;
+        }
+        concluir(reconstrucao);
+    }
+
+    public int getReconstrucoesPendentes() {
+        synchronized (reconstrucoes) {
+            return reconstrucoes.size();
+        }
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private void concluir(Reconstrucao reconstrucao) {
+        CabecalhoBloco cabecalho = reconstrucao.compacto.cabecalho;
+        Bloco bloco = Bloco.reconstruir(cabecalho.getIndice(), cabecalho.getTimestamp(),
+                Arrays.asList(reconstrucao.transacoes), cabecalho.getHashAnterior(), cabecalho.getHash(),
+                cabecalho.getNonce(), cabecalho.getMineradoPor(), reconstrucao.compacto.assinaturaMinerador);
+
+        if (!bloco.getRaizMerkle().equals(cabecalho.getRaizMerkle())) {
+            Logger.error(no.getId(), "✗ Raiz de Merkle do bloco compacto " + cabecalho.getIndice() +
+                    " não confere, pedindo bloco inteiro");
+            pedirBlocoInteiro(reconstrucao);
+            return;
+        }
+        no.processarNovoBloco(bloco, reconstrucao.peer.getId());
+    }
+
+    private void pedirBlocoInteiro(Reconstrucao reconstrucao) {
+        InventoryRelay.Item item = new InventoryRelay.Item(InventoryRelay.Item.Tipo.BLOCO,
+                reconstrucao.compacto.cabecalho.getHash());
+        reconstrucao.peer.enviar(new MensagemP2P(TipoMensagem.GETDATA, Collections.singletonList(item), no.getId()));
+    }
+
+    /**
+     * Concorrente da ponta atual que ganharia o desempate por menor hash; ver
+     * {@link BlockchainGovernamental#desempatarPonta}.
+     */
+    private static boolean candidatoADesempate(BlockchainGovernamental blockchain, CabecalhoBloco cabecalho) {
+        Bloco ponta = blockchain.obterUltimoBloco();
+        return cabecalho.getIndice() == ponta.getIndice()
+                && ponta.getHashAnterior().equals(cabecalho.getHashAnterior())
+                && cabecalho.getHash().compareTo(ponta.getHash()) < 0;
+    }
+
+    /**
+     * ID curto -> transação pendente. IDs curtos repetidos no pool ficam sem transação
+     * (null) e são tratados como faltantes.
+     */
+    private Map<Long, Transacao> indexarPool(String hashBloco) {
+        List<Transacao> pendentes = no.getBlockchain().getTransacoesPendentes();
+        Map<Long, Transacao> indice = new HashMap<>(pendentes.size() * 2);
+        MessageDigest digest = BlockHasher.novoDigest();
+        for (Transacao t : pendentes) {
+            long id = idCurto(digest, hashBloco, t.getId());
+            if (indice.containsKey(id)) {
+                indice.put(id, null);
+            } else {
+                indice.put(id, t);
+            }
+        }
+        return indice;
+    }
+
+    static long idCurto(MessageDigest digest, String hashBloco, String idTransacao) {
+        digest.update(hashBloco.getBytes(StandardCharsets.UTF_8));
+        byte[] resumo = digest.digest(idTransacao != null
+                ? idTransacao.getBytes(StandardCharsets.UTF_8)
+                : new byte[0]);
+        long id = 0;
+        for (int i = 0; i < BYTES_ID_CURTO; i++) {
+            id = (id << 8) | (resumo[i] & 0xFF);
+        }
+        return id;
+    }
+
+    /**
+     * Bloco em remontagem: transações já encontradas e posições ainda vazias.
+     */
+    private static final class Reconstrucao {
+        private final Peer peer;
+        private final BlocoCompacto compacto;
+        private final Transacao[] transacoes;
+        private final List<Integer> faltando = new ArrayList<>();
+
+        private Reconstrucao(Peer peer, BlocoCompacto compacto) {
+            this.peer = peer;
+            this.compacto = compacto;
+            this.transacoes = new Transacao[compacto.idsCurtos.length];
+        }
+
+        private List<Integer> preencher(Map<Long, Transacao> pool) {
+            for (int i = 0; i < transacoes.length; i++) {
+                transacoes[i] = pool.get(compacto.idsCurtos[i]);
+                if (transacoes[i] == null) {
+                    faltando.add(i);
+                }
+            }
+            return faltando;
+        }
+
+        private boolean completar(List<Transacao> recebidas) {
+            if (recebidas.size() != faltando.size()) {
+                return false;
+            }
+            for (int i = 0; i < recebidas.size(); i++) {
+                transacoes[faltando.get(i)] = recebidas.get(i);
+            }
+            return true;
+        }
+    }
+
+    // ==================== MENSAGENS ====================
+
+    public static class BlocoCompacto implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final CabecalhoBloco cabecalho;
+        private final String assinaturaMinerador;
+        private final long[] idsCurtos;
+
+        public BlocoCompacto(CabecalhoBloco cabecalho, String assinaturaMinerador, long[] idsCurtos) {
+            this.cabecalho = cabecalho;
+            this.assinaturaMinerador = assinaturaMinerador;
+            this.idsCurtos = idsCurtos;
+        }
+
+        public CabecalhoBloco getCabecalho() {
+            return cabecalho;
+        }
+
+        public String getAssinaturaMinerador() {
+            return assinaturaMinerador;
+        }
+
+        public long[] getIdsCurtos() {
+            return idsCurtos;
+        }
+    }
+
+    public static class PedidoTransacoes implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String hashBloco;
+        private final List<Integer> posicoes;
+
+        public PedidoTransacoes(String hashBloco, List<Integer> posicoes) {
+            this.hashBloco = hashBloco;
+            this.posicoes = posicoes;
+        }
+
+        public String getHashBloco() {
+            return hashBloco;
+        }
+
+        public List<Integer> getPosicoes() {
+            return posicoes;
+        }
+    }
+
+    public static class TransacoesBloco implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final String hashBloco;
+        private final List<Transacao> transacoes;
+
+        public TransacoesBloco(String hashBloco, List<Transacao> transacoes) {
+            this.hashBloco = hashBloco;
+            this.transacoes = transacoes;
+        }
+
+        public String getHashBloco() {
+            return hashBloco;
+        }
+
+        public List<Transacao> getTransacoes() {
+            return transacoes;
+        }
+    }
+}
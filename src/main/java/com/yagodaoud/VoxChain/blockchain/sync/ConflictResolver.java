@@ -2,6 +2,7 @@ package com.yagodaoud.VoxChain.blockchain.sync;
 
 import com.yagodaoud.VoxChain.blockchain.Bloco;
 import com.yagodaoud.VoxChain.blockchain.core.BlockValidator;
+import com.yagodaoud.VoxChain.blockchain.core.CheckpointCache;
 import com.yagodaoud.VoxChain.utils.Logger;
 
 import java.util.*;
@@ -13,6 +14,7 @@ import java.util.stream.Collectors;
  */
 public class ConflictResolver {
     private final BlockValidator validator;
+    private final CheckpointCache checkpoints;
     private ConflictResolutionStrategy strategy;
 
     public ConflictResolver(BlockValidator validator) {
@@ -20,7 +22,20 @@ public class ConflictResolver {
     }
 
     public ConflictResolver(BlockValidator validator, ConflictResolutionStrategy strategy) {
+        this(validator, null, strategy);
+    }
+
+    /**
+     * @param checkpoints prefixo já validado da cadeia local, ou null para validar tudo
+     */
+    public ConflictResolver(BlockValidator validator, CheckpointCache checkpoints) {
+        this(validator, checkpoints, ConflictResolutionStrategy.LONGEST_CHAIN);
+    }
+
+    public ConflictResolver(BlockValidator validator, CheckpointCache checkpoints,
+                            ConflictResolutionStrategy strategy) {
         this.validator = validator;
+        this.checkpoints = checkpoints;
         this.strategy = strategy;
     }
 
@@ -28,9 +43,16 @@ public class ConflictResolver {
      * Resolve conflito entre múltiplas cadeias
      */
     public ResolutionResult resolverConflito(List<Bloco> cadeiaLocal, List<Bloco> cadeiaRemota) {
-        // Valida ambas as cadeias
-        BlockValidator.ValidationResult validacaoLocal = validator.validarCadeia(cadeiaLocal);
-        BlockValidator.ValidationResult validacaoRemota = validator.validarCadeia(cadeiaRemota);
+        if (cadeiaLocal == null || cadeiaLocal.isEmpty() || cadeiaRemota == null || cadeiaRemota.isEmpty()) {
+            return ResolutionResult.erro("Cadeia vazia ou nula");
+        }
+
+        // Valida a local só depois do prefixo já validado, e a remota só depois do ponto
+        // de divergência: antes dele os blocos têm os mesmos hashes dos locais
+        int prefixoLocal = checkpoints != null ? checkpoints.prefixoConfiavel(cadeiaLocal) : 0;
+        int prefixoRemoto = encontrarPontoDivergencia(cadeiaLocal, cadeiaRemota) + 1;
+        BlockValidator.ValidationResult validacaoLocal = validator.validarCadeia(cadeiaLocal, prefixoLocal);
+        BlockValidator.ValidationResult validacaoRemota = validator.validarCadeia(cadeiaRemota, prefixoRemoto);
 
         if (!validacaoLocal.isValido()) {
             return ResolutionResult.erro("Cadeia local inválida: " + validacaoLocal.getMensagem());
@@ -118,18 +140,24 @@ public class ConflictResolver {
     }
 
     /**
-     * Encontra o índice onde as cadeias divergem
+     * Encontra o último bloco em comum entre as cadeias (-1 se nem o gênesis coincide).
+     * Como cada bloco fixa o hash do anterior, se o bloco i coincide todos antes dele
+     * também coincidem, e a busca binária faz O(log n) comparações de hash.
      */
     private int encontrarPontoDivergencia(List<Bloco> cadeiaLocal, List<Bloco> cadeiaRemota) {
-        int tamanhoMinimo = Math.min(cadeiaLocal.size(), cadeiaRemota.size());
+        int inicio = 0;
+        int fim = Math.min(cadeiaLocal.size(), cadeiaRemota.size());
 
-        for (int i = 0; i < tamanhoMinimo; i++) {
-            if (!cadeiaLocal.get(i).getHash().equals(cadeiaRemota.get(i).getHash())) {
-                return i - 1; // Último bloco em comum
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (cadeiaLocal.get(meio).getHash().equals(cadeiaRemota.get(meio).getHash())) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
             }
         }
 
-        return tamanhoMinimo - 1;
+        return inicio - 1; // Último bloco em comum
     }
 
     /**
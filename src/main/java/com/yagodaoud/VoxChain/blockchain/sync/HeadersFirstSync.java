@@ -0,0 +1,566 @@
+package com.yagodaoud.VoxChain.blockchain.sync;
+
+import com.yagodaoud.VoxChain.blockchain.BlockchainGovernamental;
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.CabecalhoBloco;
+import com.yagodaoud.VoxChain.blockchain.No;
+import com.yagodaoud.VoxChain.rede.MensagemP2P;
+import com.yagodaoud.VoxChain.rede.Peer;
+import com.yagodaoud.VoxChain.rede.TipoMensagem;
+import com.yagodaoud.VoxChain.utils.Logger;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+
+/**
+ * Sincronização incremental "cabeçalhos primeiro".
+ *
+ * 1. Pede a ponta do peer (altura, hash). Se ele estiver à frente,
+ * 2. envia um localizador (hashes da própria cadeia, densos perto da ponta e
+ *    espaçados exponencialmente até o gênesis); o peer responde com os cabeçalhos
+ *    posteriores ao primeiro hash que ele conhece.
+ * 3. Confere encadeamento e prova de trabalho dos cabeçalhos e só então baixa os
+ *    corpos dos blocos em faixas de altura, distribuídas entre todos os peers
+ *    conectados pelo {@link BlockDownloadScheduler}.
+ *
+ * Se a cadeia remota estende a local, cada bloco passa pelo caminho normal de
+ * validação assim que chega. Se há fork, o ramo é baixado inteiro e aplicado como
+ * substituição do sufixo divergente. Ficar um bloco para trás custa um cabeçalho e um bloco.
+ *
+ * Um bloco recusado na validação descarta só a faixa que o trouxe, pedida de novo a
+ * outro peer. Se a mesma altura falhar {@link #MAX_TENTATIVAS_BLOCO} vezes, o problema
+ * está nos cabeçalhos e a sincronização é abandonada.
+ *
+ * Uma rodada aceita no máximo {@link #MAX_CABECALHOS_POR_RODADA} cabeçalhos, o que
+ * também limita o ramo de um fork mantido em memória. Se o peer tiver mais, a rodada
+ * seguinte continua da nova ponta.
+ */
+public class HeadersFirstSync {
+    public static final int MAX_CABECALHOS = 2000;
+    public static final int MAX_BLOCOS_POR_REQUISICAO = 64;
+    public static final int MAX_CABECALHOS_POR_RODADA = 10 * MAX_CABECALHOS;
+    // Um localizador honesto tem ~10 + log2(altura) hashes
+    static final int MAX_HASHES_LOCALIZADOR = 128;
+    static final int MAX_TENTATIVAS_BLOCO = 3;
+    // Sem resposta nesse intervalo, uma nova ponta recebida reinicia a sincronização
+    private static final long TIMEOUT_MS = 30_000;
+
+    private final No no;
+    private final int maxCabecalhosPorRodada;
+
+    // Estado da sincronização em andamento (uma por vez)
+    private Peer fonte;
+    private int alturaAncestral;
+    private final List<CabecalhoBloco> cabecalhos = new ArrayList<>();
+    private final TreeMap<Integer, Recebido> recebidos = new TreeMap<>();
+    // Altura -> vezes que o bloco dela foi recusado na validação
+    private final Map<Integer, Integer> tentativas = new HashMap<>();
+    private final List<Bloco> ramo = new ArrayList<>();
+    private final BlockDownloadScheduler download;
+    private boolean baixandoCorpos;
+    private long ultimaAtividade;
+
+    public HeadersFirstSync(No no) {
+        this(no, MAX_CABECALHOS_POR_RODADA);
+    }
+
+    HeadersFirstSync(No no, int maxCabecalhosPorRodada) {
+        this.no = no;
+        this.maxCabecalhosPorRodada = maxCabecalhosPorRodada;
+        this.download = new BlockDownloadScheduler(no.getId());
+    }
+
+    // ==================== LADO QUE SERVE ====================
+
+    public Ponta obterPonta() {
+        BlockchainGovernamental blockchain = no.getBlockchain();
+        Bloco ultimo = blockchain.obterUltimoBloco();
+        return new Ponta(ultimo.getIndice() + 1, ultimo.getHash());
+    }
+
+    /**
+     * Cabeçalhos posteriores ao primeiro hash do localizador que pertence à cadeia local.
+     */
+    public ArrayList<CabecalhoBloco> responderCabecalhos(Localizador localizador) {
+        BlockchainGovernamental blockchain = no.getBlockchain();
+        ArrayList<CabecalhoBloco> resposta = new ArrayList<>();
+        if (localizador == null || localizador.hashes == null || localizador.maximo <= 0) {
+            return resposta;
+        }
+
+        int inicio = -1;
+        List<String> hashes = localizador.hashes;
+        for (String hash : hashes.subList(0, Math.min(hashes.size(), MAX_HASHES_LOCALIZADOR))) {
+            int altura = blockchain.buscarAlturaPorHash(hash);
+            if (altura >= 0) {
+                inicio = altura + 1;
+                break;
+            }
+        }
+        if (inicio < 0) {
+            return resposta; // Nem o gênesis coincide: outra rede
+        }
+
+        List<Bloco> blocos = blockchain.getBlocos();
+        int fim = Math.min(blocos.size(), inicio + Math.min(localizador.maximo, MAX_CABECALHOS));
+        for (int i = inicio; i < fim; i++) {
+            resposta.add(CabecalhoBloco.de(blocos.get(i)));
+        }
+        return resposta;
+    }
+
+    public ArrayList<Bloco> responderBlocos(Faixa faixa) {
+        if (faixa == null) {
+            return new ArrayList<>();
+        }
+        List<Bloco> blocos = no.getBlockchain().getBlocos();
+        int inicio = Math.max(0, faixa.inicio);
+        int fim = Math.min(blocos.size(), Math.min(faixa.fim, inicio + MAX_BLOCOS_POR_REQUISICAO));
+        ArrayList<Bloco> resposta = new ArrayList<>(Math.max(0, fim - inicio));
+        for (int i = inicio; i < fim; i++) {
+            resposta.add(blocos.get(i));
+        }
+        return resposta;
+    }
+
+    // ==================== LADO QUE SINCRONIZA ====================
+
+    public void requisitarPonta(Peer peer) {
+        peer.enviar(new MensagemP2P(TipoMensagem.REQUISITAR_PONTA, null, no.getId()));
+    }
+
+    public synchronized void processarPonta(Peer peer, Ponta ponta) {
+        if (ponta == null || ponta.altura <= no.getBlockchain().getTamanho()) {
+            return;
+        }
+        if (no.getBlockchain().buscarAlturaPorHash(ponta.hash) >= 0) {
+            return; // Já temos esse bloco
+        }
+        sincronizarCom(peer);
+    }
+
+    /**
+     * Inicia a sincronização com o peer, se nenhuma estiver em andamento.
+     */
+    public synchronized void sincronizarCom(Peer peer) {
+        if (emAndamento()) {
+            return;
+        }
+        reiniciar();
+        fonte = peer;
+        alturaAncestral = -1;
+        tocar();
+        Logger.info(no.getId(), "[SYNC] Pedindo cabeçalhos a " + peer.getId());
+        peer.enviar(new MensagemP2P(TipoMensagem.REQUISITAR_CABECALHOS,
+                new Localizador(montarLocalizador(), MAX_CABECALHOS), no.getId()));
+    }
+
+    public synchronized void processarCabecalhos(Peer peer, List<CabecalhoBloco> recebidosDoPeer) {
+        if (peer != fonte || baixandoCorpos) {
+            return;
+        }
+        tocar();
+
+        if (!loteBemFormado(recebidosDoPeer)) {
+            Logger.error(no.getId(), "[SYNC] Resposta de cabeçalhos malformada de " + peer.getId() + ", abortando");
+            reiniciar();
+            return;
+        }
+
+        // O que passar do limite da rodada fica para a próxima, a partir da nova ponta
+        int espaco = maxCabecalhosPorRodada - cabecalhos.size();
+        List<CabecalhoBloco> lote = recebidosDoPeer.size() > espaco
+                ? recebidosDoPeer.subList(0, espaco)
+                : recebidosDoPeer;
+        if (!lote.isEmpty() && !aceitarCabecalhos(lote)) {
+            Logger.error(no.getId(), "[SYNC] Cabeçalhos inválidos de " + peer.getId() + ", abortando");
+            reiniciar();
+            return;
+        }
+
+        // Lote cheio: o peer tem mais cabeçalhos, continua a partir do último recebido
+        if (recebidosDoPeer.size() >= MAX_CABECALHOS && cabecalhos.size() < maxCabecalhosPorRodada) {
+            String ultimo = cabecalhos.get(cabecalhos.size() - 1).getHash();
+            peer.enviar(new MensagemP2P(TipoMensagem.REQUISITAR_CABECALHOS,
+                    new Localizador(List.of(ultimo), MAX_CABECALHOS), no.getId()));
+            return;
+        }
+
+        int alturaRemota = alturaAncestral + 1 + cabecalhos.size();
+        if (cabecalhos.isEmpty() || alturaRemota <= no.getBlockchain().getTamanho()) {
+            Logger.info(no.getId(), "[SYNC] Nada a baixar de " + peer.getId());
+            reiniciar();
+            return;
+        }
+
+        Logger.info(no.getId(), String.format("[SYNC] %d cabeçalhos válidos a partir do bloco %d, baixando corpos",
+                cabecalhos.size(), alturaAncestral + 1));
+        baixandoCorpos = true;
+        download.iniciar(alturaAncestral + 1, ultimaAlturaCabecalho() + 1);
+        distribuir();
+    }
+
+    /**
+     * Corpos de blocos de qualquer peer com pedido pendente. Blocos que não conferem
+     * com os cabeçalhos são descartados e a faixa é pedida a outro peer.
+     */
+    public synchronized void processarBlocos(Peer peer, List<Bloco> blocos) {
+        if (!baixandoCorpos) {
+            return;
+        }
+        if (blocos == null || blocos.stream().anyMatch(Objects::isNull)) {
+            blocos = List.of(); // Tratada como resposta incompleta: a faixa vai a outro peer
+        }
+        Faixa faixa = download.receber(peer, blocos);
+        if (faixa == null) {
+            distribuir();
+            return;
+        }
+        tocar();
+
+        for (Bloco bloco : blocos) {
+            CabecalhoBloco esperado = cabecalhoDaAltura(bloco.getIndice());
+            if (esperado == null || !esperado.corresponde(bloco)) {
+                Logger.error(no.getId(), "[SYNC] Bloco " + bloco.getIndice() + " de " + peer.getId() +
+                        " não confere com o cabeçalho, pedindo a outro peer");
+                download.rejeitar(peer, faixa);
+                distribuir();
+                return;
+            }
+        }
+        for (Bloco bloco : blocos) {
+            if (bloco.getIndice() > alturaAncestral + ramo.size()) {
+                recebidos.put(bloco.getIndice(), new Recebido(bloco, peer, faixa));
+            }
+        }
+
+        Recebido recusado = aplicarRecebidos();
+        if (recusado != null) {
+            if (!pedirDeNovo(recusado)) {
+                reiniciar();
+                return;
+            }
+            distribuir();
+            return;
+        }
+
+        if (alturaAncestral + ramo.size() == ultimaAlturaCabecalho()) {
+            concluir();
+        } else {
+            distribuir();
+        }
+    }
+
+    /**
+     * Chamado periodicamente: redistribui faixas sem resposta e abandona uma
+     * sincronização parada há mais de {@link #TIMEOUT_MS}.
+     */
+    public synchronized void verificarTimeouts() {
+        if (fonte == null) {
+            return;
+        }
+        if (!emAndamento()) {
+            Logger.error(no.getId(), "[SYNC] Sincronização com " + fonte.getId() + " parada, abandonando");
+            reiniciar();
+            return;
+        }
+        if (baixandoCorpos && download.expirar(System.currentTimeMillis()) > 0) {
+            distribuir();
+        }
+    }
+
+    public synchronized boolean emAndamento() {
+        return fonte != null && System.currentTimeMillis() - ultimaAtividade < TIMEOUT_MS;
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private static boolean loteBemFormado(List<CabecalhoBloco> lote) {
+        if (lote == null || lote.size() > MAX_CABECALHOS) {
+            return false;
+        }
+        for (CabecalhoBloco cabecalho : lote) {
+            if (cabecalho == null || cabecalho.getHashAnterior() == null || cabecalho.getRaizMerkle() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Confere que os cabeçalhos continuam a cadeia conhecida (local ou já recebida)
+     * e que cada um tem hash e prova de trabalho válidos.
+     */
+    private boolean aceitarCabecalhos(List<CabecalhoBloco> lote) {
+        BlockchainGovernamental blockchain = no.getBlockchain();
+        CabecalhoBloco primeiro = lote.get(0);
+
+        String hashAnterior;
+        int indiceAnterior;
+        if (cabecalhos.isEmpty()) {
+            alturaAncestral = blockchain.buscarAlturaPorHash(primeiro.getHashAnterior());
+            if (alturaAncestral < 0) {
+                return false;
+            }
+            hashAnterior = primeiro.getHashAnterior();
+            indiceAnterior = alturaAncestral;
+        } else {
+            CabecalhoBloco ultimo = cabecalhos.get(cabecalhos.size() - 1);
+            hashAnterior = ultimo.getHash();
+            indiceAnterior = ultimo.getIndice();
+        }
+
+        for (CabecalhoBloco cabecalho : lote) {
+            if (!hashAnterior.equals(cabecalho.getHashAnterior())
+                    || cabecalho.getIndice() != indiceAnterior + 1
+                    || !cabecalho.isValido(blockchain.getDificuldade())) {
+                return false;
+            }
+            hashAnterior = cabecalho.getHash();
+            indiceAnterior = cabecalho.getIndice();
+        }
+        cabecalhos.addAll(lote);
+        return true;
+    }
+
+    /**
+     * Aplica, em ordem, os blocos recebidos que dão continuidade ao que já foi aplicado.
+     * Se a cadeia remota estende a local, cada bloco entra pelo caminho normal de
+     * validação; se há fork, os blocos vão para o ramo que substitui o sufixo no final.
+     *
+     * @return o bloco recusado na validação, ou null
+     */
+    private Recebido aplicarRecebidos() {
+        BlockchainGovernamental blockchain = no.getBlockchain();
+        while (!recebidos.isEmpty()) {
+            int proxima = alturaAncestral + 1 + ramo.size();
+            Recebido recebido = recebidos.get(proxima);
+            if (recebido == null) {
+                return null;
+            }
+            recebidos.remove(proxima);
+            Bloco bloco = recebido.bloco;
+
+            if (ramo.isEmpty() && extendeALocal(bloco)) {
+                if (!blockchain.adicionarBlocoValidado(bloco)
+                        && blockchain.buscarAlturaPorHash(bloco.getHash()) != bloco.getIndice()) {
+                    Logger.error(no.getId(), "[SYNC] Bloco " + bloco.getIndice() + " de " +
+                            recebido.peer.getId() + " rejeitado na validação");
+                    return recebido;
+                }
+                alturaAncestral = bloco.getIndice();
+            } else {
+                ramo.add(bloco);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Descarta os blocos ainda não aplicados da faixa do bloco recusado e devolve a faixa
+     * ao agendador, que a pede a outro peer.
+     *
+     * @return false se a altura já falhou vezes demais (cabeçalhos inválidos)
+     */
+    private boolean pedirDeNovo(Recebido recusado) {
+        int altura = recusado.bloco.getIndice();
+        if (tentativas.merge(altura, 1, Integer::sum) >= MAX_TENTATIVAS_BLOCO) {
+            Logger.error(no.getId(), "[SYNC] Bloco " + altura + " recusado " + MAX_TENTATIVAS_BLOCO +
+                    " vezes, abandonando sincronização com " + fonte.getId());
+            return false;
+        }
+        Faixa faixa = recusado.faixa;
+        recebidos.subMap(faixa.inicio, faixa.fim).clear();
+        download.rejeitar(recusado.peer, faixa);
+        return true;
+    }
+
+    private boolean extendeALocal(Bloco bloco) {
+        Bloco ponta = no.getBlockchain().obterUltimoBloco();
+        return bloco.getHashAnterior().equals(ponta.getHash())
+                || no.getBlockchain().buscarAlturaPorHash(bloco.getHash()) == bloco.getIndice();
+    }
+
+    private void distribuir() {
+        List<Peer> peers = new ArrayList<>(no.getPeers());
+        if (!peers.contains(fonte)) {
+            peers.add(fonte);
+        }
+        download.distribuir(peers, alturaAncestral + ramo.size());
+    }
+
+    private void concluir() {
+        if (!ramo.isEmpty()) {
+            // Fork: substitui o sufixo a partir do ancestral comum pelo ramo baixado
+            Logger.info(no.getId(), String.format("[SYNC] Aplicando ramo de %d blocos a partir do bloco %d",
+                    ramo.size(), alturaAncestral + 1));
+            no.sincronizarBlockchain(new CadeiaComRamo(no.getBlockchain().getBlocos(),
+                    alturaAncestral + 1, new ArrayList<>(ramo)));
+        }
+        Logger.info(no.getId(), "[SYNC] Sincronização concluída com " + fonte.getId() +
+                " (altura " + no.getBlockchain().getTamanho() + ")");
+        Peer peer = fonte;
+        reiniciar();
+        // A cadeia remota pode ter crescido durante o download
+        requisitarPonta(peer);
+    }
+
+    private CabecalhoBloco cabecalhoDaAltura(int altura) {
+        if (cabecalhos.isEmpty()) {
+            return null;
+        }
+        int posicao = altura - cabecalhos.get(0).getIndice();
+        return posicao >= 0 && posicao < cabecalhos.size() ? cabecalhos.get(posicao) : null;
+    }
+
+    private int ultimaAlturaCabecalho() {
+        return cabecalhos.isEmpty() ? alturaAncestral : cabecalhos.get(cabecalhos.size() - 1).getIndice();
+    }
+
+    /**
+     * Hashes da cadeia local: os 10 blocos mais recentes e depois passos que dobram
+     * até o gênesis, para achar o ancestral comum com O(log n) hashes.
+     */
+    private List<String> montarLocalizador() {
+        BlockchainGovernamental blockchain = no.getBlockchain();
+        List<String> hashes = new ArrayList<>();
+        int passo = 1;
+        for (int altura = blockchain.getTamanho() - 1; altura > 0; altura -= passo) {
+            hashes.add(blockchain.getBloco(altura).getHash());
+            if (hashes.size() >= 10) {
+                passo *= 2;
+            }
+        }
+        hashes.add(blockchain.getBloco(0).getHash());
+        return hashes;
+    }
+
+    private void tocar() {
+        ultimaAtividade = System.currentTimeMillis();
+    }
+
+    private void reiniciar() {
+        fonte = null;
+        cabecalhos.clear();
+        recebidos.clear();
+        tentativas.clear();
+        ramo.clear();
+        baixandoCorpos = false;
+        download.limpar();
+    }
+
+    // ==================== MENSAGENS ====================
+
+    /**
+     * Ponta da cadeia de um nó: altura (número de blocos) e hash do último bloco.
+     */
+    public static class Ponta implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int altura;
+        private final String hash;
+
+        public Ponta(int altura, String hash) {
+            this.altura = altura;
+            this.hash = hash;
+        }
+
+        public int getAltura() {
+            return altura;
+        }
+
+        public String getHash() {
+            return hash;
+        }
+    }
+
+    public static class Localizador implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> hashes;
+        private final int maximo;
+
+        public Localizador(List<String> hashes, int maximo) {
+            this.hashes = new ArrayList<>(hashes);
+            this.maximo = maximo;
+        }
+
+        public List<String> getHashes() {
+            return hashes;
+        }
+
+        public int getMaximo() {
+            return maximo;
+        }
+    }
+
+    /**
+     * Faixa de alturas [inicio, fim).
+     */
+    public static class Faixa implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        private final int inicio;
+        private final int fim;
+
+        public Faixa(int inicio, int fim) {
+            this.inicio = inicio;
+            this.fim = fim;
+        }
+
+        public int getInicio() {
+            return inicio;
+        }
+
+        public int getFim() {
+            return fim;
+        }
+    }
+
+    /**
+     * Bloco baixado à espera de ser aplicado, com o peer e a faixa que o trouxeram.
+     */
+    private static final class Recebido {
+        private final Bloco bloco;
+        private final Peer peer;
+        private final Faixa faixa;
+
+        private Recebido(Bloco bloco, Peer peer, Faixa faixa) {
+            this.bloco = bloco;
+            this.peer = peer;
+            this.faixa = faixa;
+        }
+    }
+
+    /**
+     * Cadeia local até o ancestral comum seguida do ramo baixado, sem copiar o prefixo.
+     */
+    private static class CadeiaComRamo extends AbstractList<Bloco> implements RandomAccess {
+        private final List<Bloco> local;
+        private final int tamanhoPrefixo;
+        private final List<Bloco> ramo;
+
+        private CadeiaComRamo(List<Bloco> local, int tamanhoPrefixo, List<Bloco> ramo) {
+            this.local = local;
+            this.tamanhoPrefixo = tamanhoPrefixo;
+            this.ramo = ramo;
+        }
+
+        @Override
+        public Bloco get(int indice) {
+            return indice < tamanhoPrefixo ? local.get(indice) : ramo.get(indice - tamanhoPrefixo);
+        }
+
+        @Override
+        public int size() {
+            return tamanhoPrefixo + ramo.size();
+        }
+    }
+}
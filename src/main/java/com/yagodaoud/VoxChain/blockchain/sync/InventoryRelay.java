@@ -0,0 +1,301 @@
+package com.yagodaoud.VoxChain.blockchain.sync;
+
+import com.yagodaoud.VoxChain.blockchain.BlockchainGovernamental;
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.No;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.rede.MensagemP2P;
+import com.yagodaoud.VoxChain.rede.Peer;
+import com.yagodaoud.VoxChain.rede.TipoMensagem;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Propagação de transações e blocos por inventário.
+ *
+ * Em vez de reenviar o corpo a todos os vizinhos, o nó anuncia só o ID ({@code INV});
+ * quem não tem o item pede ({@code GETDATA}) e recebe o corpo nas mensagens de sempre
+ * ({@code NOVA_TRANSACAO} / {@code NOVO_BLOCO}). Cada peer tem um filtro do que já
+ * conhece (anunciou, pediu ou recebeu de nós), então um item não é anunciado duas vezes
+ * no mesmo enlace e cada corpo cruza cada enlace no máximo uma vez.
+ *
+ * Cada item é pedido a um peer por vez. Os demais que o anunciarem ficam guardados; se o
+ * corpo não chegar no prazo, o pedido passa ao próximo deles.
+ */
+public class InventoryRelay {
+    // Itens lembrados por peer; os mais antigos saem primeiro
+    public static final int MAX_CONHECIDOS_POR_PEER = 50_000;
+    public static final int MAX_ITENS_POR_MENSAGEM = 1000;
+    // Peers guardados por item para refazer o pedido
+    public static final int MAX_ANUNCIANTES_POR_ITEM = 8;
+    // Sem o corpo nesse intervalo, o item é pedido ao próximo peer que o anunciou
+    static final long TIMEOUT_PEDIDO_MS = 10_000;
+
+    private final No no;
+    private final Map<Peer, Conhecidos> conhecidos = new ConcurrentHashMap<>();
+    // Item -> pedido em curso
+    private final Map<String, Pedido> pedidos = new ConcurrentHashMap<>();
+
+    public InventoryRelay(No no) {
+        this.no = no;
+    }
+
+    // ==================== ANÚNCIOS ====================
+
+    public int anunciarTransacao(Transacao t, String peerOrigem) {
+        Item item = new Item(Item.Tipo.TRANSACAO, t.getId());
+        return anunciar(item.id, new MensagemP2P(TipoMensagem.INV, Collections.singletonList(item), no.getId()),
+                peerOrigem);
+    }
+
+    /**
+     * Blocos vão direto como bloco compacto (cabeçalho + IDs curtos), sem a ida e volta do
+     * INV: o receptor costuma ter as transações no pool. Ver {@link CompactBlockRelay}.
+     */
+    public int anunciarBloco(Bloco b, String peerOrigem) {
+        return anunciar(b.getHash(), new MensagemP2P(TipoMensagem.BLOCO_COMPACTO,
+                CompactBlockRelay.compactar(b), no.getId()), peerOrigem);
+    }
+
+    /**
+     * Envia o anúncio aos peers conectados que ainda não conhecem o item.
+     *
+     * @return para quantos peers o anúncio foi enviado
+     */
+    private int anunciar(String id, MensagemP2P msg, String peerOrigem) {
+        int enviados = 0;
+        for (Peer peer : no.getPeers()) {
+            if (!peer.isConectado() || peer.getId().equals(peerOrigem)) {
+                continue;
+            }
+            if (conhecidosDe(peer).marcar(id)) {
+                peer.enviar(msg);
+                enviados++;
+            }
+        }
+        return enviados;
+    }
+
+    // ==================== PEDIDOS ====================
+
+    /**
+     * Pede ao peer os itens anunciados que ainda não temos nem já pedimos a outro peer.
+     * Itens já pedidos a outro peer guardam este como alternativa.
+     */
+    public void processarAnuncio(Peer peer, List<Item> itens) {
+        Conhecidos doPeer = conhecidosDe(peer);
+        long agora = System.currentTimeMillis();
+        List<Item> faltando = new ArrayList<>();
+
+        for (Item item : limitar(itens)) {
+            doPeer.marcar(item.id);
+            if (temItem(item)) {
+                continue;
+            }
+            boolean[] pedir = {false};
+            pedidos.compute(item.id, (id, pedido) -> {
+                if (pedido == null) {
+                    pedido = new Pedido(item);
+                } else if (agora - pedido.pedidoEm < TIMEOUT_PEDIDO_MS) {
+                    pedido.lembrar(peer); // Já pedido a outro peer
+                    return pedido;
+                }
+                pedido.pedirA(peer, agora);
+                pedir[0] = true;
+                return pedido;
+            });
+            if (pedir[0]) {
+                faltando.add(item);
+            }
+        }
+
+        if (!faltando.isEmpty()) {
+            peer.enviar(new MensagemP2P(TipoMensagem.GETDATA, faltando, no.getId()));
+        }
+    }
+
+    /**
+     * Envia ao peer o corpo de cada item pedido que ainda temos. Itens desconhecidos são ignorados.
+     */
+    public void responderPedido(Peer peer, List<Item> itens) {
+        BlockchainGovernamental blockchain = no.getBlockchain();
+        Conhecidos doPeer = conhecidosDe(peer);
+
+        for (Item item : limitar(itens)) {
+            doPeer.marcar(item.id);
+            if (item.tipo == Item.Tipo.TRANSACAO) {
+                Transacao t = blockchain.buscarTransacaoPendente(item.id);
+                if (t != null) {
+                    peer.enviar(new MensagemP2P(TipoMensagem.NOVA_TRANSACAO, t, no.getId()));
+                }
+            } else {
+                Bloco b = blockchain.buscarBlocoPorHash(item.id);
+                if (b != null) {
+                    peer.enviar(new MensagemP2P(TipoMensagem.NOVO_BLOCO, b, no.getId()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Registra que o corpo do item chegou do peer (pedido ou não).
+     */
+    public void recebido(Peer peer, String id) {
+        if (id == null) {
+            return;
+        }
+        pedidos.remove(id);
+        conhecidosDe(peer).marcar(id);
+    }
+
+    /**
+     * Refaz ao próximo anunciante os pedidos sem resposta; sem anunciante conectado, o
+     * pedido é esquecido. Também esquece os filtros de peers desconectados.
+     */
+    public void expirar(long agora) {
+        Map<Peer, List<Item>> refazer = new HashMap<>();
+        for (String id : pedidos.keySet()) {
+            pedidos.computeIfPresent(id, (chave, pedido) -> {
+                if (agora - pedido.pedidoEm < TIMEOUT_PEDIDO_MS) {
+                    return pedido;
+                }
+                Peer proximo = temItem(pedido.item) ? null : pedido.proximo();
+                if (proximo == null) {
+                    return null;
+                }
+                pedido.pedirA(proximo, agora);
+                refazer.computeIfAbsent(proximo, p -> new ArrayList<>()).add(pedido.item);
+                return pedido;
+            });
+        }
+
+        refazer.forEach((peer, itens) -> {
+            for (int i = 0; i < itens.size(); i += MAX_ITENS_POR_MENSAGEM) {
+                List<Item> lote = new ArrayList<>(itens.subList(i, Math.min(itens.size(), i + MAX_ITENS_POR_MENSAGEM)));
+                peer.enviar(new MensagemP2P(TipoMensagem.GETDATA, lote, no.getId()));
+            }
+        });
+        conhecidos.keySet().removeIf(peer -> !peer.isConectado());
+    }
+
+    public int getPedidosPendentes() {
+        return pedidos.size();
+    }
+
+    // ==================== AUXILIARES ====================
+
+    private boolean temItem(Item item) {
+        BlockchainGovernamental blockchain = no.getBlockchain();
+        if (item.tipo == Item.Tipo.TRANSACAO) {
+            return blockchain.transacaoExistePorId(item.id);
+        }
+        return blockchain.buscarAlturaPorHash(item.id) >= 0;
+    }
+
+    private Conhecidos conhecidosDe(Peer peer) {
+        return conhecidos.computeIfAbsent(peer, p -> new Conhecidos());
+    }
+
+    private static List<Item> limitar(List<Item> itens) {
+        if (itens == null) {
+            return Collections.emptyList();
+        }
+        return itens.size() > MAX_ITENS_POR_MENSAGEM ? itens.subList(0, MAX_ITENS_POR_MENSAGEM) : itens;
+    }
+
+    /**
+     * Conjunto limitado dos itens que um peer já tem.
+     */
+    private static final class Conhecidos {
+        private final LinkedHashMap<String, Boolean> itens = new LinkedHashMap<String, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> maisAntigo) {
+                return size() > MAX_CONHECIDOS_POR_PEER;
+            }
+        };
+
+        /**
+         * @return true se o item ainda não era conhecido
+         */
+        synchronized boolean marcar(String id) {
+            return itens.put(id, Boolean.TRUE) == null;
+        }
+    }
+
+    /**
+     * Item pedido a um peer, com os outros peers que o anunciaram e ainda não foram tentados.
+     * Só é alterado dentro de {@code pedidos.compute}, que serializa o acesso por item.
+     */
+    private static final class Pedido {
+        private final Item item;
+        private final Deque<Peer> anunciantes = new ArrayDeque<>();
+        private Peer atual;
+        private long pedidoEm;
+
+        Pedido(Item item) {
+            this.item = item;
+        }
+
+        void pedirA(Peer peer, long agora) {
+            atual = peer;
+            pedidoEm = agora;
+            anunciantes.remove(peer);
+        }
+
+        void lembrar(Peer peer) {
+            if (peer != atual && !anunciantes.contains(peer) && anunciantes.size() < MAX_ANUNCIANTES_POR_ITEM) {
+                anunciantes.add(peer);
+            }
+        }
+
+        /**
+         * @return o próximo anunciante ainda conectado, ou null
+         */
+        Peer proximo() {
+            Peer peer;
+            while ((peer = anunciantes.poll()) != null) {
+                if (peer.isConectado()) {
+                    return peer;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Entrada de inventário: uma transação (pelo ID) ou um bloco (pelo hash).
+     */
+    public static class Item implements Serializable {
+        private static final long serialVersionUID = 1L;
+
+        public enum Tipo {
+            TRANSACAO,
+            BLOCO
+        }
+
+        private final Tipo tipo;
+        private final String id;
+
+        public Item(Tipo tipo, String id) {
+            this.tipo = tipo;
+            this.id = id;
+        }
+
+        public Tipo getTipo() {
+            return tipo;
+        }
+
+        public String getId() {
+            return id;
+        }
+    }
+}
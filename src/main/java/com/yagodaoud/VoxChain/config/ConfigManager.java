@@ -1,5 +1,6 @@
 package com.yagodaoud.VoxChain.config;
 
+import com.yagodaoud.VoxChain.blockchain.core.TransactionPool;
 import com.yagodaoud.VoxChain.rede.PeerDiscovery;
 import com.yagodaoud.VoxChain.utils.Logger;
 
@@ -41,6 +42,13 @@ public class ConfigManager {
         props.setProperty("discovery.sync.interval", "15");
         props.setProperty("discovery.timeout", "30000");
         props.setProperty("discovery.gossip.enabled", "true");
+        props.setProperty("mineracao.threads", String.valueOf(Runtime.getRuntime().availableProcessors()));
+        props.setProperty("armazenamento.diretorio", "");
+        props.setProperty("pool.max.transacoes", "10000");
+        props.setProperty("pool.max.bytes", String.valueOf(16L * 1024 * 1024));
+        props.setProperty("pool.cota.origem", "500");
+        props.setProperty("pool.profundidade.finalidade", "6");
+        props.setProperty("api.resultados.intervalo.ms", "1000");
     }
 
     // ============ BOOTSTRAP NODES ============
@@ -94,6 +102,44 @@ public class ConfigManager {
         return Boolean.parseBoolean(props.getProperty("discovery.gossip.enabled", "true"));
     }
 
+    public static int getThreadsMineracao() {
+        int padrao = Runtime.getRuntime().availableProcessors();
+        return Integer.parseInt(props.getProperty("mineracao.threads", String.valueOf(padrao)));
+    }
+
+    /**
+     * Diretório base do armazenamento de blocos (cada nó usa um subdiretório com seu ID).
+     * Vazio desativa a persistência e a cadeia fica só em memória.
+     */
+    public static String getDiretorioArmazenamento() {
+        return props.getProperty("armazenamento.diretorio", "").trim();
+    }
+
+    /**
+     * Limites do pool de transações pendentes (quantidade, bytes, cota por origem)
+     * e profundidade a partir da qual os IDs confirmados saem do mapa de recentes.
+     */
+    public static TransactionPool.Limites getLimitesPool() {
+        TransactionPool.Limites padrao = TransactionPool.Limites.PADRAO;
+        return new TransactionPool.Limites(
+                Integer.parseInt(props.getProperty("pool.max.transacoes",
+                        String.valueOf(padrao.getMaxTransacoes()))),
+                Long.parseLong(props.getProperty("pool.max.bytes",
+                        String.valueOf(padrao.getMaxBytes()))),
+                Integer.parseInt(props.getProperty("pool.cota.origem",
+                        String.valueOf(padrao.getCotaPorOrigem()))),
+                Integer.parseInt(props.getProperty("pool.profundidade.finalidade",
+                        String.valueOf(padrao.getProfundidadeFinalidade()))));
+    }
+
+    /**
+     * Intervalo de agrupamento das atualizações de resultados enviadas por WebSocket:
+     * vários blocos nesse intervalo viram uma só mensagem por eleição.
+     */
+    public static long getIntervaloResultadosAoVivo() {
+        return Long.parseLong(props.getProperty("api.resultados.intervalo.ms", "1000"));
+    }
+
     public static void exibirConfiguracao() {
         Logger.apresentacao(null,
                 "CONFIGURAÇÃO DE DISCOVERY",
@@ -101,6 +147,12 @@ public class ConfigManager {
                 "Discovery interval: " + getDiscoveryInterval() + "s",
                 "Health check: " + getHealthCheckInterval() + "s",
                 "Sync interval: " + getSyncInterval() + "s",
-                "Gossip enabled: " + isGossipEnabled());
+                "Gossip enabled: " + isGossipEnabled(),
+                "Mining threads: " + getThreadsMineracao(),
+                "Pool: " + getLimitesPool().getMaxTransacoes() + " transações / "
+                        + getLimitesPool().getMaxBytes() / 1024 + " KB, cota por origem "
+                        + getLimitesPool().getCotaPorOrigem(),
+                "Block store: " + (getDiretorioArmazenamento().isEmpty()
+                        ? "desativado" : getDiretorioArmazenamento()));
     }
 }
\ No newline at end of file
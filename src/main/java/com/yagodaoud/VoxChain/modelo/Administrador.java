@@ -35,6 +35,33 @@ public class Administrador implements Serializable {
         this.ativo = true;
     }
 
+    /**
+     * Administrador com senha já cifrada. Usado quando o payload precisa ser igual em
+     * todos os nós (o BCrypt gera um sal aleatório a cada chamada).
+     */
+    public static Administrador comSenhaHash(String id, String cpf, String senhaHash,
+                                             NivelAcesso nivel, JurisdicaoAdmin jurisdicao) {
+        return new Administrador(id, Eleitor.hashCpf(cpf), senhaHash, nivel, jurisdicao, true);
+    }
+
+    /**
+     * Administrador com todos os campos já prontos, lido de um payload codificado.
+     */
+    public static Administrador restaurar(String id, String hashCpf, String senhaHash,
+                                          NivelAcesso nivel, JurisdicaoAdmin jurisdicao, boolean ativo) {
+        return new Administrador(id, hashCpf, senhaHash, nivel, jurisdicao, ativo);
+    }
+
+    private Administrador(String id, String hashCpf, String senhaHash,
+                          NivelAcesso nivel, JurisdicaoAdmin jurisdicao, boolean ativo) {
+        this.id = id;
+        this.hashCpf = hashCpf;
+        this.senhaHash = senhaHash;
+        this.nivel = nivel;
+        this.jurisdicao = jurisdicao;
+        this.ativo = ativo;
+    }
+
     public boolean verificarSenha(String senha) {
         return SecurityUtils.verificarSenha(senha, senhaHash);
     }
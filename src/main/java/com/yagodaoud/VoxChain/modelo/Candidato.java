@@ -25,6 +25,26 @@ public class Candidato {
         this.fotoUrl = fotoUrl;
     }
 
+    /**
+     * Candidato com o ID original, lido de um payload codificado.
+     */
+    public static Candidato restaurar(String id, String eleicaoId, String numero, String nome, String partido,
+                                      CargoCandidato cargo, String uf, String fotoUrl) {
+        Candidato candidato = new Candidato();
+        candidato.id = id;
+        candidato.eleicaoId = eleicaoId;
+        candidato.numero = numero;
+        candidato.nome = nome;
+        candidato.partido = partido;
+        candidato.cargo = cargo;
+        candidato.uf = uf;
+        candidato.fotoUrl = fotoUrl;
+        return candidato;
+    }
+
+    private Candidato() {
+    }
+
     public String getId() {
         return id;
     }
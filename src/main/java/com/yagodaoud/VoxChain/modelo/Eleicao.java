@@ -25,6 +25,25 @@ public class Eleicao {
         this.ativa = true;
     }
 
+    /**
+     * Eleição com o ID e a situação originais, lida de um payload codificado.
+     */
+    public static Eleicao restaurar(String id, String nome, String descricao, List<CategoriaEleicao> categorias,
+                                    long dataInicio, long dataFim, boolean ativa) {
+        Eleicao eleicao = new Eleicao();
+        eleicao.id = id;
+        eleicao.nome = nome;
+        eleicao.descricao = descricao;
+        eleicao.categorias = categorias;
+        eleicao.dataInicio = dataInicio;
+        eleicao.dataFim = dataFim;
+        eleicao.ativa = ativa;
+        return eleicao;
+    }
+
+    private Eleicao() {
+    }
+
     public String getId() {
         return id;
     }
@@ -21,6 +21,21 @@ public class Eleitor {
         this.secao = secao;
     }
 
+    /**
+     * Eleitor com os hashes já calculados, lido de um payload codificado.
+     */
+    public static Eleitor restaurar(String cpfHash, String senhaHash, int zona, int secao) {
+        Eleitor eleitor = new Eleitor();
+        eleitor.cpfHash = cpfHash;
+        eleitor.senhaHash = senhaHash;
+        eleitor.zona = zona;
+        eleitor.secao = secao;
+        return eleitor;
+    }
+
+    private Eleitor() {
+    }
+
     public static String hashCpf(String cpf) {
         return SecurityUtils.hash(cpf, salt);
     }
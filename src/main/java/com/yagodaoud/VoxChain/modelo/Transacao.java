@@ -5,17 +5,25 @@ import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
 
 import java.io.Serializable;
 import java.time.Instant;
+import java.util.Set;
 import java.util.UUID;
 
 public class Transacao implements Serializable {
     private static final Gson gson = new Gson();
 
+    // Tipos alterados depois de lidos (desativar admin, fechar eleição): sempre decodificados
+    // de novo, para que a alteração local não vaze para quem relê o bloco
+    private static final Set<Class<?>> TIPOS_MUTAVEIS = Set.of(Administrador.class, Eleicao.class);
+
     private String id;
     private TipoTransacao tipo;
     private String payload;  // ★ Sempre String (JSON)
     private String idOrigem;
     private long timestamp;
 
+    // Payload já decodificado; o JSON não muda, então basta decodificar uma vez por tipo
+    private transient volatile PayloadDecodificado decodificado;
+
     // ============ CONSTRUTORES ============
 
     // Construtor vazio para desserialização
@@ -50,6 +58,32 @@ public class Transacao implements Serializable {
         this.id = gerarIdUnico(this.idOrigem, tipo, this.timestamp, false);
     }
 
+    // Recria uma transação já existente (ex: lida do armazenamento em disco)
+    public static Transacao reconstruir(String id, TipoTransacao tipo, String payloadJson,
+                                        String idOrigem, long timestamp) {
+        Transacao t = new Transacao();
+        t.id = id;
+        t.tipo = tipo;
+        t.payload = payloadJson;
+        t.idOrigem = idOrigem;
+        t.timestamp = timestamp;
+        return t;
+    }
+
+    /**
+     * Como {@link #reconstruir(String, TipoTransacao, String, String, long)}, com o payload
+     * já decodificado pelo codec binário, que passa a ser o valor em cache (tipos mutáveis
+     * continuam sendo decodificados a cada leitura).
+     */
+    public static Transacao reconstruir(String id, TipoTransacao tipo, String payloadJson,
+                                        String idOrigem, long timestamp, Object payloadDecodificado) {
+        Transacao t = reconstruir(id, tipo, payloadJson, idOrigem, timestamp);
+        if (payloadDecodificado != null && !TIPOS_MUTAVEIS.contains(payloadDecodificado.getClass())) {
+            t.decodificado = new PayloadDecodificado(payloadDecodificado.getClass(), payloadDecodificado);
+        }
+        return t;
+    }
+
     // ============ GERAÇÃO DE ID ============
 
     private static String gerarIdUnico(String idOrigem, TipoTransacao tipo, long timestamp, boolean isFixed) {
@@ -103,17 +137,28 @@ public class Transacao implements Serializable {
         return payload;
     }
 
-    // ★ Converte JSON para um objeto específico
+    // ★ Converte JSON para um objeto específico. O objeto é guardado e reaproveitado nas
+    // chamadas seguintes com o mesmo tipo, exceto para os tipos mutáveis, que saem sempre novos.
     public <T> T getPayloadAs(Class<T> clazz) {
         if (payload == null || payload.isEmpty()) {
             return null;
         }
+        PayloadDecodificado atual = decodificado;
+        if (atual != null && atual.tipo == clazz) {
+            return clazz.cast(atual.valor);
+        }
+
+        T valor;
         try {
-            return gson.fromJson(payload, clazz);
+            valor = gson.fromJson(payload, clazz);
         } catch (Exception e) {
             System.err.println("Erro ao desserializar payload: " + e.getMessage());
-            return null;
+            valor = null;
         }
+        if (!TIPOS_MUTAVEIS.contains(clazz)) {
+            decodificado = new PayloadDecodificado(clazz, valor);
+        }
+        return valor;
     }
 
     public String getIdOrigem() {
@@ -139,6 +184,18 @@ public class Transacao implements Serializable {
         return id != null ? id.hashCode() : 0;
     }
 
+    // ============ CACHE DO PAYLOAD ============
+
+    private static final class PayloadDecodificado {
+        private final Class<?> tipo;
+        private final Object valor; // null se o JSON não pôde ser lido como o tipo
+
+        private PayloadDecodificado(Class<?> tipo, Object valor) {
+            this.tipo = tipo;
+            this.valor = valor;
+        }
+    }
+
     // ============ TOSTRING ============
 
     @Override
@@ -18,6 +18,22 @@ public class Voto implements Serializable {
         this.timestamp = Instant.now().toEpochMilli();
     }
 
+    /**
+     * Voto com o timestamp original, relido de um snapshot do registro de votos.
+     */
+    public static Voto restaurar(String tokenVotacao, String idCandidato, String tipoCandidato,
+                                 String idEleicao, long timestamp) {
+        return new Voto(tokenVotacao, idCandidato, tipoCandidato, idEleicao, timestamp);
+    }
+
+    private Voto(String tokenVotacao, String idCandidato, String tipoCandidato, String idEleicao, long timestamp) {
+        this.tokenVotacao = tokenVotacao;
+        this.idCandidato = idCandidato;
+        this.tipoCandidato = tipoCandidato;
+        this.idEleicao = idEleicao;
+        this.timestamp = timestamp;
+    }
+
     public String getTokenVotacao() { return tokenVotacao; }
     public String getIdCandidato() { return idCandidato; }
     public String getTipoCandidato() { return tipoCandidato; }
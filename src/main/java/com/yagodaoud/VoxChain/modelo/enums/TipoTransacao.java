@@ -7,5 +7,6 @@ public enum TipoTransacao {
     CRIACAO_ELEICAO,
     INICIO_ELEICAO,
     FIM_ELEICAO,
-    VOTO
+    VOTO,
+    AUDITORIA
 }
@@ -10,6 +10,7 @@ import com.yagodaoud.VoxChain.blockchain.servicos.ServicoAdministracao;
 import com.yagodaoud.VoxChain.blockchain.servicos.eleicao.ServicoEleicao;
 import com.yagodaoud.VoxChain.blockchain.servicos.ServicoEleitor;
 import com.yagodaoud.VoxChain.blockchain.servicos.eleicao.ServicoFechamentoEleicao;
+import com.yagodaoud.VoxChain.config.ConfigManager;
 import com.yagodaoud.VoxChain.modelo.Administrador;
 import com.yagodaoud.VoxChain.modelo.LogAuditoria;
 import com.yagodaoud.VoxChain.modelo.Transacao;
@@ -39,6 +40,7 @@ public class ApiServidor {
 
     private final No no;
     private NetworkMonitor monitor;
+    private ResultadosWebSocket resultadosAoVivo;
 
     private final Gson gson = new Gson();
 
@@ -59,6 +61,13 @@ public class ApiServidor {
         Gson gson = new Gson();
         port(porta);
 
+        // ==================== WEBSOCKET ====================
+
+        // O Spark exige que os WebSockets sejam registrados antes de qualquer rota HTTP.
+        resultadosAoVivo = new ResultadosWebSocket(no.getBlockchain());
+        webSocket(ResultadosWebSocket.CAMINHO, resultadosAoVivo);
+        resultadosAoVivo.iniciar(ConfigManager.getIntervaloResultadosAoVivo());
+
         // ==================== MIDDLEWARE E FILTROS ====================
 
         // Aplica o filtro de autenticação a todas as rotas que exigem privilégios de administrador.
@@ -116,7 +125,7 @@ public class ApiServidor {
                 
                 LogAuditoria log = new LogAuditoria(acao, cpfHash, detalhes, ipOrigem);
                 // Registra na blockchain como transação de auditoria
-                Transacao transacaoAuditoria = new Transacao(TipoTransacao.CADASTRO_ADMIN, log, cpfHash);
+                Transacao transacaoAuditoria = new Transacao(TipoTransacao.AUDITORIA, log, cpfHash);
                 no.getBlockchain().adicionarAoPool(transacaoAuditoria);
             }
         });
@@ -145,6 +154,16 @@ public class ApiServidor {
         Logger.info(no.getId(), "✓ Servidor API modularizado iniciado. Rotas disponíveis em http://localhost:" + porta + "/api/v1");
     }
 
+    /**
+     * Para a publicação de resultados ao vivo e o servidor Spark.
+     */
+    public void parar() {
+        if (resultadosAoVivo != null) {
+            resultadosAoVivo.parar();
+        }
+        stop();
+    }
+
     /**
      * Middleware para autenticar requisições via JWT
      * Extrai o token do header Authorization e valida
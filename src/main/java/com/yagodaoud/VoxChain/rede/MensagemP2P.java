@@ -11,10 +11,14 @@ public class MensagemP2P implements Serializable {
     private long timestamp;
 
     public MensagemP2P(TipoMensagem tipo, Object payload, String remetente) {
+        this(tipo, payload, remetente, System.currentTimeMillis());
+    }
+
+    public MensagemP2P(TipoMensagem tipo, Object payload, String remetente, long timestamp) {
         this.tipo = tipo;
         this.payload = payload;
         this.remetente = remetente;
-        this.timestamp = System.currentTimeMillis();
+        this.timestamp = timestamp;
     }
 
     public TipoMensagem getTipo() { return tipo; }
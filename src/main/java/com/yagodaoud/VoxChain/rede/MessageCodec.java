@@ -0,0 +1,359 @@
+package com.yagodaoud.VoxChain.rede;
+
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.CabecalhoBloco;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BinaryReader;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BinaryWriter;
+import com.yagodaoud.VoxChain.blockchain.core.codec.BlockCodec;
+import com.yagodaoud.VoxChain.blockchain.sync.CompactBlockRelay;
+import com.yagodaoud.VoxChain.blockchain.sync.HeadersFirstSync;
+import com.yagodaoud.VoxChain.blockchain.sync.InventoryRelay;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Protocolo binário das mensagens entre peers.
+ *
+ * Quadro: [tamanho int32][versão][tipo][remetente][timestamp varint][corpo], onde
+ * tamanho conta os bytes após ele mesmo e não passa de {@link #TAMANHO_MAXIMO_QUADRO}.
+ * O corpo tem codificação explícita por {@link TipoMensagem}; blocos e transações usam
+ * o {@link BlockCodec}. Cada quadro é independente: nada fica retido entre mensagens.
+ */
+public class MessageCodec {
+    public static final int VERSAO_PROTOCOLO = 2;
+    public static final int TAMANHO_MAXIMO_QUADRO = 32 * 1024 * 1024;
+
+    private static final TipoMensagem[] TIPOS = TipoMensagem.values();
+    private static final InventoryRelay.Item.Tipo[] TIPOS_ITEM = InventoryRelay.Item.Tipo.values();
+
+    private MessageCodec() {
+    }
+
+    // ==================== QUADROS ====================
+
+    /**
+     * Codifica a mensagem já com o prefixo de tamanho, pronta para o socket.
+     */
+    public static byte[] codificar(MensagemP2P msg) {
+        if (obsoleto(msg.getTipo())) {
+            throw new IllegalArgumentException("Tipo de mensagem obsoleto: " + msg.getTipo());
+        }
+        BinaryWriter writer = new BinaryWriter(256);
+        writer.escreverInt(0); // Reserva o tamanho
+        writer.escreverByte(VERSAO_PROTOCOLO);
+        writer.escreverByte(msg.getTipo().ordinal());
+        writer.escreverString(msg.getRemetente());
+        writer.escreverVarLong(msg.getTimestamp());
+        escreverCorpo(writer, msg.getTipo(), msg.getPayload());
+
+        byte[] quadro = writer.toByteArray();
+        int tamanho = quadro.length - Integer.BYTES;
+        if (tamanho > TAMANHO_MAXIMO_QUADRO) {
+            throw new IllegalArgumentException("Mensagem " + msg.getTipo() + " excede o tamanho máximo: " + tamanho);
+        }
+        quadro[0] = (byte) (tamanho >>> 24);
+        quadro[1] = (byte) (tamanho >>> 16);
+        quadro[2] = (byte) (tamanho >>> 8);
+        quadro[3] = (byte) tamanho;
+        return quadro;
+    }
+
+    /**
+     * Decodifica o conteúdo de um quadro (sem o prefixo de tamanho).
+     */
+    public static MensagemP2P decodificar(byte[] dados) {
+        BinaryReader reader = new BinaryReader(dados);
+        int versao = reader.lerByte();
+        if (versao != VERSAO_PROTOCOLO) {
+            throw new IllegalArgumentException("Versão de protocolo não suportada: " + versao);
+        }
+        int ordinal = reader.lerByte();
+        if (ordinal >= TIPOS.length) {
+            throw new IllegalArgumentException("Tipo de mensagem desconhecido: " + ordinal);
+        }
+        TipoMensagem tipo = TIPOS[ordinal];
+        if (obsoleto(tipo)) {
+            throw new IllegalArgumentException("Tipo de mensagem obsoleto: " + tipo);
+        }
+        String remetente = reader.lerString();
+        long timestamp = reader.lerVarLong();
+        Object payload = lerCorpo(reader, tipo);
+        if (reader.temMais()) {
+            throw new IllegalArgumentException("Bytes sobrando no quadro " + tipo);
+        }
+        return new MensagemP2P(tipo, payload, remetente, timestamp);
+    }
+
+    /**
+     * Lê um quadro completo do stream. O tamanho é conferido antes de alocar o buffer.
+     *
+     * @throws EOFException se o stream terminar (inclusive no meio do quadro)
+     */
+    public static MensagemP2P ler(DataInputStream input) throws IOException {
+        int tamanho = input.readInt();
+        if (tamanho <= 0 || tamanho > TAMANHO_MAXIMO_QUADRO) {
+            throw new IOException("Tamanho de quadro inválido: " + tamanho);
+        }
+        byte[] dados = new byte[tamanho];
+        input.readFully(dados);
+        try {
+            return decodificar(dados);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Quadro malformado: " + e.getMessage(), e);
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static boolean obsoleto(TipoMensagem tipo) {
+        return tipo == TipoMensagem.REQUISITAR_BLOCKCHAIN || tipo == TipoMensagem.RESPOSTA_BLOCKCHAIN;
+    }
+
+    // ==================== CORPOS ====================
+
+    @SuppressWarnings("unchecked")
+    private static void escreverCorpo(BinaryWriter writer, TipoMensagem tipo, Object payload) {
+        switch (tipo) {
+            case NOVA_TRANSACAO:
+                BlockCodec.escreverTransacao(writer, (Transacao) payload);
+                break;
+
+            case NOVO_BLOCO:
+                BlockCodec.escreverBloco(writer, (Bloco) payload);
+                break;
+
+            case RESPOSTA_BLOCOS:
+                List<Bloco> blocos = (List<Bloco>) payload;
+                writer.escreverVarInt(blocos.size());
+                for (Bloco bloco : blocos) {
+                    BlockCodec.escreverBloco(writer, bloco);
+                }
+                break;
+
+            case RESPOSTA_PEERS:
+                List<PeerDiscovery.PeerInfo> peers = (List<PeerDiscovery.PeerInfo>) payload;
+                writer.escreverVarInt(peers.size());
+                for (PeerDiscovery.PeerInfo info : peers) {
+                    writer.escreverString(info.id);
+                    writer.escreverString(info.ip);
+                    writer.escreverVarInt(info.porta);
+                    writer.escreverVarLong(info.ultimoContato);
+                    writer.escreverBoolean(info.ativo);
+                }
+                break;
+
+            case RESPOSTA_PONTA:
+                HeadersFirstSync.Ponta ponta = (HeadersFirstSync.Ponta) payload;
+                writer.escreverVarInt(ponta.getAltura());
+                BlockCodec.escreverHash(writer, ponta.getHash());
+                break;
+
+            case REQUISITAR_CABECALHOS:
+                HeadersFirstSync.Localizador localizador = (HeadersFirstSync.Localizador) payload;
+                writer.escreverVarInt(localizador.getHashes().size());
+                for (String hash : localizador.getHashes()) {
+                    BlockCodec.escreverHash(writer, hash);
+                }
+                writer.escreverVarInt(localizador.getMaximo());
+                break;
+
+            case RESPOSTA_CABECALHOS:
+                List<CabecalhoBloco> cabecalhos = (List<CabecalhoBloco>) payload;
+                writer.escreverVarInt(cabecalhos.size());
+                for (CabecalhoBloco c : cabecalhos) {
+                    escreverCabecalho(writer, c);
+                }
+                break;
+
+            case REQUISITAR_BLOCOS:
+                HeadersFirstSync.Faixa faixa = (HeadersFirstSync.Faixa) payload;
+                writer.escreverVarInt(faixa.getInicio());
+                writer.escreverVarInt(faixa.getFim());
+                break;
+
+            case BLOCO_COMPACTO:
+                CompactBlockRelay.BlocoCompacto compacto = (CompactBlockRelay.BlocoCompacto) payload;
+                escreverCabecalho(writer, compacto.getCabecalho());
+                writer.escreverString(compacto.getAssinaturaMinerador());
+                writer.escreverVarInt(compacto.getIdsCurtos().length);
+                for (long id : compacto.getIdsCurtos()) {
+                    for (int i = CompactBlockRelay.BYTES_ID_CURTO - 1; i >= 0; i--) {
+                        writer.escreverByte((int) (id >>> (8 * i)));
+                    }
+                }
+                break;
+
+            case REQUISITAR_TRANSACOES_BLOCO:
+                CompactBlockRelay.PedidoTransacoes pedido = (CompactBlockRelay.PedidoTransacoes) payload;
+                BlockCodec.escreverHash(writer, pedido.getHashBloco());
+                writer.escreverVarInt(pedido.getPosicoes().size());
+                for (int posicao : pedido.getPosicoes()) {
+                    writer.escreverVarInt(posicao);
+                }
+                break;
+
+            case RESPOSTA_TRANSACOES_BLOCO:
+                CompactBlockRelay.TransacoesBloco resposta = (CompactBlockRelay.TransacoesBloco) payload;
+                BlockCodec.escreverHash(writer, resposta.getHashBloco());
+                writer.escreverVarInt(resposta.getTransacoes().size());
+                for (Transacao t : resposta.getTransacoes()) {
+                    BlockCodec.escreverTransacao(writer, t);
+                }
+                break;
+
+            case INV:
+            case GETDATA:
+                List<InventoryRelay.Item> itens = (List<InventoryRelay.Item>) payload;
+                writer.escreverVarInt(itens.size());
+                for (InventoryRelay.Item item : itens) {
+                    writer.escreverByte(item.getTipo().ordinal());
+                    BlockCodec.escreverHash(writer, item.getId());
+                }
+                break;
+
+            default:
+                // PING, PONG, LISTAR_PEERS, REQUISITAR_PONTA: sem corpo
+                break;
+        }
+    }
+
+    private static Object lerCorpo(BinaryReader reader, TipoMensagem tipo) {
+        switch (tipo) {
+            case NOVA_TRANSACAO:
+                return BlockCodec.lerTransacao(reader);
+
+            case NOVO_BLOCO:
+                return BlockCodec.lerBloco(reader);
+
+            case RESPOSTA_BLOCOS: {
+                int quantidade = lerQuantidade(reader);
+                ArrayList<Bloco> blocos = new ArrayList<>(quantidade);
+                for (int i = 0; i < quantidade; i++) {
+                    blocos.add(BlockCodec.lerBloco(reader));
+                }
+                return blocos;
+            }
+
+            case RESPOSTA_PEERS: {
+                int quantidade = lerQuantidade(reader);
+                ArrayList<PeerDiscovery.PeerInfo> peers = new ArrayList<>(quantidade);
+                for (int i = 0; i < quantidade; i++) {
+                    PeerDiscovery.PeerInfo info = new PeerDiscovery.PeerInfo(
+                            reader.lerString(), reader.lerString(), reader.lerVarInt());
+                    info.ultimoContato = reader.lerVarLong();
+                    info.ativo = reader.lerBoolean();
+                    peers.add(info);
+                }
+                return peers;
+            }
+
+            case RESPOSTA_PONTA:
+                return new HeadersFirstSync.Ponta(reader.lerVarInt(), BlockCodec.lerHash(reader));
+
+            case REQUISITAR_CABECALHOS: {
+                int quantidade = lerQuantidade(reader);
+                List<String> hashes = new ArrayList<>(quantidade);
+                for (int i = 0; i < quantidade; i++) {
+                    hashes.add(BlockCodec.lerHash(reader));
+                }
+                return new HeadersFirstSync.Localizador(hashes, reader.lerVarInt());
+            }
+
+            case RESPOSTA_CABECALHOS: {
+                int quantidade = lerQuantidade(reader);
+                ArrayList<CabecalhoBloco> cabecalhos = new ArrayList<>(quantidade);
+                for (int i = 0; i < quantidade; i++) {
+                    cabecalhos.add(lerCabecalho(reader));
+                }
+                return cabecalhos;
+            }
+
+            case REQUISITAR_BLOCOS:
+                return new HeadersFirstSync.Faixa(reader.lerVarInt(), reader.lerVarInt());
+
+            case BLOCO_COMPACTO: {
+                CabecalhoBloco cabecalho = lerCabecalho(reader);
+                String assinatura = reader.lerString();
+                int quantidade = lerQuantidade(reader);
+                long[] idsCurtos = new long[quantidade];
+                for (int i = 0; i < quantidade; i++) {
+                    long id = 0;
+                    for (int b = 0; b < CompactBlockRelay.BYTES_ID_CURTO; b++) {
+                        id = (id << 8) | reader.lerByte();
+                    }
+                    idsCurtos[i] = id;
+                }
+                return new CompactBlockRelay.BlocoCompacto(cabecalho, assinatura, idsCurtos);
+            }
+
+            case REQUISITAR_TRANSACOES_BLOCO: {
+                String hashBloco = BlockCodec.lerHash(reader);
+                int quantidade = lerQuantidade(reader);
+                List<Integer> posicoes = new ArrayList<>(quantidade);
+                for (int i = 0; i < quantidade; i++) {
+                    posicoes.add(reader.lerVarInt());
+                }
+                return new CompactBlockRelay.PedidoTransacoes(hashBloco, posicoes);
+            }
+
+            case RESPOSTA_TRANSACOES_BLOCO: {
+                String hashBloco = BlockCodec.lerHash(reader);
+                int quantidade = lerQuantidade(reader);
+                List<Transacao> transacoes = new ArrayList<>(quantidade);
+                for (int i = 0; i < quantidade; i++) {
+                    transacoes.add(BlockCodec.lerTransacao(reader));
+                }
+                return new CompactBlockRelay.TransacoesBloco(hashBloco, transacoes);
+            }
+
+            case INV:
+            case GETDATA: {
+                int quantidade = lerQuantidade(reader);
+                ArrayList<InventoryRelay.Item> itens = new ArrayList<>(quantidade);
+                for (int i = 0; i < quantidade; i++) {
+                    int ordinal = reader.lerByte();
+                    if (ordinal >= TIPOS_ITEM.length) {
+                        throw new IllegalArgumentException("Tipo de item desconhecido: " + ordinal);
+                    }
+                    itens.add(new InventoryRelay.Item(TIPOS_ITEM[ordinal], BlockCodec.lerHash(reader)));
+                }
+                return itens;
+            }
+
+            default:
+                return null;
+        }
+    }
+
+    private static void escreverCabecalho(BinaryWriter writer, CabecalhoBloco c) {
+        writer.escreverVarInt(c.getIndice());
+        writer.escreverLong(c.getTimestamp());
+        BlockCodec.escreverHash(writer, c.getHashAnterior());
+        BlockCodec.escreverHash(writer, c.getRaizMerkle());
+        writer.escreverString(c.getMineradoPor());
+        writer.escreverInt(c.getNonce());
+        BlockCodec.escreverHash(writer, c.getHash());
+    }
+
+    private static CabecalhoBloco lerCabecalho(BinaryReader reader) {
+        return new CabecalhoBloco(reader.lerVarInt(), reader.lerLong(),
+                BlockCodec.lerHash(reader), BlockCodec.lerHash(reader), reader.lerString(),
+                reader.lerInt(), BlockCodec.lerHash(reader));
+    }
+
+    /**
+     * Quantidade de itens de uma lista; cada item ocupa ao menos um byte, então um
+     * valor maior que o restante do quadro só pode ser dado malformado.
+     */
+    private static int lerQuantidade(BinaryReader reader) {
+        int quantidade = reader.lerVarInt();
+        if (quantidade < 0 || quantidade > reader.restante()) {
+            throw new IllegalArgumentException("Quantidade de itens inválida: " + quantidade);
+        }
+        return quantidade;
+    }
+}
@@ -0,0 +1,280 @@
+package com.yagodaoud.VoxChain.rede;
+
+import com.yagodaoud.VoxChain.blockchain.No;
+import com.yagodaoud.VoxChain.utils.Logger;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.channels.CancelledKeyException;
+import java.nio.channels.Channel;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectableChannel;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Transporte de rede do nó: uma única thread com um {@link Selector} aceita conexões,
+ * conclui conexões de saída e faz toda a leitura e escrita não bloqueante dos peers.
+ *
+ * Quadros recebidos são processados num pool de trabalho, em ordem por peer (ver
+ * {@link Peer}), para que validar um bloco não segure a rede. Envios só enfileiram:
+ * um peer lento acumula na própria fila de saída e não atrasa o broadcast aos demais.
+ * Exceções inesperadas ao tratar uma conexão derrubam só aquela conexão, nunca o laço.
+ */
+public class NetworkReactor implements Runnable {
+    private final No noLocal;
+    // Operações sobre o seletor pedidas por outras threads, executadas no laço
+    private final Queue<Runnable> tarefas = new ConcurrentLinkedQueue<>();
+
+    private Selector selector;
+    private ServerSocketChannel servidor;
+    private ExecutorService trabalhadores;
+    private volatile boolean rodando = false;
+
+    public NetworkReactor(No noLocal) {
+        this.noLocal = noLocal;
+    }
+
+    // ==================== CICLO DE VIDA ====================
+
+    /**
+     * Abre o seletor e inicia a thread da rede, se ainda não estiverem rodando.
+     */
+    public synchronized void iniciar() throws IOException {
+        if (rodando) {
+            return;
+        }
+        selector = Selector.open();
+
+        AtomicInteger contador = new AtomicInteger();
+        trabalhadores = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()), r -> {
+            Thread t = new Thread(r, "Rede-" + noLocal.getId() + "-" + contador.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+
+        rodando = true;
+        Thread thread = new Thread(this, "Seletor-" + noLocal.getId());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    public void escutar(int porta) throws IOException {
+        iniciar();
+        ServerSocketChannel canal = ServerSocketChannel.open();
+        try {
+            canal.bind(new InetSocketAddress(porta));
+            canal.configureBlocking(false);
+        } catch (IOException e) {
+            canal.close();
+            throw e;
+        }
+        servidor = canal;
+        noLaco(() -> registrar(canal, SelectionKey.OP_ACCEPT, null));
+    }
+
+    /**
+     * Inicia uma conexão de saída sem bloquear; o peer é registrado no nó quando ela se completa.
+     */
+    public void conectar(String ip, int porta, String idRemoto) {
+        try {
+            iniciar();
+            SocketChannel canal = SocketChannel.open();
+            canal.configureBlocking(false);
+            if (canal.connect(new InetSocketAddress(ip, porta))) {
+                noLaco(() -> registrarPeer(new Peer(idRemoto, canal, noLocal, this), true));
+            } else {
+                noLaco(() -> registrar(canal, SelectionKey.OP_CONNECT, idRemoto));
+            }
+        } catch (IOException e) {
+            Logger.error(noLocal.getId(), "✗ Erro ao conectar em " + idRemoto + ": " + e.getMessage());
+        }
+    }
+
+    public synchronized void parar() {
+        if (!rodando) {
+            return;
+        }
+        rodando = false;
+        selector.wakeup();
+        trabalhadores.shutdownNow();
+        try {
+            if (servidor != null) {
+                servidor.close();
+            }
+        } catch (IOException ignored) {
+        }
+    }
+
+    // ==================== LAÇO DO SELETOR ====================
+
+    @Override
+    public void run() {
+        try {
+            while (rodando) {
+                selector.select();
+
+                Runnable tarefa;
+                while ((tarefa = tarefas.poll()) != null) {
+                    try {
+                        tarefa.run();
+                    } catch (RuntimeException e) {
+                        // Uma tarefa com erro não pode derrubar a rede do nó inteiro
+                        Logger.error(noLocal.getId(), "Erro em tarefa do seletor: " + e);
+                    }
+                }
+
+                Iterator<SelectionKey> it = selector.selectedKeys().iterator();
+                while (it.hasNext()) {
+                    SelectionKey chave = it.next();
+                    it.remove();
+                    tratar(chave);
+                }
+            }
+        } catch (IOException | ClosedSelectorException e) {
+            if (rodando) {
+                Logger.error(noLocal.getId(), "Erro no seletor de rede: " + e.getMessage());
+            }
+        } finally {
+            try {
+                selector.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+
+    private void tratar(SelectionKey chave) {
+        Peer peer = chave.attachment() instanceof Peer ? (Peer) chave.attachment() : null;
+        try {
+            if (!chave.isValid()) {
+                return;
+            }
+            if (chave.isAcceptable()) {
+                aceitar();
+            } else if (chave.isConnectable()) {
+                concluirConexao(chave);
+            } else if (peer != null) {
+                if (chave.isReadable()) {
+                    peer.lerDisponivel();
+                }
+                if (chave.isValid() && chave.isWritable() && peer.escreverPendentes()) {
+                    chave.interestOps(SelectionKey.OP_READ);
+                }
+            }
+        } catch (IOException | CancelledKeyException e) {
+            if (peer != null && e instanceof EOFException) {
+                Logger.network(noLocal.getId(), "Peer " + peer.getId() + " desconectado");
+                peer.desconectar();
+            } else if (peer != null) {
+                Logger.error(noLocal.getId(), "Erro na conexão com " + peer.getId() + ": " + e.getMessage());
+                peer.desconectar();
+            } else {
+                chave.cancel();
+            }
+        } catch (RuntimeException e) {
+            // Falha inesperada isola só esta conexão; o laço continua para os demais peers
+            Logger.error(noLocal.getId(), "Erro inesperado na conexão" +
+                    (peer != null ? " com " + peer.getId() : "") + ": " + e);
+            if (peer != null) {
+                peer.desconectar();
+            } else {
+                chave.cancel();
+                fecharSilenciosamente(chave.channel());
+            }
+        }
+    }
+
+    private void aceitar() throws IOException {
+        SocketChannel canal = servidor.accept();
+        if (canal == null) {
+            return;
+        }
+        canal.configureBlocking(false);
+        registrarPeer(new Peer("Remoto-" + System.nanoTime(), canal, noLocal, this), false);
+    }
+
+    private void concluirConexao(SelectionKey chave) {
+        SocketChannel canal = (SocketChannel) chave.channel();
+        String idRemoto = (String) chave.attachment();
+        try {
+            canal.finishConnect();
+        } catch (IOException e) {
+            Logger.error(noLocal.getId(), "✗ Erro ao conectar em " + idRemoto + ": " + e.getMessage());
+            chave.cancel();
+            fecharSilenciosamente(canal);
+            return;
+        }
+        Peer peer = new Peer(idRemoto, canal, noLocal, this);
+        chave.attach(peer);
+        chave.interestOps(SelectionKey.OP_READ);
+        ativarPeer(peer, chave, true);
+    }
+
+    private void registrarPeer(Peer peer, boolean conexaoDeSaida) {
+        SelectionKey chave = registrar(peer.getCanal(), SelectionKey.OP_READ, peer);
+        if (chave != null) {
+            ativarPeer(peer, chave, conexaoDeSaida);
+        }
+    }
+
+    private void ativarPeer(Peer peer, SelectionKey chave, boolean conexaoDeSaida) {
+        peer.setChave(chave);
+        noLocal.peerConectado(peer, conexaoDeSaida);
+    }
+
+    private SelectionKey registrar(SelectableChannel canal, int operacoes, Object anexo) {
+        try {
+            return canal.register(selector, operacoes, anexo);
+        } catch (IOException e) {
+            Logger.error(noLocal.getId(), "Erro ao registrar canal: " + e.getMessage());
+            fecharSilenciosamente(canal);
+            return null;
+        }
+    }
+
+    // ==================== CHAMADAS DOS PEERS ====================
+
+    /**
+     * Liga o interesse de escrita do peer; executado na thread do seletor.
+     */
+    void solicitarEscrita(Peer peer) {
+        noLaco(() -> {
+            SelectionKey chave = peer.getChave();
+            if (chave != null && chave.isValid()) {
+                chave.interestOps(chave.interestOps() | SelectionKey.OP_WRITE);
+            }
+        });
+    }
+
+    /**
+     * Executa no pool de trabalho. Depois de parado, a tarefa é descartada.
+     */
+    void executar(Runnable tarefa) {
+        try {
+            trabalhadores.execute(tarefa);
+        } catch (RejectedExecutionException ignored) {
+        }
+    }
+
+    private void noLaco(Runnable tarefa) {
+        tarefas.add(tarefa);
+        selector.wakeup();
+    }
+
+    private static void fecharSilenciosamente(Channel canal) {
+        try {
+            canal.close();
+        } catch (IOException ignored) {
+        }
+    }
+}
@@ -3,65 +3,183 @@ package com.yagodaoud.VoxChain.rede;
 import com.yagodaoud.VoxChain.blockchain.Bloco;
 import com.yagodaoud.VoxChain.blockchain.TransacaoTracker;
 import com.yagodaoud.VoxChain.blockchain.No;
+import com.yagodaoud.VoxChain.blockchain.core.ResultadoAdmissao;
+import com.yagodaoud.VoxChain.blockchain.sync.CompactBlockRelay;
+import com.yagodaoud.VoxChain.blockchain.sync.HeadersFirstSync;
+import com.yagodaoud.VoxChain.blockchain.sync.InventoryRelay;
 import com.yagodaoud.VoxChain.modelo.Transacao;
 import com.yagodaoud.VoxChain.utils.Logger;
 
 import java.io.EOFException;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
-import java.net.Socket;
-
-public class Peer implements Runnable {
-    private String id;
-    private Socket socket;
-    private ObjectInputStream input;
-    private ObjectOutputStream output;
-    private boolean conectado;
-    private No noLocal;
-
-    public Peer(String id, Socket socket, No noLocal) throws IOException {
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conexão com um peer sobre o {@link NetworkReactor}.
+ *
+ * Leitura e escrita no canal acontecem só na thread do seletor. Os quadros recebidos
+ * são decodificados e processados no pool de trabalho, um por vez e na ordem de
+ * chegada. {@link #enviar} nunca bloqueia: o quadro vai para uma fila de saída limitada
+ * a {@link #LIMITE_FILA_SAIDA} bytes. Um peer que não drena a fila é desconectado, em vez
+ * de perder mensagens em silêncio; ele volta pela reconexão e pela sincronização.
+ */
+public class Peer {
+    // Cabem pelo menos dois quadros do tamanho máximo: um bloco grande nunca estoura a fila sozinho
+    public static final long LIMITE_FILA_SAIDA = 2L * (Integer.BYTES + MessageCodec.TAMANHO_MAXIMO_QUADRO);
+    private static final int BUFFER_LEITURA = 64 * 1024;
+
+    private final String id;
+    private final SocketChannel canal;
+    private final No noLocal;
+    private final NetworkReactor reactor;
+    private volatile boolean conectado;
+    private volatile SelectionKey chave;
+
+    // Só a thread do seletor usa
+    private ByteBuffer entrada = ByteBuffer.allocate(BUFFER_LEITURA);
+    private ByteBuffer emEscrita;
+
+    private final Queue<ByteBuffer> saida = new ConcurrentLinkedQueue<>();
+    private final AtomicLong bytesNaFila = new AtomicLong();
+    private final AtomicBoolean escritaSolicitada = new AtomicBoolean();
+
+    private final Queue<byte[]> recebidas = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean processando = new AtomicBoolean();
+
+    public Peer(String id, SocketChannel canal, No noLocal, NetworkReactor reactor) {
         this.id = id;
-        this.socket = socket;
+        this.canal = canal;
         this.noLocal = noLocal;
+        this.reactor = reactor;
         this.conectado = true;
-
-        this.output = new ObjectOutputStream(socket.getOutputStream());
-        this.output.flush();
-        this.input = new ObjectInputStream(socket.getInputStream());
     }
 
-    @Override
-    public void run() {
+    // ==================== ENVIO ====================
+
+    public void enviar(MensagemP2P msg) {
+        if (!conectado) {
+            return;
+        }
+
+        byte[] quadro;
         try {
-            while (conectado && !Thread.currentThread().isInterrupted()) {
-                MensagemP2P msg = (MensagemP2P) input.readObject();
+            quadro = MessageCodec.codificar(msg);
+        } catch (IllegalArgumentException e) {
+            Logger.error(noLocal.getId(), "Mensagem não enviada para " + id + ": " + e.getMessage());
+            return;
+        }
 
-                Logger.network(noLocal.getId(), "Mensagem recebida de " +
-                        msg.getRemetente() + ": " + msg.getTipo());
+        if (bytesNaFila.addAndGet(quadro.length) > LIMITE_FILA_SAIDA) {
+            Logger.error(noLocal.getId(), "Fila de saída para " + id + " cheia (" + msg.getTipo() +
+                    "), desconectando peer lento");
+            desconectar();
+            return;
+        }
+        saida.add(ByteBuffer.wrap(quadro));
+        if (escritaSolicitada.compareAndSet(false, true)) {
+            reactor.solicitarEscrita(this);
+        }
+        Logger.network(noLocal.getId(), "Mensagem enfileirada para " + id);
+    }
 
-                processarMensagem(msg);
+    /**
+     * Escreve o que o socket aceitar sem bloquear. Chamado pela thread do seletor.
+     *
+     * @return true se a fila de saída esvaziou (o interesse de escrita pode ser desligado)
+     */
+    boolean escreverPendentes() throws IOException {
+        while (true) {
+            if (emEscrita == null) {
+                emEscrita = saida.poll();
+                if (emEscrita == null) {
+                    escritaSolicitada.set(false);
+                    // Um envio concorrente pode ter enfileirado sem pedir escrita
+                    if (saida.isEmpty() || !escritaSolicitada.compareAndSet(false, true)) {
+                        return true;
+                    }
+                    continue;
+                }
             }
-        } catch (EOFException e) {
-            Logger.network(noLocal.getId(), "Peer " + id + " desconectado");
-        } catch (IOException | ClassNotFoundException e) {
-            Logger.error(noLocal.getId(), "Erro ao receber mensagem: " + e.getMessage());
-        } finally {
-            desconectar();
+            canal.write(emEscrita);
+            if (emEscrita.hasRemaining()) {
+                return false; // Socket cheio: continua no próximo OP_WRITE
+            }
+            bytesNaFila.addAndGet(-emEscrita.capacity());
+            emEscrita = null;
         }
     }
 
-    public void enviar(MensagemP2P msg) {
+    // ==================== RECEBIMENTO ====================
+
+    /**
+     * Lê os bytes disponíveis e separa os quadros completos. Chamado pela thread do seletor.
+     */
+    void lerDisponivel() throws IOException {
+        if (canal.read(entrada) < 0) {
+            throw new EOFException();
+        }
+
+        entrada.flip();
+        while (entrada.remaining() >= Integer.BYTES) {
+            int tamanho = entrada.getInt(entrada.position());
+            if (tamanho <= 0 || tamanho > MessageCodec.TAMANHO_MAXIMO_QUADRO) {
+                throw new IOException("Tamanho de quadro inválido: " + tamanho);
+            }
+            if (entrada.remaining() < Integer.BYTES + tamanho) {
+                break;
+            }
+            entrada.getInt();
+            byte[] quadro = new byte[tamanho];
+            entrada.get(quadro);
+            recebidas.add(quadro);
+        }
+
+        int necessario = entrada.remaining() >= Integer.BYTES
+                ? Integer.BYTES + entrada.getInt(entrada.position())
+                : BUFFER_LEITURA;
+        if (necessario > entrada.capacity() || (entrada.capacity() > BUFFER_LEITURA && necessario <= BUFFER_LEITURA)) {
+            // Cresce só para o quadro grande em curso e volta ao tamanho normal depois dele
+            ByteBuffer novo = ByteBuffer.allocate(Math.max(BUFFER_LEITURA, necessario));
+            novo.put(entrada);
+            entrada = novo;
+        } else {
+            entrada.compact();
+        }
+
+        agendarProcessamento();
+    }
+
+    private void agendarProcessamento() {
+        if (!recebidas.isEmpty() && processando.compareAndSet(false, true)) {
+            reactor.executar(this::processarRecebidas);
+        }
+    }
+
+    private void processarRecebidas() {
         try {
-            synchronized (output) {
-                output.writeObject(msg);
-                output.flush();
-                Logger.network(noLocal.getId(), "Mensagem enviada para " + id);
+            byte[] quadro;
+            while (conectado && (quadro = recebidas.poll()) != null) {
+                MensagemP2P msg = MessageCodec.decodificar(quadro);
+
+                Logger.network(noLocal.getId(), "Mensagem recebida de " +
+                        msg.getRemetente() + ": " + msg.getTipo());
+
+                processarMensagem(msg);
             }
-        } catch (IOException e) {
-            Logger.error(noLocal.getId(), "Erro ao enviar para " + id + ": " + e.getMessage());
+        } catch (RuntimeException e) {
+            Logger.error(noLocal.getId(), "Erro ao processar mensagem de " + id + ": " + e.getMessage());
             desconectar();
+        } finally {
+            processando.set(false);
         }
+        // Quadros que chegaram depois do último poll
+        agendarProcessamento();
     }
 
     private void processarMensagem(MensagemP2P msg) {
@@ -71,12 +189,18 @@ public class Peer implements Runnable {
                 Logger.debug(noLocal.getId(), "NOVA_TRANSACAO recebida. ID: " + t.getId() +
                         " | Remetente: " + msg.getRemetente() +
                         " | Origem: " + this.id);
+                noLocal.getInventario().recebido(this, t.getId());
 
                 if (!noLocal.getBlockchain().transacaoExiste(t)) {
                     Logger.debug(noLocal.getId(), "Transação NÃO existe no blockchain. Adicionando ao pool...");
-                    noLocal.getBlockchain().adicionarAoPool(t);
-                    TransacaoTracker.rastrearAdicao(noLocal.getId(), t, this.id);
-                    Logger.info(noLocal.getId(), "Transação adicionada ao pool: " + t.getId());
+                    ResultadoAdmissao resultado = noLocal.getBlockchain().adicionarAoPool(t);
+                    if (resultado.isAceita()) {
+                        TransacaoTracker.rastrearAdicao(noLocal.getId(), t, this.id);
+                        Logger.info(noLocal.getId(), "Transação adicionada ao pool: " + t.getId());
+                        noLocal.rebroadcastTransacao(t, this.id);
+                    } else {
+                        Logger.debug(noLocal.getId(), "Transação recusada pelo pool (" + resultado + "): " + t.getId());
+                    }
                 } else {
                     Logger.debug(noLocal.getId(), "Transação JÁ existe. Rejeitando.");
                     TransacaoTracker.rastrearAdicao(noLocal.getId(), t, "DUPLICATA-" + this.id);
@@ -85,16 +209,59 @@ public class Peer implements Runnable {
 
             case NOVO_BLOCO:
                 Bloco bloco = (Bloco) msg.getPayload();
+                noLocal.getInventario().recebido(this, bloco == null ? null : bloco.getHash());
                 noLocal.processarNovoBloco(bloco, this.id);
                 break;
 
-            case REQUISITAR_BLOCKCHAIN:
-                enviar(new MensagemP2P(TipoMensagem.RESPOSTA_BLOCKCHAIN,
-                        noLocal.getBlockchain().getBlocos(), msg.getRemetente()));
+            case REQUISITAR_PONTA:
+                enviar(new MensagemP2P(TipoMensagem.RESPOSTA_PONTA,
+                        noLocal.getSincronizacao().obterPonta(), noLocal.getId()));
+                break;
+
+            case RESPOSTA_PONTA:
+                noLocal.getSincronizacao().processarPonta(this, (HeadersFirstSync.Ponta) msg.getPayload());
+                break;
+
+            case REQUISITAR_CABECALHOS:
+                enviar(new MensagemP2P(TipoMensagem.RESPOSTA_CABECALHOS,
+                        noLocal.getSincronizacao().responderCabecalhos((HeadersFirstSync.Localizador) msg.getPayload()),
+                        noLocal.getId()));
+                break;
+
+            case RESPOSTA_CABECALHOS:
+                noLocal.getSincronizacao().processarCabecalhos(this, (java.util.List) msg.getPayload());
+                break;
+
+            case REQUISITAR_BLOCOS:
+                enviar(new MensagemP2P(TipoMensagem.RESPOSTA_BLOCOS,
+                        noLocal.getSincronizacao().responderBlocos((HeadersFirstSync.Faixa) msg.getPayload()),
+                        noLocal.getId()));
+                break;
+
+            case RESPOSTA_BLOCOS:
+                noLocal.getSincronizacao().processarBlocos(this, (java.util.List) msg.getPayload());
+                break;
+
+            case INV:
+                noLocal.getInventario().processarAnuncio(this, (java.util.List<InventoryRelay.Item>) msg.getPayload());
+                break;
+
+            case GETDATA:
+                noLocal.getInventario().responderPedido(this, (java.util.List<InventoryRelay.Item>) msg.getPayload());
+                break;
+
+            case BLOCO_COMPACTO:
+                noLocal.getBlocosCompactos().processarCompacto(this, (CompactBlockRelay.BlocoCompacto) msg.getPayload());
+                break;
+
+            case REQUISITAR_TRANSACOES_BLOCO:
+                enviar(new MensagemP2P(TipoMensagem.RESPOSTA_TRANSACOES_BLOCO,
+                        noLocal.getBlocosCompactos().responderTransacoes((CompactBlockRelay.PedidoTransacoes) msg.getPayload()),
+                        noLocal.getId()));
                 break;
 
-            case RESPOSTA_BLOCKCHAIN:
-                noLocal.sincronizarBlockchain((java.util.List) msg.getPayload());
+            case RESPOSTA_TRANSACOES_BLOCO:
+                noLocal.getBlocosCompactos().processarTransacoes(this, (CompactBlockRelay.TransacoesBloco) msg.getPayload());
                 break;
 
             case PING:
@@ -126,12 +293,20 @@ public class Peer implements Runnable {
     public void desconectar() {
         conectado = false;
         try {
-            if (socket != null) socket.close();
+            canal.close();
         } catch (IOException e) {
             // ignored
         }
+        saida.clear();
+        recebidas.clear();
+        bytesNaFila.set(0);
     }
 
     public String getId() { return id; }
     public boolean isConectado() { return conectado; }
+    public long getBytesNaFila() { return bytesNaFila.get(); }
+
+    SocketChannel getCanal() { return canal; }
+    SelectionKey getChave() { return chave; }
+    void setChave(SelectionKey chave) { this.chave = chave; }
 }
\ No newline at end of file
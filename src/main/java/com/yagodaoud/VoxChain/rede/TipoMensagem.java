@@ -3,10 +3,23 @@ package com.yagodaoud.VoxChain.rede;
 public enum TipoMensagem {
     NOVA_TRANSACAO,      // "Tenho uma nova transação"
     NOVO_BLOCO,          // "Minerei um bloco"
-    REQUISITAR_BLOCKCHAIN, // "Me manda tua blockchain"
-    RESPOSTA_BLOCKCHAIN,  // "Aqui está"
+    // Obsoletos (cadeia inteira numa mensagem): substituídos pela sincronização por cabeçalhos.
+    // Mantidos só para não mudar os ordinais usados no fio; o MessageCodec os recusa.
+    @Deprecated REQUISITAR_BLOCKCHAIN,
+    @Deprecated RESPOSTA_BLOCKCHAIN,
     PING,                // Verificar se está vivo
     PONG,
     LISTAR_PEERS,
-    RESPOSTA_PEERS
+    RESPOSTA_PEERS,
+    REQUISITAR_PONTA,     // "Qual a altura e o hash do teu último bloco?"
+    RESPOSTA_PONTA,
+    REQUISITAR_CABECALHOS, // "Cabeçalhos depois do primeiro destes hashes que conheces"
+    RESPOSTA_CABECALHOS,
+    REQUISITAR_BLOCOS,    // "Blocos da faixa de alturas [inicio, fim)"
+    RESPOSTA_BLOCOS,
+    INV,                  // "Tenho estes itens" (IDs de transações / hashes de blocos)
+    GETDATA,              // "Me manda estes"; a resposta vem como NOVA_TRANSACAO / NOVO_BLOCO
+    BLOCO_COMPACTO,       // Cabeçalho + IDs curtos das transações
+    REQUISITAR_TRANSACOES_BLOCO, // "Me faltam as transações destas posições do bloco"
+    RESPOSTA_TRANSACOES_BLOCO
 }
\ No newline at end of file
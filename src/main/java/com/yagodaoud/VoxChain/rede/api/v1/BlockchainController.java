@@ -4,6 +4,8 @@ import com.google.gson.Gson;
 import com.yagodaoud.VoxChain.blockchain.No;
 import com.yagodaoud.VoxChain.rede.Peer;
 
+import java.util.Map;
+
 import static spark.Spark.*;
 
 public class BlockchainController implements IApiController {
@@ -27,9 +29,21 @@ public class BlockchainController implements IApiController {
                 return gson.toJson(no.getStatus());
             });
 
+            // Blocos antigos são lidos do armazenamento em disco sob demanda
             get("/bloco/:index", (req, res) -> {
-                int index = Integer.parseInt(req.params("index"));
                 res.type("application/json");
+                int index;
+                try {
+                    index = Integer.parseInt(req.params("index"));
+                } catch (NumberFormatException e) {
+                    res.status(400);
+                    return gson.toJson(Map.of("erro", "Índice inválido"));
+                }
+
+                if (index < 0 || index >= no.getBlockchain().getTamanho()) {
+                    res.status(404);
+                    return gson.toJson(Map.of("erro", "Bloco não encontrado"));
+                }
                 return gson.toJson(no.getBlockchain().getBloco(index));
             });
 
@@ -185,10 +185,7 @@ public class BlocoController implements IApiController {
             return null;
         }
 
-        return no.getBlockchain().getBlocos().stream()
-                .filter(b -> b.getHash().equals(hash))
-                .findFirst()
-                .orElse(null);
+        return no.getBlockchain().buscarBlocoPorHash(hash.trim());
     }
 
     /**
@@ -1,11 +1,12 @@
 package com.yagodaoud.VoxChain.rede.api.v1;
 
 import com.google.gson.Gson;
+import com.yagodaoud.VoxChain.blockchain.BlockchainGovernamental;
 import com.yagodaoud.VoxChain.blockchain.Bloco;
 import com.yagodaoud.VoxChain.blockchain.No;
+import com.yagodaoud.VoxChain.blockchain.core.MerkleTree;
 import com.yagodaoud.VoxChain.blockchain.servicos.GerenciadorTokenVotacao;
 import com.yagodaoud.VoxChain.modelo.Eleitor;
-import com.yagodaoud.VoxChain.modelo.Transacao;
 import com.yagodaoud.VoxChain.modelo.Voto;
 import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
 
@@ -159,43 +160,132 @@ public class ConsultaVotoAnonimaController implements IApiController {
                     return gson.toJson(Map.of("erro", e.getMessage()));
                 }
             });
+
+            // GET /api/v1/votos-anonimos/prova?cpf=xxx&eleicaoId=yyy
+            // Retorna a prova de Merkle de cada voto do eleitor, verificável
+            // contra a raiz do bloco sem baixar as demais transações
+            get("/prova", (req, res) -> {
+                res.type("application/json");
+
+                String cpf = req.queryParams("cpf");
+                String eleicaoId = req.queryParams("eleicaoId");
+
+                if (cpf == null || eleicaoId == null) {
+                    res.status(400);
+                    return gson.toJson(Map.of(
+                            "erro", "CPF e eleicaoId são obrigatórios"
+                    ));
+                }
+
+                try {
+                    String cpfHash = Eleitor.hashCpf(cpf);
+                    List<String> tokens = gerenciadorToken.obterTokensDoEleitor(cpfHash);
+
+                    List<Map<String, Object>> provas = gerarProvasDeVoto(tokens, eleicaoId);
+
+                    if (provas.isEmpty()) {
+                        res.status(404);
+                        return gson.toJson(Map.of(
+                                "erro", "Nenhum voto registrado nesta eleição"
+                        ));
+                    }
+
+                    res.status(200);
+                    return gson.toJson(Map.of(
+                            "eleicaoId", eleicaoId,
+                            "totalProvas", provas.size(),
+                            "provas", provas
+                    ));
+
+                } catch (Exception e) {
+                    res.status(500);
+                    return gson.toJson(Map.of("erro", e.getMessage()));
+                }
+            });
         });
     }
 
+    /**
+     * Gera as provas de inclusão dos votos do eleitor em uma eleição.
+     * A prova contém só hashes: não revela o candidato nem os outros votos do bloco.
+     */
+    private List<Map<String, Object>> gerarProvasDeVoto(List<String> tokens, String eleicaoId) {
+        List<Map<String, Object>> provas = new ArrayList<>();
+
+        for (Map.Entry<Integer, List<String>> entrada : localizarVotos(tokens, eleicaoId).entrySet()) {
+            Bloco bloco = no.getBlockchain().getBloco(entrada.getKey());
+            for (String idTransacao : entrada.getValue()) {
+                MerkleTree.ProvaInclusao prova = bloco.gerarProvaInclusao(idTransacao);
+                if (prova == null) {
+                    continue; // Cadeia reorganizada entre a consulta ao índice e a leitura
+                }
+
+                Map<String, Object> provaMap = new HashMap<>();
+                provaMap.put("blocoHash", bloco.getHash());
+                provaMap.put("blocoIndice", bloco.getIndice());
+                provaMap.put("raizMerkle", prova.getRaiz());
+                provaMap.put("transacaoId", idTransacao);
+                provaMap.put("posicao", prova.getPosicao());
+                provaMap.put("folha", prova.getFolha());
+                provaMap.put("irmaos", prova.getIrmaos());
+                provaMap.put("irmaoADireita", prova.getIrmaoADireita());
+                provas.add(provaMap);
+            }
+        }
+
+        return provas;
+    }
+
     /**
      * Busca blocos que contêm votos com os tokens fornecidos
      */
     private List<Map<String, Object>> buscarBlocosComTokens(List<String> tokens) {
         List<Map<String, Object>> blocos = new ArrayList<>();
 
-        for (Bloco bloco : no.getBlockchain().getBlocos()) {
-            if (bloco.getIndice() == 0) continue; // Pula genesis
-
-            // Verifica se o bloco contém algum dos tokens
-            boolean contemToken = bloco.getTransacoes().stream()
-                    .filter(t -> t.getTipo() == TipoTransacao.VOTO)
-                    .map(t -> t.getPayloadAs(Voto.class))
-                    .filter(Objects::nonNull)
-                    .anyMatch(v -> tokens.contains(v.getTokenVotacao()));
+        for (int altura : localizarVotos(tokens, null).keySet()) {
+            Bloco bloco = no.getBlockchain().getBloco(altura);
 
-            if (contemToken) {
-                Map<String, Object> blocoInfo = new HashMap<>();
-                blocoInfo.put("hash", bloco.getHash());
-                blocoInfo.put("indice", bloco.getIndice());
-                blocoInfo.put("timestamp", bloco.getTimestamp());
+            Map<String, Object> blocoInfo = new HashMap<>();
+            blocoInfo.put("hash", bloco.getHash());
+            blocoInfo.put("indice", bloco.getIndice());
+            blocoInfo.put("timestamp", bloco.getTimestamp());
 
-                // TODOS os votos do bloco (não só o do eleitor)
-                List<Map<String, Object>> votosDoBloco = extrairVotosDoBloco(bloco);
-                blocoInfo.put("totalVotos", votosDoBloco.size());
-                blocoInfo.put("votos", votosDoBloco);
+            // TODOS os votos do bloco (não só o do eleitor)
+            List<Map<String, Object>> votosDoBloco = extrairVotosDoBloco(bloco);
+            blocoInfo.put("totalVotos", votosDoBloco.size());
+            blocoInfo.put("votos", votosDoBloco);
 
-                blocos.add(blocoInfo);
-            }
+            blocos.add(blocoInfo);
         }
 
         return blocos;
     }
 
+    /**
+     * Localiza os votos confirmados dos tokens pelo registro de votos (token → transação)
+     * e pelo índice de IDs confirmados (transação → altura), sem percorrer a cadeia.
+     *
+     * @param eleicaoId só votos desta eleição, ou null para todas
+     * @return altura do bloco → IDs das transações de voto nele, em ordem de altura
+     */
+    private SortedMap<Integer, List<String>> localizarVotos(List<String> tokens, String eleicaoId) {
+        BlockchainGovernamental blockchain = no.getBlockchain();
+        SortedMap<Integer, List<String>> porAltura = new TreeMap<>();
+
+        for (String token : new LinkedHashSet<>(tokens)) {
+            Voto voto = blockchain.buscarVotoPorHash(token);
+            if (voto == null || (eleicaoId != null && !eleicaoId.equals(voto.getIdEleicao()))) {
+                continue;
+            }
+            String idTransacao = blockchain.buscarIdTransacaoDoVoto(token);
+            int altura = blockchain.buscarAlturaTransacao(idTransacao);
+            if (altura > 0) {
+                porAltura.computeIfAbsent(altura, h -> new ArrayList<>()).add(idTransacao);
+            }
+        }
+        return porAltura;
+    }
+
     /**
      * Extrai TODOS os votos de um bloco (mantém anonimato)
      */
@@ -224,28 +314,19 @@ public class ConsultaVotoAnonimaController implements IApiController {
      * Busca bloco por hash
      */
     private Bloco buscarBlocoPorHash(String hash) {
-        return no.getBlockchain().getBlocos().stream()
-                .filter(b -> b.getHash().equals(hash))
-                .findFirst()
-                .orElse(null);
+        return no.getBlockchain().buscarBlocoPorHash(hash);
     }
 
     /**
      * Verifica se eleitor votou em uma eleição específica
      */
     private boolean verificarVotoNaEleicao(List<String> tokens, String eleicaoId) {
-        for (Bloco bloco : no.getBlockchain().getBlocos()) {
-            for (Transacao t : bloco.getTransacoes()) {
-                if (t.getTipo() == TipoTransacao.VOTO) {
-                    Voto voto = t.getPayloadAs(Voto.class);
-                    if (voto != null &&
-                            tokens.contains(voto.getTokenVotacao()) &&
-                            voto.getIdEleicao().equals(eleicaoId)) {
-                        return true;
-                    }
-                }
+        for (String token : tokens) {
+            Voto voto = no.getBlockchain().buscarVotoPorHash(token);
+            if (voto != null && eleicaoId.equals(voto.getIdEleicao())) {
+                return true;
             }
         }
         return false;
     }
-}
\ No newline at end of file
+}
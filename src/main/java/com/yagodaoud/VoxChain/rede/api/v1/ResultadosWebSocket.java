@@ -0,0 +1,228 @@
+package com.yagodaoud.VoxChain.rede.api.v1;
+
+import com.google.gson.Gson;
+import com.yagodaoud.VoxChain.blockchain.BlockchainGovernamental;
+import com.yagodaoud.VoxChain.utils.Logger;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketClose;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketConnect;
+import org.eclipse.jetty.websocket.api.annotations.OnWebSocketError;
+import org.eclipse.jetty.websocket.api.annotations.WebSocket;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resultados ao vivo por WebSocket, para os painéis não precisarem consultar
+ * {@code /resultados/:eleicaoId/parcial} em laço.
+ *
+ * Endpoint:
+ * - WS /api/v1/ws/resultados?eleicaoId=X
+ *
+ * Ao conectar, o cliente recebe a apuração atual ({@code "tipo": "snapshot"}). Depois,
+ * a cada intervalo em que a apuração mudou, recebe só os candidatos alterados com a
+ * nova contagem ({@code "tipo": "delta"}). A apuração é lida uma vez por eleição e
+ * intervalo, e a mesma mensagem vai para todos os assinantes.
+ */
+@WebSocket
+public class ResultadosWebSocket {
+    public static final String CAMINHO = "/api/v1/ws/resultados";
+
+    private final BlockchainGovernamental blockchain;
+    private final Gson gson = new Gson();
+
+    // eleicaoId -> sessões inscritas
+    private final Map<String, Set<Session>> assinantes = new ConcurrentHashMap<>();
+    // Só a thread do agendador acessa
+    private final Map<String, Publicado> publicados = new HashMap<>();
+
+    private ScheduledExecutorService agendador;
+
+    public ResultadosWebSocket(BlockchainGovernamental blockchain) {
+        this.blockchain = blockchain;
+    }
+
+    // ==================== CICLO DE VIDA ====================
+
+    public synchronized void iniciar(long intervaloMs) {
+        if (agendador != null) {
+            return;
+        }
+        agendador = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "Resultados-WebSocket");
+            t.setDaemon(true);
+            return t;
+        });
+        agendador.scheduleAtFixedRate(this::publicarAlteracoes, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    public synchronized void parar() {
+        if (agendador != null) {
+            agendador.shutdownNow();
+            agendador = null;
+        }
+    }
+
+    // ==================== EVENTOS DO WEBSOCKET ====================
+
+    @OnWebSocketConnect
+    public void aoConectar(Session sessao) {
+        List<String> parametro = sessao.getUpgradeRequest().getParameterMap().get("eleicaoId");
+        if (parametro == null || parametro.isEmpty() || parametro.get(0).isEmpty()) {
+            sessao.close(1008, "Parâmetro eleicaoId é obrigatório");
+            return;
+        }
+        String eleicaoId = parametro.get(0);
+        assinantes.compute(eleicaoId, (id, sessoes) -> {
+            Set<Session> atualizadas = sessoes != null ? sessoes : ConcurrentHashMap.newKeySet();
+            atualizadas.add(sessao);
+            return atualizadas;
+        });
+
+        // O snapshot sai pela thread do agendador, em ordem com os deltas
+        ScheduledExecutorService executor = agendador;
+        if (executor != null) {
+            executor.execute(() -> enviarSnapshot(eleicaoId, sessao));
+        }
+    }
+
+    @OnWebSocketClose
+    public void aoFechar(Session sessao, int codigo, String motivo) {
+        remover(sessao);
+    }
+
+    @OnWebSocketError
+    public void aoFalhar(Session sessao, Throwable erro) {
+        Logger.debug(null, "Erro no WebSocket de resultados: " + erro.getMessage());
+        remover(sessao);
+    }
+
+    // ==================== PUBLICAÇÃO ====================
+
+    private void enviarSnapshot(String eleicaoId, Session sessao) {
+        long versao = blockchain.getVersaoApuracao(eleicaoId);
+        Map<String, Integer> votos = blockchain.apurarVotos(eleicaoId);
+        publicados.putIfAbsent(eleicaoId, new Publicado(versao, votos));
+        enviar(sessao, mensagem("snapshot", eleicaoId, versao, votos, somar(votos)));
+    }
+
+    /**
+     * Um ciclo do agendador: para cada eleição com assinantes e apuração alterada,
+     * monta uma mensagem com os candidatos que mudaram e envia a todos.
+     */
+    private void publicarAlteracoes() {
+        try {
+            publicados.keySet().retainAll(assinantes.keySet());
+
+            for (Map.Entry<String, Set<Session>> entrada : assinantes.entrySet()) {
+                String eleicaoId = entrada.getKey();
+                if (entrada.getValue().isEmpty()) {
+                    continue;
+                }
+
+                // Versão lida antes da contagem: se mudar no meio, o próximo ciclo reenvia
+                long versao = blockchain.getVersaoApuracao(eleicaoId);
+                Publicado anterior = publicados.get(eleicaoId);
+                if (anterior == null || anterior.versao == versao) {
+                    continue; // Sem alteração, ou o snapshot do primeiro assinante ainda não saiu
+                }
+
+                Map<String, Integer> votos = blockchain.apurarVotos(eleicaoId);
+                Map<String, Integer> alterados = new LinkedHashMap<>();
+                votos.forEach((candidato, quantidade) -> {
+                    if (!quantidade.equals(anterior.votos.get(candidato))) {
+                        alterados.put(candidato, quantidade);
+                    }
+                });
+                for (String candidato : anterior.votos.keySet()) {
+                    if (!votos.containsKey(candidato)) {
+                        alterados.put(candidato, 0); // Votos desfeitos numa reorganização
+                    }
+                }
+                publicados.put(eleicaoId, new Publicado(versao, votos));
+
+                if (!alterados.isEmpty()) {
+                    String texto = mensagem("delta", eleicaoId, versao, alterados, somar(votos));
+                    for (Session sessao : entrada.getValue()) {
+                        enviar(sessao, texto);
+                    }
+                }
+            }
+        } catch (RuntimeException e) {
+            Logger.error(null, "Erro ao publicar resultados ao vivo: " + e.getMessage());
+        }
+    }
+
+    private String mensagem(String tipo, String eleicaoId, long versao, Map<String, Integer> votos, int total) {
+        Map<String, Object> corpo = new LinkedHashMap<>();
+        corpo.put("tipo", tipo);
+        corpo.put("eleicaoId", eleicaoId);
+        corpo.put("versao", versao);
+        corpo.put("totalVotos", total);
+        corpo.put("votos", votos);
+        return gson.toJson(corpo);
+    }
+
+    /**
+     * Envio assíncrono: um painel lento não segura a publicação para os demais.
+     */
+    private void enviar(Session sessao, String texto) {
+        if (!sessao.isOpen()) {
+            remover(sessao);
+            return;
+        }
+        sessao.getRemote().sendString(texto, new WriteCallback() {
+            @Override
+            public void writeFailed(Throwable erro) {
+                remover(sessao);
+            }
+
+            @Override
+            public void writeSuccess() {
+            }
+        });
+    }
+
+    private void remover(Session sessao) {
+        for (String eleicaoId : assinantes.keySet()) {
+            assinantes.computeIfPresent(eleicaoId, (id, sessoes) -> {
+                sessoes.remove(sessao);
+                return sessoes.isEmpty() ? null : sessoes;
+            });
+        }
+    }
+
+    private static int somar(Map<String, Integer> votos) {
+        int total = 0;
+        for (int quantidade : votos.values()) {
+            total += quantidade;
+        }
+        return total;
+    }
+
+    public int getTotalAssinantes() {
+        int total = 0;
+        for (Set<Session> sessoes : assinantes.values()) {
+            total += sessoes.size();
+        }
+        return total;
+    }
+
+    private static final class Publicado {
+        private final long versao;
+        private final Map<String, Integer> votos;
+
+        private Publicado(long versao, Map<String, Integer> votos) {
+            this.versao = versao;
+            this.votos = votos;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonObject;
 import com.yagodaoud.VoxChain.blockchain.Bloco;
 import com.yagodaoud.VoxChain.blockchain.No;
+import com.yagodaoud.VoxChain.blockchain.core.AdmissaoRecusadaException;
+import com.yagodaoud.VoxChain.blockchain.core.ResultadoAdmissao;
 import com.yagodaoud.VoxChain.blockchain.servicos.GerenciadorTokenVotacao;
 import com.yagodaoud.VoxChain.blockchain.servicos.ServicoAdministracao;
 import com.yagodaoud.VoxChain.blockchain.servicos.eleicao.ServicoEleicao;
@@ -70,6 +72,9 @@ public class VotoController implements IApiController {
 
                     res.status(201);
                     return gson.toJson(Map.of("mensagem", "Voto registrado com sucesso"));
+                } catch (AdmissaoRecusadaException e) {
+                    responderContrapressao(res, e.getResultado());
+                    return gson.toJson(Map.of("erro", e.getMessage()));
                 } catch (IllegalStateException e) {
                     res.status(400);
                     return gson.toJson(Map.of("erro", e.getMessage()));
@@ -239,7 +244,6 @@ public class VotoController implements IApiController {
 
                             // Criar transação
                             Transacao transacao = new Transacao(TipoTransacao.VOTO, voto, "ANONIMO");
-                            no.getBlockchain().adicionarAoPool(transacao);
                             transacoesCriadas.add(transacao);
 
                         } catch (Exception e) {
@@ -255,8 +259,21 @@ public class VotoController implements IApiController {
                                 "detalhes", erros));
                     }
 
-                    // 5. Marcar token como usado apenas após todos os votos válidos serem
-                    // processados
+                    // 5. Admitir o lote inteiro ou nada. Recusa não consome o token,
+                    // o cliente pode reenviar
+                    ResultadoAdmissao resultado = no.getBlockchain().adicionarLoteAoPool(transacoesCriadas);
+                    if (resultado.isContrapressao()) {
+                        responderContrapressao(res, resultado);
+                        return gson.toJson(Map.of(
+                                "erro", "Pool de transações cheio, tente novamente mais tarde"));
+                    }
+                    if (!resultado.isAceita()) {
+                        res.status(400);
+                        return gson.toJson(Map.of(
+                                "erro", "Votos recusados pelo pool (" + resultado + ")"));
+                    }
+
+                    // Marcar token como usado apenas após todos os votos serem admitidos
                     gerenciadorToken.marcarTokenComoUsado(tokenVotacao);
 
                     // 6. Gerar hash combinado das transações criadas
@@ -364,6 +381,14 @@ public class VotoController implements IApiController {
         return meusVotos;
     }
 
+    /**
+     * Cota da origem excedida → 429; pool cheio → 503. Ambos com Retry-After.
+     */
+    private void responderContrapressao(spark.Response res, ResultadoAdmissao resultado) {
+        res.status(resultado == ResultadoAdmissao.COTA_ORIGEM_EXCEDIDA ? 429 : 503);
+        res.header("Retry-After", "5");
+    }
+
     /**
      * Gera um hash combinado das transações criadas para retornar ao cliente
      */
@@ -1,11 +1,20 @@
 package com.yagodaoud.VoxChain.blockchain;
 
+import com.yagodaoud.VoxChain.blockchain.core.ResultadoAdmissao;
 import com.yagodaoud.VoxChain.modelo.*;
 import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.assertj.core.api.Assertions.*;
 
 @DisplayName("Testes da Blockchain Governamental")
@@ -36,9 +45,9 @@ public class BlockchainGovernamentalTest {
         Transacao t = new Transacao(TipoTransacao.VOTO,
                 new Voto("123", "Candidato1", "Tipo1", "Eleicao1"), "TSE-SP");
 
-        boolean adicionada = blockchain.adicionarAoPool(t);
+        ResultadoAdmissao adicionada = blockchain.adicionarAoPool(t);
 
-        assertThat(adicionada).isTrue();
+        assertThat(adicionada).isEqualTo(ResultadoAdmissao.ACEITA);
         assertThat(blockchain.getPoolSize()).isEqualTo(1);
     }
 
@@ -49,9 +58,9 @@ public class BlockchainGovernamentalTest {
                 new Voto("123", "Candidato1", "Tipo1", "Eleicao1"), "TSE-SP");
 
         blockchain.adicionarAoPool(t);
-        boolean adicionadaNovaVez = blockchain.adicionarAoPool(t);
+        ResultadoAdmissao adicionadaNovaVez = blockchain.adicionarAoPool(t);
 
-        assertThat(adicionadaNovaVez).isFalse();
+        assertThat(adicionadaNovaVez).isEqualTo(ResultadoAdmissao.DUPLICADA);
         assertThat(blockchain.getPoolSize()).isEqualTo(1);
     }
 
@@ -74,8 +83,66 @@ public class BlockchainGovernamentalTest {
         assertThat(existe).isFalse();
     }
 
+    @Test
+    @DisplayName("Deve aceitar submissões concorrentes sem duplicar transações")
+    void deveAceitarSubmissoesConcorrentes() throws Exception {
+        List<Transacao> transacoes = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            transacoes.add(new Transacao(TipoTransacao.VOTO,
+                    new Voto(String.valueOf(i), "Candidato1", "Tipo1", "Eleicao1"), "TSE-SP"));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger aceitas = new AtomicInteger();
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            // Todas as threads submetem as mesmas transações
+            tarefas.add(executor.submit(() -> transacoes.forEach(t -> {
+                if (blockchain.adicionarAoPool(t).isAceita()) {
+                    aceitas.incrementAndGet();
+                }
+            })));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+
+        assertThat(aceitas.get()).isEqualTo(200);
+        assertThat(blockchain.getPoolSize()).isEqualTo(200);
+
+        Bloco bloco = blockchain.criarBlocoCandidato("TSE-SP", null);
+        assertThat(bloco.getTransacoes()).hasSize(5).doesNotHaveDuplicates().isSubsetOf(transacoes);
+    }
+
     // ============ TESTES DE MINERAÇÃO ============
 
+    @Test
+    @DisplayName("Mineração imediata concorrente deve incluir cada transação uma única vez")
+    void mineracaoImediataConcorrenteNaoDeveDuplicar() throws Exception {
+        blockchain.setModoTeste(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        List<Future<?>> tarefas = new ArrayList<>();
+        for (int thread = 0; thread < 4; thread++) {
+            int base = thread * 10;
+            tarefas.add(executor.submit(() -> {
+                for (int i = base; i < base + 10; i++) {
+                    blockchain.adicionarAoPool(new Transacao(TipoTransacao.AUDITORIA, "log-" + i, "TSE-SP"));
+                }
+            }));
+        }
+        for (Future<?> tarefa : tarefas) {
+            tarefa.get();
+        }
+        executor.shutdown();
+
+        List<String> mineradas = new ArrayList<>();
+        blockchain.getBlocos().forEach(b -> b.getTransacoes().forEach(t -> mineradas.add(t.getId())));
+        assertThat(mineradas).hasSize(40).doesNotHaveDuplicates();
+        assertThat(blockchain.getPoolSize()).isZero();
+        assertThat(blockchain.validarCadeia()).isTrue();
+    }
+
     @Test
     @DisplayName("Deve criar bloco candidato com transações do pool")
     void deveCriarBlocoCandidato() {
@@ -133,6 +200,44 @@ public class BlockchainGovernamentalTest {
         assertThat(blockchain.obterUltimoBloco().getIndice()).isEqualTo(1);
     }
 
+    @Test
+    @DisplayName("Transações administrativas devem ter prioridade sobre votos")
+    void transacoesAdministrativasDevemTerPrioridade() {
+        for (int i = 0; i < 10; i++) {
+            blockchain.adicionarAoPool(new Transacao(TipoTransacao.VOTO,
+                    new Voto(String.valueOf(i), "Candidato1", "Tipo1", "Eleicao1"), "TSE-SP"));
+        }
+        Eleicao eleicao = new Eleicao("Eleição", "Teste", List.of(), 0L, 1L);
+        Transacao criacao = new Transacao(TipoTransacao.CRIACAO_ELEICAO, eleicao, "TSE-SP");
+        blockchain.adicionarAoPool(criacao);
+
+        Bloco bloco = blockchain.criarBlocoCandidato("TSE-SP", null);
+
+        assertThat(bloco.getTransacoes()).hasSize(5);
+        assertThat(bloco.getTransacoes().get(0)).isEqualTo(criacao);
+    }
+
+    @Test
+    @DisplayName("Voto deve aguardar a confirmação da criação da eleição")
+    void votoDeveAguardarCriacaoDaEleicao() {
+        Eleicao eleicao = new Eleicao("Eleição", "Teste", List.of(), 0L, 1L);
+        Transacao criacao = new Transacao(TipoTransacao.CRIACAO_ELEICAO, eleicao, "TSE-SP");
+        Transacao voto = new Transacao(TipoTransacao.VOTO,
+                new Voto("123", "Candidato1", "Tipo1", eleicao.getId()), "TSE-SP");
+        blockchain.adicionarAoPool(voto);
+        blockchain.adicionarAoPool(criacao);
+
+        Bloco primeiro = blockchain.criarBlocoCandidato("TSE-SP", null);
+        assertThat(primeiro.getTransacoes()).containsExactly(criacao);
+
+        primeiro.minerarBloco(2);
+        blockchain.adicionarBloco(primeiro);
+        blockchain.limparTransacoesProcessadas(primeiro);
+
+        Bloco segundo = blockchain.criarBlocoCandidato("TSE-SP", null);
+        assertThat(segundo.getTransacoes()).containsExactly(voto);
+    }
+
     // ============ TESTES DE LIMPEZA DE TRANSAÇÕES ============
 
     @Test
@@ -176,6 +281,120 @@ public class BlockchainGovernamentalTest {
         assertThat(blockchain.getPoolSize()).isEqualTo(0);
     }
 
+    @Test
+    @DisplayName("Transação confirmada em bloco não deve voltar ao pool")
+    void transacaoConfirmadaNaoDeveVoltarAoPool() {
+        Transacao t = new Transacao(TipoTransacao.VOTO,
+                new Voto("123", "Candidato1", "Tipo1", "Eleicao1"), "TSE-SP");
+        blockchain.adicionarAoPool(t);
+
+        Bloco bloco = blockchain.criarBlocoCandidato("TSE-SP", null);
+        bloco.minerarBloco(2);
+        blockchain.adicionarBloco(bloco);
+        blockchain.limparTransacoesProcessadas(bloco);
+
+        assertThat(blockchain.getPoolSize()).isEqualTo(0);
+        assertThat(blockchain.transacaoExiste(t)).isTrue();
+        assertThat(blockchain.adicionarAoPool(t)).isEqualTo(ResultadoAdmissao.DUPLICADA);
+    }
+
+    @Test
+    @DisplayName("Bloco concorrente na mesma altura deve virar ponta só se tiver hash menor")
+    void blocoConcorrenteDeveVirarPontaSoComHashMenor() {
+        String anterior = blockchain.obterUltimoBloco().getHash();
+        Transacao voto = new Transacao(TipoTransacao.VOTO, new Voto("1", "Candidato1", "Tipo1", "Eleicao1"), "ANONIMO");
+        Bloco a = new Bloco(1, List.of(voto), anterior, "TSE-SP", 1700000001000L);
+        a.minerarBloco(2);
+        Bloco b = new Bloco(1, List.of(voto), anterior, "TSE-RJ", 1700000001000L);
+        b.minerarBloco(2);
+        Bloco maior = a.getHash().compareTo(b.getHash()) > 0 ? a : b;
+        Bloco menor = maior == a ? b : a;
+
+        blockchain.adicionarBlocoValidado(menor);
+        assertThat(blockchain.desempatarPonta(maior)).isFalse();
+
+        BlockchainGovernamental outra = new BlockchainGovernamental(2, 5);
+        outra.adicionarBlocoValidado(maior);
+        assertThat(outra.desempatarPonta(menor)).isTrue();
+        assertThat(outra.obterUltimoBloco().getHash()).isEqualTo(menor.getHash());
+        assertThat(outra.apurarVotos("Eleicao1")).containsOnly(entry("Candidato1", 1));
+        assertThat(outra.getPoolSize()).isZero();
+    }
+
+    @Test
+    @DisplayName("Ponta deve poder ser trocada várias vezes, sempre pelo menor hash")
+    void pontaDeveSerTrocadaVariasVezes() {
+        String anterior = blockchain.obterUltimoBloco().getHash();
+        List<Bloco> concorrentes = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Transacao voto = new Transacao(TipoTransacao.VOTO,
+                    new Voto("token-" + i, "Candidato" + i, "Tipo1", "Eleicao1"), "ANONIMO");
+            Bloco bloco = new Bloco(1, List.of(voto), anterior, "TSE-" + i, 1700000001000L);
+            bloco.minerarBloco(2);
+            concorrentes.add(bloco);
+        }
+        concorrentes.sort(Comparator.comparing(Bloco::getHash));
+        Bloco menor = concorrentes.get(0);
+        Bloco meio = concorrentes.get(1);
+        Bloco maior = concorrentes.get(2);
+
+        blockchain.adicionarBlocoValidado(maior);
+        assertThat(blockchain.desempatarPonta(meio)).isTrue();
+        assertThat(blockchain.desempatarPonta(menor)).isTrue();
+        assertThat(blockchain.desempatarPonta(maior)).isFalse();
+        assertThat(blockchain.desempatarPonta(meio)).isFalse();
+
+        // Só o voto da ponta final conta; os das pontas trocadas voltam ao pool
+        String vencedor = menor.getTransacoes().get(0).getPayloadAs(Voto.class).getIdCandidato();
+        assertThat(blockchain.getTamanho()).isEqualTo(2);
+        assertThat(blockchain.obterUltimoBloco().getHash()).isEqualTo(menor.getHash());
+        assertThat(blockchain.apurarVotos("Eleicao1")).containsOnly(entry(vencedor, 1));
+        assertThat(blockchain.getPoolSize()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Reorganização deve desfazer só os blocos órfãos e devolver ao pool o que não conflita")
+    void reorganizacaoDeveDesfazerSoOsBlocosOrfaos() {
+        Bloco comum = new Bloco(1, List.of(new Transacao(TipoTransacao.VOTO,
+                new Voto("1", "Candidato1", "Tipo1", "Eleicao1"), "ANONIMO")),
+                blockchain.obterUltimoBloco().getHash(), "TSE-SP", 1700000001000L);
+        comum.minerarBloco(2);
+        blockchain.adicionarBlocoValidado(comum);
+
+        Eleicao eleicao = new Eleicao("Eleição", "Teste", List.of(), 0L, 1L);
+        Transacao criacao = new Transacao(TipoTransacao.CRIACAO_ELEICAO, eleicao, "TSE-SP");
+        Transacao votoA = new Transacao(TipoTransacao.VOTO, new Voto("A", "Candidato1", "Tipo1", "Eleicao1"), "ANONIMO");
+        Transacao votoC = new Transacao(TipoTransacao.VOTO, new Voto("C", "Candidato1", "Tipo1", "Eleicao1"), "ANONIMO");
+        Bloco orfao = new Bloco(2, List.of(criacao, votoA, votoC), comum.getHash(), "TSE-SP", 1700000002000L);
+        orfao.minerarBloco(2);
+        blockchain.adicionarBlocoValidado(orfao);
+        assertThat(blockchain.buscarEleicao(eleicao.getId())).isNotNull();
+        assertThat(blockchain.apurarVotos("Eleicao1")).containsOnly(entry("Candidato1", 3));
+
+        // Ramo remoto: usa o token A em outro voto e é mais longo
+        Transacao outroVotoA = new Transacao(TipoTransacao.VOTO, new Voto("A", "Candidato2", "Tipo1", "Eleicao1"), "ANONIMO");
+        Bloco ramo1 = new Bloco(2, List.of(outroVotoA), comum.getHash(), "TSE-RJ", 1700000003000L);
+        ramo1.minerarBloco(2);
+        Bloco ramo2 = new Bloco(3, new ArrayList<>(), ramo1.getHash(), "TSE-RJ", 1700000004000L);
+        ramo2.minerarBloco(2);
+        List<Bloco> remota = new ArrayList<>(blockchain.getBlocos().subList(0, 2));
+        remota.add(ramo1);
+        remota.add(ramo2);
+
+        blockchain.substituir(remota);
+
+        assertThat(blockchain.getTamanho()).isEqualTo(4);
+        assertThat(blockchain.getTotalTransacoes()).isEqualTo(2);
+        assertThat(blockchain.buscarEleicao(eleicao.getId())).isNull();
+        assertThat(blockchain.transacaoExiste(outroVotoA)).isTrue();
+        assertThat(blockchain.apurarVotos("Eleicao1"))
+                .containsOnly(entry("Candidato1", 1), entry("Candidato2", 1));
+        // O voto A conflita com o token já usado no novo ramo; os demais voltam ao pool
+        assertThat(blockchain.getPoolSize()).isEqualTo(2);
+        assertThat(blockchain.adicionarAoPool(criacao)).isEqualTo(ResultadoAdmissao.DUPLICADA);
+        assertThat(blockchain.adicionarAoPool(votoC)).isEqualTo(ResultadoAdmissao.DUPLICADA);
+    }
+
     // ============ TESTES DE VALIDAÇÃO ============
 
     @Test
@@ -246,6 +465,41 @@ public class BlockchainGovernamentalTest {
         assertThat(valida).isTrue();
     }
 
+    @Test
+    @DisplayName("Deve buscar bloco pelo hash")
+    void deveBuscarBlocoPeloHash() {
+        Transacao t = new Transacao(TipoTransacao.VOTO,
+                new Voto("1", "Candidato1", "Tipo1", "Eleicao1"), "TSE-SP");
+        blockchain.adicionarAoPool(t);
+
+        Bloco bloco = blockchain.criarBlocoCandidato("TSE-SP", null);
+        bloco.minerarBloco(2);
+        blockchain.adicionarBloco(bloco);
+
+        assertThat(blockchain.buscarBlocoPorHash(bloco.getHash())).isSameAs(bloco);
+        assertThat(blockchain.buscarBlocoPorHash(blockchain.getBloco(0).getHash()).getIndice()).isZero();
+        assertThat(blockchain.buscarBlocoPorHash("inexistente")).isNull();
+    }
+
+    @Test
+    @DisplayName("Visão da cadeia deve permanecer estável enquanto blocos são adicionados")
+    void visaoDaCadeiaDevePermanecerEstavel() {
+        List<Bloco> visao = blockchain.getBlocos();
+
+        for (int i = 0; i < 20; i++) {
+            blockchain.adicionarAoPool(new Transacao(TipoTransacao.VOTO,
+                    new Voto(String.valueOf(i), "Candidato1", "Tipo1", "Eleicao1"), "TSE-SP"));
+            Bloco bloco = blockchain.criarBlocoCandidato("TSE-SP", null);
+            bloco.minerarBloco(2);
+            assertThat(blockchain.adicionarBlocoValidado(bloco)).isTrue();
+        }
+
+        assertThat(visao).hasSize(1);
+        assertThat(blockchain.getBlocos()).hasSize(21);
+        assertThat(blockchain.getPoolSize()).isZero();
+        assertThat(blockchain.validarCadeia()).isTrue();
+    }
+
     @Test
     @DisplayName("Deve retornar status da blockchain")
     void deveRetornarStatusBlockchain() {
@@ -1,5 +1,8 @@
 package com.yagodaoud.VoxChain.blockchain;
 
+import com.yagodaoud.VoxChain.blockchain.core.BlockHasher;
+import com.yagodaoud.VoxChain.blockchain.core.MerkleTree;
+import com.yagodaoud.VoxChain.blockchain.core.ProofOfWorkEngine;
 import com.yagodaoud.VoxChain.modelo.Transacao;
 import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
 import org.junit.jupiter.api.BeforeEach;
@@ -89,6 +92,80 @@ public class BlocoTest {
         assertThat(nonceDepois).isGreaterThanOrEqualTo(nonceAntes);
     }
 
+    @Test
+    @DisplayName("Deve minerar bloco com múltiplas threads")
+    void deveMinerarBlocoComMultiplasThreads() {
+        ProofOfWorkEngine motor = new ProofOfWorkEngine(4);
+        try {
+            bloco.minerarBloco(3, motor);
+
+            assertThat(motor.foiCancelado()).isFalse();
+            assertThat(bloco.getHash()).startsWith("000");
+            assertThat(bloco.getHash()).isEqualTo(bloco.calcularHash());
+        } finally {
+            motor.encerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Mineração cancelada não deve produzir prova de trabalho")
+    void mineracaoCanceladaNaoDeveProduzirProvaDeTrabalho() throws Exception {
+        ProofOfWorkEngine motor = new ProofOfWorkEngine(2);
+        try {
+            Thread cancelador = new Thread(() -> {
+                try {
+                    Thread.sleep(200);
+                } catch (InterruptedException ignored) {
+                }
+                motor.cancelar();
+            });
+            cancelador.start();
+
+            // Dificuldade inalcançável em tempo hábil: só termina por cancelamento
+            bloco.minerarBloco(64, motor);
+            cancelador.join();
+
+            assertThat(motor.foiCancelado()).isTrue();
+            assertThat(bloco.getAssinaturaMinerador()).isNull();
+        } finally {
+            motor.encerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Cancelamento antes de a mineração começar não deve se perder")
+    void cancelamentoAntesDaMineracaoNaoDeveSePerder() {
+        ProofOfWorkEngine motor = new ProofOfWorkEngine(2);
+        try {
+            long geracao = motor.getGeracao();
+            motor.cancelar();
+
+            bloco.minerarBloco(64, motor, geracao);
+
+            assertThat(motor.foiCancelado()).isTrue();
+            assertThat(bloco.getAssinaturaMinerador()).isNull();
+
+            // Com a geração atual, a mineração seguinte volta a valer
+            bloco.minerarBloco(2, motor, motor.getGeracao());
+            assertThat(motor.foiCancelado()).isFalse();
+            assertThat(bloco.getHash()).startsWith("00");
+        } finally {
+            motor.encerrar();
+        }
+    }
+
+    @Test
+    @DisplayName("Dificuldade deve ser verificada direto nos bytes do digest")
+    void dificuldadeDeveSerVerificadaNosBytes() {
+        byte[] digest = new byte[32];
+        digest[1] = 0x0F; // "000f..." -> três zeros hexadecimais
+
+        assertThat(BlockHasher.atendeDificuldade(digest, 2)).isTrue();
+        assertThat(BlockHasher.atendeDificuldade(digest, 3)).isTrue();
+        assertThat(BlockHasher.atendeDificuldade(digest, 4)).isFalse();
+        assertThat(BlockHasher.paraHex(digest)).startsWith("000f");
+    }
+
     @Test
     @DisplayName("Deve truncar hash para exibição")
     void deveTruncarHashParaExibicao() {
@@ -116,4 +193,38 @@ public class BlocoTest {
 
         assertThat(bloco1.calcularHash()).isNotEqualTo(bloco2.calcularHash());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Payload da transação deve fazer parte do hash")
+    void payloadDeveFazerParteDoHash() {
+        Transacao original = new Transacao(TipoTransacao.VOTO, "{\"id\":\"1\"}", "TSE-SP");
+        Transacao adulterada = new Transacao(TipoTransacao.VOTO, "{\"id\":\"2\"}", "TSE-SP");
+        adulterada.setId(original.getId());
+
+        Bloco bloco1 = new Bloco(1, List.of(original), "hash_anterior", "TSE-SP", 1000L);
+        Bloco bloco2 = new Bloco(1, List.of(adulterada), "hash_anterior", "TSE-SP", 1000L);
+
+        assertThat(bloco1.getRaizMerkle()).isNotEqualTo(bloco2.getRaizMerkle());
+        assertThat(bloco1.getHash()).isNotEqualTo(bloco2.getHash());
+    }
+
+    @Test
+    @DisplayName("Prova de inclusão deve ser verificável contra a raiz de Merkle")
+    void provaDeInclusaoDeveSerVerificavel() {
+        List<Transacao> varias = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            varias.add(new Transacao(TipoTransacao.VOTO, "{\"id\":\"" + i + "\"}", "TSE-SP"));
+        }
+        Bloco blocoVarias = new Bloco(1, varias, "hash_anterior", "TSE-SP", null);
+
+        for (Transacao t : varias) {
+            MerkleTree.ProvaInclusao prova = blocoVarias.gerarProvaInclusao(t.getId());
+            assertThat(prova).isNotNull();
+            assertThat(MerkleTree.verificarProva(prova, blocoVarias.getRaizMerkle())).isTrue();
+        }
+
+        MerkleTree.ProvaInclusao prova = blocoVarias.gerarProvaInclusao(varias.get(0).getId());
+        assertThat(MerkleTree.verificarProva(prova, bloco.getRaizMerkle())).isFalse();
+        assertThat(blocoVarias.gerarProvaInclusao("inexistente")).isNull();
+    }
+}
@@ -53,13 +53,12 @@ public class MineradorTest {
         when(blockchainMock.temTransacoesPendentes()).thenReturn(true);
         when(blockchainMock.getTamanho()).thenReturn(1);
         when(blockchainMock.criarBlocoCandidato("TSE-SP", null)).thenReturn(blocoMock);
-        when(blockchainMock.validarBloco(blocoMock)).thenReturn(true);
+        when(blockchainMock.adicionarBlocoValidado(blocoMock)).thenReturn(true);
 
         minerador.minerarAgora();
 
         verify(noMock, atLeastOnce()).getId();
-        verify(blockchainMock).adicionarBloco(blocoMock);
-        verify(blockchainMock).limparTransacoesProcessadas(blocoMock);
+        verify(blockchainMock).adicionarBlocoValidado(blocoMock);
     }
 
     @Test
@@ -99,7 +98,7 @@ public class MineradorTest {
         minerador.minerarAgora();
 
         // Não deve adicionar bloco descartado
-        verify(blockchainMock, never()).adicionarBloco(blocoMock);
+        verify(blockchainMock, never()).adicionarBlocoValidado(blocoMock);
     }
 
     @Test
@@ -112,11 +111,11 @@ public class MineradorTest {
         when(blockchainMock.temTransacoesPendentes()).thenReturn(true);
         when(blockchainMock.getTamanho()).thenReturn(1);
         when(blockchainMock.criarBlocoCandidato("TSE-SP", null)).thenReturn(blocoMock);
-        when(blockchainMock.validarBloco(blocoMock)).thenReturn(false);  // Bloco inválido
+        when(blockchainMock.adicionarBlocoValidado(blocoMock)).thenReturn(false);  // Bloco inválido
 
         minerador.minerarAgora();
 
-        verify(blockchainMock, never()).adicionarBloco(blocoMock);
+        verify(noMock, never()).broadcastBloco(blocoMock);
     }
 
     // ============ TESTES DE LIMPEZA DE POOL ============
@@ -124,19 +123,18 @@ public class MineradorTest {
     @Test
     @DisplayName("Deve limpar transações do pool após minerar")
     void deveLimparTransacoesDoPoolAposMineração() {
-        Bloco blocoMock = mock(Bloco.class);
-        when(blocoMock.getIndice()).thenReturn(1);
-        when(blocoMock.getTransacoes()).thenReturn(java.util.List.of());
-        when(blocoMock.getHashTruncado(16)).thenReturn("0012345678901234");
-
-        when(blockchainMock.temTransacoesPendentes()).thenReturn(true);
-        when(blockchainMock.getTamanho()).thenReturn(1);
-        when(blockchainMock.criarBlocoCandidato("TSE-SP", null)).thenReturn(blocoMock);
-        when(blockchainMock.validarBloco(blocoMock)).thenReturn(true);
+        BlockchainGovernamental blockchain = new BlockchainGovernamental(2, 5);
+        when(noMock.getBlockchain()).thenReturn(blockchain);
+        blockchain.adicionarAoPool(new Transacao(TipoTransacao.AUDITORIA, "log-1", "TSE-SP"));
+        blockchain.adicionarAoPool(new Transacao(TipoTransacao.AUDITORIA, "log-2", "TSE-SP"));
+        assertThat(blockchain.getPoolSize()).isEqualTo(2);
 
         minerador.minerarAgora();
 
-        verify(blockchainMock).limparTransacoesProcessadas(blocoMock);
+        assertThat(blockchain.getTamanho()).isEqualTo(2);
+        assertThat(blockchain.getPoolSize()).isZero();
+        assertThat(blockchain.temTransacoesPendentes()).isFalse();
+        verify(noMock).broadcastBloco(blockchain.obterUltimoBloco());
     }
 
     // ============ TESTES DE BROADCAST ============
@@ -152,7 +150,7 @@ public class MineradorTest {
         when(blockchainMock.temTransacoesPendentes()).thenReturn(true);
         when(blockchainMock.getTamanho()).thenReturn(1);
         when(blockchainMock.criarBlocoCandidato("TSE-SP", null)).thenReturn(blocoMock);
-        when(blockchainMock.validarBloco(blocoMock)).thenReturn(true);
+        when(blockchainMock.adicionarBlocoValidado(blocoMock)).thenReturn(true);
 
         minerador.minerarAgora();
 
@@ -169,6 +167,6 @@ public class MineradorTest {
 
         minerador.minerarAgora();
 
-        verify(blockchainMock, never()).validarBloco(any());
+        verify(blockchainMock, never()).adicionarBlocoValidado(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,291 @@
+package com.yagodaoud.VoxChain.blockchain.core;
+
+import com.yagodaoud.VoxChain.blockchain.BlockchainGovernamental;
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.modelo.Eleitor;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.modelo.Voto;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ConcurrentModificationException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Testes do Armazenamento de Blocos")
+public class BlockStoreTest {
+
+    @TempDir
+    Path diretorio;
+
+    private Bloco adicionarBlocoMinerado(Chain chain, String payload) {
+        Transacao t = new Transacao(TipoTransacao.VOTO, payload, "TSE-SP");
+        Bloco bloco = chain.criarBlocoCandidato(List.of(t), "TSE-SP", null);
+        bloco.minerarBloco(chain.getDificuldade());
+        chain.adicionarBloco(bloco);
+        return bloco;
+    }
+
+    @Test
+    @DisplayName("Deve recarregar a cadeia após reinício")
+    void deveRecarregarCadeiaAposReinicio() {
+        Chain chain = new Chain(2, BlockStore.abrir(diretorio));
+        for (int i = 0; i < 5; i++) {
+            adicionarBlocoMinerado(chain, "{\"id\":\"" + i + "\"}");
+        }
+        String payloadOriginal = chain.obterBloco(3).getTransacoes().get(0).getPayloadJson();
+        String ultimoHash = chain.obterUltimoBloco().getHash();
+        chain.fechar();
+
+        BlockStore store = BlockStore.abrir(diretorio);
+        Chain recarregada = new Chain(2, store);
+
+        assertThat(recarregada.getTamanho()).isEqualTo(6);
+        assertThat(recarregada.obterUltimoBloco().getHash()).isEqualTo(ultimoHash);
+        assertThat(recarregada.obterBloco(3).getTransacoes().get(0).getPayloadJson()).isEqualTo(payloadOriginal);
+        assertThat(store.buscarAltura(ultimoHash)).isEqualTo(5);
+        assertThat(new BlockValidator(2).validarCadeia(recarregada.obterTodosBlocos()).isValido()).isTrue();
+        recarregada.fechar();
+    }
+
+    @Test
+    @DisplayName("Deve descartar registro incompleto no fim do segmento")
+    void deveDescartarRegistroIncompleto() throws Exception {
+        Chain chain = new Chain(2, BlockStore.abrir(diretorio));
+        adicionarBlocoMinerado(chain, "{\"id\":\"1\"}");
+        adicionarBlocoMinerado(chain, "{\"id\":\"2\"}");
+        chain.fechar();
+
+        // Simula queda no meio da escrita do último bloco
+        Path segmento = diretorio.resolve("segmento-00000.dat");
+        try (FileChannel canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            canal.truncate(canal.size() - 5);
+        }
+
+        BlockStore store = BlockStore.abrir(diretorio);
+        assertThat(store.getAltura()).isEqualTo(2);
+
+        Chain recarregada = new Chain(2, store);
+        Bloco novo = adicionarBlocoMinerado(recarregada, "{\"id\":\"3\"}");
+        assertThat(novo.getIndice()).isEqualTo(2);
+        recarregada.fechar();
+
+        assertThat(BlockStore.abrir(diretorio).getAltura()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Substituição da cadeia deve reescrever só a parte divergente")
+    void substituicaoDeveReescreverParteDivergente() {
+        BlockStore store = BlockStore.abrir(diretorio);
+        Chain chain = new Chain(2, store);
+        adicionarBlocoMinerado(chain, "{\"id\":\"local\"}");
+
+        Chain remota = new Chain(2);
+        adicionarBlocoMinerado(remota, "{\"id\":\"r1\"}");
+        adicionarBlocoMinerado(remota, "{\"id\":\"r2\"}");
+
+        chain.substituirCadeia(remota.obterTodosBlocos());
+
+        assertThat(store.getAltura()).isEqualTo(3);
+        assertThat(store.ler(2).getHash()).isEqualTo(remota.obterUltimoBloco().getHash());
+        assertThat(store.buscarAltura(remota.obterBloco(1).getHash())).isEqualTo(1);
+        chain.fechar();
+    }
+
+    @Test
+    @DisplayName("Deve reconstruir índices de entidades ao reiniciar")
+    void deveReconstruirIndicesAoReiniciar() {
+        BlockchainGovernamental blockchain = new BlockchainGovernamental(2, 1, BlockStore.abrir(diretorio));
+        blockchain.setModoTeste(true);
+
+        Eleitor eleitor = new Eleitor("12345678900", "987654321", 1, 1);
+        Transacao t = new Transacao(TipoTransacao.CADASTRO_ELEITOR, eleitor, "TSE-SP");
+        blockchain.adicionarAoPool(t);
+        blockchain.fechar();
+
+        BlockchainGovernamental reiniciada = new BlockchainGovernamental(2, 1, BlockStore.abrir(diretorio));
+
+        assertThat(reiniciada.getTamanho()).isEqualTo(2);
+        assertThat(reiniciada.buscarEleitor(eleitor.getCpfHash())).isNotNull();
+        assertThat(reiniciada.transacaoExiste(t)).isTrue();
+        assertThat(reiniciada.adicionarAoPool(t)).isEqualTo(ResultadoAdmissao.DUPLICADA);
+        reiniciada.fechar();
+    }
+
+    @Test
+    @DisplayName("Blocos fora da janela recente devem ser lidos do disco")
+    void blocosAntigosDevemSerLidosDoDisco() {
+        Chain chain = new Chain(2, BlockStore.abrir(diretorio));
+        int total = 2 * Chain.JANELA_BLOCOS_RECENTES + 10;
+        String hashBloco5 = null;
+        for (int i = 1; i < total; i++) {
+            Bloco bloco = adicionarBlocoMinerado(chain, "{\"id\":\"" + i + "\"}");
+            if (i == 5) {
+                hashBloco5 = bloco.getHash();
+            }
+        }
+
+        List<Bloco> todos = chain.obterTodosBlocos();
+
+        assertThat(chain.getTamanho()).isEqualTo(total);
+        assertThat(todos).hasSize(total);
+        assertThat(chain.obterBloco(5).getHash()).isEqualTo(hashBloco5);
+        assertThat(todos.get(5).getHash()).isEqualTo(hashBloco5);
+        assertThat(chain.getTotalTransacoes()).isEqualTo(total - 1);
+        assertThat(new BlockValidator(2).validarCadeia(todos).isValido()).isTrue();
+        assertThatThrownBy(() -> todos.add(chain.obterUltimoBloco()))
+                .isInstanceOf(UnsupportedOperationException.class);
+        chain.fechar();
+    }
+
+    @Test
+    @DisplayName("Deve restaurar o estado do snapshot e aplicar só os blocos posteriores")
+    void deveRestaurarEstadoDoSnapshot() {
+        BlockchainGovernamental blockchain = new BlockchainGovernamental(2, 1, BlockStore.abrir(diretorio));
+        blockchain.setModoTeste(true);
+
+        Eleitor eleitor = new Eleitor("12345678900", "987654321", 1, 1);
+        blockchain.adicionarAoPool(new Transacao(TipoTransacao.CADASTRO_ELEITOR, eleitor, "TSE-SP"));
+        Transacao voto = new Transacao(TipoTransacao.VOTO,
+                new Voto("token-1", "10", "PRESIDENTE", "ELEICAO-1"), "ANONIMO");
+        blockchain.adicionarAoPool(voto);
+        blockchain.fechar();
+
+        // Bloco gravado depois do snapshot: precisa ser reaplicado na abertura
+        Chain chain = new Chain(2, BlockStore.abrir(diretorio));
+        Transacao segundoVoto = new Transacao(TipoTransacao.VOTO,
+                new Voto("token-2", "10", "PRESIDENTE", "ELEICAO-1"), "ANONIMO");
+        Bloco bloco = chain.criarBlocoCandidato(List.of(segundoVoto), "TSE-SP", null);
+        bloco.minerarBloco(chain.getDificuldade());
+        chain.adicionarBloco(bloco);
+        chain.fechar();
+
+        BlockStore store = BlockStore.abrir(diretorio);
+        assertThat(store.carregarEstado().getAltura()).isEqualTo(3);
+
+        BlockchainGovernamental reiniciada = new BlockchainGovernamental(2, 1, store);
+        assertThat(reiniciada.getTamanho()).isEqualTo(4);
+        assertThat(reiniciada.buscarEleitor(eleitor.getCpfHash())).isNotNull();
+        assertThat(reiniciada.apurarVotos("ELEICAO-1")).containsEntry("10", 2);
+        assertThat(reiniciada.adicionarAoPool(voto)).isEqualTo(ResultadoAdmissao.DUPLICADA);
+        assertThat(reiniciada.adicionarAoPool(segundoVoto)).isEqualTo(ResultadoAdmissao.DUPLICADA);
+        // Voto restaurado do snapshot e voto reaplicado localizam o bloco sem percorrer a cadeia
+        assertThat(reiniciada.buscarIdTransacaoDoVoto("token-1")).isEqualTo(voto.getId());
+        assertThat(reiniciada.buscarAlturaTransacao(voto.getId())).isEqualTo(2);
+        assertThat(reiniciada.buscarAlturaTransacao(reiniciada.buscarIdTransacaoDoVoto("token-2"))).isEqualTo(3);
+        reiniciada.fechar();
+    }
+
+    @Test
+    @DisplayName("Snapshot de um bloco que saiu da cadeia deve ser ignorado")
+    void snapshotDeBlocoDescartadoDeveSerIgnorado() {
+        BlockStore store = BlockStore.abrir(diretorio);
+        Chain chain = new Chain(2, store);
+        adicionarBlocoMinerado(chain, "{\"id\":\"1\"}");
+        adicionarBlocoMinerado(chain, "{\"id\":\"2\"}");
+        store.salvarEstado(new byte[]{1, 2, 3});
+        assertThat(store.carregarEstado().getDados()).containsExactly(1, 2, 3);
+
+        store.truncar(2);
+        adicionarBlocoMinerado(new Chain(2, store), "{\"id\":\"outro\"}");
+
+        assertThat(store.carregarEstado()).isNull();
+        store.fechar();
+    }
+
+    @Test
+    @DisplayName("O índice em disco deve crescer por entrada, sem ser regravado")
+    void indiceDeveCrescerPorEntrada() throws Exception {
+        Path indice = diretorio.resolve("indice.idx");
+        Chain chain = new Chain(2, BlockStore.abrir(diretorio));
+        adicionarBlocoMinerado(chain, "{\"id\":\"1\"}");
+        long porEntrada = Files.size(indice) / 2;
+
+        for (int i = 2; i < 10; i++) {
+            adicionarBlocoMinerado(chain, "{\"id\":\"" + i + "\"}");
+        }
+        assertThat(Files.size(indice)).isEqualTo(10 * porEntrada);
+        chain.fechar();
+
+        BlockStore store = BlockStore.abrir(diretorio);
+        assertThat(store.getAltura()).isEqualTo(10);
+        assertThat(store.getTotalTransacoes()).isEqualTo(9);
+        store.truncar(4);
+        assertThat(Files.size(indice)).isEqualTo(4 * porEntrada);
+        store.fechar();
+    }
+
+    @Test
+    @DisplayName("Leituras não devem esperar pelo monitor do armazenamento")
+    void leiturasNaoDevemEsperarEscritas() throws Exception {
+        BlockStore store = BlockStore.abrir(diretorio);
+        Chain chain = new Chain(2, store);
+        Bloco bloco = adicionarBlocoMinerado(chain, "{\"id\":\"1\"}");
+
+        // Simula uma escrita em andamento (ex: fsync) segurando o monitor do armazenamento
+        CountDownLatch segurando = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        Thread escritor = new Thread(() -> {
+            synchronized (store) {
+                segurando.countDown();
+                try {
+                    liberar.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        });
+        escritor.start();
+        segurando.await();
+        ExecutorService leitor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Bloco> lido = leitor.submit(() -> store.ler(1));
+            assertThat(lido.get(5, TimeUnit.SECONDS).getHash()).isEqualTo(bloco.getHash());
+            assertThat(store.buscarAltura(bloco.getHash())).isEqualTo(1);
+        } finally {
+            leitor.shutdownNow();
+            liberar.countDown();
+            escritor.join();
+        }
+        chain.fechar();
+    }
+
+    @Test
+    @DisplayName("Visão antiga não deve ver blocos do outro ramo após uma reorganização em disco")
+    void visaoAntigaNaoDeveVerOutroRamo() {
+        Chain chain = new Chain(2, BlockStore.abrir(diretorio));
+        Chain remota = new Chain(2);
+        int total = 2 * Chain.JANELA_BLOCOS_RECENTES + 10;
+        for (int i = 1; i < total; i++) {
+            Bloco local = adicionarBlocoMinerado(chain, "{\"id\":\"local-" + i + "\"}");
+            if (i < 5) {
+                remota.adicionarBloco(local);
+            }
+        }
+        for (int i = 5; i <= total; i++) {
+            adicionarBlocoMinerado(remota, "{\"id\":\"remoto-" + i + "\"}");
+        }
+
+        List<Bloco> antiga = chain.obterTodosBlocos();
+        String hashAntigo = antiga.get(3).getHash();
+        chain.substituirCadeia(remota.obterTodosBlocos());
+
+        // Abaixo da divergência o bloco é o mesmo; acima, o disco foi reescrito
+        assertThat(antiga.get(3).getHash()).isEqualTo(hashAntigo);
+        assertThatThrownBy(() -> antiga.get(10)).isInstanceOf(ConcurrentModificationException.class);
+        assertThat(chain.obterBloco(10).getHash()).isEqualTo(remota.obterBloco(10).getHash());
+        chain.fechar();
+    }
+}
@@ -0,0 +1,64 @@
+package com.yagodaoud.VoxChain.blockchain.core;
+
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Testes do Validador de Blocos")
+public class BlockValidatorTest {
+
+    private static final int DIFICULDADE = 1;
+    private static List<Bloco> cadeia;
+
+    @BeforeAll
+    static void criarCadeia() {
+        cadeia = new ArrayList<>();
+        Bloco genesis = new Bloco(0, new ArrayList<>(), "0", "SYSTEM", 1700000000000L);
+        genesis.minerarBloco(DIFICULDADE);
+        cadeia.add(genesis);
+
+        for (int i = 1; i < BlockValidator.LIMIAR_PARALELO + 100; i++) {
+            Bloco bloco = new Bloco(i, new ArrayList<>(), cadeia.get(i - 1).getHash(), "TSE-SP", 1700000000000L + i);
+            bloco.minerarBloco(DIFICULDADE);
+            cadeia.add(bloco);
+        }
+    }
+
+    @Test
+    @DisplayName("Validação paralela deve aceitar cadeia válida")
+    void validacaoParalelaDeveAceitarCadeiaValida() {
+        BlockValidator validator = new BlockValidator(DIFICULDADE);
+
+        assertThat(validator.validarCadeiaParalela(cadeia).isValido()).isTrue();
+        assertThat(validator.validarCadeiaSequencial(cadeia).isValido()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Validação paralela deve apontar o mesmo bloco inválido que a sequencial")
+    void validacaoParalelaDeveApontarMesmoBlocoInvalido() {
+        BlockValidator validator = new BlockValidator(DIFICULDADE);
+        List<Bloco> adulterada = new ArrayList<>(cadeia);
+
+        // Hash adulterado no bloco 400 e encadeamento quebrado no bloco 450
+        Bloco original = cadeia.get(400);
+        adulterada.set(400, Bloco.reconstruir(original.getIndice(), original.getTimestamp() + 1,
+                original.getTransacoes(), original.getHashAnterior(), original.getHash(),
+                original.getNonce(), original.getMineradoPor(), original.getAssinaturaMinerador()));
+        Bloco bloco450 = cadeia.get(450);
+        adulterada.set(450, Bloco.reconstruir(bloco450.getIndice(), bloco450.getTimestamp(),
+                bloco450.getTransacoes(), "outro", bloco450.getHash(),
+                bloco450.getNonce(), bloco450.getMineradoPor(), bloco450.getAssinaturaMinerador()));
+
+        BlockValidator.ValidationResult paralelo = validator.validarCadeiaParalela(adulterada);
+        BlockValidator.ValidationResult sequencial = validator.validarCadeiaSequencial(adulterada);
+
+        assertThat(paralelo.isValido()).isFalse();
+        assertThat(paralelo.getMensagem()).isEqualTo(sequencial.getMensagem()).startsWith("Bloco 400");
+    }
+}
@@ -0,0 +1,169 @@
+package com.yagodaoud.VoxChain.blockchain.core;
+
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.indices.TransactionIdIndex;
+import com.yagodaoud.VoxChain.modelo.Eleicao;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.modelo.Voto;
+import com.yagodaoud.VoxChain.modelo.enums.CategoriaEleicao;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Testes do Pool de Transações")
+public class TransactionPoolTest {
+
+    private TransactionPool criarPool(TransactionPool.Limites limites) {
+        return new TransactionPool(5, new TransactionIdIndex((id, altura) -> false),
+                new DefaultSelectionPolicy(), limites);
+    }
+
+    @Test
+    @DisplayName("Pool cheio deve descartar a transação mais antiga de peso menor ou igual")
+    void poolCheioDeveDescartarMaisAntiga() {
+        TransactionPool pool = criarPool(new TransactionPool.Limites(2, 1024 * 1024, 0, 6));
+        Transacao criacao = new Transacao(TipoTransacao.CRIACAO_ELEICAO, "eleicao", "ADMIN");
+        Transacao auditoria = new Transacao(TipoTransacao.AUDITORIA, "log", "ADMIN");
+        Transacao eleitor = new Transacao(TipoTransacao.CADASTRO_ELEITOR, "eleitor", "ADMIN");
+
+        pool.adicionar(criacao);
+        pool.adicionar(auditoria);
+
+        assertThat(pool.adicionar(eleitor)).isEqualTo(ResultadoAdmissao.ACEITA);
+        assertThat(pool.existe(auditoria.getId())).isFalse();
+        assertThat(pool.existe(criacao.getId())).isTrue();
+        assertThat(pool.getDescartadas()).isEqualTo(1);
+
+        // Só resta a criação, de peso maior: a auditoria é recusada
+        pool.marcarComoProcessadas(List.of(eleitor));
+        pool.adicionar(new Transacao(TipoTransacao.CRIACAO_ELEICAO, "outra", "ADMIN"));
+        assertThat(pool.adicionar(new Transacao(TipoTransacao.AUDITORIA, "log", "ADMIN")))
+                .isEqualTo(ResultadoAdmissao.POOL_CHEIO);
+        assertThat(pool.getTamanho()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Votos admitidos não devem ser descartados para abrir espaço")
+    void votosNaoDevemSerDescartados() {
+        TransactionPool pool = criarPool(new TransactionPool.Limites(2, 1024 * 1024, 0, 6));
+        Transacao voto1 = new Transacao(TipoTransacao.VOTO, "voto-1", "ANONIMO");
+        Transacao voto2 = new Transacao(TipoTransacao.VOTO, "voto-2", "ANONIMO");
+        pool.adicionar(voto1);
+        pool.adicionar(voto2);
+
+        assertThat(pool.adicionar(new Transacao(TipoTransacao.VOTO, "voto-3", "ANONIMO")))
+                .isEqualTo(ResultadoAdmissao.POOL_CHEIO);
+        assertThat(pool.adicionar(new Transacao(TipoTransacao.CRIACAO_ELEICAO, "eleicao", "ADMIN")))
+                .isEqualTo(ResultadoAdmissao.POOL_CHEIO);
+        assertThat(pool.existe(voto1.getId())).isTrue();
+        assertThat(pool.existe(voto2.getId())).isTrue();
+        assertThat(pool.getDescartadas()).isZero();
+    }
+
+    @Test
+    @DisplayName("Bytes pendentes devem contar o texto codificado em UTF-8")
+    void bytesPendentesDevemContarUtf8() {
+        TransactionPool pool = criarPool(new TransactionPool.Limites(10, 1024 * 1024, 0, 6));
+        Transacao auditoria = new Transacao(TipoTransacao.AUDITORIA, "eleição de São João 🗳", "ADMIN");
+        pool.adicionar(auditoria);
+
+        assertThat(pool.getBytesPendentes()).isEqualTo(
+                (auditoria.getId() + auditoria.getPayloadJson()).getBytes(StandardCharsets.UTF_8).length);
+    }
+
+    @Test
+    @DisplayName("Lote recusado no meio não deve deixar nenhuma transação no pool")
+    void loteDeveSerTudoOuNada() {
+        TransactionPool pool = criarPool(new TransactionPool.Limites(3, 1024 * 1024, 0, 6));
+        pool.adicionar(new Transacao(TipoTransacao.VOTO, "voto-0", "ANONIMO"));
+
+        List<Transacao> lote = List.of(
+                new Transacao(TipoTransacao.VOTO, "voto-1", "ANONIMO"),
+                new Transacao(TipoTransacao.VOTO, "voto-2", "ANONIMO"),
+                new Transacao(TipoTransacao.VOTO, "voto-3", "ANONIMO"));
+
+        assertThat(pool.adicionarLote(lote)).isEqualTo(ResultadoAdmissao.POOL_CHEIO);
+        assertThat(pool.getTamanho()).isEqualTo(1);
+        assertThat(lote).noneMatch(t -> pool.existe(t.getId()));
+        assertThat(pool.obterParaBloco()).hasSize(1);
+
+        assertThat(pool.adicionarLote(lote.subList(0, 2))).isEqualTo(ResultadoAdmissao.ACEITA);
+        assertThat(pool.getTamanho()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Deve recusar transações acima da cota da origem")
+    void deveRecusarAcimaDaCotaDaOrigem() {
+        TransactionPool pool = criarPool(new TransactionPool.Limites(100, 1024 * 1024, 2, 6));
+
+        assertThat(pool.adicionar(new Transacao(TipoTransacao.AUDITORIA, "a", "ADMIN"))).isEqualTo(ResultadoAdmissao.ACEITA);
+        Transacao segunda = new Transacao(TipoTransacao.AUDITORIA, "b", "ADMIN");
+        assertThat(pool.adicionar(segunda)).isEqualTo(ResultadoAdmissao.ACEITA);
+        assertThat(pool.adicionar(new Transacao(TipoTransacao.AUDITORIA, "c", "ADMIN")))
+                .isEqualTo(ResultadoAdmissao.COTA_ORIGEM_EXCEDIDA);
+
+        // Outras origens e votos anônimos não são afetados
+        assertThat(pool.adicionar(new Transacao(TipoTransacao.AUDITORIA, "d", "OUTRO"))).isEqualTo(ResultadoAdmissao.ACEITA);
+        assertThat(pool.adicionar(new Transacao(TipoTransacao.VOTO, "e", "ANONIMO"))).isEqualTo(ResultadoAdmissao.ACEITA);
+
+        // Confirmar uma transação devolve a vaga da origem
+        pool.marcarComoProcessadas(List.of(segunda));
+        assertThat(pool.adicionar(new Transacao(TipoTransacao.AUDITORIA, "f", "ADMIN"))).isEqualTo(ResultadoAdmissao.ACEITA);
+    }
+
+    @Test
+    @DisplayName("IDs confirmados abaixo da finalidade devem ser consultados no índice")
+    void idsAbaixoDaFinalidadeDevemIrParaOIndice() {
+        TransactionIdIndex indice = new TransactionIdIndex((id, altura) -> false);
+        TransactionPool pool = new TransactionPool(5, indice, new DefaultSelectionPolicy(),
+                new TransactionPool.Limites(100, 1024 * 1024, 0, 2));
+
+        Transacao t = new Transacao(TipoTransacao.AUDITORIA, "log", "ADMIN");
+        pool.registrarConfirmadas(new Bloco(1, List.of(t), "0", "TSE-SP", 1L));
+        assertThat(pool.existe(t.getId())).isTrue();
+
+        pool.registrarConfirmadas(new Bloco(2, Collections.emptyList(), "0", "TSE-SP", 2L));
+        pool.registrarConfirmadas(new Bloco(3, Collections.emptyList(), "0", "TSE-SP", 3L));
+
+        // Fora da janela recente: o índice (que aqui nunca confirma) passa a responder
+        assertThat(pool.getConfirmadasRecentes()).isZero();
+        assertThat(pool.existe(t.getId())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Votos devem esperar a eleição ser confirmada, mesmo fora do pool")
+    void votosDevemEsperarEleicaoConfirmada() {
+        Set<String> confirmadas = new HashSet<>();
+        TransactionPool pool = new TransactionPool(5, new TransactionIdIndex((id, altura) -> false),
+                new DefaultSelectionPolicy(confirmadas::contains), new TransactionPool.Limites(100, 1024 * 1024, 0, 6));
+
+        Eleicao eleicao = new Eleicao("Eleição", "Teste", List.of(CategoriaEleicao.PRESIDENTE), 1L, 2L);
+        Transacao criacao = new Transacao(TipoTransacao.CRIACAO_ELEICAO, eleicao, "ADMIN");
+        Transacao voto = new Transacao(TipoTransacao.VOTO,
+                new Voto("token-1", "13", "PRESIDENTE", eleicao.getId()), "ANONIMO");
+        pool.adicionar(criacao);
+        pool.adicionar(voto);
+        assertThat(pool.obterParaBloco()).containsExactly(criacao);
+
+        // A criação saiu do pool sem ser confirmada (ex: bloco não aceito): o voto segue esperando
+        pool.marcarComoProcessadas(List.of(criacao));
+        assertThat(pool.obterParaBloco()).isEmpty();
+
+        confirmadas.add(eleicao.getId());
+        assertThat(pool.obterParaBloco()).containsExactly(voto);
+
+        // Filas e chaves sem transações pendentes saem dos mapas
+        pool.marcarComoProcessadas(List.of(voto));
+        assertThat(pool.obterParaBloco()).isEmpty();
+        assertThat(pool.getTotalFilas()).isZero();
+        assertThat(pool.getTotalChavesProvidas()).isZero();
+    }
+}
@@ -0,0 +1,104 @@
+package com.yagodaoud.VoxChain.blockchain.core.codec;
+
+import com.google.gson.Gson;
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.modelo.*;
+import com.yagodaoud.VoxChain.modelo.enums.*;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Testes da Codificação Binária de Payloads")
+public class PayloadCodecTest {
+
+    @Test
+    @DisplayName("Deve refazer o mesmo JSON de cada payload e manter a raiz de Merkle do bloco")
+    void deveRefazerMesmoJsonEManterRaizMerkle() {
+        List<Transacao> transacoes = new ArrayList<>();
+        transacoes.add(new Transacao(TipoTransacao.CADASTRO_ADMIN,
+                new Administrador("12345678900", "senha", NivelAcesso.ADMIN_TSE, JurisdicaoAdmin.SP), "TSE-SP"));
+        transacoes.add(new Transacao(TipoTransacao.CADASTRO_ELEITOR,
+                new Eleitor("12345678900", "senha", 12, 345), "TSE-SP"));
+        transacoes.add(new Transacao(TipoTransacao.CADASTRO_CANDIDATO, new Candidato("E1", "13", "Nome <Teste> & Cia",
+                "PT", CargoCandidato.PRESIDENTE, "SP", null), "TSE-SP"));
+        transacoes.add(new Transacao(TipoTransacao.CRIACAO_ELEICAO, new Eleicao("Eleição", "Descrição",
+                List.of(CategoriaEleicao.PRESIDENTE, CategoriaEleicao.SENADOR), -1L, 1700000000000L), "TSE-SP"));
+        for (int i = 0; i < 20; i++) {
+            transacoes.add(new Transacao(TipoTransacao.VOTO, new Voto(
+                    token(i), "13", "PRESIDENTE", "E1"), "ANONIMO"));
+        }
+        // Fora de qualquer esquema: segue como JSON
+        transacoes.add(new Transacao(TipoTransacao.VOTO, Map.of("extra", 1.5), "ANONIMO"));
+        transacoes.add(new Transacao(TipoTransacao.AUDITORIA, "texto livre", "TSE-SP"));
+
+        Bloco bloco = new Bloco(1, transacoes, "0", "TSE-SP", 1700000001000L);
+        byte[] codificado = BlockCodec.codificar(bloco);
+        Bloco lido = BlockCodec.decodificar(codificado);
+
+        for (int i = 0; i < transacoes.size(); i++) {
+            assertThat(lido.getTransacoes().get(i).getPayloadJson()).isEqualTo(transacoes.get(i).getPayloadJson());
+        }
+        assertThat(lido.getRaizMerkle()).isEqualTo(bloco.getRaizMerkle());
+
+        int tamanhoJson = transacoes.stream()
+                .mapToInt(t -> t.getPayloadJson().getBytes(StandardCharsets.UTF_8).length).sum();
+        assertThat(codificado.length).isLessThan(tamanhoJson);
+    }
+
+    @Test
+    @DisplayName("Deve montar os objetos do modelo direto do binário, iguais aos do Gson")
+    void deveMontarObjetosDiretoDoBinario() {
+        Gson gson = new Gson();
+        Map<Transacao, Class<?>> transacoes = new LinkedHashMap<>();
+        transacoes.put(new Transacao(TipoTransacao.CADASTRO_ADMIN,
+                Administrador.comSenhaHash("ADM-1", "12345678900", "hash", NivelAcesso.ADMIN_TSE, JurisdicaoAdmin.SP),
+                "TSE-SP"), Administrador.class);
+        transacoes.put(new Transacao(TipoTransacao.CADASTRO_ELEITOR,
+                new Eleitor("12345678900", "senha", 12, 345), "TSE-SP"), Eleitor.class);
+        transacoes.put(new Transacao(TipoTransacao.CADASTRO_CANDIDATO, new Candidato("E1", "13", "Nome",
+                "PT", CargoCandidato.PRESIDENTE, "SP", null), "TSE-SP"), Candidato.class);
+        transacoes.put(new Transacao(TipoTransacao.CRIACAO_ELEICAO, new Eleicao("Eleição", "Descrição",
+                List.of(CategoriaEleicao.PRESIDENTE), 1L, 2L), "TSE-SP"), Eleicao.class);
+        transacoes.put(new Transacao(TipoTransacao.VOTO, new Voto(token(0), "13", "PRESIDENTE", "E1"), "ANONIMO"),
+                Voto.class);
+
+        Bloco bloco = new Bloco(1, new ArrayList<>(transacoes.keySet()), "0", "TSE-SP", 1700000001000L);
+        Bloco lido = BlockCodec.decodificar(BlockCodec.codificar(bloco));
+
+        int i = 0;
+        for (Map.Entry<Transacao, Class<?>> entrada : transacoes.entrySet()) {
+            Transacao original = entrada.getKey();
+            Transacao decodificada = lido.getTransacoes().get(i++);
+            Object objeto = decodificada.getPayloadAs(entrada.getValue());
+
+            assertThat(gson.toJson(objeto)).isEqualTo(original.getPayloadJson());
+            if (entrada.getValue() != Administrador.class && entrada.getValue() != Eleicao.class) {
+                assertThat(decodificada.getPayloadAs(entrada.getValue())).isSameAs(objeto);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Payload de voto codificado deve ocupar menos da metade do JSON")
+    void payloadDeVotoDeveOcuparMenosDaMetadeDoJson() {
+        Transacao voto = new Transacao(TipoTransacao.VOTO,
+                new Voto(token(7), "13", "PRESIDENTE", "ELEICAO-2026"), "ANONIMO");
+
+        byte[] codificado = PayloadCodec.codificar(TipoTransacao.VOTO, voto.getPayloadJson());
+        int tamanhoJson = voto.getPayloadJson().getBytes(StandardCharsets.UTF_8).length;
+
+        assertThat(codificado[0]).isNotEqualTo((byte) PayloadCodec.FORMATO_JSON);
+        assertThat((double) codificado.length / tamanhoJson).isLessThan(0.5);
+    }
+
+    private static String token(int i) {
+        return String.format("%064x", i + 1);
+    }
+}
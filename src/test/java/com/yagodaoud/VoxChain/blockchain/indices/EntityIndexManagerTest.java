@@ -0,0 +1,41 @@
+package com.yagodaoud.VoxChain.blockchain.indices;
+
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.modelo.Administrador;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.modelo.enums.JurisdicaoAdmin;
+import com.yagodaoud.VoxChain.modelo.enums.NivelAcesso;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Testes do Gerenciador de Índices")
+public class EntityIndexManagerTest {
+
+    @Test
+    @DisplayName("Desativar um admin não deve alterar o payload relido ao reconstruir os índices")
+    void desativarAdminNaoDeveVazarParaReconstrucao() {
+        Administrador admin = Administrador.comSenhaHash("ADM-1", "12345678900", "hash",
+                NivelAcesso.ADMIN_TSE, JurisdicaoAdmin.SP);
+        Transacao cadastro = new Transacao(TipoTransacao.CADASTRO_ADMIN, admin, "TSE-SUPER-001", 1700000000500L);
+        Bloco genesis = new Bloco(0, new ArrayList<>(), "0", "TSE-SP", 1700000000000L);
+        Bloco bloco = new Bloco(1, List.of(cadastro), genesis.getHash(), "TSE-SP", 1700000001000L);
+
+        EntityIndexManager indices = new EntityIndexManager();
+        indices.atualizarComBloco(bloco);
+        Administrador indexado = indices.buscarAdmin("ADM-1");
+        indexado.desativar();
+
+        // A reconstrução relê as mesmas transações: o estado vem da cadeia, não do objeto alterado
+        indices.reconstruirIndices(Arrays.asList(genesis, bloco));
+        assertThat(indices.buscarAdmin("ADM-1")).isNotSameAs(indexado);
+        assertThat(indices.buscarAdmin("ADM-1").isAtivo()).isTrue();
+        assertThat(cadastro.getPayloadAs(Administrador.class).isAtivo()).isTrue();
+    }
+}
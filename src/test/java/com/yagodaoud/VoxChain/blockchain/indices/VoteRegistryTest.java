@@ -0,0 +1,91 @@
+package com.yagodaoud.VoxChain.blockchain.indices;
+
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.modelo.Voto;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Testes do Registro de Votos")
+public class VoteRegistryTest {
+
+    @Test
+    @DisplayName("Deve contar em paralelo um bloco grande, desfazê-lo e reconstruir a mesma apuração")
+    void deveContarDesfazerEReconstruirBlocoGrande() {
+        int quantidade = VoteRegistry.LIMITE_PARALELO * 4;
+        List<Transacao> transacoes = new ArrayList<>();
+        for (int i = 0; i < quantidade; i++) {
+            transacoes.add(new Transacao(TipoTransacao.VOTO,
+                    new Voto("token-" + i, "Candidato" + (i % 3), "Tipo1", "Eleicao1"), "ANONIMO"));
+        }
+        Bloco genesis = new Bloco(0, new ArrayList<>(), "0", "TSE-SP", 1700000000000L);
+        Bloco bloco = new Bloco(1, transacoes, genesis.getHash(), "TSE-SP", 1700000001000L);
+
+        VoteRegistry registro = new VoteRegistry();
+        VoteRegistry.Desfazer desfazer = registro.atualizarComBloco(bloco);
+        long versao = registro.getVersao("Eleicao1");
+
+        assertThat(registro.getTotalVotosEleicao("Eleicao1")).isEqualTo(quantidade);
+        assertThat(registro.obterResultadoEleicao("Eleicao1").values().stream().mapToInt(Integer::intValue).sum())
+                .isEqualTo(quantidade);
+        assertThat(registro.contarVotosCandidato("Eleicao1", "Candidato0")).isEqualTo(quantidade / 3 + 1);
+        assertThat(registro.validarIntegridade().isValido()).isTrue();
+        assertThat(registro.buscarVoto("token-7").getIdCandidato()).isEqualTo("Candidato1");
+
+        registro.desfazer(desfazer);
+        assertThat(registro.getTotalVotosEleicao("Eleicao1")).isZero();
+        assertThat(registro.obterResultadoEleicao("Eleicao1")).isEmpty();
+        assertThat(registro.tokenUtilizado("token-0")).isFalse();
+        assertThat(registro.buscarVoto("token-7")).isNull();
+        assertThat(registro.getVersao("Eleicao1")).isGreaterThan(versao);
+
+        registro.reconstruirRegistro(Arrays.asList(genesis, bloco));
+        assertThat(registro.getTotalVotosEleicao("Eleicao1")).isEqualTo(quantidade);
+        assertThat(registro.contarVotosCandidato("Eleicao1", "Candidato2")).isEqualTo(quantidade / 3);
+    }
+
+    @Test
+    @DisplayName("Leitores não devem ver a apuração zerada durante a reconstrução")
+    void leitoresNaoDevemVerApuracaoZeradaNaReconstrucao() throws Exception {
+        List<Transacao> transacoes = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            transacoes.add(new Transacao(TipoTransacao.VOTO,
+                    new Voto("token-" + i, "Candidato" + (i % 2), "Tipo1", "Eleicao1"), "ANONIMO"));
+        }
+        Bloco genesis = new Bloco(0, new ArrayList<>(), "0", "TSE-SP", 1700000000000L);
+        Bloco bloco = new Bloco(1, transacoes, genesis.getHash(), "TSE-SP", 1700000001000L);
+        List<Bloco> cadeia = Arrays.asList(genesis, bloco);
+
+        VoteRegistry registro = new VoteRegistry();
+        registro.reconstruirRegistro(cadeia);
+
+        AtomicBoolean rodando = new AtomicBoolean(true);
+        AtomicInteger leiturasErradas = new AtomicInteger();
+        Thread leitor = new Thread(() -> {
+            while (rodando.get()) {
+                if (registro.getTotalVotosEleicao("Eleicao1") != 2000
+                        || registro.contarVotosCandidato("Eleicao1", "Candidato0") != 1000
+                        || registro.obterResultadoEleicao("Eleicao1").size() != 2) {
+                    leiturasErradas.incrementAndGet();
+                }
+            }
+        });
+        leitor.start();
+        for (int i = 0; i < 50; i++) {
+            registro.reconstruirRegistro(cadeia);
+        }
+        rodando.set(false);
+        leitor.join();
+
+        assertThat(leiturasErradas.get()).isZero();
+    }
+}
@@ -0,0 +1,49 @@
+package com.yagodaoud.VoxChain.blockchain.sync;
+
+import com.yagodaoud.VoxChain.rede.MensagemP2P;
+import com.yagodaoud.VoxChain.rede.Peer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes do Agendador de Download de Blocos")
+public class BlockDownloadSchedulerTest {
+
+    private static Peer peer() {
+        Peer peer = mock(Peer.class);
+        when(peer.isConectado()).thenReturn(true);
+        return peer;
+    }
+
+    @Test
+    @DisplayName("Deve limitar pedidos por peer e redistribuir faixas expiradas")
+    void deveRedistribuirFaixasExpiradas() {
+        Peer lento = peer();
+        Peer rapido = peer();
+        BlockDownloadScheduler scheduler = new BlockDownloadScheduler("TSE-SP");
+        scheduler.iniciar(1, 1 + 10 * BlockDownloadScheduler.BLOCOS_POR_FAIXA);
+
+        scheduler.distribuir(List.of(lento, rapido), 0);
+
+        assertThat(scheduler.emVooTotal()).isEqualTo(2 * BlockDownloadScheduler.MAX_EM_VOO_POR_PEER);
+        verify(lento, times(BlockDownloadScheduler.MAX_EM_VOO_POR_PEER)).enviar(any());
+
+        // Nenhuma resposta: tudo volta para a fila e conta como falha dos dois peers
+        long depois = System.currentTimeMillis() + BlockDownloadScheduler.TIMEOUT_FAIXA_MS + 1;
+        assertThat(scheduler.expirar(depois)).isEqualTo(2 * BlockDownloadScheduler.MAX_EM_VOO_POR_PEER);
+        assertThat(scheduler.isConcluido()).isFalse();
+
+        // A faixa mais baixa é a primeira a ser pedida de novo
+        Peer novo = peer();
+        scheduler.distribuir(List.of(novo), 0);
+        ArgumentCaptor<MensagemP2P> captor = ArgumentCaptor.forClass(MensagemP2P.class);
+        verify(novo, atLeastOnce()).enviar(captor.capture());
+        HeadersFirstSync.Faixa primeira = (HeadersFirstSync.Faixa) captor.getAllValues().get(0).getPayload();
+        assertThat(primeira.getInicio()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,66 @@
+package com.yagodaoud.VoxChain.blockchain.sync;
+
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.core.BlockValidator;
+import com.yagodaoud.VoxChain.blockchain.core.Chain;
+import com.yagodaoud.VoxChain.blockchain.core.CheckpointCache;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Testes do Sincronizador de Cadeias")
+public class ChainSynchronizerTest {
+
+    private static Bloco minerar(Bloco anterior, String minerador) {
+        Bloco bloco = new Bloco(anterior.getIndice() + 1, new ArrayList<>(), anterior.getHash(),
+                minerador, anterior.getTimestamp() + 1);
+        bloco.minerarBloco(2);
+        return bloco;
+    }
+
+    @Test
+    @DisplayName("Deve revalidar apenas o sufixo após o prefixo já validado")
+    void deveRevalidarApenasOSufixo() {
+        Chain chain = new Chain(2);
+        for (int i = 0; i < 5; i++) {
+            chain.adicionarBloco(minerar(chain.obterUltimoBloco(), "TSE-SP"));
+        }
+        CheckpointCache checkpoints = new CheckpointCache(chain);
+        checkpoints.registrarPonta();
+        ChainSynchronizer synchronizer = new ChainSynchronizer(chain, new BlockValidator(2), checkpoints);
+
+        // Remota: os 4 primeiros blocos em comum e um fork de 4 blocos a partir daí
+        List<Bloco> remota = new ArrayList<>(chain.obterTodosBlocos().subList(0, 4));
+        for (int i = 0; i < 4; i++) {
+            remota.add(minerar(remota.get(remota.size() - 1), "TSE-RJ"));
+        }
+
+        ChainSynchronizer.SyncResult resultado = synchronizer.sincronizar(remota);
+
+        assertThat(resultado.isSucesso()).isTrue();
+        assertThat(resultado.getMensagem()).contains("4 revalidados");
+        assertThat(chain.getTamanho()).isEqualTo(8);
+        assertThat(checkpoints.getAlturaValidada()).isEqualTo(7);
+    }
+
+    @Test
+    @DisplayName("Checkpoint fora da cadeia não deve ser confiável")
+    void checkpointForaDaCadeiaNaoDeveSerConfiavel() {
+        Chain chain = new Chain(2);
+        chain.adicionarBloco(minerar(chain.obterUltimoBloco(), "TSE-SP"));
+        CheckpointCache checkpoints = new CheckpointCache(chain);
+        checkpoints.registrarPonta();
+
+        List<Bloco> fork = new ArrayList<>(chain.obterTodosBlocos().subList(0, 1));
+        fork.add(minerar(fork.get(0), "TSE-RJ"));
+        fork.add(minerar(fork.get(1), "TSE-RJ"));
+        chain.substituirCadeia(fork);
+
+        assertThat(checkpoints.getAlturaValidada()).isZero();
+        assertThat(checkpoints.prefixoConfiavel(chain.obterTodosBlocos())).isEqualTo(1);
+    }
+}
@@ -0,0 +1,85 @@
+package com.yagodaoud.VoxChain.blockchain.sync;
+
+import com.yagodaoud.VoxChain.blockchain.BlockchainGovernamental;
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.No;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.modelo.Voto;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
+import com.yagodaoud.VoxChain.rede.MensagemP2P;
+import com.yagodaoud.VoxChain.rede.MessageCodec;
+import com.yagodaoud.VoxChain.rede.Peer;
+import com.yagodaoud.VoxChain.rede.TipoMensagem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes da Retransmissão de Blocos Compactos")
+public class CompactBlockRelayTest {
+
+    private static Transacao voto(String eleitor) {
+        return new Transacao(TipoTransacao.VOTO,
+                new Voto(eleitor, "Candidato1", "Tipo1", "Eleicao1"), "TSE-SP");
+    }
+
+    @Test
+    @DisplayName("Deve remontar o bloco com o pool local e pedir só as transações faltantes")
+    void deveRemontarBlocoPedindoSoAsFaltantes() {
+        BlockchainGovernamental origem = new BlockchainGovernamental(2, 5);
+        BlockchainGovernamental destino = new BlockchainGovernamental(2, 5);
+        List<Transacao> transacoes = Arrays.asList(voto("1"), voto("2"), voto("3"));
+        destino.adicionarAoPool(transacoes.get(0));
+        destino.adicionarAoPool(transacoes.get(2));
+
+        Bloco anterior = origem.obterUltimoBloco();
+        Bloco bloco = new Bloco(1, new ArrayList<>(transacoes), anterior.getHash(), "TSE-SP",
+                anterior.getTimestamp() + 1);
+        bloco.minerarBloco(2);
+        origem.adicionarBlocoValidado(bloco);
+
+        No noOrigem = mock(No.class);
+        when(noOrigem.getBlockchain()).thenReturn(origem);
+        CompactBlockRelay relayOrigem = new CompactBlockRelay(noOrigem);
+
+        No noDestino = mock(No.class);
+        when(noDestino.getId()).thenReturn("TSE-RJ");
+        when(noDestino.getBlockchain()).thenReturn(destino);
+        when(noDestino.getInventario()).thenReturn(new InventoryRelay(noDestino));
+        CompactBlockRelay relayDestino = new CompactBlockRelay(noDestino);
+
+        List<MensagemP2P> enviadas = new ArrayList<>();
+        Peer peer = mock(Peer.class);
+        when(peer.getId()).thenReturn("TSE-SP");
+        doAnswer(inv -> enviadas.add(inv.getArgument(0))).when(peer).enviar(any());
+
+        // O bloco compacto passa pelo protocolo binário como na rede
+        byte[] quadro = MessageCodec.codificar(
+                new MensagemP2P(TipoMensagem.BLOCO_COMPACTO, CompactBlockRelay.compactar(bloco), "TSE-SP"));
+        MensagemP2P compacto = MessageCodec.decodificar(Arrays.copyOfRange(quadro, Integer.BYTES, quadro.length));
+        relayDestino.processarCompacto(peer, (CompactBlockRelay.BlocoCompacto) compacto.getPayload());
+
+        assertThat(enviadas).hasSize(1);
+        CompactBlockRelay.PedidoTransacoes pedido = (CompactBlockRelay.PedidoTransacoes) enviadas.get(0).getPayload();
+        assertThat(enviadas.get(0).getTipo()).isEqualTo(TipoMensagem.REQUISITAR_TRANSACOES_BLOCO);
+        assertThat(pedido.getPosicoes()).containsExactly(1);
+        assertThat(relayDestino.getReconstrucoesPendentes()).isEqualTo(1);
+
+        relayDestino.processarTransacoes(peer, relayOrigem.responderTransacoes(pedido));
+
+        ArgumentCaptor<Bloco> remontado = ArgumentCaptor.forClass(Bloco.class);
+        verify(noDestino).processarNovoBloco(remontado.capture(), eq("TSE-SP"));
+        assertThat(remontado.getValue().getHash()).isEqualTo(bloco.getHash());
+        assertThat(remontado.getValue().getRaizMerkle()).isEqualTo(bloco.getRaizMerkle());
+        assertThat(destino.adicionarBlocoValidado(remontado.getValue())).isTrue();
+        assertThat(relayDestino.getReconstrucoesPendentes()).isZero();
+    }
+}
@@ -0,0 +1,243 @@
+package com.yagodaoud.VoxChain.blockchain.sync;
+
+import com.yagodaoud.VoxChain.blockchain.BlockchainGovernamental;
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.CabecalhoBloco;
+import com.yagodaoud.VoxChain.blockchain.No;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
+import com.yagodaoud.VoxChain.rede.MensagemP2P;
+import com.yagodaoud.VoxChain.rede.Peer;
+import com.yagodaoud.VoxChain.rede.TipoMensagem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes da Sincronização por Cabeçalhos")
+public class HeadersFirstSyncTest {
+
+    private static Bloco minerar(Bloco anterior, String minerador) {
+        Bloco bloco = new Bloco(anterior.getIndice() + 1, new ArrayList<>(), anterior.getHash(),
+                minerador, anterior.getTimestamp() + 1);
+        bloco.minerarBloco(2);
+        return bloco;
+    }
+
+    private static No mockNo(String id, BlockchainGovernamental blockchain, List<Peer> peers) {
+        No no = mock(No.class);
+        when(no.getId()).thenReturn(id);
+        when(no.getPeers()).thenReturn(peers);
+        when(no.getBlockchain()).thenReturn(blockchain);
+        doAnswer(inv -> {
+            blockchain.substituir(inv.getArgument(0));
+            return null;
+        }).when(no).sincronizarBlockchain(any());
+        return no;
+    }
+
+    /**
+     * Peer falso: cada requisição vira uma entrega na fila da rede, processada por {@link #entregar}.
+     */
+    private static Peer conectar(HeadersFirstSync local, HeadersFirstSync remoto, AtomicInteger blocosRecebidos,
+                                 Queue<Runnable> rede) {
+        return conectar(local, remoto, blocosRecebidos, rede, false);
+    }
+
+    /**
+     * @param adulterar troca as transações dos blocos enviados, mantendo o campo hash
+     */
+    private static Peer conectar(HeadersFirstSync local, HeadersFirstSync remoto, AtomicInteger blocosRecebidos,
+                                 Queue<Runnable> rede, boolean adulterar) {
+        Peer peer = mock(Peer.class);
+        when(peer.getId()).thenReturn(adulterar ? "ADULTERADOR" : "HONESTO");
+        when(peer.isConectado()).thenReturn(true);
+        doAnswer(inv -> {
+            MensagemP2P msg = inv.getArgument(0);
+            rede.add(() -> responder(peer, msg, local, remoto, blocosRecebidos, adulterar));
+            return null;
+        }).when(peer).enviar(any());
+        return peer;
+    }
+
+    private static void responder(Peer peer, MensagemP2P msg, HeadersFirstSync local, HeadersFirstSync remoto,
+                                  AtomicInteger blocosRecebidos, boolean adulterar) {
+        switch (msg.getTipo()) {
+            case REQUISITAR_PONTA:
+                local.processarPonta(peer, remoto.obterPonta());
+                break;
+            case REQUISITAR_CABECALHOS:
+                local.processarCabecalhos(peer, remoto.responderCabecalhos((HeadersFirstSync.Localizador) msg.getPayload()));
+                break;
+            case REQUISITAR_BLOCOS:
+                List<Bloco> blocos = remoto.responderBlocos((HeadersFirstSync.Faixa) msg.getPayload());
+                blocosRecebidos.addAndGet(blocos.size());
+                if (adulterar) {
+                    List<Bloco> adulterados = new ArrayList<>();
+                    for (Bloco b : blocos) {
+                        Transacao falsa = new Transacao(TipoTransacao.AUDITORIA, "falsa", "INTRUSO");
+                        adulterados.add(Bloco.reconstruir(b.getIndice(), b.getTimestamp(), List.of(falsa),
+                                b.getHashAnterior(), b.getHash(), b.getNonce(), b.getMineradoPor(),
+                                b.getAssinaturaMinerador()));
+                    }
+                    blocos = adulterados;
+                }
+                local.processarBlocos(peer, blocos);
+                break;
+            default:
+                fail("Mensagem inesperada: " + msg.getTipo());
+        }
+    }
+
+    private static void entregar(Queue<Runnable> rede) {
+        while (!rede.isEmpty()) {
+            rede.poll().run();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve baixar só os blocos que faltam, distribuídos entre os peers")
+    void deveBaixarSoOsBlocosQueFaltam() {
+        BlockchainGovernamental local = new BlockchainGovernamental(2, 5);
+        BlockchainGovernamental remota = new BlockchainGovernamental(2, 5);
+        for (int i = 0; i < 150; i++) {
+            Bloco bloco = minerar(remota.obterUltimoBloco(), "TSE-SP");
+            remota.adicionarBlocoValidado(bloco);
+            if (i < 20) {
+                local.adicionarBlocoValidado(bloco);
+            }
+        }
+
+        List<Peer> peers = new ArrayList<>();
+        Queue<Runnable> rede = new ArrayDeque<>();
+        HeadersFirstSync syncLocal = new HeadersFirstSync(mockNo("TSE-RJ", local, peers));
+        AtomicInteger[] blocosPorPeer = new AtomicInteger[3];
+        for (int i = 0; i < 3; i++) {
+            blocosPorPeer[i] = new AtomicInteger();
+            HeadersFirstSync syncRemoto = new HeadersFirstSync(mockNo("TSE-SP", remota, new ArrayList<>()));
+            peers.add(conectar(syncLocal, syncRemoto, blocosPorPeer[i], rede));
+        }
+        syncLocal.requisitarPonta(peers.get(0));
+        entregar(rede);
+
+        assertThat(local.getTamanho()).isEqualTo(151);
+        assertThat(local.obterUltimoBloco().getHash()).isEqualTo(remota.obterUltimoBloco().getHash());
+        assertThat(blocosPorPeer[0].get() + blocosPorPeer[1].get() + blocosPorPeer[2].get()).isEqualTo(130);
+        assertThat(blocosPorPeer).allSatisfy(contador -> assertThat(contador.get()).isPositive());
+        assertThat(syncLocal.emAndamento()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve substituir apenas o ramo divergente em caso de fork")
+    void deveSubstituirORamoDivergente() {
+        BlockchainGovernamental local = new BlockchainGovernamental(2, 5);
+        BlockchainGovernamental remota = new BlockchainGovernamental(2, 5);
+        for (int i = 0; i < 10; i++) {
+            Bloco bloco = minerar(remota.obterUltimoBloco(), "TSE-SP");
+            remota.adicionarBlocoValidado(bloco);
+            local.adicionarBlocoValidado(bloco);
+        }
+        for (int i = 0; i < 3; i++) {
+            local.adicionarBlocoValidado(minerar(local.obterUltimoBloco(), "TSE-RJ"));
+        }
+        for (int i = 0; i < 5; i++) {
+            remota.adicionarBlocoValidado(minerar(remota.obterUltimoBloco(), "TSE-SP"));
+        }
+
+        List<Peer> peers = new ArrayList<>();
+        HeadersFirstSync syncLocal = new HeadersFirstSync(mockNo("TSE-RJ", local, peers));
+        HeadersFirstSync syncRemoto = new HeadersFirstSync(mockNo("TSE-SP", remota, new ArrayList<>()));
+        AtomicInteger blocosRecebidos = new AtomicInteger();
+        Queue<Runnable> rede = new ArrayDeque<>();
+        peers.add(conectar(syncLocal, syncRemoto, blocosRecebidos, rede));
+        syncLocal.requisitarPonta(peers.get(0));
+        entregar(rede);
+
+        assertThat(local.getTamanho()).isEqualTo(16);
+        assertThat(local.obterUltimoBloco().getHash()).isEqualTo(remota.obterUltimoBloco().getHash());
+        assertThat(blocosRecebidos.get()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("Blocos adulterados devem ser recusados e a faixa pedida a outro peer")
+    void deveRepedirFaixaAdulteradaAOutroPeer() {
+        BlockchainGovernamental local = new BlockchainGovernamental(2, 5);
+        BlockchainGovernamental remota = new BlockchainGovernamental(2, 5);
+        for (int i = 0; i < 100; i++) {
+            remota.adicionarBlocoValidado(minerar(remota.obterUltimoBloco(), "TSE-SP"));
+        }
+
+        List<Peer> peers = new ArrayList<>();
+        Queue<Runnable> rede = new ArrayDeque<>();
+        HeadersFirstSync syncLocal = new HeadersFirstSync(mockNo("TSE-RJ", local, peers));
+        HeadersFirstSync syncRemoto = new HeadersFirstSync(mockNo("TSE-SP", remota, new ArrayList<>()));
+        AtomicInteger doAdulterador = new AtomicInteger();
+        AtomicInteger doHonesto = new AtomicInteger();
+        peers.add(conectar(syncLocal, syncRemoto, doAdulterador, rede, true));
+        peers.add(conectar(syncLocal, syncRemoto, doHonesto, rede, false));
+        syncLocal.requisitarPonta(peers.get(0));
+        entregar(rede);
+
+        assertThat(doAdulterador.get()).isPositive();
+        assertThat(local.getTamanho()).isEqualTo(remota.getTamanho());
+        assertThat(local.obterUltimoBloco().getHash()).isEqualTo(remota.obterUltimoBloco().getHash());
+        assertThat(local.getBloco(50).getTransacoes()).isEmpty();
+        assertThat(syncLocal.emAndamento()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve limitar os cabeçalhos por rodada e continuar da nova ponta")
+    void deveLimitarCabecalhosPorRodada() {
+        BlockchainGovernamental local = new BlockchainGovernamental(2, 5);
+        BlockchainGovernamental remota = new BlockchainGovernamental(2, 5);
+        for (int i = 0; i < 120; i++) {
+            remota.adicionarBlocoValidado(minerar(remota.obterUltimoBloco(), "TSE-SP"));
+        }
+
+        List<Peer> peers = new ArrayList<>();
+        Queue<Runnable> rede = new ArrayDeque<>();
+        HeadersFirstSync syncLocal = new HeadersFirstSync(mockNo("TSE-RJ", local, peers), 50);
+        HeadersFirstSync syncRemoto = new HeadersFirstSync(mockNo("TSE-SP", remota, new ArrayList<>()));
+        peers.add(conectar(syncLocal, syncRemoto, new AtomicInteger(), rede));
+        syncLocal.requisitarPonta(peers.get(0));
+        entregar(rede);
+
+        assertThat(local.getTamanho()).isEqualTo(remota.getTamanho());
+        assertThat(local.obterUltimoBloco().getHash()).isEqualTo(remota.obterUltimoBloco().getHash());
+        // Três rodadas de até 50 cabeçalhos, cada uma seguida de um pedido de ponta
+        verify(peers.get(0), times(3)).enviar(argThat(m -> m.getTipo() == TipoMensagem.REQUISITAR_CABECALHOS));
+    }
+
+    @Test
+    @DisplayName("Mensagens malformadas devem ser ignoradas sem derrubar o handler")
+    void deveIgnorarMensagensMalformadas() {
+        BlockchainGovernamental local = new BlockchainGovernamental(2, 5);
+        HeadersFirstSync sync = new HeadersFirstSync(mockNo("TSE-RJ", local, new ArrayList<>()));
+
+        assertThat(sync.responderCabecalhos(null)).isEmpty();
+        assertThat(sync.responderCabecalhos(new HeadersFirstSync.Localizador(new ArrayList<>(), 0))).isEmpty();
+        assertThat(sync.responderBlocos(null)).isEmpty();
+
+        Peer peer = mock(Peer.class);
+        when(peer.getId()).thenReturn("MALICIOSO");
+        sync.sincronizarCom(peer);
+        List<CabecalhoBloco> comNulo = new ArrayList<>();
+        comNulo.add(null);
+        sync.processarCabecalhos(peer, comNulo);
+        assertThat(sync.emAndamento()).isFalse();
+
+        sync.sincronizarCom(peer);
+        sync.processarCabecalhos(peer, null);
+        assertThat(sync.emAndamento()).isFalse();
+        assertThat(local.getTamanho()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,131 @@
+package com.yagodaoud.VoxChain.blockchain.sync;
+
+import com.yagodaoud.VoxChain.blockchain.BlockchainGovernamental;
+import com.yagodaoud.VoxChain.blockchain.No;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.modelo.Voto;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
+import com.yagodaoud.VoxChain.rede.MensagemP2P;
+import com.yagodaoud.VoxChain.rede.Peer;
+import com.yagodaoud.VoxChain.rede.TipoMensagem;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes da Propagação por Inventário")
+public class InventoryRelayTest {
+
+    private static No mockNo(String id, BlockchainGovernamental blockchain, List<Peer> peers) {
+        No no = mock(No.class);
+        when(no.getId()).thenReturn(id);
+        when(no.getPeers()).thenReturn(peers);
+        when(no.getBlockchain()).thenReturn(blockchain);
+        return no;
+    }
+
+    private static Peer mockPeer(String id, List<MensagemP2P> enviadas) {
+        Peer peer = mock(Peer.class);
+        when(peer.getId()).thenReturn(id);
+        when(peer.isConectado()).thenReturn(true);
+        doAnswer(inv -> enviadas.add(inv.getArgument(0))).when(peer).enviar(any());
+        return peer;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<InventoryRelay.Item> itens(MensagemP2P msg) {
+        return (List<InventoryRelay.Item>) msg.getPayload();
+    }
+
+    @Test
+    @DisplayName("Deve anunciar só o ID e enviar o corpo uma vez por enlace, a quem pedir")
+    void deveEnviarCorpoSoAQuemPedir() {
+        BlockchainGovernamental origem = new BlockchainGovernamental(2, 5);
+        BlockchainGovernamental destino = new BlockchainGovernamental(2, 5);
+        Transacao t = new Transacao(TipoTransacao.VOTO,
+                new Voto("123", "Candidato1", "Tipo1", "Eleicao1"), "TSE-SP");
+        origem.adicionarAoPool(t);
+
+        // Origem -> destino
+        List<MensagemP2P> paraDestino = new ArrayList<>();
+        Peer destinoVistoPelaOrigem = mockPeer("TSE-RJ", paraDestino);
+        InventoryRelay relayOrigem = new InventoryRelay(
+                mockNo("TSE-SP", origem, Arrays.asList(destinoVistoPelaOrigem)));
+
+        assertThat(relayOrigem.anunciarTransacao(t, "TSE-SP")).isEqualTo(1);
+        assertThat(relayOrigem.anunciarTransacao(t, "TSE-SP")).isZero(); // Destino já conhece
+        assertThat(paraDestino).hasSize(1);
+        assertThat(paraDestino.get(0).getTipo()).isEqualTo(TipoMensagem.INV);
+
+        // Destino pede ao primeiro peer que anunciou; o segundo anúncio não gera outro pedido
+        List<MensagemP2P> paraOrigem = new ArrayList<>();
+        List<MensagemP2P> paraOutro = new ArrayList<>();
+        Peer origemVistaPeloDestino = mockPeer("TSE-SP", paraOrigem);
+        Peer outro = mockPeer("TSE-MG", paraOutro);
+        InventoryRelay relayDestino = new InventoryRelay(
+                mockNo("TSE-RJ", destino, Arrays.asList(origemVistaPeloDestino, outro)));
+
+        relayDestino.processarAnuncio(origemVistaPeloDestino, itens(paraDestino.get(0)));
+        relayDestino.processarAnuncio(outro, itens(paraDestino.get(0)));
+        assertThat(paraOrigem).extracting(MensagemP2P::getTipo).containsExactly(TipoMensagem.GETDATA);
+        assertThat(paraOutro).isEmpty();
+        assertThat(relayDestino.getPedidosPendentes()).isEqualTo(1);
+
+        relayOrigem.responderPedido(destinoVistoPelaOrigem, itens(paraOrigem.get(0)));
+        assertThat(paraDestino).hasSize(2);
+        assertThat(paraDestino.get(1).getTipo()).isEqualTo(TipoMensagem.NOVA_TRANSACAO);
+        assertThat(((Transacao) paraDestino.get(1).getPayload()).getId()).isEqualTo(t.getId());
+
+        // Ao receber, nada é reanunciado a quem já tem o item
+        relayDestino.recebido(origemVistaPeloDestino, t.getId());
+        destino.adicionarAoPool((Transacao) paraDestino.get(1).getPayload());
+        assertThat(relayDestino.anunciarTransacao(t, "TSE-SP")).isZero();
+        assertThat(relayDestino.getPedidosPendentes()).isZero();
+    }
+
+    @Test
+    @DisplayName("Sem resposta no prazo, deve pedir o item ao próximo peer que o anunciou")
+    void devePedirAoProximoAnuncianteNoTimeout() {
+        BlockchainGovernamental destino = new BlockchainGovernamental(2, 5);
+        List<MensagemP2P> paraPrimeiro = new ArrayList<>();
+        List<MensagemP2P> paraSegundo = new ArrayList<>();
+        List<MensagemP2P> paraTerceiro = new ArrayList<>();
+        Peer primeiro = mockPeer("TSE-SP", paraPrimeiro);
+        Peer segundo = mockPeer("TSE-MG", paraSegundo);
+        Peer terceiro = mockPeer("TSE-BA", paraTerceiro);
+        InventoryRelay relay = new InventoryRelay(
+                mockNo("TSE-RJ", destino, Arrays.asList(primeiro, segundo, terceiro)));
+
+        List<InventoryRelay.Item> anuncio = List.of(
+                new InventoryRelay.Item(InventoryRelay.Item.Tipo.TRANSACAO, "tx-1"));
+        relay.processarAnuncio(primeiro, anuncio);
+        relay.processarAnuncio(segundo, anuncio);
+        relay.processarAnuncio(terceiro, anuncio);
+        assertThat(paraPrimeiro).hasSize(1);
+        assertThat(paraSegundo).isEmpty();
+
+        // Dentro do prazo nada muda
+        long agora = System.currentTimeMillis();
+        relay.expirar(agora);
+        assertThat(paraSegundo).isEmpty();
+
+        // O primeiro não respondeu; o segundo desconectou: o pedido vai ao terceiro
+        when(segundo.isConectado()).thenReturn(false);
+        relay.expirar(agora + InventoryRelay.TIMEOUT_PEDIDO_MS);
+        assertThat(paraSegundo).isEmpty();
+        assertThat(paraTerceiro).extracting(MensagemP2P::getTipo).containsExactly(TipoMensagem.GETDATA);
+        assertThat(itens(paraTerceiro.get(0))).extracting(InventoryRelay.Item::getId).containsExactly("tx-1");
+        assertThat(relay.getPedidosPendentes()).isEqualTo(1);
+
+        // Sem mais anunciantes, o pedido é esquecido
+        relay.expirar(agora + 2 * InventoryRelay.TIMEOUT_PEDIDO_MS);
+        assertThat(relay.getPedidosPendentes()).isZero();
+        assertThat(paraPrimeiro).hasSize(1);
+    }
+}
@@ -86,4 +86,15 @@ class TransacaoTest {
         assertThat(t.getIdOrigem()).isNull();
         assertThat(t.getTimestamp()).isEqualTo(0);
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("Payload deve ser decodificado uma vez e reaproveitado")
+    void payloadDeveSerDecodificadoUmaVez() {
+        Transacao t = new Transacao(TipoTransacao.VOTO, new Voto("123", "13", "Tipo1", "Eleicao1"), "TSE-SP");
+
+        Voto primeiro = t.getPayloadAs(Voto.class);
+
+        assertThat(primeiro.getIdCandidato()).isEqualTo("13");
+        assertThat(t.getPayloadAs(Voto.class)).isSameAs(primeiro);
+    }
+}
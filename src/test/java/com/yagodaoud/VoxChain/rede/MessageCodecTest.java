@@ -0,0 +1,79 @@
+package com.yagodaoud.VoxChain.rede;
+
+import com.yagodaoud.VoxChain.blockchain.Bloco;
+import com.yagodaoud.VoxChain.blockchain.CabecalhoBloco;
+import com.yagodaoud.VoxChain.modelo.Transacao;
+import com.yagodaoud.VoxChain.modelo.Voto;
+import com.yagodaoud.VoxChain.modelo.enums.TipoTransacao;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Testes do Protocolo Binário entre Peers")
+public class MessageCodecTest {
+
+    private static MensagemP2P idaEVolta(MensagemP2P msg) throws IOException {
+        byte[] quadro = MessageCodec.codificar(msg);
+        return MessageCodec.ler(new DataInputStream(new ByteArrayInputStream(quadro)));
+    }
+
+    @Test
+    @DisplayName("Deve codificar e decodificar blocos, transações e cabeçalhos")
+    void deveFazerIdaEVolta() throws IOException {
+        Transacao t = new Transacao(TipoTransacao.VOTO,
+                new Voto("123", "Candidato1", "Tipo1", "Eleicao1"), "ANONIMO");
+        Bloco bloco = new Bloco(1, List.of(t), "0".repeat(64), "TSE-SP", 1700000001000L);
+        bloco.minerarBloco(2);
+
+        MensagemP2P novoBloco = idaEVolta(new MensagemP2P(TipoMensagem.NOVO_BLOCO, bloco, "TSE-SP"));
+        Bloco recebido = (Bloco) novoBloco.getPayload();
+        assertThat(novoBloco.getRemetente()).isEqualTo("TSE-SP");
+        assertThat(recebido.getHash()).isEqualTo(bloco.getHash());
+        assertThat(recebido.calcularHash()).isEqualTo(bloco.getHash());
+        assertThat(recebido.getTransacoes().get(0).getId()).isEqualTo(t.getId());
+
+        MensagemP2P transacao = idaEVolta(new MensagemP2P(TipoMensagem.NOVA_TRANSACAO, t, "TSE-SP"));
+        assertThat(((Transacao) transacao.getPayload()).getPayloadJson()).isEqualTo(t.getPayloadJson());
+
+        MensagemP2P cabecalhos = idaEVolta(new MensagemP2P(TipoMensagem.RESPOSTA_CABECALHOS,
+                List.of(CabecalhoBloco.de(bloco)), "TSE-SP"));
+        CabecalhoBloco cabecalho = (CabecalhoBloco) ((List<?>) cabecalhos.getPayload()).get(0);
+        assertThat(cabecalho.isValido(2)).isTrue();
+        assertThat(cabecalho.corresponde(bloco)).isTrue();
+
+        MensagemP2P ping = idaEVolta(new MensagemP2P(TipoMensagem.PING, null, "TSE-SP"));
+        assertThat(ping.getTipo()).isEqualTo(TipoMensagem.PING);
+        assertThat(ping.getPayload()).isNull();
+    }
+
+    @Test
+    @DisplayName("Deve rejeitar quadro acima do tamanho máximo sem alocar o buffer")
+    void deveRejeitarQuadroGrandeDemais() {
+        byte[] cabecalho = {0x7F, 0x00, 0x00, 0x00, 1};
+        assertThatThrownBy(() -> MessageCodec.ler(new DataInputStream(new ByteArrayInputStream(cabecalho))))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Tamanho de quadro inválido");
+    }
+
+    @Test
+    @DisplayName("Deve recusar os pedidos obsoletos de cadeia inteira")
+    @SuppressWarnings("deprecation")
+    void deveRecusarMensagensObsoletas() {
+        assertThatThrownBy(() -> MessageCodec.codificar(
+                new MensagemP2P(TipoMensagem.REQUISITAR_BLOCKCHAIN, null, "TSE-SP")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        // Quadro de PING com o tipo trocado, como mandaria um peer antigo ou malicioso
+        byte[] quadro = MessageCodec.codificar(new MensagemP2P(TipoMensagem.PING, null, "TSE-SP"));
+        quadro[Integer.BYTES + 1] = (byte) TipoMensagem.RESPOSTA_BLOCKCHAIN.ordinal();
+        assertThatThrownBy(() -> MessageCodec.ler(new DataInputStream(new ByteArrayInputStream(quadro))))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("obsoleto");
+    }
+}
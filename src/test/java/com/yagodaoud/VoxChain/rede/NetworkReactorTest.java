@@ -0,0 +1,85 @@
+package com.yagodaoud.VoxChain.rede;
+
+import com.yagodaoud.VoxChain.blockchain.No;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes do Transporte de Rede")
+public class NetworkReactorTest {
+
+    private No no;
+    private NetworkReactor reactor;
+    private ServerSocket servidor;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        no = mock(No.class);
+        when(no.getId()).thenReturn("TSE-TESTE");
+        reactor = new NetworkReactor(no);
+        servidor = new ServerSocket(0, 1, InetAddress.getLoopbackAddress());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        reactor.parar();
+        servidor.close();
+    }
+
+    @Test
+    @DisplayName("Deve remontar quadros que chegam fragmentados, grandes e colados")
+    void deveRemontarQuadrosFragmentados() throws Exception {
+        reactor.conectar("127.0.0.1", servidor.getLocalPort(), "remoto");
+
+        try (Socket remoto = servidor.accept()) {
+            remoto.setSoTimeout(5000);
+            verify(no, timeout(5000)).peerConectado(any(Peer.class), eq(true));
+
+            // Maior que o buffer de leitura, para forçar o crescimento do buffer
+            List<PeerDiscovery.PeerInfo> catalogo = new ArrayList<>();
+            for (int i = 0; i < 5000; i++) {
+                catalogo.add(new PeerDiscovery.PeerInfo("TSE-" + i, "10.0.0." + (i % 250), 8000 + i));
+            }
+            byte[] grande = MessageCodec.codificar(new MensagemP2P(TipoMensagem.RESPOSTA_PEERS, catalogo, "remoto"));
+            byte[] ping = MessageCodec.codificar(new MensagemP2P(TipoMensagem.PING, null, "remoto"));
+            assertThat(grande.length).isGreaterThan(64 * 1024);
+
+            ByteArrayOutputStream fluxo = new ByteArrayOutputStream();
+            fluxo.write(ping);
+            fluxo.write(grande);
+            fluxo.write(ping);
+            byte[] bytes = fluxo.toByteArray();
+
+            // Corta no meio do campo de tamanho, no meio do quadro grande e cola o último PING
+            int[] cortes = {2, ping.length + 10, ping.length + grande.length / 2, bytes.length};
+            OutputStream saida = remoto.getOutputStream();
+            int inicio = 0;
+            for (int corte : cortes) {
+                saida.write(Arrays.copyOfRange(bytes, inicio, corte));
+                saida.flush();
+                inicio = corte;
+                Thread.sleep(50);
+            }
+
+            DataInputStream entrada = new DataInputStream(remoto.getInputStream());
+            assertThat(MessageCodec.ler(entrada).getTipo()).isEqualTo(TipoMensagem.PONG);
+            assertThat(MessageCodec.ler(entrada).getTipo()).isEqualTo(TipoMensagem.PONG);
+            verify(no, timeout(5000)).atualizarCatalogoPeers(argThat(lista -> lista.size() == catalogo.size()));
+        }
+    }
+}
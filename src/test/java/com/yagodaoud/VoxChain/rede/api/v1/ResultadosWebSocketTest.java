@@ -0,0 +1,75 @@
+package com.yagodaoud.VoxChain.rede.api.v1;
+
+import com.yagodaoud.VoxChain.blockchain.BlockchainGovernamental;
+import org.eclipse.jetty.websocket.api.RemoteEndpoint;
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.UpgradeRequest;
+import org.eclipse.jetty.websocket.api.WriteCallback;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("Testes dos Resultados ao Vivo")
+public class ResultadosWebSocketTest {
+
+    private final AtomicLong versao = new AtomicLong(1);
+    private final AtomicReference<Map<String, Integer>> votos = new AtomicReference<>(Map.of("13", 2));
+    private ResultadosWebSocket resultados;
+
+    @BeforeEach
+    void setUp() {
+        BlockchainGovernamental blockchain = mock(BlockchainGovernamental.class);
+        when(blockchain.getVersaoApuracao("ELEICAO-1")).thenAnswer(inv -> versao.get());
+        when(blockchain.apurarVotos("ELEICAO-1")).thenAnswer(inv -> votos.get());
+        resultados = new ResultadosWebSocket(blockchain);
+        resultados.iniciar(20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        resultados.parar();
+    }
+
+    private static RemoteEndpoint conectar(ResultadosWebSocket resultados) {
+        UpgradeRequest requisicao = mock(UpgradeRequest.class);
+        when(requisicao.getParameterMap()).thenReturn(Map.of("eleicaoId", List.of("ELEICAO-1")));
+        RemoteEndpoint remoto = mock(RemoteEndpoint.class);
+        Session sessao = mock(Session.class);
+        when(sessao.getUpgradeRequest()).thenReturn(requisicao);
+        when(sessao.isOpen()).thenReturn(true);
+        when(sessao.getRemote()).thenReturn(remoto);
+        resultados.aoConectar(sessao);
+        return remoto;
+    }
+
+    @Test
+    @DisplayName("Deve enviar snapshot ao assinar, delta após um bloco e nada sem alteração")
+    void deveEnviarSnapshotEDeltas() throws Exception {
+        RemoteEndpoint remoto = conectar(resultados);
+        verify(remoto, timeout(2000)).sendString(
+                argThat(m -> m.contains("\"tipo\":\"snapshot\"") && m.contains("\"13\":2")), any(WriteCallback.class));
+
+        // Vários ciclos sem mudança de versão: nenhuma mensagem nova
+        Thread.sleep(200);
+        verify(remoto, times(1)).sendString(anyString(), any(WriteCallback.class));
+
+        // Um bloco altera a apuração: só os candidatos alterados vão no delta
+        votos.set(Map.of("13", 2, "22", 1));
+        versao.set(2);
+        verify(remoto, timeout(2000)).sendString(
+                argThat(m -> m.contains("\"tipo\":\"delta\"") && m.contains("\"22\":1") && !m.contains("\"13\"")
+                        && m.contains("\"totalVotos\":3")), any(WriteCallback.class));
+
+        Thread.sleep(200);
+        verify(remoto, times(2)).sendString(anyString(), any(WriteCallback.class));
+    }
+}